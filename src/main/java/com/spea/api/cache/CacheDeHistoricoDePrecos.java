@@ -0,0 +1,78 @@
+package com.spea.api.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Guarda o histórico de preços de cada insumo já consultado, para que o custo em uma data passada seja só uma busca
+ * binária por insumo. O histórico só cresce: a série do insumo é descartada quando ele é atualizado e lida de novo
+ * por inteiro na próxima consulta. Cada preço ocupa três longs. Há limite de quantidade de séries, e as dos insumos
+ * menos consultados saem primeiro.
+ */
+@Component
+public class CacheDeHistoricoDePrecos {
+
+    private final Map<Long, SerieDePrecos> series = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @Value("${spea.cache-historico-precos.quantidade-maxima:10000}")
+    private Integer quantidadeMaxima = 10000;
+
+    public Optional<SerieDePrecos> obterSerie(Long insumoId) {
+        synchronized (series) {
+            return Optional.ofNullable(series.get(insumoId));
+        }
+    }
+
+    /**
+     * A versão deve ser lida antes da consulta: séries lidas enquanto algum insumo era alterado não são guardadas.
+     */
+    public void armazenarSeries(Map<Long, SerieDePrecos> seriesLidas, Long versao) {
+        synchronized (series) {
+            if (versao.longValue() != contadorDeAlteracoes.obterVersao(TabelaMonitorada.INSUMOS)) {
+                return;
+            }
+            series.putAll(seriesLidas);
+
+            Iterator<SerieDePrecos> maisAntigas = series.values().iterator();
+            while (series.size() > quantidadeMaxima && maisAntigas.hasNext()) {
+                maisAntigas.next();
+                maisAntigas.remove();
+            }
+        }
+    }
+
+    public void invalidarInsumo(Long id) {
+        remover(id);
+
+        // Uma leitura concorrente pode guardar a série anterior ao commit, por isso ela é removida de novo.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remover(id);
+                }
+            });
+        }
+    }
+
+    public Long obterVersao() {
+        return contadorDeAlteracoes.obterVersao(TabelaMonitorada.INSUMOS);
+    }
+
+    private void remover(Long id) {
+        synchronized (series) {
+            series.remove(id);
+        }
+    }
+}
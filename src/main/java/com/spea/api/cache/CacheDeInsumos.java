@@ -0,0 +1,138 @@
+package com.spea.api.cache;
+
+import com.spea.api.dtos.EstatisticasDoCacheDto;
+import com.spea.api.dtos.InsumoDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Guarda os insumos lidos pelo id, com limite de quantidade (os menos acessados saem primeiro) e tempo de vida.
+ * Só insumos existentes são guardados: um id sem insumo ainda pode ser criado pela sequência.
+ * Atualizações e deleções removem o insumo na hora e de novo quando a transação termina.
+ */
+@Component
+public class CacheDeInsumos {
+
+    private final Map<Long, InsumoEmCache> insumos = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong faltas = new AtomicLong();
+    private final AtomicLong remocoesPorTamanho = new AtomicLong();
+    private final AtomicLong remocoesPorTempo = new AtomicLong();
+    private final AtomicLong invalidacoes = new AtomicLong();
+
+    @Autowired
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @Value("${spea.cache-insumos.quantidade-maxima:10000}")
+    private Integer quantidadeMaxima = 10000;
+
+    @Value("${spea.cache-insumos.tempo-de-vida-ms:300000}")
+    private Long tempoDeVidaMs = 300000L;
+
+    public Optional<InsumoDto> obterInsumo(Long id) {
+        long agora = System.currentTimeMillis();
+
+        synchronized (insumos) {
+            InsumoEmCache insumoEmCache = insumos.get(id);
+
+            if (isNull(insumoEmCache)) {
+                faltas.incrementAndGet();
+                return Optional.empty();
+            }
+            if (agora - insumoEmCache.armazenadoEm() >= tempoDeVidaMs) {
+                insumos.remove(id);
+                remocoesPorTempo.incrementAndGet();
+                faltas.incrementAndGet();
+                return Optional.empty();
+            }
+
+            acertos.incrementAndGet();
+            return Optional.of(copiar(insumoEmCache.insumoDto()));
+        }
+    }
+
+    /**
+     * A versão deve ser lida antes da consulta: um insumo lido enquanto outro era alterado não é guardado.
+     */
+    public void armazenarInsumo(InsumoDto insumoDto, Long versao) {
+        synchronized (insumos) {
+            if (versao.longValue() != contadorDeAlteracoes.obterVersao(TabelaMonitorada.INSUMOS)) {
+                return;
+            }
+
+            insumos.put(insumoDto.getId(), new InsumoEmCache(copiar(insumoDto), System.currentTimeMillis()));
+
+            Iterator<InsumoEmCache> maisAntigos = insumos.values().iterator();
+            while (insumos.size() > quantidadeMaxima && maisAntigos.hasNext()) {
+                maisAntigos.next();
+                maisAntigos.remove();
+                remocoesPorTamanho.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidarInsumo(Long id) {
+        remover(id);
+
+        // Uma leitura concorrente pode guardar o valor anterior ao commit, por isso o insumo é removido de novo.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remover(id);
+                }
+            });
+        }
+    }
+
+    public Long obterVersao() {
+        return contadorDeAlteracoes.obterVersao(TabelaMonitorada.INSUMOS);
+    }
+
+    public EstatisticasDoCacheDto obterEstatisticas() {
+        EstatisticasDoCacheDto estatisticas = new EstatisticasDoCacheDto();
+        synchronized (insumos) {
+            estatisticas.setTamanhoAtual((long) insumos.size());
+        }
+        estatisticas.setQuantidadeMaxima(quantidadeMaxima.longValue());
+        estatisticas.setTempoDeVidaMs(tempoDeVidaMs);
+        estatisticas.setAcertos(acertos.get());
+        estatisticas.setFaltas(faltas.get());
+        estatisticas.setRemocoesPorTamanho(remocoesPorTamanho.get());
+        estatisticas.setRemocoesPorTempo(remocoesPorTempo.get());
+        estatisticas.setInvalidacoes(invalidacoes.get());
+        return estatisticas;
+    }
+
+    private void remover(Long id) {
+        synchronized (insumos) {
+            if (!isNull(insumos.remove(id))) {
+                invalidacoes.incrementAndGet();
+            }
+        }
+    }
+
+    private InsumoDto copiar(InsumoDto insumoDto) {
+        InsumoDto copia = new InsumoDto();
+        copia.setId(insumoDto.getId());
+        copia.setNome(insumoDto.getNome());
+        copia.setQuantidadePorPacote(insumoDto.getQuantidadePorPacote());
+        copia.setValorPagoPorPacote(insumoDto.getValorPagoPorPacote());
+        return copia;
+    }
+
+    private record InsumoEmCache(InsumoDto insumoDto, long armazenadoEm) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.spea.api.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.spea.api.utils.StringUtil.normalizarEspacos;
+import static com.spea.api.utils.StringUtil.normalizarParaBusca;
+import static java.util.Objects.isNull;
+
+/**
+ * Guarda o resultado das consultas COUNT(*) das listagens por filtro normalizado.
+ * Cada total fica associado à versão da tabela no momento da consulta e deixa de valer após qualquer escrita.
+ * Ao atingir a quantidade máxima, saem primeiro os totais que já não valem e depois os menos acessados.
+ */
+@Component
+public class CacheDeTotais {
+
+    private final Map<String, TotalEmCache> totais = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @Value("${spea.cache-totais.quantidade-maxima:10000}")
+    private Integer quantidadeMaxima = 10000;
+
+    public Optional<Long> obterTotal(TabelaMonitorada tabela, String filtro) {
+        String chave = gerarChave(tabela, filtro);
+
+        synchronized (totais) {
+            TotalEmCache totalEmCache = totais.get(chave);
+
+            if (isNull(totalEmCache)) {
+                return Optional.empty();
+            }
+            if (totalEmCache.versao() != contadorDeAlteracoes.obterVersao(tabela)) {
+                totais.remove(chave);
+                return Optional.empty();
+            }
+            return Optional.of(totalEmCache.total());
+        }
+    }
+
+    /**
+     * A versão deve ser lida antes da consulta para que um total calculado durante uma escrita não seja reaproveitado.
+     */
+    public void armazenarTotal(TabelaMonitorada tabela, String filtro, Long versao, Long total) {
+        synchronized (totais) {
+            if (versao.longValue() != contadorDeAlteracoes.obterVersao(tabela)) {
+                return;
+            }
+
+            totais.put(gerarChave(tabela, filtro), new TotalEmCache(tabela, versao, total));
+            if (totais.size() <= quantidadeMaxima) {
+                return;
+            }
+
+            totais.values().removeIf(totalEmCache ->
+                    totalEmCache.versao() != contadorDeAlteracoes.obterVersao(totalEmCache.tabela()));
+
+            Iterator<TotalEmCache> maisAntigos = totais.values().iterator();
+            while (totais.size() > quantidadeMaxima && maisAntigos.hasNext()) {
+                maisAntigos.next();
+                maisAntigos.remove();
+            }
+        }
+    }
+
+    public Long obterVersao(TabelaMonitorada tabela) {
+        return contadorDeAlteracoes.obterVersao(tabela);
+    }
+
+    private String gerarChave(TabelaMonitorada tabela, String filtro) {
+        String filtroNormalizado = isNull(filtro) ? "" : normalizarParaBusca(normalizarEspacos(filtro));
+        return tabela.name() + ":" + filtroNormalizado;
+    }
+
+    private record TotalEmCache(TabelaMonitorada tabela, long versao, long total) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.spea.api.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantém uma versão por tabela, incrementada a cada escrita que a altera.
+ * Quem guarda algo em memória registra a versão lida antes da consulta e descarta o valor quando ela muda.
+ */
+@Component
+public class ContadorDeAlteracoes {
+
+    private final Map<TabelaMonitorada, AtomicLong> versoes = new EnumMap<>(TabelaMonitorada.class);
+
+    public ContadorDeAlteracoes() {
+        for (TabelaMonitorada tabela : TabelaMonitorada.values()) {
+            versoes.put(tabela, new AtomicLong());
+        }
+    }
+
+    public void registrarAlteracao(TabelaMonitorada... tabelas) {
+        incrementar(tabelas);
+
+        // Uma leitura concorrente pode guardar um valor calculado antes do commit com a versão já incrementada,
+        // por isso a versão é incrementada de novo quando a transação termina.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    incrementar(tabelas);
+                }
+            });
+        }
+    }
+
+    public Long obterVersao(TabelaMonitorada tabela) {
+        return versoes.get(tabela).get();
+    }
+
+    private void incrementar(TabelaMonitorada... tabelas) {
+        for (TabelaMonitorada tabela : tabelas) {
+            versoes.get(tabela).incrementAndGet();
+        }
+    }
+}
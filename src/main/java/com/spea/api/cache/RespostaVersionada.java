@@ -0,0 +1,17 @@
+package com.spea.api.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um endpoint GET cuja resposta só muda quando alguma das tabelas informadas é alterada.
+ * O ETag da resposta é calculado a partir das versões dessas tabelas, sem consultar o banco.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RespostaVersionada {
+
+    TabelaMonitorada[] value();
+}
@@ -0,0 +1,69 @@
+package com.spea.api.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Responde 304 aos GETs marcados com {@link RespostaVersionada} quando o If-None-Match traz o ETag atual, antes de
+ * o controller chamar o banco. O ETag junta um identificador da instância (as versões recomeçam do zero a cada
+ * inicialização), a versão de cada tabela e um hash da URI com os parâmetros.
+ * O ETag é fraco: o envelope da resposta traz o horário em que foi gerada, e o Tomcat não comprime respostas com
+ * ETag forte.
+ */
+@Component
+public class RespostaVersionadaInterceptor implements HandlerInterceptor {
+
+    private final String identificadorDaInstancia = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    @Autowired
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RespostaVersionada respostaVersionada = handlerMethod.getMethodAnnotation(RespostaVersionada.class);
+        if (isNull(respostaVersionada)) {
+            return true;
+        }
+
+        // As versões são lidas antes da consulta: uma escrita que termine no meio da requisição muda o ETag seguinte,
+        // nunca marca dados antigos com a versão nova.
+        String etag = gerarEtag(respostaVersionada.value(), request);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        // Define o ETag na resposta e, se o If-None-Match for igual, o status 304.
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    String gerarEtag(TabelaMonitorada[] tabelas, HttpServletRequest request) {
+        StringBuilder etag = new StringBuilder("W/\"").append(identificadorDaInstancia);
+        for (TabelaMonitorada tabela : tabelas) {
+            etag.append('-').append(contadorDeAlteracoes.obterVersao(tabela));
+        }
+        return etag.append('-').append(calcularHashDaUri(request)).append('"').toString();
+    }
+
+    private String calcularHashDaUri(HttpServletRequest request) {
+        CRC32 crc = new CRC32();
+        crc.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+        if (!isNull(request.getQueryString())) {
+            crc.update('?');
+            crc.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+        return Long.toHexString(crc.getValue());
+    }
+}
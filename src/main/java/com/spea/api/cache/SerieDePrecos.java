@@ -0,0 +1,64 @@
+package com.spea.api.cache;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Histórico de preços de um insumo em vetores paralelos de long, ordenados pelo instante em que cada preço passou a
+ * valer: o instante em microssegundos, a quantidade por pacote em centésimos e o valor pago em centavos. O preço
+ * vigente em uma data é encontrado por busca binária, sem percorrer o histórico. Preços que passaram a valer no mesmo
+ * instante ficam na ordem em que foram incluídos, e vale o último.
+ */
+public final class SerieDePrecos {
+
+    private final long[] instantes;
+    private final long[] quantidadesPorPacote;
+    private final long[] valoresPagosPorPacote;
+
+    public SerieDePrecos(long[] instantes, long[] quantidadesPorPacote, long[] valoresPagosPorPacote) {
+        this.instantes = instantes;
+        this.quantidadesPorPacote = quantidadesPorPacote;
+        this.valoresPagosPorPacote = valoresPagosPorPacote;
+    }
+
+    /**
+     * Posição do último preço que passou a valer até o instante informado, ou -1 quando o insumo ainda não tinha preço.
+     */
+    public int localizarPrecoVigente(Instant instante) {
+        long chave = converterParaMicrossegundos(instante);
+
+        // Procura o primeiro preço posterior ao instante; o vigente é o anterior a ele.
+        int inicio = 0;
+        int fim = instantes.length;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (instantes[meio] <= chave) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio - 1;
+    }
+
+    public int obterQuantidadeDePrecos() {
+        return instantes.length;
+    }
+
+    public Instant obterVigenteDesde(int posicao) {
+        return Instant.EPOCH.plus(instantes[posicao], ChronoUnit.MICROS);
+    }
+
+    public Double obterQuantidadePorPacote(int posicao) {
+        return BigDecimal.valueOf(quantidadesPorPacote[posicao], 2).doubleValue();
+    }
+
+    public BigDecimal obterValorPagoPorPacote(int posicao) {
+        return BigDecimal.valueOf(valoresPagosPorPacote[posicao], 2);
+    }
+
+    public static long converterParaMicrossegundos(Instant instante) {
+        return Math.addExact(Math.multiplyExact(instante.getEpochSecond(), 1_000_000L), instante.getNano() / 1_000);
+    }
+}
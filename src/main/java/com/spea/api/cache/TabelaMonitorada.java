@@ -0,0 +1,13 @@
+package com.spea.api.cache;
+
+/**
+ * Tabelas cujas alterações invalidam informações mantidas em memória.
+ */
+public enum TabelaMonitorada {
+
+    INSUMOS,
+
+    RECEITAS,
+
+    RECEITA_INSUMO
+}
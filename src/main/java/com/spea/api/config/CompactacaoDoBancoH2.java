@@ -0,0 +1,64 @@
+package com.spea.api.config;
+
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static com.spea.api.utils.LogUtil.*;
+
+/**
+ * Compacta periodicamente o arquivo MVStore do perfil persistente. A compactação automática do H2 só age durante as
+ * gravações; esta tarefa reescreve, fora do horário de pico da escrita, os blocos do arquivo cujo preenchimento caiu
+ * abaixo da taxa configurada, limitada a uma quantidade de bytes por execução para não segurar o banco.
+ */
+@Component
+@Profile("persistente")
+public class CompactacaoDoBancoH2 {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${spea.h2.taxa-de-preenchimento-para-compactar:90}")
+    private Integer taxaDePreenchimentoParaCompactar;
+
+    @Value("${spea.h2.compactacao.maximo-de-bytes-por-execucao:67108864}")
+    private Integer maximoDeBytesPorExecucao;
+
+    @Scheduled(fixedDelayString = "${spea.h2.compactacao.intervalo-ms:3600000}",
+            initialDelayString = "${spea.h2.compactacao.intervalo-ms:3600000}")
+    public void compactar() {
+        try (Connection conexao = dataSource.getConnection()) {
+            MVStore mvStore = obterMvStore(conexao);
+            if (mvStore == null) {
+                return;
+            }
+
+            int preenchimentoAntes = mvStore.getFillRate();
+            logInicioDaCompactacaoDoBanco(preenchimentoAntes);
+
+            mvStore.compact(taxaDePreenchimentoParaCompactar, maximoDeBytesPorExecucao);
+
+            logSucessoAoCompactarBanco(preenchimentoAntes, mvStore.getFillRate());
+        } catch (Exception e) {
+            // Uma compactação que falha não afeta os dados; a próxima execução tenta de novo.
+            logErroInesperadoAoCompactarBanco(e);
+        }
+    }
+
+    // Só bancos embutidos em arquivo têm um MVStore a compactar.
+    private MVStore obterMvStore(Connection conexao) throws Exception {
+        JdbcConnection conexaoH2 = conexao.unwrap(JdbcConnection.class);
+        if (!(conexaoH2.getSession() instanceof SessionLocal sessao) || !sessao.getDatabase().isPersistent()) {
+            return null;
+        }
+        return sessao.getDatabase().getStore().getMvStore();
+    }
+}
@@ -0,0 +1,110 @@
+package com.spea.api.config;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita quantas conexões podem estar abertas ao mesmo tempo. Cada getConnection espera por uma permissão,
+ * devolvida quando a conexão é fechada. Com threads virtuais milhares de requisições podem pedir conexão ao mesmo
+ * tempo; a fila justa do semáforo as atende em ordem em vez de deixá-las disputando o pool.
+ */
+public class DataSourceComPermissoes extends DelegatingDataSource {
+
+    private final Semaphore permissoes;
+    private final Long tempoMaximoDeEsperaMs;
+
+    public DataSourceComPermissoes(DataSource dataSource, Integer quantidadeDePermissoes, Long tempoMaximoDeEsperaMs) {
+        super(dataSource);
+        this.permissoes = new Semaphore(quantidadeDePermissoes, true);
+        this.tempoMaximoDeEsperaMs = tempoMaximoDeEsperaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirirPermissao();
+        try {
+            return liberarPermissaoAoFechar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirirPermissao();
+        try {
+            return liberarPermissaoAoFechar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    public Integer obterPermissoesDisponiveis() {
+        return permissoes.availablePermits();
+    }
+
+    public Integer obterQuantidadeAguardandoPermissao() {
+        return permissoes.getQueueLength();
+    }
+
+    private void adquirirPermissao() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(tempoMaximoDeEsperaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(String
+                        .format("Nenhuma conexão com o banco foi liberada em %d ms.", tempoMaximoDeEsperaMs));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido enquanto aguardava uma conexão com o banco.", e);
+        }
+    }
+
+    // Como nos proxies de conexão do próprio Spring, equals e hashCode usam a identidade do proxy e
+    // getTargetConnection devolve a conexão original.
+    private Connection liberarPermissaoAoFechar(Connection conexao) {
+        AtomicBoolean liberada = new AtomicBoolean();
+
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, metodo, argumentos) -> {
+                    switch (metodo.getName()) {
+                        case "equals":
+                            return proxy == argumentos[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Conexão com permissão para " + conexao;
+                        case "getTargetConnection":
+                            return conexao;
+                        case "close":
+                            // Fechar de novo é permitido pelo JDBC e não faz nada; a permissão só volta uma vez.
+                            if (liberada.compareAndSet(false, true)) {
+                                try {
+                                    conexao.close();
+                                } finally {
+                                    permissoes.release();
+                                }
+                            }
+                            return null;
+                        default:
+                            try {
+                                return metodo.invoke(conexao, argumentos);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+}
@@ -0,0 +1,120 @@
+package com.spea.api.config;
+
+import com.spea.api.cache.TabelaMonitorada;
+import com.spea.api.metricas.ContadorDeSql;
+import com.spea.api.repositories.existencia.FiltrosDeExistencia;
+import com.spea.api.services.RecalculoDeCustosService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+@Configuration
+public class MetricasConfig {
+
+    public static final String METRICA_CACHE_DE_CONSULTAS = "spea.consultas.cache";
+    public static final String METRICA_FALSOS_POSITIVOS = "spea.existencia.falsos-positivos";
+    public static final String METRICA_FALSOS_POSITIVOS_ESTIMADOS = "spea.existencia.falsos-positivos-estimados";
+    public static final String METRICA_VERIFICACOES_DE_EXISTENCIA = "spea.existencia.verificacoes";
+    public static final String METRICA_INSUMOS_NA_FILA_DE_RECALCULO = "spea.recalculo-custos.insumos";
+    public static final String METRICA_FALHAS_DE_RECALCULO = "spea.recalculo-custos.falhas";
+
+    /**
+     * Registra o contador de instruções SQL no Hibernate para que o filtro de requisições saiba quantas
+     * consultas cada endpoint executou.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer contadorDeSqlCustomizer() {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorDeSql());
+    }
+
+    /**
+     * Acertos e falhas do cache de consultas preparadas do Hibernate (hibernate.generate_statistics), que guarda a
+     * interpretação de cada texto SQL nativo pelo próprio texto. Como as consultas dos repositórios têm texto fixo,
+     * as falhas devem parar de crescer depois que cada combinação de filtro e ordenação é usada uma vez. Consultas
+     * com parâmetros de lista, como o filtro por trigramas, não entram nesse cache.
+     */
+    @Bean
+    public MeterBinder cacheDeConsultasMeterBinder(EntityManagerFactory entityManagerFactory) {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        return registry -> {
+            FunctionCounter.builder(METRICA_CACHE_DE_CONSULTAS, estatisticas, Statistics::getQueryPlanCacheHitCount)
+                    .tag("resultado", "acerto")
+                    .description("Consultas encontradas no cache de consultas preparadas")
+                    .register(registry);
+            FunctionCounter.builder(METRICA_CACHE_DE_CONSULTAS, estatisticas, Statistics::getQueryPlanCacheMissCount)
+                    .tag("resultado", "falha")
+                    .description("Consultas interpretadas e adicionadas ao cache de consultas preparadas")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Por tabela: a taxa de falsos positivos observada (verificações de linhas inexistentes que o filtro deixou chegar
+     * ao banco), a estimada pela ocupação do filtro e as verificações recusadas, confirmadas e falsas positivas.
+     * Uma taxa estimada acima da configurada indica que o filtro deve ser dimensionado para mais linhas.
+     */
+    @Bean
+    public MeterBinder filtrosDeExistenciaMeterBinder(FiltrosDeExistencia filtrosDeExistencia) {
+        return registry -> {
+            for (TabelaMonitorada tabela : TabelaMonitorada.values()) {
+                String nomeDaTabela = tabela.name().toLowerCase(Locale.ROOT);
+
+                Gauge.builder(METRICA_FALSOS_POSITIVOS, filtrosDeExistencia,
+                                filtros -> filtros.obterTaxaDeFalsosPositivos(tabela))
+                        .tag("tabela", nomeDaTabela)
+                        .description("Fração das verificações de linhas inexistentes que chegaram ao banco")
+                        .register(registry);
+                Gauge.builder(METRICA_FALSOS_POSITIVOS_ESTIMADOS, filtrosDeExistencia,
+                                filtros -> filtros.obterTaxaEstimadaDeFalsosPositivos(tabela))
+                        .tag("tabela", nomeDaTabela)
+                        .description("Taxa de falsos positivos esperada para a ocupação atual do filtro")
+                        .register(registry);
+
+                FunctionCounter.builder(METRICA_VERIFICACOES_DE_EXISTENCIA, filtrosDeExistencia,
+                                filtros -> filtros.obterRejeicoes(tabela))
+                        .tags("tabela", nomeDaTabela, "resultado", "recusada")
+                        .register(registry);
+                FunctionCounter.builder(METRICA_VERIFICACOES_DE_EXISTENCIA, filtrosDeExistencia,
+                                filtros -> filtros.obterFalsosPositivos(tabela))
+                        .tags("tabela", nomeDaTabela, "resultado", "falso-positivo")
+                        .register(registry);
+                FunctionCounter.builder(METRICA_VERIFICACOES_DE_EXISTENCIA, filtrosDeExistencia,
+                                filtros -> filtros.obterConfirmacoes(tabela))
+                        .tags("tabela", nomeDaTabela, "resultado", "confirmada")
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Insumos pendentes e descartados da fila de recálculo do modo ASSINCRONO e o total de recálculos de um insumo
+     * que falharam. Um descartado indica receitas com o total desatualizado até o insumo ser alterado de novo.
+     */
+    @Bean
+    public MeterBinder filaDeRecalculoMeterBinder(RecalculoDeCustosService recalculoDeCustosService) {
+        return registry -> {
+            Gauge.builder(METRICA_INSUMOS_NA_FILA_DE_RECALCULO, recalculoDeCustosService,
+                            RecalculoDeCustosService::obterQuantidadeDeInsumosPendentes)
+                    .tag("situacao", "pendente")
+                    .register(registry);
+            Gauge.builder(METRICA_INSUMOS_NA_FILA_DE_RECALCULO, recalculoDeCustosService,
+                            RecalculoDeCustosService::obterQuantidadeDeInsumosDescartados)
+                    .tag("situacao", "descartado")
+                    .register(registry);
+            FunctionCounter.builder(METRICA_FALHAS_DE_RECALCULO, recalculoDeCustosService,
+                            RecalculoDeCustosService::obterTotalDeFalhas)
+                    .description("Recálculos de um insumo que terminaram com erro")
+                    .register(registry);
+        };
+    }
+}
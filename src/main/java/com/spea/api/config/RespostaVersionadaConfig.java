@@ -0,0 +1,22 @@
+package com.spea.api.config;
+
+import com.spea.api.cache.RespostaVersionadaInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class RespostaVersionadaConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RespostaVersionadaInterceptor respostaVersionadaInterceptor;
+
+    /**
+     * Verifica o If-None-Match dos endpoints marcados com @RespostaVersionada antes de chegar ao controller
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(respostaVersionadaInterceptor);
+    }
+}
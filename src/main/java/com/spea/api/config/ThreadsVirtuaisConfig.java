@@ -0,0 +1,35 @@
+package com.spea.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Ativa com spring.threads.virtual.enabled=true. O Spring Boot passa a atender as requisições do Tomcat (e, com
+ * elas, o acesso ao banco feito pelos repositórios) e as tarefas agendadas em threads virtuais; aqui o DataSource
+ * ganha o limite de conexões simultâneas de DataSourceComPermissoes.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadsVirtuaisConfig {
+
+    @Bean
+    public static BeanPostProcessor limiteDeConexoesPostProcessor(
+            @Value("${spea.datasource.permissoes:${spring.datasource.hikari.maximum-pool-size:10}}") Integer quantidadeDePermissoes,
+            @Value("${spea.datasource.tempo-maximo-de-espera-ms:30000}") Long tempoMaximoDeEsperaMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceComPermissoes)) {
+                    return new DataSourceComPermissoes(dataSource, quantidadeDePermissoes, tempoMaximoDeEsperaMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,16 +1,33 @@
 package com.spea.api.controllers;
 
 import com.spea.api.dtos.StandardObjectReturn;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 
+import static com.spea.api.services.ImportacaoDeInsumosService.FORMATO_CSV;
+
 @Component
 public class BaseController {
 
     protected ResponseEntity<StandardObjectReturn> createObjectReturn(Object object) {
         return ResponseEntity.ok().body(new StandardObjectReturn(Instant.now(), HttpStatus.CREATED.value(), null, object));
     }
+
+    protected void prepararRespostaDaExportacao(HttpServletResponse response, MediaType formato, String nomeDoArquivo) {
+        String extensao = FORMATO_CSV.equalsTypeAndSubtype(formato) ? ".csv" : ".ndjson";
+
+        response.setContentType(new MediaType(formato, StandardCharsets.UTF_8).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(nomeDoArquivo + extensao)
+                .build()
+                .toString());
+    }
 }
@@ -1,14 +1,28 @@
 package com.spea.api.controllers;
 
+import com.spea.api.cache.RespostaVersionada;
 import com.spea.api.dtos.InsumoDto;
+import com.spea.api.services.ExportacaoService;
+import com.spea.api.services.HistoricoDePrecosService;
+import com.spea.api.services.ImportacaoDeInsumosService;
 import com.spea.api.services.InsumoService;
+import com.spea.api.services.SimulacaoDePrecosService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static com.spea.api.cache.TabelaMonitorada.INSUMOS;
+
 @RestController
 @RequestMapping("/insumo")
 public class InsumoController extends BaseController{
@@ -16,6 +30,18 @@ public class InsumoController extends BaseController{
     @Autowired
     private InsumoService insumoService;
 
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private ImportacaoDeInsumosService importacaoDeInsumosService;
+
+    @Autowired
+    private HistoricoDePrecosService historicoDePrecosService;
+
+    @Autowired
+    private SimulacaoDePrecosService simulacaoDePrecosService;
+
     @Operation(summary = "Cadastra um novo insumo")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Insumo cadastrado com sucesso."),
@@ -26,14 +52,92 @@ public class InsumoController extends BaseController{
         return createObjectReturn(insumoService.cadastrarInsumo(insumoDto));
     }
 
+    @Operation(
+            summary = "Importa insumos em lote",
+            description = "Lê um corpo CSV (text/csv, com cabeçalho) ou NDJSON (application/x-ndjson, um insumo por linha) " +
+                    "e cadastra os insumos válidos em lotes. As linhas inválidas voltam no resultado sem interromper a importação.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação concluída, com os erros de cada linha."),
+            @ApiResponse(responseCode = "400", description = "Formato não suportado ou cabeçalho do CSV inválido.")
+    })
+    @PostMapping(value = "/importar", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importarInsumos(@RequestHeader(HttpHeaders.CONTENT_TYPE) String formato,
+                                             InputStream corpo) {
+        return createObjectReturn(importacaoDeInsumosService.importarInsumos(corpo, formato));
+    }
+
+    @Operation(
+            summary = "Exporta todos os insumos",
+            description = "Envia o catálogo inteiro de insumos em NDJSON ou CSV, conforme o cabeçalho Accept." +
+                    " As linhas são escritas à medida que são lidas do banco, sem paginação.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação enviada com sucesso."),
+            @ApiResponse(responseCode = "406", description = "O cabeçalho Accept não aceita NDJSON nem CSV.")
+    })
+    @GetMapping(value = "/exportar", produces = {"application/x-ndjson", "text/csv"})
+    public void exportarInsumos(@RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = "application/x-ndjson") String formatosAceitos,
+                                HttpServletResponse response) throws IOException {
+        MediaType formato = exportacaoService.definirFormatoDaExportacao(formatosAceitos);
+        prepararRespostaDaExportacao(response, formato, "insumos");
+        exportacaoService.exportarInsumos(formato, response.getOutputStream());
+    }
+
+    @RespostaVersionada(INSUMOS)
     @GetMapping("/lista")
     public ResponseEntity<?> obterListaFiltradaEPaginadaDeInsumos(@RequestParam(required = false) String nomeInsumo,
                                                                   @RequestParam(defaultValue = "0") Integer paginaAtual,
                                                                   @RequestParam(defaultValue = "asc") String direcao,
-                                                                  @RequestParam(defaultValue = "nomeInsumo") String ordenarPor) {
+                                                                  @RequestParam(defaultValue = "nomeInsumo") String ordenarPor,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "false") Boolean semTotal) {
+        if (cursor != null) {
+            return createObjectReturn(insumoService.obterListaFiltradaDeInsumosPorCursor(nomeInsumo, cursor, direcao, ordenarPor));
+        }
+        if (semTotal) {
+            return createObjectReturn(insumoService.obterListaFiltradaEPaginadaDeInsumosSemTotal(nomeInsumo, paginaAtual, direcao, ordenarPor));
+        }
         return createObjectReturn(insumoService.obterListaFiltradaEPaginadaDeInsumos(nomeInsumo, paginaAtual, direcao, ordenarPor));
     }
 
+    @Operation(
+            summary = "Obtém as estatísticas do cache de insumos",
+            description = "Retorna acertos, faltas, remoções por tamanho e por tempo de vida, invalidações e ocupação" +
+                    " do cache de insumos lidos pelo id, para dimensionar a quantidade máxima e o tempo de vida.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estatísticas obtidas com sucesso.")
+    })
+    @GetMapping("/cache/estatisticas")
+    public ResponseEntity<?> obterEstatisticasDoCacheDeInsumos() {
+        return createObjectReturn(insumoService.obterEstatisticasDoCacheDeInsumos());
+    }
+
+    @Operation(
+            summary = "Obtém o histórico de preços do insumo",
+            description = "Retorna, do mais antigo ao mais recente, cada preço e tamanho de pacote do insumo com o" +
+                    " instante em que passou a valer.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Histórico obtido com sucesso."),
+            @ApiResponse(responseCode = "400", description = "Insumo não encontrado.")
+    })
+    @GetMapping("/historico-precos/{id}")
+    public ResponseEntity<?> obterHistoricoDePrecosDoInsumo(@PathVariable(name = "id") Long id) {
+        return createObjectReturn(historicoDePrecosService.obterHistoricoDePrecosDoInsumo(id));
+    }
+
+    @Operation(
+            summary = "Simula novos preços de insumos",
+            description = "Recebe o id, a quantidade por pacote e o valor pago por pacote de cada insumo e retorna o total" +
+                    " atual, o total simulado e a diferença de cada receita afetada, inclusive pelas sub-receitas," +
+                    " da maior diferença para a menor. Nada é gravado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Simulação calculada com sucesso."),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou insumo não encontrado.")
+    })
+    @PostMapping("/simular-precos")
+    public ResponseEntity<?> simularPrecos(@RequestBody List<InsumoDto> precosSimulados) {
+        return createObjectReturn(simulacaoDePrecosService.simularPrecos(precosSimulados));
+    }
+
     @Operation(
             summary = "Atualiza um insumo",
             description = "Atualiza os dados de um insumo existente e recalcula automaticamente os custos nas receitas relacionadas.")
@@ -1,14 +1,25 @@
 package com.spea.api.controllers;
 
+import com.spea.api.cache.RespostaVersionada;
 import com.spea.api.dtos.ReceitaDto;
+import com.spea.api.services.ExportacaoService;
+import com.spea.api.services.HistoricoDePrecosService;
 import com.spea.api.services.ReceitaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.Instant;
+
+import static com.spea.api.cache.TabelaMonitorada.RECEITAS;
+
 @RestController
 @RequestMapping("/receita")
 public class ReceitaController extends BaseController {
@@ -16,6 +27,12 @@ public class ReceitaController extends BaseController {
     @Autowired
     private ReceitaService receitaService;
 
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private HistoricoDePrecosService historicoDePrecosService;
+
     @Operation(
             summary = "Cadastra uma nova receita")
     @ApiResponses(value = {
@@ -39,13 +56,77 @@ public class ReceitaController extends BaseController {
         return createObjectReturn(receitaService.atualizarNomeDaReceita(id, receitaDto));
     }
 
+    @Operation(
+            summary = "Exporta todas as receitas",
+            description = "Envia todas as receitas com o total gasto em insumos em NDJSON ou CSV, conforme o cabeçalho Accept." +
+                    " As linhas são escritas à medida que são lidas do banco, sem paginação.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação enviada com sucesso."),
+            @ApiResponse(responseCode = "406", description = "O cabeçalho Accept não aceita NDJSON nem CSV.")
+    })
+    @GetMapping(value = "/exportar", produces = {"application/x-ndjson", "text/csv"})
+    public void exportarReceitas(@RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = "application/x-ndjson") String formatosAceitos,
+                                 HttpServletResponse response) throws IOException {
+        MediaType formato = exportacaoService.definirFormatoDaExportacao(formatosAceitos);
+        prepararRespostaDaExportacao(response, formato, "receitas");
+        exportacaoService.exportarReceitas(formato, response.getOutputStream());
+    }
+
+    @RespostaVersionada(RECEITAS)
     @GetMapping("/lista")
     public ResponseEntity<?> obterListaFiltradaEPaginadaDeReceitas(@RequestParam(required = false) String nomeReceita,
                                                                    @RequestParam(defaultValue = "0") Integer paginaAtual,
                                                                    @RequestParam(defaultValue = "asc") String direcao,
-                                                                   @RequestParam(defaultValue = "nomeReceita") String ordenarPor) {
+                                                                   @RequestParam(defaultValue = "nomeReceita") String ordenarPor,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "false") Boolean semTotal) {
+        if (cursor != null) {
+            return createObjectReturn(receitaService.obterListaFiltradaDeReceitasPorCursor(nomeReceita, cursor, direcao, ordenarPor));
+        }
+        if (semTotal) {
+            return createObjectReturn(receitaService.obterListaFiltradaEPaginadaDeReceitasSemTotal(nomeReceita, paginaAtual, direcao, ordenarPor));
+        }
         return createObjectReturn(receitaService.obterListaFiltradaEPaginadaDeReceitas(nomeReceita, paginaAtual, direcao, ordenarPor));
     }
 
+    @Operation(
+            summary = "Obtém o total da receita e quando ele foi recalculado pela última vez")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "O estado do custo da receita foi obtido com sucesso."),
+            @ApiResponse(responseCode = "400", description = "Receita não encontrada.")
+    })
+    @GetMapping("/estado-custo/{id}")
+    public ResponseEntity<?> obterEstadoDoCustoDaReceita(@PathVariable(name = "id") Long id) {
+        return createObjectReturn(receitaService.obterEstadoDoCustoDaReceita(id));
+    }
+
+    @Operation(
+            summary = "Obtém o resumo do custo da receita",
+            description = "Retorna o total, a quantidade de insumos, o insumo mais caro e o valor e a participação" +
+                    " percentual de cada insumo no total, lidos do resumo mantido a cada alteração das associações.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "O resumo do custo da receita foi obtido com sucesso."),
+            @ApiResponse(responseCode = "400", description = "Receita não encontrada.")
+    })
+    @GetMapping("/resumo-custo/{id}")
+    public ResponseEntity<?> obterResumoDoCustoDaReceita(@PathVariable(name = "id") Long id) {
+        return createObjectReturn(receitaService.obterResumoDoCustoDaReceita(id));
+    }
+
+    @Operation(
+            summary = "Calcula o custo da receita em uma data passada",
+            description = "Usa os insumos, sub-receitas e quantidades atuais da receita com os preços vigentes no" +
+                    " instante informado (ISO-8601, por exemplo 2025-03-01T00:00:00Z). Insumos que ainda não tinham" +
+                    " preço no instante ficam sem valor e fora do total.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "O custo da receita na data foi calculado com sucesso."),
+            @ApiResponse(responseCode = "400", description = "Receita não encontrada ou instante inválido.")
+    })
+    @GetMapping("/custo-na-data/{id}")
+    public ResponseEntity<?> obterCustoDaReceitaNaData(@PathVariable(name = "id") Long id,
+                                                       @RequestParam Instant instante) {
+        return createObjectReturn(historicoDePrecosService.obterCustoDaReceitaNaData(id, instante));
+    }
+
 
 }
@@ -1,14 +1,25 @@
 package com.spea.api.controllers;
 
+import com.spea.api.cache.RespostaVersionada;
+import com.spea.api.dtos.ReceitaInsumoDto;
+import com.spea.api.services.ExportacaoService;
 import com.spea.api.services.ReceitaInsumoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.List;
+
+import static com.spea.api.cache.TabelaMonitorada.INSUMOS;
+import static com.spea.api.cache.TabelaMonitorada.RECEITA_INSUMO;
 
 @RestController
 @RequestMapping("/receita-insumo")
@@ -17,6 +28,9 @@ public class ReceitaInsumoController extends BaseController{
     @Autowired
     private ReceitaInsumoService receitaInsumoService;
 
+    @Autowired
+    private ExportacaoService exportacaoService;
+
     @Operation(
             summary = "Cria uma associação entre receita e insumo",
             description = "Adiciona um insumo a uma receita existente." +
@@ -33,6 +47,21 @@ public class ReceitaInsumoController extends BaseController{
         return createObjectReturn(receitaInsumoService.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo));
     }
 
+    @Operation(
+            summary = "Cria em lote as associações de uma receita com vários insumos",
+            description = "Recebe a lista de insumos com a quantidade utilizada de cada um, valida todos de uma vez" +
+                    " e cria todas as associações, somando os custos ao total da receita em uma única atualização." +
+                    " Se algum item for inválido, nenhuma associação é criada.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "As associações foram criadas com sucesso."),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos.")
+    })
+    @PostMapping("/receita/{receitaId}/insumos")
+    public ResponseEntity<?> criarAssociacoesEmLote(@PathVariable(name = "receitaId") Long receitaId,
+                                                    @RequestBody List<ReceitaInsumoDto> listaDeAssociacoes) {
+        return createObjectReturn(receitaInsumoService.criarAssociacoesEmLote(receitaId, listaDeAssociacoes));
+    }
+
     @Operation(
             summary = "Atualiza quantidade utilizada de insumo",
             description = "Atualiza a quantidade de um insumo em uma receita existente e recalcula os custos totais.")
@@ -48,12 +77,40 @@ public class ReceitaInsumoController extends BaseController{
                 .atualizarQuantidadeUtilizadaInsumo(receitaId, insumoId, quantidadeUtilizadaInsumo));
     }
 
+    @Operation(
+            summary = "Exporta todas as associações entre receitas e insumos",
+            description = "Envia todas as associações, com a quantidade utilizada e o valor gasto de cada insumo," +
+                    " em NDJSON ou CSV, conforme o cabeçalho Accept." +
+                    " As linhas são escritas à medida que são lidas do banco, sem paginação.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação enviada com sucesso."),
+            @ApiResponse(responseCode = "406", description = "O cabeçalho Accept não aceita NDJSON nem CSV.")
+    })
+    @GetMapping(value = "/exportar", produces = {"application/x-ndjson", "text/csv"})
+    public void exportarAssociacoes(@RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = "application/x-ndjson") String formatosAceitos,
+                                    HttpServletResponse response) throws IOException {
+        MediaType formato = exportacaoService.definirFormatoDaExportacao(formatosAceitos);
+        prepararRespostaDaExportacao(response, formato, "associacoes");
+        exportacaoService.exportarAssociacoes(formato, response.getOutputStream());
+    }
+
+    @RespostaVersionada({RECEITA_INSUMO, INSUMOS})
     @GetMapping("/lista-insumos-associados/receita/{receitaId}")
     public ResponseEntity<?> obterListaDeInsumosAssociadosAReceitaFiltradosEPaginados(@PathVariable(name = "receitaId") Long receitaId,
                                                                                       @RequestParam(required = false) String nomeInsumo,
                                                                                       @RequestParam(defaultValue = "0") Integer paginaAtual,
                                                                                       @RequestParam(defaultValue = "asc") String direcao,
-                                                                                      @RequestParam(defaultValue = "nomeInsumo") String ordenarPor) {
+                                                                                      @RequestParam(defaultValue = "nomeInsumo") String ordenarPor,
+                                                                                      @RequestParam(required = false) String cursor,
+                                                                                      @RequestParam(defaultValue = "false") Boolean semTotal) {
+        if (cursor != null) {
+            return createObjectReturn(receitaInsumoService
+                    .obterListaDeInsumosAssociadosAReceitaPorCursor(receitaId, nomeInsumo, cursor, direcao, ordenarPor));
+        }
+        if (semTotal) {
+            return createObjectReturn(receitaInsumoService
+                    .obterListaDeInsumosAssociadosAReceitaFiltradosEPaginadosSemTotal(receitaId, nomeInsumo, paginaAtual, direcao, ordenarPor));
+        }
         return createObjectReturn(receitaInsumoService
                 .obterListaDeInsumosAssociadosAReceitaFiltradosEPaginados(receitaId, nomeInsumo, paginaAtual, direcao, ordenarPor));
     }
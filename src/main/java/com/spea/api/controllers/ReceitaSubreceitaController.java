@@ -0,0 +1,73 @@
+package com.spea.api.controllers;
+
+import com.spea.api.services.ReceitaSubreceitaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+@RestController
+@RequestMapping("/receita-subreceita")
+public class ReceitaSubreceitaController extends BaseController{
+
+    @Autowired
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
+    @Operation(
+            summary = "Adiciona uma receita como sub-receita de outra",
+            description = "Usa uma receita existente como ingrediente de outra. A quantidade utilizada é a fração da" +
+                    " sub-receita que entra na receita (1.00 é a sub-receita inteira). O custo é somado ao total da" +
+                    " receita e repassado às receitas que a utilizam. Ligações que formariam um ciclo são recusadas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "A sub-receita foi adicionada com sucesso."),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou ligação que formaria um ciclo.")
+    })
+    @PostMapping("/receita/{receitaId}/subreceita/{subreceitaId}")
+    public ResponseEntity<?> criarSubreceita(@PathVariable(name = "receitaId") Long receitaId,
+                                             @PathVariable(name = "subreceitaId") Long subreceitaId,
+                                             @RequestParam BigDecimal quantidadeUtilizadaSubreceita) {
+        return createObjectReturn(receitaSubreceitaService
+                .criarSubreceita(receitaId, subreceitaId, quantidadeUtilizadaSubreceita));
+    }
+
+    @Operation(
+            summary = "Atualiza quantidade utilizada de sub-receita",
+            description = "Atualiza a fração da sub-receita usada na receita e recalcula os custos totais das" +
+                    " receitas afetadas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Atualização realizada com sucesso."),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos.")
+    })
+    @PutMapping("/atualizar-quantidade/receita/{receitaId}/subreceita/{subreceitaId}")
+    public ResponseEntity<?> atualizarQuantidadeUtilizadaSubreceita(@PathVariable(name = "receitaId") Long receitaId,
+                                                                    @PathVariable(name = "subreceitaId") Long subreceitaId,
+                                                                    @RequestParam BigDecimal quantidadeUtilizadaSubreceita) {
+        return createObjectReturn(receitaSubreceitaService
+                .atualizarQuantidadeUtilizadaSubreceita(receitaId, subreceitaId, quantidadeUtilizadaSubreceita));
+    }
+
+    @Operation(
+            summary = "Remove uma sub-receita de uma receita",
+            description = "Desfaz a ligação, abate o custo da sub-receita do total da receita e recalcula as" +
+                    " receitas que a utilizam.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "A sub-receita foi removida com sucesso."),
+            @ApiResponse(responseCode = "400", description = "A sub-receita não faz parte da receita.")
+    })
+    @DeleteMapping("/receita/{receitaId}/subreceita/{subreceitaId}")
+    public ResponseEntity<?> removerSubreceita(@PathVariable(name = "receitaId") Long receitaId,
+                                               @PathVariable(name = "subreceitaId") Long subreceitaId) {
+        receitaSubreceitaService.removerSubreceita(receitaId, subreceitaId);
+        return createObjectReturn("Sub-receita removida com sucesso.");
+    }
+
+    @GetMapping("/lista-subreceitas/receita/{receitaId}")
+    public ResponseEntity<?> obterListaDeSubreceitasDaReceita(@PathVariable(name = "receitaId") Long receitaId) {
+        return createObjectReturn(receitaSubreceitaService.obterListaDeSubreceitasDaReceita(receitaId));
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.spea.api.dtos;
+
+import java.io.Serializable;
+
+public class CursorDto implements Serializable {
+
+    private static final long serialVersionUID = 2817460395183746621L;
+
+    private String ordenarPor;
+    private String direcao;
+    private Boolean avancar;
+    private String valor;
+    private Long id;
+
+    public CursorDto() {
+    }
+
+    public CursorDto(String ordenarPor, String direcao, Boolean avancar, String valor, Long id) {
+        this.ordenarPor = ordenarPor;
+        this.direcao = direcao;
+        this.avancar = avancar;
+        this.valor = valor;
+        this.id = id;
+    }
+
+    public String getOrdenarPor() {
+        return ordenarPor;
+    }
+
+    public void setOrdenarPor(String ordenarPor) {
+        this.ordenarPor = ordenarPor;
+    }
+
+    public String getDirecao() {
+        return direcao;
+    }
+
+    public void setDirecao(String direcao) {
+        this.direcao = direcao;
+    }
+
+    public Boolean getAvancar() {
+        return avancar;
+    }
+
+    public void setAvancar(Boolean avancar) {
+        this.avancar = avancar;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    public void setValor(String valor) {
+        this.valor = valor;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,64 @@
+package com.spea.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustoDaReceitaNaDataDto implements Serializable {
+
+    private static final long serialVersionUID = -1187402945562630218L;
+
+    private Long receitaId;
+    private Instant instante;
+    private BigDecimal totalGastoInsumos;
+    private List<CustoDoInsumoNaDataDto> insumos = new ArrayList<>();
+    private List<ReceitaSubreceitaDto> subreceitas = new ArrayList<>();
+
+    public CustoDaReceitaNaDataDto() {
+    }
+
+    public Long getReceitaId() {
+        return receitaId;
+    }
+
+    public void setReceitaId(Long receitaId) {
+        this.receitaId = receitaId;
+    }
+
+    public Instant getInstante() {
+        return instante;
+    }
+
+    public void setInstante(Instant instante) {
+        this.instante = instante;
+    }
+
+    public BigDecimal getTotalGastoInsumos() {
+        return totalGastoInsumos;
+    }
+
+    public void setTotalGastoInsumos(BigDecimal totalGastoInsumos) {
+        this.totalGastoInsumos = totalGastoInsumos;
+    }
+
+    public List<CustoDoInsumoNaDataDto> getInsumos() {
+        return insumos;
+    }
+
+    public void setInsumos(List<CustoDoInsumoNaDataDto> insumos) {
+        this.insumos = insumos;
+    }
+
+    public List<ReceitaSubreceitaDto> getSubreceitas() {
+        return subreceitas;
+    }
+
+    public void setSubreceitas(List<ReceitaSubreceitaDto> subreceitas) {
+        this.subreceitas = subreceitas;
+    }
+}
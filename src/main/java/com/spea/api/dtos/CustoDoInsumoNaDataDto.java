@@ -0,0 +1,80 @@
+package com.spea.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustoDoInsumoNaDataDto implements Serializable {
+
+    private static final long serialVersionUID = 3390575113582607491L;
+
+    private Long insumoId;
+    private String insumoNome;
+    private BigDecimal quantidadeUtilizadaInsumo;
+    private Instant precoVigenteDesde;
+    private Double quantidadePorPacote;
+    private BigDecimal valorPagoPorPacote;
+    private BigDecimal valorGastoInsumo;
+
+    public CustoDoInsumoNaDataDto() {
+    }
+
+    public Long getInsumoId() {
+        return insumoId;
+    }
+
+    public void setInsumoId(Long insumoId) {
+        this.insumoId = insumoId;
+    }
+
+    public String getInsumoNome() {
+        return insumoNome;
+    }
+
+    public void setInsumoNome(String insumoNome) {
+        this.insumoNome = insumoNome;
+    }
+
+    public BigDecimal getQuantidadeUtilizadaInsumo() {
+        return quantidadeUtilizadaInsumo;
+    }
+
+    public void setQuantidadeUtilizadaInsumo(BigDecimal quantidadeUtilizadaInsumo) {
+        this.quantidadeUtilizadaInsumo = quantidadeUtilizadaInsumo;
+    }
+
+    public Instant getPrecoVigenteDesde() {
+        return precoVigenteDesde;
+    }
+
+    public void setPrecoVigenteDesde(Instant precoVigenteDesde) {
+        this.precoVigenteDesde = precoVigenteDesde;
+    }
+
+    public Double getQuantidadePorPacote() {
+        return quantidadePorPacote;
+    }
+
+    public void setQuantidadePorPacote(Double quantidadePorPacote) {
+        this.quantidadePorPacote = quantidadePorPacote;
+    }
+
+    public BigDecimal getValorPagoPorPacote() {
+        return valorPagoPorPacote;
+    }
+
+    public void setValorPagoPorPacote(BigDecimal valorPagoPorPacote) {
+        this.valorPagoPorPacote = valorPagoPorPacote;
+    }
+
+    public BigDecimal getValorGastoInsumo() {
+        return valorGastoInsumo;
+    }
+
+    public void setValorGastoInsumo(BigDecimal valorGastoInsumo) {
+        this.valorGastoInsumo = valorGastoInsumo;
+    }
+}
@@ -0,0 +1,52 @@
+package com.spea.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustoDoInsumoNaReceitaDto implements Serializable {
+
+    private static final long serialVersionUID = 6631927405538120947L;
+
+    private Long insumoId;
+    private String insumoNome;
+    private BigDecimal valorGastoInsumo;
+    private BigDecimal participacaoNoTotal;
+
+    public CustoDoInsumoNaReceitaDto() {
+    }
+
+    public Long getInsumoId() {
+        return insumoId;
+    }
+
+    public void setInsumoId(Long insumoId) {
+        this.insumoId = insumoId;
+    }
+
+    public String getInsumoNome() {
+        return insumoNome;
+    }
+
+    public void setInsumoNome(String insumoNome) {
+        this.insumoNome = insumoNome;
+    }
+
+    public BigDecimal getValorGastoInsumo() {
+        return valorGastoInsumo;
+    }
+
+    public void setValorGastoInsumo(BigDecimal valorGastoInsumo) {
+        this.valorGastoInsumo = valorGastoInsumo;
+    }
+
+    public BigDecimal getParticipacaoNoTotal() {
+        return participacaoNoTotal;
+    }
+
+    public void setParticipacaoNoTotal(BigDecimal participacaoNoTotal) {
+        this.participacaoNoTotal = participacaoNoTotal;
+    }
+}
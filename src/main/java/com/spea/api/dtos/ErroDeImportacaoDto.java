@@ -0,0 +1,48 @@
+package com.spea.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ErroDeImportacaoDto implements Serializable {
+
+    private static final long serialVersionUID = 3318920475116029174L;
+
+    private Long linha;
+    private String nome;
+    private String mensagem;
+
+    public ErroDeImportacaoDto() {
+    }
+
+    public ErroDeImportacaoDto(Long linha, String nome, String mensagem) {
+        this.linha = linha;
+        this.nome = nome;
+        this.mensagem = mensagem;
+    }
+
+    public Long getLinha() {
+        return linha;
+    }
+
+    public void setLinha(Long linha) {
+        this.linha = linha;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+}
@@ -0,0 +1,53 @@
+package com.spea.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EstadoCustoReceitaDto implements Serializable {
+
+    private static final long serialVersionUID = 5120384721937458113L;
+
+    private Long receitaId;
+    private BigDecimal totalGastoInsumos;
+    private Instant custoRecalculadoEm;
+    private Boolean recalculoPendente;
+
+    public EstadoCustoReceitaDto() {
+    }
+
+    public Long getReceitaId() {
+        return receitaId;
+    }
+
+    public void setReceitaId(Long receitaId) {
+        this.receitaId = receitaId;
+    }
+
+    public BigDecimal getTotalGastoInsumos() {
+        return totalGastoInsumos;
+    }
+
+    public void setTotalGastoInsumos(BigDecimal totalGastoInsumos) {
+        this.totalGastoInsumos = totalGastoInsumos;
+    }
+
+    public Instant getCustoRecalculadoEm() {
+        return custoRecalculadoEm;
+    }
+
+    public void setCustoRecalculadoEm(Instant custoRecalculadoEm) {
+        this.custoRecalculadoEm = custoRecalculadoEm;
+    }
+
+    public Boolean getRecalculoPendente() {
+        return recalculoPendente;
+    }
+
+    public void setRecalculoPendente(Boolean recalculoPendente) {
+        this.recalculoPendente = recalculoPendente;
+    }
+}
@@ -0,0 +1,87 @@
+package com.spea.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EstatisticasDoCacheDto implements Serializable {
+
+    private static final long serialVersionUID = -5172934023847716512L;
+
+    private Long tamanhoAtual;
+    private Long quantidadeMaxima;
+    private Long tempoDeVidaMs;
+    private Long acertos;
+    private Long faltas;
+    private Long remocoesPorTamanho;
+    private Long remocoesPorTempo;
+    private Long invalidacoes;
+
+    public EstatisticasDoCacheDto() {
+    }
+
+    public Long getTamanhoAtual() {
+        return tamanhoAtual;
+    }
+
+    public void setTamanhoAtual(Long tamanhoAtual) {
+        this.tamanhoAtual = tamanhoAtual;
+    }
+
+    public Long getQuantidadeMaxima() {
+        return quantidadeMaxima;
+    }
+
+    public void setQuantidadeMaxima(Long quantidadeMaxima) {
+        this.quantidadeMaxima = quantidadeMaxima;
+    }
+
+    public Long getTempoDeVidaMs() {
+        return tempoDeVidaMs;
+    }
+
+    public void setTempoDeVidaMs(Long tempoDeVidaMs) {
+        this.tempoDeVidaMs = tempoDeVidaMs;
+    }
+
+    public Long getAcertos() {
+        return acertos;
+    }
+
+    public void setAcertos(Long acertos) {
+        this.acertos = acertos;
+    }
+
+    public Long getFaltas() {
+        return faltas;
+    }
+
+    public void setFaltas(Long faltas) {
+        this.faltas = faltas;
+    }
+
+    public Long getRemocoesPorTamanho() {
+        return remocoesPorTamanho;
+    }
+
+    public void setRemocoesPorTamanho(Long remocoesPorTamanho) {
+        this.remocoesPorTamanho = remocoesPorTamanho;
+    }
+
+    public Long getRemocoesPorTempo() {
+        return remocoesPorTempo;
+    }
+
+    public void setRemocoesPorTempo(Long remocoesPorTempo) {
+        this.remocoesPorTempo = remocoesPorTempo;
+    }
+
+    public Long getInvalidacoes() {
+        return invalidacoes;
+    }
+
+    public void setInvalidacoes(Long invalidacoes) {
+        this.invalidacoes = invalidacoes;
+    }
+}
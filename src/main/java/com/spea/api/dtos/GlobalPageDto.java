@@ -1,8 +1,11 @@
 package com.spea.api.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.io.Serializable;
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class GlobalPageDto<T> implements Serializable {
 
     private static final long serialVersionUID = -3222235915759544417L;
@@ -14,6 +17,8 @@ public class GlobalPageDto<T> implements Serializable {
     private Integer itensPorPagina;
     private Boolean temProxima;
     private Boolean temAnterior;
+    private String proximoCursor;
+    private String cursorAnterior;
 
     public GlobalPageDto(List<T> itens, Long totalDeItens, Integer paginaAtual, Integer itensPorPagina) {
         this.itens = itens;
@@ -30,6 +35,29 @@ public class GlobalPageDto<T> implements Serializable {
         this.temAnterior = paginaAtual > 0;
     }
 
+    /**
+     * Página obtida sem a contagem total: a existência da próxima página é detectada buscando um item a mais.
+     */
+    public GlobalPageDto(List<T> itens, Integer paginaAtual, Integer itensPorPagina, Boolean temProxima) {
+        this.itens = itens;
+        this.paginaAtual = paginaAtual;
+        this.itensPorPagina = itensPorPagina;
+        this.temProxima = temProxima;
+        this.temAnterior = paginaAtual > 0;
+    }
+
+    /**
+     * Página obtida por cursor: não há contagem total nem número de página, apenas os cursores vizinhos.
+     */
+    public GlobalPageDto(List<T> itens, Integer itensPorPagina, String proximoCursor, String cursorAnterior) {
+        this.itens = itens;
+        this.itensPorPagina = itensPorPagina;
+        this.proximoCursor = proximoCursor;
+        this.cursorAnterior = cursorAnterior;
+        this.temProxima = proximoCursor != null;
+        this.temAnterior = cursorAnterior != null;
+    }
+
     public List<T> getItens() {
         return itens;
     }
@@ -57,4 +85,12 @@ public class GlobalPageDto<T> implements Serializable {
     public Boolean getTemAnterior() {
         return temAnterior;
     }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public String getCursorAnterior() {
+        return cursorAnterior;
+    }
 }
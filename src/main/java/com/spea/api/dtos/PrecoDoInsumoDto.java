@@ -0,0 +1,53 @@
+package com.spea.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PrecoDoInsumoDto implements Serializable {
+
+    private static final long serialVersionUID = -6248870937163342815L;
+
+    private Long insumoId;
+    private Instant vigenteDesde;
+    private Double quantidadePorPacote;
+    private BigDecimal valorPagoPorPacote;
+
+    public PrecoDoInsumoDto() {
+    }
+
+    public Long getInsumoId() {
+        return insumoId;
+    }
+
+    public void setInsumoId(Long insumoId) {
+        this.insumoId = insumoId;
+    }
+
+    public Instant getVigenteDesde() {
+        return vigenteDesde;
+    }
+
+    public void setVigenteDesde(Instant vigenteDesde) {
+        this.vigenteDesde = vigenteDesde;
+    }
+
+    public Double getQuantidadePorPacote() {
+        return quantidadePorPacote;
+    }
+
+    public void setQuantidadePorPacote(Double quantidadePorPacote) {
+        this.quantidadePorPacote = quantidadePorPacote;
+    }
+
+    public BigDecimal getValorPagoPorPacote() {
+        return valorPagoPorPacote;
+    }
+
+    public void setValorPagoPorPacote(BigDecimal valorPagoPorPacote) {
+        this.valorPagoPorPacote = valorPagoPorPacote;
+    }
+}
@@ -0,0 +1,61 @@
+package com.spea.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReceitaSubreceitaDto implements Serializable {
+
+    private static final long serialVersionUID = 4719385208837461035L;
+
+    private Long receitaId;
+    private Long subreceitaId;
+    private String subreceitaNome;
+    private BigDecimal quantidadeUtilizadaSubreceita;
+    private BigDecimal valorGastoSubreceita;
+
+    public ReceitaSubreceitaDto() {
+    }
+
+    public Long getReceitaId() {
+        return receitaId;
+    }
+
+    public void setReceitaId(Long receitaId) {
+        this.receitaId = receitaId;
+    }
+
+    public Long getSubreceitaId() {
+        return subreceitaId;
+    }
+
+    public void setSubreceitaId(Long subreceitaId) {
+        this.subreceitaId = subreceitaId;
+    }
+
+    public String getSubreceitaNome() {
+        return subreceitaNome;
+    }
+
+    public void setSubreceitaNome(String subreceitaNome) {
+        this.subreceitaNome = subreceitaNome;
+    }
+
+    public BigDecimal getQuantidadeUtilizadaSubreceita() {
+        return quantidadeUtilizadaSubreceita;
+    }
+
+    public void setQuantidadeUtilizadaSubreceita(BigDecimal quantidadeUtilizadaSubreceita) {
+        this.quantidadeUtilizadaSubreceita = quantidadeUtilizadaSubreceita;
+    }
+
+    public BigDecimal getValorGastoSubreceita() {
+        return valorGastoSubreceita;
+    }
+
+    public void setValorGastoSubreceita(BigDecimal valorGastoSubreceita) {
+        this.valorGastoSubreceita = valorGastoSubreceita;
+    }
+}
@@ -0,0 +1,53 @@
+package com.spea.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoImportacaoDto implements Serializable {
+
+    private static final long serialVersionUID = 8841027365519203467L;
+
+    private Long totalDeLinhas = 0L;
+    private Long totalImportado = 0L;
+    private Long totalDeErros = 0L;
+    private List<ErroDeImportacaoDto> erros = new ArrayList<>();
+
+    public ResultadoImportacaoDto() {
+    }
+
+    public Long getTotalDeLinhas() {
+        return totalDeLinhas;
+    }
+
+    public void setTotalDeLinhas(Long totalDeLinhas) {
+        this.totalDeLinhas = totalDeLinhas;
+    }
+
+    public Long getTotalImportado() {
+        return totalImportado;
+    }
+
+    public void setTotalImportado(Long totalImportado) {
+        this.totalImportado = totalImportado;
+    }
+
+    public Long getTotalDeErros() {
+        return totalDeErros;
+    }
+
+    public void setTotalDeErros(Long totalDeErros) {
+        this.totalDeErros = totalDeErros;
+    }
+
+    public List<ErroDeImportacaoDto> getErros() {
+        return erros;
+    }
+
+    public void setErros(List<ErroDeImportacaoDto> erros) {
+        this.erros = erros;
+    }
+}
@@ -0,0 +1,63 @@
+package com.spea.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResumoCustoReceitaDto implements Serializable {
+
+    private static final long serialVersionUID = -2184470936613250318L;
+
+    private Long receitaId;
+    private BigDecimal totalGastoInsumos;
+    private Integer quantidadeDeInsumos;
+    private CustoDoInsumoNaReceitaDto insumoMaisCaro;
+    private List<CustoDoInsumoNaReceitaDto> insumos = new ArrayList<>();
+
+    public ResumoCustoReceitaDto() {
+    }
+
+    public Long getReceitaId() {
+        return receitaId;
+    }
+
+    public void setReceitaId(Long receitaId) {
+        this.receitaId = receitaId;
+    }
+
+    public BigDecimal getTotalGastoInsumos() {
+        return totalGastoInsumos;
+    }
+
+    public void setTotalGastoInsumos(BigDecimal totalGastoInsumos) {
+        this.totalGastoInsumos = totalGastoInsumos;
+    }
+
+    public Integer getQuantidadeDeInsumos() {
+        return quantidadeDeInsumos;
+    }
+
+    public void setQuantidadeDeInsumos(Integer quantidadeDeInsumos) {
+        this.quantidadeDeInsumos = quantidadeDeInsumos;
+    }
+
+    public CustoDoInsumoNaReceitaDto getInsumoMaisCaro() {
+        return insumoMaisCaro;
+    }
+
+    public void setInsumoMaisCaro(CustoDoInsumoNaReceitaDto insumoMaisCaro) {
+        this.insumoMaisCaro = insumoMaisCaro;
+    }
+
+    public List<CustoDoInsumoNaReceitaDto> getInsumos() {
+        return insumos;
+    }
+
+    public void setInsumos(List<CustoDoInsumoNaReceitaDto> insumos) {
+        this.insumos = insumos;
+    }
+}
@@ -0,0 +1,61 @@
+package com.spea.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SimulacaoDeCustoDaReceitaDto implements Serializable {
+
+    private static final long serialVersionUID = 4410978263581947023L;
+
+    private Long receitaId;
+    private String receitaNome;
+    private BigDecimal totalAtual;
+    private BigDecimal totalSimulado;
+    private BigDecimal diferenca;
+
+    public SimulacaoDeCustoDaReceitaDto() {
+    }
+
+    public Long getReceitaId() {
+        return receitaId;
+    }
+
+    public void setReceitaId(Long receitaId) {
+        this.receitaId = receitaId;
+    }
+
+    public String getReceitaNome() {
+        return receitaNome;
+    }
+
+    public void setReceitaNome(String receitaNome) {
+        this.receitaNome = receitaNome;
+    }
+
+    public BigDecimal getTotalAtual() {
+        return totalAtual;
+    }
+
+    public void setTotalAtual(BigDecimal totalAtual) {
+        this.totalAtual = totalAtual;
+    }
+
+    public BigDecimal getTotalSimulado() {
+        return totalSimulado;
+    }
+
+    public void setTotalSimulado(BigDecimal totalSimulado) {
+        this.totalSimulado = totalSimulado;
+    }
+
+    public BigDecimal getDiferenca() {
+        return diferenca;
+    }
+
+    public void setDiferenca(BigDecimal diferenca) {
+        this.diferenca = diferenca;
+    }
+}
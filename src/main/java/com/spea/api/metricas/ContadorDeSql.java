@@ -0,0 +1,37 @@
+package com.spea.api.metricas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta as instruções SQL preparadas pelo Hibernate na thread atual entre iniciarContagem e encerrarContagem.
+ * Fora de uma contagem não faz nada. Os lotes enviados direto pela conexão JDBC (Session.doWork) não passam pelo
+ * Hibernate e por isso não são contados.
+ */
+public class ContadorDeSql implements StatementInspector {
+
+    private static final ThreadLocal<int[]> QUANTIDADE_NA_THREAD = new ThreadLocal<>();
+
+    public static void iniciarContagem() {
+        QUANTIDADE_NA_THREAD.set(new int[1]);
+    }
+
+    public static int obterQuantidade() {
+        int[] quantidade = QUANTIDADE_NA_THREAD.get();
+        return quantidade == null ? 0 : quantidade[0];
+    }
+
+    public static int encerrarContagem() {
+        int quantidade = obterQuantidade();
+        QUANTIDADE_NA_THREAD.remove();
+        return quantidade;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] quantidade = QUANTIDADE_NA_THREAD.get();
+        if (quantidade != null) {
+            quantidade[0]++;
+        }
+        return sql;
+    }
+}
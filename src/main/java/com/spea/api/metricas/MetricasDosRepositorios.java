@@ -0,0 +1,105 @@
+package com.spea.api.metricas;
+
+import com.spea.api.dtos.GlobalPageDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Mede cada método público das classes anotadas com @Repository: o tempo de execução (p50, p95 e p99) em
+ * spea.repositorio.tempo e a quantidade de linhas devolvidas em spea.repositorio.linhas, ambos marcados com a
+ * classe, o método e, no tempo, se terminou com exceção.
+ */
+@Aspect
+@Component
+public class MetricasDosRepositorios {
+
+    public static final String METRICA_TEMPO = "spea.repositorio.tempo";
+    public static final String METRICA_LINHAS = "spea.repositorio.linhas";
+
+    private static final double[] PERCENTIS = {0.5, 0.95, 0.99};
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Os medidores são criados uma vez por método; o registro do Micrometer faria a mesma busca a cada chamada.
+    private final Map<String, MedidoresDoMetodo> medidoresPorMetodo = new ConcurrentHashMap<>();
+
+    @Around("within(@org.springframework.stereotype.Repository *) && execution(public * *(..))")
+    public Object medirMetodoDoRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+        MedidoresDoMetodo medidores = obterMedidores(joinPoint);
+
+        long inicio = System.nanoTime();
+        try {
+            Object retorno = joinPoint.proceed();
+            medidores.tempo().record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+            Integer linhas = contarLinhas(retorno);
+            if (!isNull(linhas)) {
+                medidores.linhas().record(linhas);
+            }
+            return retorno;
+        } catch (Throwable e) {
+            medidores.tempoComErro().record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * Listas e páginas contam os itens, um DTO avulso conta uma linha. Retornos sem linhas (void, booleanos,
+     * totais e quantidades de linhas alteradas) não entram no histograma.
+     */
+    static Integer contarLinhas(Object retorno) {
+        if (retorno instanceof Collection<?> colecao) {
+            return colecao.size();
+        }
+        if (retorno instanceof GlobalPageDto<?> pagina) {
+            return isNull(pagina.getItens()) ? 0 : pagina.getItens().size();
+        }
+        if (isNull(retorno) || retorno instanceof Number || retorno instanceof Boolean) {
+            return null;
+        }
+        if (retorno.getClass().getPackageName().startsWith("com.spea.api.dtos")) {
+            return 1;
+        }
+        return null;
+    }
+
+    private MedidoresDoMetodo obterMedidores(ProceedingJoinPoint joinPoint) {
+        String classe = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String metodo = joinPoint.getSignature().getName();
+
+        return medidoresPorMetodo.computeIfAbsent(classe + "." + metodo, chave -> new MedidoresDoMetodo(
+                criarTimer(classe, metodo, "nenhuma"),
+                criarTimer(classe, metodo, "erro"),
+                DistributionSummary.builder(METRICA_LINHAS)
+                        .description("Linhas devolvidas por método de repositório")
+                        .baseUnit("linhas")
+                        .tags("classe", classe, "metodo", metodo)
+                        .publishPercentiles(PERCENTIS)
+                        .register(meterRegistry)));
+    }
+
+    private Timer criarTimer(String classe, String metodo, String excecao) {
+        return Timer.builder(METRICA_TEMPO)
+                .description("Tempo de execução por método de repositório")
+                .tags("classe", classe, "metodo", metodo, "excecao", excecao)
+                .publishPercentiles(PERCENTIS)
+                .register(meterRegistry);
+    }
+
+    private record MedidoresDoMetodo(Timer tempo, Timer tempoComErro, DistributionSummary linhas) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.spea.api.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static com.spea.api.utils.LogUtil.logAlertaDeMuitasInstrucoesSqlNaRequisicao;
+import static java.util.Objects.isNull;
+
+/**
+ * Registra em spea.requisicao.sql quantas instruções SQL cada requisição executou, marcadas pelo método HTTP e
+ * pela rota do controller. Uma rota cujo número cresce com o tamanho dos dados indica um N+1; acima do limite
+ * configurado a requisição também gera um alerta no log.
+ */
+@Component
+public class SqlPorRequisicaoFilter extends OncePerRequestFilter {
+
+    public static final String METRICA_SQL_POR_REQUISICAO = "spea.requisicao.sql";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spea.metricas.limite-de-sql-por-requisicao:50}")
+    private Integer limiteDeSqlPorRequisicao;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContadorDeSql.iniciarContagem();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int quantidade = ContadorDeSql.encerrarContagem();
+            String rota = obterRota(request);
+
+            DistributionSummary.builder(METRICA_SQL_POR_REQUISICAO)
+                    .description("Instruções SQL executadas por requisição")
+                    .baseUnit("instrucoes")
+                    .tags("metodo", request.getMethod(), "rota", rota)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(quantidade);
+
+            if (quantidade > limiteDeSqlPorRequisicao) {
+                logAlertaDeMuitasInstrucoesSqlNaRequisicao(request.getMethod(), rota, quantidade);
+            }
+        }
+    }
+
+    // O padrão da rota (/insumo/{id}) mantém uma série por endpoint em vez de uma por id.
+    private String obterRota(HttpServletRequest request) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return isNull(padrao) ? "desconhecida" : padrao.toString();
+    }
+}
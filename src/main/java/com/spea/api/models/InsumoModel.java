@@ -25,6 +25,10 @@ public class InsumoModel implements Serializable {
     @Column(name = "valor_pago_por_pacote", nullable = false)
     private BigDecimal valorPagoPorPacote;
 
+    // Preenchida pelo banco (NomeBuscaTrigger) a partir do nome.
+    @Column(name = "nome_busca", length = 100, insertable = false, updatable = false)
+    private String nomeBusca;
+
     public InsumoModel() {
         super();
     }
@@ -60,4 +64,8 @@ public class InsumoModel implements Serializable {
     public void setValorPagoPorPacote(BigDecimal valorPagoPorPacote) {
         this.valorPagoPorPacote = valorPagoPorPacote;
     }
+
+    public String getNomeBusca() {
+        return nomeBusca;
+    }
 }
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,6 +29,13 @@ public class ReceitaModel implements Serializable {
     @Column(name = "total_gasto_insumos")
     private BigDecimal totalGastoInsumos;
 
+    @Column(name = "custo_recalculado_em")
+    private Instant custoRecalculadoEm;
+
+    // Preenchida pelo banco (NomeBuscaTrigger) a partir do nome.
+    @Column(name = "nome_busca", length = 100, insertable = false, updatable = false)
+    private String nomeBusca;
+
     public ReceitaModel() {
         super();
     }
@@ -55,4 +63,16 @@ public class ReceitaModel implements Serializable {
     public void setTotalGastoInsumos(BigDecimal totalGastoInsumos) {
         this.totalGastoInsumos = totalGastoInsumos;
     }
+
+    public Instant getCustoRecalculadoEm() {
+        return custoRecalculadoEm;
+    }
+
+    public void setCustoRecalculadoEm(Instant custoRecalculadoEm) {
+        this.custoRecalculadoEm = custoRecalculadoEm;
+    }
+
+    public String getNomeBusca() {
+        return nomeBusca;
+    }
 }
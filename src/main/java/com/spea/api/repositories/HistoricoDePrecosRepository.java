@@ -0,0 +1,120 @@
+package com.spea.api.repositories;
+
+import com.spea.api.cache.SerieDePrecos;
+import com.spea.api.dtos.PrecoDoInsumoDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+import static com.spea.api.utils.LogUtil.*;
+
+@Repository
+public class HistoricoDePrecosRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public List<PrecoDoInsumoDto> obterHistoricoDePrecosDoInsumo(Long insumoId) {
+        try {
+            String sql = " SELECT insumo_id, vigente_desde, quantidade_por_pacote, valor_pago_por_pacote " +
+                    " FROM tb_historico_precos_insumo WHERE insumo_id = :insumoId ORDER BY vigente_desde, id ";
+
+            List<Object[]> listaDeResultados = em.createNativeQuery(sql)
+                    .setParameter("insumoId", insumoId)
+                    .getResultList();
+
+            List<PrecoDoInsumoDto> historicoDePrecos = new ArrayList<>(listaDeResultados.size());
+            for (Object[] resultado : listaDeResultados) {
+                PrecoDoInsumoDto precoDoInsumoDto = new PrecoDoInsumoDto();
+                precoDoInsumoDto.setInsumoId(((Number) resultado[0]).longValue());
+                precoDoInsumoDto.setVigenteDesde(converterParaInstant(resultado[1]));
+                precoDoInsumoDto.setQuantidadePorPacote(((Number) resultado[2]).doubleValue());
+                precoDoInsumoDto.setValorPagoPorPacote(new BigDecimal(resultado[3].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN));
+                historicoDePrecos.add(precoDoInsumoDto);
+            }
+
+            logSucessoAoObterHistoricoDePrecosDoInsumo(insumoId);
+            return historicoDePrecos;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterHistoricoDePrecosDoInsumo(insumoId, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter o histórico de preços do insumo.");
+        }
+    }
+
+    /**
+     * Lê pelo índice (insumo_id, vigente_desde, id) o histórico inteiro dos insumos informados, já na ordem das
+     * séries. Insumos sem nenhum preço não aparecem no mapa.
+     */
+    public Map<Long, SerieDePrecos> obterSeriesDePrecosDosInsumos(Collection<Long> insumoIds) {
+        try {
+            String sql = " SELECT insumo_id, vigente_desde, quantidade_por_pacote, valor_pago_por_pacote " +
+                    " FROM tb_historico_precos_insumo WHERE insumo_id IN (:insumoIds) " +
+                    " ORDER BY insumo_id, vigente_desde, id ";
+
+            List<Object[]> listaDeResultados = em.createNativeQuery(sql)
+                    .setParameter("insumoIds", insumoIds)
+                    .getResultList();
+
+            Map<Long, SerieDePrecos> series = new HashMap<>();
+            int inicioDaSerie = 0;
+            for (int i = 1; i <= listaDeResultados.size(); i++) {
+                if (i < listaDeResultados.size()
+                        && obterInsumoId(listaDeResultados.get(i)) == obterInsumoId(listaDeResultados.get(inicioDaSerie))) {
+                    continue;
+                }
+                series.put(obterInsumoId(listaDeResultados.get(inicioDaSerie)),
+                        montarSerieDePrecos(listaDeResultados.subList(inicioDaSerie, i)));
+                inicioDaSerie = i;
+            }
+
+            logSucessoAoObterSeriesDePrecosDosInsumos(series.size());
+            return series;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterSeriesDePrecosDosInsumos(insumoIds, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter o histórico de preços dos insumos.");
+        }
+    }
+
+    private long obterInsumoId(Object[] resultado) {
+        return ((Number) resultado[0]).longValue();
+    }
+
+    private SerieDePrecos montarSerieDePrecos(List<Object[]> precos) {
+        long[] instantes = new long[precos.size()];
+        long[] quantidadesPorPacote = new long[precos.size()];
+        long[] valoresPagosPorPacote = new long[precos.size()];
+
+        for (int i = 0; i < precos.size(); i++) {
+            Object[] preco = precos.get(i);
+            instantes[i] = SerieDePrecos.converterParaMicrossegundos(converterParaInstant(preco[1]));
+            quantidadesPorPacote[i] = emCentesimos(preco[2]);
+            valoresPagosPorPacote[i] = emCentesimos(preco[3]);
+        }
+        return new SerieDePrecos(instantes, quantidadesPorPacote, valoresPagosPorPacote);
+    }
+
+    private long emCentesimos(Object valor) {
+        return new BigDecimal(valor.toString()).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    private Instant converterParaInstant(Object valor) {
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (valor instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        return (Instant) valor;
+    }
+}
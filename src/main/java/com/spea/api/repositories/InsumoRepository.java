@@ -1,41 +1,77 @@
 package com.spea.api.repositories;
 
+import com.spea.api.cache.CacheDeHistoricoDePrecos;
+import com.spea.api.cache.CacheDeInsumos;
+import com.spea.api.cache.CacheDeTotais;
+import com.spea.api.cache.ContadorDeAlteracoes;
+import com.spea.api.dtos.CursorDto;
 import com.spea.api.dtos.GlobalPageDto;
 import com.spea.api.dtos.InsumoDto;
 import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.busca.FiltroPorNome.TipoDoFiltro;
+import com.spea.api.repositories.consultas.ConsultasDaListagem;
+import com.spea.api.repositories.existencia.FiltrosDeExistencia;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static com.spea.api.cache.TabelaMonitorada.INSUMOS;
+import static com.spea.api.cache.TabelaMonitorada.RECEITA_INSUMO;
+import static com.spea.api.repositories.busca.FiltroPorNome.adicionarFiltroPorNome;
+import static com.spea.api.repositories.busca.FiltroPorNome.definirFiltroPorNome;
+import static com.spea.api.utils.CursorUtil.*;
 import static com.spea.api.utils.LogUtil.*;
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static java.util.Objects.isNull;
 
 @Repository
 public class InsumoRepository {
 
+    private static final ConsultasDaListagem CONSULTAS_DA_LISTAGEM = new ConsultasDaListagem(
+            " id, nome, quantidade_por_pacote, valor_pago_por_pacote ",
+            " FROM tb_insumos WHERE 1=1 ", "id",
+            (sql, filtro) -> adicionarFiltroPorNome(sql, filtro, "nome", "id", "nome_busca",
+                    "tb_insumos_trigramas", "insumo_id"),
+            List.of("nome", "quantidade_por_pacote", "valor_pago_por_pacote"));
+
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired
+    private CacheDeTotais cacheDeTotais;
+
+    @Autowired
+    private CacheDeInsumos cacheDeInsumos;
+
+    @Autowired
+    private CacheDeHistoricoDePrecos cacheDeHistoricoDePrecos;
+
+    @Autowired
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @Autowired
+    private FiltrosDeExistencia filtrosDeExistencia;
+
     public InsumoDto cadastrarInsumo(InsumoDto insumoDto) {
         try {
-            StringBuilder sql = new StringBuilder();
-            sql.append(" INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) ");
-            sql.append(" VALUES (:nome, :quantidade_por_pacote, :valor_pago_por_pacote) ");
+            String sql = " INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) " +
+                    " VALUES (:nome, :quantidade_por_pacote, :valor_pago_por_pacote) ";
 
-            Query query = em.createNativeQuery(sql.toString())
+            Query query = em.createNativeQuery(sql)
                     .setParameter("nome", insumoDto.getNome())
                     .setParameter("quantidade_por_pacote", insumoDto.getQuantidadePorPacote())
                     .setParameter("valor_pago_por_pacote", insumoDto.getValorPagoPorPacote());
 
             query.executeUpdate();
+            contadorDeAlteracoes.registrarAlteracao(INSUMOS);
             logSucessoAoCadastrarInsumo(insumoDto.getNome());
 
             return insumoDto;
@@ -45,13 +81,46 @@ public class InsumoRepository {
         }
     }
 
+    // Usa o PreparedStatement da conexão da transação atual para enviar as inserções em lote ao banco.
+    public Integer cadastrarInsumosEmLote(List<InsumoDto> listaDeInsumos) {
+        try {
+            String sql = " INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) " +
+                    " VALUES (?, ?, ?) ";
+
+            Integer totalCadastrado = em.unwrap(Session.class).doReturningWork(conexao -> {
+                try (PreparedStatement comando = conexao.prepareStatement(sql)) {
+                    for (InsumoDto insumoDto : listaDeInsumos) {
+                        comando.setString(1, insumoDto.getNome());
+                        comando.setDouble(2, insumoDto.getQuantidadePorPacote());
+                        comando.setBigDecimal(3, insumoDto.getValorPagoPorPacote());
+                        comando.addBatch();
+                    }
+                    return Arrays.stream(comando.executeBatch()).sum();
+                }
+            });
+
+            contadorDeAlteracoes.registrarAlteracao(INSUMOS);
+            logSucessoAoCadastrarInsumosEmLote(totalCadastrado);
+
+            return totalCadastrado;
+        } catch (Exception e) {
+            logErroInesperadoAoCadastrarInsumosEmLote(listaDeInsumos.size(), e);
+            throw new EmpreendedorErrorException("Erro inesperado ao cadastrar o lote de insumos.");
+        }
+    }
+
     public InsumoDto obterInsumoPeloId(Long id) {
+        Optional<InsumoDto> insumoEmCache = cacheDeInsumos.obterInsumo(id);
+        if (insumoEmCache.isPresent()) {
+            return insumoEmCache.get();
+        }
+
         try{
-            StringBuilder sql = new StringBuilder();
-            sql.append(" SELECT id, nome, quantidade_por_pacote, valor_pago_por_pacote FROM tb_insumos ");
-            sql.append(" WHERE id = :id LIMIT 1 ");
+            Long versao = cacheDeInsumos.obterVersao();
+            String sql = " SELECT id, nome, quantidade_por_pacote, valor_pago_por_pacote FROM tb_insumos " +
+                    " WHERE id = :id LIMIT 1 ";
 
-            Query query = em.createNativeQuery(sql.toString())
+            Query query = em.createNativeQuery(sql)
                     .setParameter("id", id);
 
             List<Object[]> listaDeResultados = query.getResultList();
@@ -70,6 +139,7 @@ public class InsumoRepository {
             BigDecimal valorPagoPorPacote = new BigDecimal(resultado[3].toString())
                     .setScale(2, RoundingMode.HALF_EVEN);
             insumoEncontradoDto.setValorPagoPorPacote(valorPagoPorPacote);
+            cacheDeInsumos.armazenarInsumo(insumoEncontradoDto, versao);
 
             logSucessoAoObterInsumoPeloId(id);
             return insumoEncontradoDto;
@@ -83,15 +153,38 @@ public class InsumoRepository {
         }
     }
 
+    // Lê a linha inteira para que a verificação também abasteça o cache usado pelas próximas chamadas.
     public Boolean verificarExistenciaDoInsumoPeloId(Long id) {
+        if (cacheDeInsumos.obterInsumo(id).isPresent()) {
+            return true;
+        }
+        if (filtrosDeExistencia.insumoCertamenteNaoExiste(id)) {
+            logSucessoAoVerificarExistenciaDoInsumo(id);
+            return false;
+        }
+
         try {
-            String sql = " SELECT 1 FROM tb_insumos WHERE id = :id LIMIT 1 ";
+            Long versao = cacheDeInsumos.obterVersao();
+            String sql = " SELECT id, nome, quantidade_por_pacote, valor_pago_por_pacote FROM tb_insumos WHERE id = :id LIMIT 1 ";
 
             Query query = em.createNativeQuery(sql)
                     .setParameter("id", id);
 
-            List<?> listaDeResultados = query.getResultList();
+            List<Object[]> listaDeResultados = query.getResultList();
+
+            if (!listaDeResultados.isEmpty()) {
+                Object[] resultado = listaDeResultados.get(0);
+
+                InsumoDto insumoEncontradoDto = new InsumoDto();
+                insumoEncontradoDto.setId(((Number) resultado[0]).longValue());
+                insumoEncontradoDto.setNome((String) resultado[1]);
+                insumoEncontradoDto.setQuantidadePorPacote(((Number) resultado[2]).doubleValue());
+                insumoEncontradoDto.setValorPagoPorPacote(new BigDecimal(resultado[3].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN));
+                cacheDeInsumos.armazenarInsumo(insumoEncontradoDto, versao);
+            }
 
+            filtrosDeExistencia.registrarConsultaAoBanco(INSUMOS, !listaDeResultados.isEmpty());
             logSucessoAoVerificarExistenciaDoInsumo(id);
             return !listaDeResultados.isEmpty();
 
@@ -103,21 +196,23 @@ public class InsumoRepository {
 
     public InsumoDto atualizarInsumo(Long id, InsumoDto insumoDto) {
         try {
-            StringBuilder sql = new StringBuilder();
-
-            sql.append(" UPDATE tb_insumos ");
-            sql.append(" SET nome = :nome, ");
-            sql.append(" quantidade_por_pacote = :quantidadePorPacote, ");
-            sql.append(" valor_pago_por_pacote = :valorPagoPorPacote ");
-            sql.append(" WHERE id = :id LIMIT 1 ");
+            String sql = " UPDATE tb_insumos " +
+                    " SET nome = :nome, " +
+                    " quantidade_por_pacote = :quantidadePorPacote, " +
+                    " valor_pago_por_pacote = :valorPagoPorPacote " +
+                    " WHERE id = :id LIMIT 1 ";
 
-            Query query = em.createNativeQuery(sql.toString())
+            Query query = em.createNativeQuery(sql)
                     .setParameter("nome", insumoDto.getNome())
                     .setParameter("quantidadePorPacote", insumoDto.getQuantidadePorPacote())
                     .setParameter("valorPagoPorPacote", insumoDto.getValorPagoPorPacote())
                     .setParameter("id", id);
 
             query.executeUpdate();
+            // O nome do insumo também filtra a listagem de insumos associados a uma receita.
+            contadorDeAlteracoes.registrarAlteracao(INSUMOS, RECEITA_INSUMO);
+            cacheDeInsumos.invalidarInsumo(id);
+            cacheDeHistoricoDePrecos.invalidarInsumo(id);
 
             InsumoDto insumoDtoAtualizado = new InsumoDto();
             insumoDtoAtualizado.setId(id);
@@ -141,6 +236,8 @@ public class InsumoRepository {
                     .setParameter("id", id);
 
             query.executeUpdate();
+            contadorDeAlteracoes.registrarAlteracao(INSUMOS, RECEITA_INSUMO);
+            cacheDeInsumos.invalidarInsumo(id);
             logSucessoAoDeletarInsumo(id);
         } catch (Exception e) {
             logErroInesperadoAoDeletarInsumo(id, e);
@@ -154,7 +251,7 @@ public class InsumoRepository {
         Long totalDeInsumos = obterTotalDeInsumosFiltradosQuery(nome);
 
         List<InsumoDto> listaDeInsumosFiltradaOrdenadaEPaginada =
-                obterListaFiltradaEPaginadaDeInsumosQuery(nome, paginaAtual, itensPorPagina,
+                obterListaFiltradaEPaginadaDeInsumosQuery(nome, itensPorPagina, paginaAtual * itensPorPagina,
                 direcao, ordenarPor);
 
         GlobalPageDto<InsumoDto> listaFiltradaEPaginadaDeInsumos =
@@ -164,24 +261,40 @@ public class InsumoRepository {
         return listaFiltradaEPaginadaDeInsumos;
     }
 
+    public GlobalPageDto<InsumoDto> obterListaFiltradaEPaginadaDeInsumosSemTotal(String nome, Integer paginaAtual,
+                                                                                 Integer itensPorPagina,
+                                                                                 String direcao, String ordenarPor) {
+        List<InsumoDto> listaDeInsumos = obterListaFiltradaEPaginadaDeInsumosQuery(nome, itensPorPagina + 1,
+                paginaAtual * itensPorPagina, direcao, ordenarPor);
+
+        boolean temProxima = listaDeInsumos.size() > itensPorPagina;
+        if (temProxima) {
+            listaDeInsumos.remove(listaDeInsumos.size() - 1);
+        }
+
+        return new GlobalPageDto<>(listaDeInsumos, paginaAtual, itensPorPagina, temProxima);
+    }
+
     public Long obterTotalDeInsumosFiltradosQuery(String nome) {
+        Optional<Long> totalEmCache = cacheDeTotais.obterTotal(INSUMOS, nome);
+        if (totalEmCache.isPresent()) {
+            return totalEmCache.get();
+        }
+
+        Long versao = cacheDeTotais.obterVersao(INSUMOS);
         try{
             Map<String, Object> parametros = new HashMap<>();
-            StringBuilder sql = new StringBuilder();
-            sql.append(" SELECT COUNT(*) FROM tb_insumos ");
-
-            if (isNotBlank(nome)) {
-                sql.append(" WHERE LOWER(nome) LIKE LOWER(:nome) ");
-                parametros.put("nome", "%" + nome + "%");
-            }
+            TipoDoFiltro filtro = definirFiltroPorNome(parametros, nome, "nome");
 
-            Query query = em.createNativeQuery(sql.toString());
+            Query query = em.createNativeQuery(CONSULTAS_DA_LISTAGEM.obterConsultaDoTotal(filtro));
 
             setQueryParameters(parametros, query);
 
             Object resultado = query.getSingleResult();
             Number totalDeInsumos = (Number) resultado;
 
+            cacheDeTotais.armazenarTotal(INSUMOS, nome, versao, totalDeInsumos.longValue());
+
             logSucessoAoObterTotalDeInsumosFiltrados(nome);
             return totalDeInsumos.longValue();
 
@@ -191,25 +304,16 @@ public class InsumoRepository {
         }
     }
 
-    private List<InsumoDto> obterListaFiltradaEPaginadaDeInsumosQuery(String nome, Integer paginaAtual,
-                                                                      Integer itensPorPagina, String direcao,
+    private List<InsumoDto> obterListaFiltradaEPaginadaDeInsumosQuery(String nome, Integer limit,
+                                                                      Integer offset, String direcao,
                                                                       String ordenarPor) {
         try{
             Map<String, Object> parametros = new HashMap<>();
-            StringBuilder sql = new StringBuilder();
-            sql.append(" SELECT id, nome, quantidade_por_pacote, valor_pago_por_pacote FROM tb_insumos ");
-
-            if (isNotBlank(nome)) {
-                sql.append(" WHERE LOWER(nome) LIKE LOWER(:nome) ");
-                parametros.put("nome", "%" + nome + "%");
-            }
-
-            sql.append(" ORDER BY ").append(ordenarPor).append(" ").append(direcao).append(" ");
-            sql.append(" LIMIT :limit OFFSET :offset ");
+            TipoDoFiltro filtro = definirFiltroPorNome(parametros, nome, "nome");
 
-            Query query = em.createNativeQuery(sql.toString())
-                    .setParameter("limit", itensPorPagina)
-                    .setParameter("offset", paginaAtual * itensPorPagina);
+            Query query = em.createNativeQuery(CONSULTAS_DA_LISTAGEM.obterConsultaDaPagina(filtro, ordenarPor, direcao))
+                    .setParameter("limit", limit)
+                    .setParameter("offset", offset);
 
             setQueryParameters(parametros, query);
 
@@ -238,6 +342,176 @@ public class InsumoRepository {
         }
     }
 
+    public GlobalPageDto<InsumoDto> obterListaFiltradaDeInsumosPorCursor(String nome, CursorDto cursor,
+                                                                          Integer itensPorPagina, String direcao,
+                                                                          String ordenarPor) {
+        try {
+            boolean avancar = isNull(cursor) || cursor.getAvancar();
+
+            Map<String, Object> parametros = new HashMap<>();
+            TipoDoFiltro filtro = definirFiltroPorNome(parametros, nome, "nome");
+
+            if (!isNull(cursor)) {
+                parametros.put("valorCursor", converterValorDoCursor(cursor.getValor(), ordenarPor));
+                parametros.put("idCursor", cursor.getId());
+            }
+
+            Query query = em.createNativeQuery(CONSULTAS_DA_LISTAGEM
+                            .obterConsultaDoCursor(filtro, ordenarPor, direcao, avancar, !isNull(cursor)))
+                    .setParameter("limit", itensPorPagina + 1);
+
+            setQueryParameters(parametros, query);
+
+            List<Object[]> listaDeResultados = query.getResultList();
+            List<InsumoDto> listaDeInsumos = new ArrayList<>();
+
+            for (Object[] resultado : listaDeResultados) {
+                InsumoDto insumoDto = new InsumoDto();
+
+                insumoDto.setId(((Number) resultado[0]).longValue());
+                insumoDto.setNome((String) resultado[1]);
+                insumoDto.setQuantidadePorPacote(((Number) resultado[2]).doubleValue());
+
+                BigDecimal valorPagoPorPacote = new BigDecimal(resultado[3].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN);
+                insumoDto.setValorPagoPorPacote(valorPagoPorPacote);
+
+                listaDeInsumos.add(insumoDto);
+            }
+
+            boolean haMaisItens = listaDeInsumos.size() > itensPorPagina;
+            if (haMaisItens) {
+                listaDeInsumos.remove(listaDeInsumos.size() - 1);
+            }
+            if (!avancar) {
+                Collections.reverse(listaDeInsumos);
+            }
+
+            boolean temProxima = !avancar || haMaisItens;
+            boolean temAnterior = avancar ? !isNull(cursor) : haMaisItens;
+
+            String proximoCursor = null;
+            String cursorAnterior = null;
+            if (!listaDeInsumos.isEmpty()) {
+                InsumoDto primeiro = listaDeInsumos.get(0);
+                InsumoDto ultimo = listaDeInsumos.get(listaDeInsumos.size() - 1);
+
+                if (temProxima) {
+                    proximoCursor = gerarCursor(ordenarPor, direcao, true,
+                            obterValorDeOrdenacao(ultimo, ordenarPor), ultimo.getId());
+                }
+                if (temAnterior) {
+                    cursorAnterior = gerarCursor(ordenarPor, direcao, false,
+                            obterValorDeOrdenacao(primeiro, ordenarPor), primeiro.getId());
+                }
+            }
+
+            logSucessoAoObterListaDeInsumosPorCursor(nome);
+            return new GlobalPageDto<>(listaDeInsumos, itensPorPagina, proximoCursor, cursorAnterior);
+
+        } catch (EmpreendedorErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logErroInesperadoAoObterListaDeInsumosPorCursor(nome, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter lista de insumos por cursor.");
+        }
+    }
+
+    private Object obterValorDeOrdenacao(InsumoDto insumoDto, String ordenarPor) {
+        return switch (ordenarPor) {
+            case "quantidade_por_pacote" -> BigDecimal.valueOf(insumoDto.getQuantidadePorPacote()).toPlainString();
+            case "valor_pago_por_pacote" -> insumoDto.getValorPagoPorPacote().toPlainString();
+            default -> insumoDto.getNome();
+        };
+    }
+
+    private Object converterValorDoCursor(String valor, String ordenarPor) {
+        if ("nome".equals(ordenarPor)) {
+            return valor;
+        }
+        try {
+            return new BigDecimal(valor);
+        } catch (NumberFormatException e) {
+            throw new EmpreendedorErrorException("O cursor informado é inválido.");
+        }
+    }
+
+    // Percorre a tabela em ordem de id em lotes do tamanho informado, cada um lido a partir do último id do anterior
+    // pelo índice da chave primária. O H2 embutido monta o resultado inteiro de uma consulta antes da primeira linha,
+    // mesmo com cursor somente para frente, então só um lote fica em memória de cada vez.
+    public Long exportarInsumos(Integer tamanhoDoLoteDeLeitura, Consumer<InsumoDto> consumidor) {
+        try {
+            String sql = " SELECT id, nome, quantidade_por_pacote, valor_pago_por_pacote FROM tb_insumos " +
+                    " WHERE id > :ultimoId ORDER BY id LIMIT :limit ";
+
+            long totalDeInsumos = 0;
+            long ultimoId = 0;
+            List<Object[]> lote;
+            do {
+                lote = em.createNativeQuery(sql)
+                        .setParameter("ultimoId", ultimoId)
+                        .setParameter("limit", tamanhoDoLoteDeLeitura)
+                        .getResultList();
+
+                for (Object[] resultado : lote) {
+                    InsumoDto insumoDto = new InsumoDto();
+
+                    insumoDto.setId(((Number) resultado[0]).longValue());
+                    insumoDto.setNome((String) resultado[1]);
+                    insumoDto.setQuantidadePorPacote(((Number) resultado[2]).doubleValue());
+
+                    BigDecimal valorPagoPorPacote = new BigDecimal(resultado[3].toString())
+                            .setScale(2, RoundingMode.HALF_EVEN);
+                    insumoDto.setValorPagoPorPacote(valorPagoPorPacote);
+
+                    consumidor.accept(insumoDto);
+                    ultimoId = insumoDto.getId();
+                }
+                totalDeInsumos += lote.size();
+            } while (lote.size() == tamanhoDoLoteDeLeitura);
+
+            logSucessoAoExportarInsumos(totalDeInsumos);
+            return totalDeInsumos;
+
+        } catch (Exception e) {
+            logErroInesperadoAoExportarInsumos(e);
+            throw new EmpreendedorErrorException("Erro inesperado ao exportar os insumos.");
+        }
+    }
+
+    public List<InsumoDto> obterListaDeInsumosPelosIds(Collection<Long> ids) {
+        try {
+            String sql = " SELECT id, nome, quantidade_por_pacote, valor_pago_por_pacote FROM tb_insumos " +
+                    " WHERE id IN (:ids) ";
+
+            Query query = em.createNativeQuery(sql)
+                    .setParameter("ids", ids);
+
+            List<Object[]> listaDeResultados = query.getResultList();
+            List<InsumoDto> listaDeInsumos = new ArrayList<>();
+
+            for (Object[] resultado : listaDeResultados) {
+                InsumoDto insumoDto = new InsumoDto();
+                insumoDto.setId(((Number) resultado[0]).longValue());
+                insumoDto.setNome((String) resultado[1]);
+                insumoDto.setQuantidadePorPacote(((Number) resultado[2]).doubleValue());
+
+                BigDecimal valorPagoPorPacote = new BigDecimal(resultado[3].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN);
+                insumoDto.setValorPagoPorPacote(valorPagoPorPacote);
+
+                listaDeInsumos.add(insumoDto);
+            }
+
+            logSucessoAoObterListaDeInsumosPelosIds(ids);
+            return listaDeInsumos;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterListaDeInsumosPelosIds(ids, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter lista de insumos pelos ids.");
+        }
+    }
+
     private void setQueryParameters(Map<String, Object> parameters, Query query) {
         for (Map.Entry<String, Object> param : parameters.entrySet()) {
             query.setParameter(param.getKey(), param.getValue());
@@ -0,0 +1,71 @@
+package com.spea.api.repositories;
+
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static com.spea.api.utils.LogUtil.*;
+
+@Repository
+public class RecalculoPendenteRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    // Várias alterações do mesmo insumo antes do recálculo ficam em uma única linha.
+    public void registrarInsumoPendente(Long insumoId) {
+        try {
+            String sql = " MERGE INTO tb_recalculo_pendente (insumo_id, agendado_em) KEY (insumo_id) " +
+                    " VALUES (:insumoId, CURRENT_TIMESTAMP) ";
+
+            em.createNativeQuery(sql)
+                    .setParameter("insumoId", insumoId)
+                    .executeUpdate();
+
+        } catch (Exception e) {
+            logErroInesperadoAoRegistrarRecalculoPendente(insumoId, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao agendar o recálculo dos custos do insumo.");
+        }
+    }
+
+    // Deve ser o primeiro comando da transação do recálculo: com as linhas bloqueadas, uma alteração de preço
+    // feita durante o recálculo espera o commit e volta a deixar o insumo pendente.
+    public Integer removerInsumosPendentes(Collection<Long> insumoIds) {
+        try {
+            String sql = " DELETE FROM tb_recalculo_pendente WHERE insumo_id IN (:insumoIds) ";
+
+            return em.createNativeQuery(sql)
+                    .setParameter("insumoIds", insumoIds)
+                    .executeUpdate();
+
+        } catch (Exception e) {
+            logErroInesperadoAoRemoverRecalculosPendentes(insumoIds, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao remover os recálculos pendentes dos insumos.");
+        }
+    }
+
+    public List<Long> obterInsumosPendentes() {
+        try {
+            String sql = " SELECT insumo_id FROM tb_recalculo_pendente ORDER BY agendado_em, insumo_id ";
+
+            List<?> listaDeResultados = em.createNativeQuery(sql).getResultList();
+
+            List<Long> insumoIds = new ArrayList<>(listaDeResultados.size());
+            for (Object resultado : listaDeResultados) {
+                insumoIds.add(((Number) resultado).longValue());
+            }
+
+            logSucessoAoObterRecalculosPendentes(insumoIds.size());
+            return insumoIds;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterRecalculosPendentes(e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter os recálculos pendentes.");
+        }
+    }
+}
@@ -1,46 +1,99 @@
 package com.spea.api.repositories;
 
+import com.spea.api.cache.CacheDeTotais;
+import com.spea.api.cache.ContadorDeAlteracoes;
 import com.spea.api.dtos.*;
 import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.busca.FiltroPorNome.TipoDoFiltro;
+import com.spea.api.repositories.consultas.ConsultasDaListagem;
+import com.spea.api.repositories.existencia.FiltrosDeExistencia;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static com.spea.api.cache.TabelaMonitorada.RECEITAS;
+import static com.spea.api.cache.TabelaMonitorada.RECEITA_INSUMO;
+import static com.spea.api.repositories.busca.FiltroPorNome.adicionarFiltroPorNome;
+import static com.spea.api.repositories.busca.FiltroPorNome.definirFiltroPorNome;
+import static com.spea.api.utils.CursorUtil.*;
 import static com.spea.api.utils.LogUtil.*;
+import static java.util.Objects.isNull;
 import static org.apache.commons.lang3.StringUtils.*;
 
 @Repository
 public class ReceitaInsumoRepository {
 
     private static final Logger log = LoggerFactory.getLogger(ReceitaInsumoRepository.class);
+
+    private static final ConsultasDaListagem CONSULTAS_DA_LISTAGEM = new ConsultasDaListagem(
+            " i.id, i.nome, ri.quantidade_utilizada_insumo, ri.valor_gasto_insumo ",
+            " FROM tb_receita_insumo AS ri JOIN tb_insumos AS i ON ri.insumo_id = i.id " +
+                    " WHERE 1=1 AND ri.receita_id = :receitaId ", "i.id",
+            (sql, filtro) -> adicionarFiltroPorNome(sql, filtro, "nomeInsumo", "i.id", "i.nome_busca",
+                    "tb_insumos_trigramas", "insumo_id"),
+            List.of("i.nome", "ri.quantidade_utilizada_insumo", "ri.valor_gasto_insumo"));
+
+    // Mesmo cálculo de ReceitaInsumoService.calcularGastoComInsumo: o ROUND do H2 arredonda metades para cima,
+    // então o caso de metade exata com centavo par é tratado à parte para manter o HALF_EVEN.
+    private static final String EXPRESSAO_VALOR_GASTO_RECALCULADO =
+            " CAST(CASE " +
+            "   WHEN MOD(FLOOR(:precoPorUnidadeInsumo * ri.quantidade_utilizada_insumo * 100), 2) = 0 " +
+            "    AND :precoPorUnidadeInsumo * ri.quantidade_utilizada_insumo * 100 " +
+            "      - FLOOR(:precoPorUnidadeInsumo * ri.quantidade_utilizada_insumo * 100) = 0.5 " +
+            "   THEN FLOOR(:precoPorUnidadeInsumo * ri.quantidade_utilizada_insumo * 100) / 100 " +
+            "   ELSE ROUND(:precoPorUnidadeInsumo * ri.quantidade_utilizada_insumo, 2) " +
+            " END AS DECIMAL(10,2)) ";
+
     @PersistenceContext
     private EntityManager em;
 
-    public ReceitaInsumoDto criarAssociacao(Long receitaId, Long insumoId, BigDecimal quantidadeUtilizadaInsumo,
-                                BigDecimal valorGastoInsumo) {
+    @Autowired
+    private CacheDeTotais cacheDeTotais;
+
+    @Autowired
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @Autowired
+    private FiltrosDeExistencia filtrosDeExistencia;
+
+    // Soma o valor gasto ao total da receita e insere a associação no mesmo comando: a inserção parte das linhas
+    // devolvidas pelo UPDATE, então nada é inserido se a receita não existir mais. A soma é feita sobre o valor
+    // atual da linha, já bloqueada pelo UPDATE, e não sobre um total lido antes.
+    public ReceitaInsumoDto criarAssociacaoEAtualizarTotalDaReceita(Long receitaId, Long insumoId,
+                                                                    BigDecimal quantidadeUtilizadaInsumo,
+                                                                    BigDecimal valorGastoInsumo) {
         try{
-            StringBuilder sql = new StringBuilder();
-            sql.append(" INSERT INTO tb_receita_insumo ");
-            sql.append(" (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) ");
-            sql.append(" VALUES (:insumoId, :receitaId, :quantidadeUtilizadaInsumo, :valorGastoInsumo) ");
+            String sql = " INSERT INTO tb_receita_insumo " +
+                    " (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                    " SELECT :insumoId, r.id, :quantidadeUtilizadaInsumo, :valorGastoInsumo " +
+                    " FROM FINAL TABLE ( " +
+                    "   UPDATE tb_receitas " +
+                    "   SET total_gasto_insumos = COALESCE(total_gasto_insumos, 0) + :valorGastoInsumo, " +
+                    "   custo_recalculado_em = CURRENT_TIMESTAMP " +
+                    "   WHERE id = :receitaId " +
+                    " ) AS r ";
 
-            Query query = em.createNativeQuery(sql.toString())
+            Query query = em.createNativeQuery(sql)
                     .setParameter("insumoId", insumoId)
                     .setParameter("receitaId", receitaId)
                     .setParameter("quantidadeUtilizadaInsumo", quantidadeUtilizadaInsumo)
                     .setParameter("valorGastoInsumo", valorGastoInsumo);
 
-            query.executeUpdate();
+            if (query.executeUpdate() == 0) {
+                throw new EmpreendedorErrorException("Nenhuma receita encontrada pelo id informado.");
+            }
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS, RECEITA_INSUMO);
 
             ReceitaInsumoDto receitaInsumoAssociacaoDto = new ReceitaInsumoDto();
             receitaInsumoAssociacaoDto.setInsumoId(insumoId);
@@ -51,29 +104,155 @@ public class ReceitaInsumoRepository {
             logSucessoAoCriarAssociacaoEntreReceitaEInsumo(receitaId, insumoId);
             return receitaInsumoAssociacaoDto;
 
-        }catch (Exception e) {
+        } catch (EmpreendedorErrorException e) {
+            throw e;
+        } catch (Exception e) {
             logErroInesperadoAoCriarAssociacaoEntreReceitaEInsumo(receitaId, insumoId, e);
             throw new EmpreendedorErrorException("Erro inesperado ao criar associação entre receita e insumo.");
         }
     }
 
-    public ReceitaInsumoDto atualizarReceitaInsumo(Long receitaId, Long insumoId,
-                                                   BigDecimal quantidadeUtilizadaInsumo,
-                                                   BigDecimal valorGastoInsumo) {
+    // Soma os valores gastos de todo o lote ao total da receita em um único UPDATE, que também bloqueia a linha da
+    // receita, e insere as associações em lote na mesma conexão. Uma falha em qualquer linha desfaz o lote inteiro.
+    public List<ReceitaInsumoDto> criarAssociacoesEmLoteEAtualizarTotalDaReceita(Long receitaId,
+                                                                                 List<ReceitaInsumoDto> listaDeAssociacoes) {
+        try{
+            BigDecimal somaDosValoresGastos = listaDeAssociacoes.stream()
+                    .map(ReceitaInsumoDto::getValorGastoInsumo)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            String sqlTotal = " UPDATE tb_receitas " +
+                    " SET total_gasto_insumos = COALESCE(total_gasto_insumos, 0) + :somaDosValoresGastos, " +
+                    " custo_recalculado_em = CURRENT_TIMESTAMP " +
+                    " WHERE id = :receitaId ";
+
+            int totalDeReceitasAtualizadas = em.createNativeQuery(sqlTotal)
+                    .setParameter("somaDosValoresGastos", somaDosValoresGastos)
+                    .setParameter("receitaId", receitaId)
+                    .executeUpdate();
+
+            if (totalDeReceitasAtualizadas == 0) {
+                throw new EmpreendedorErrorException("Nenhuma receita encontrada pelo id informado.");
+            }
+
+            String sql = " INSERT INTO tb_receita_insumo " +
+                    " (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                    " VALUES (?, ?, ?, ?) ";
+
+            em.unwrap(Session.class).doWork(conexao -> {
+                try (PreparedStatement comando = conexao.prepareStatement(sql)) {
+                    for (ReceitaInsumoDto associacao : listaDeAssociacoes) {
+                        comando.setLong(1, associacao.getInsumoId());
+                        comando.setLong(2, receitaId);
+                        comando.setBigDecimal(3, associacao.getQuantidadeUtilizadaInsumo());
+                        comando.setBigDecimal(4, associacao.getValorGastoInsumo());
+                        comando.addBatch();
+                    }
+                    comando.executeBatch();
+                }
+            });
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS, RECEITA_INSUMO);
+
+            List<ReceitaInsumoDto> listaDeAssociacoesCriadas = new ArrayList<>();
+            for (ReceitaInsumoDto associacao : listaDeAssociacoes) {
+                ReceitaInsumoDto receitaInsumoAssociacaoDto = new ReceitaInsumoDto();
+                receitaInsumoAssociacaoDto.setInsumoId(associacao.getInsumoId());
+                receitaInsumoAssociacaoDto.setInsumoNome(associacao.getInsumoNome());
+                receitaInsumoAssociacaoDto.setReceitaId(receitaId);
+                receitaInsumoAssociacaoDto.setQuantidadeUtilizadaInsumo(associacao.getQuantidadeUtilizadaInsumo());
+                receitaInsumoAssociacaoDto.setValorGastoInsumo(associacao.getValorGastoInsumo());
+                listaDeAssociacoesCriadas.add(receitaInsumoAssociacaoDto);
+            }
+
+            logSucessoAoCriarAssociacoesEmLote(receitaId, listaDeAssociacoes.size());
+            return listaDeAssociacoesCriadas;
+
+        } catch (EmpreendedorErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logErroInesperadoAoCriarAssociacoesEmLote(receitaId, listaDeAssociacoes.size(), e);
+            throw new EmpreendedorErrorException("Erro inesperado ao criar as associações entre receita e insumos.");
+        }
+    }
+
+    // Uma única consulta com IN traz os insumos informados e, quando já existir, a associação de cada um com a
+    // receita. Os ids que não voltarem não existem.
+    public List<AssociacaoDto> obterInsumosParaAssociacaoEmLote(Long receitaId, List<Long> insumoIds) {
         try{
-            StringBuilder sql = new StringBuilder();
-            sql.append(" UPDATE tb_receita_insumo ");
-            sql.append(" SET quantidade_utilizada_insumo = :quantidadeUtilizadaInsumo, ");
-            sql.append(" valor_gasto_insumo = :valorGastoInsumo ");
-            sql.append(" WHERE receita_id = :receitaId  AND insumo_id = :insumoId LIMIT 1");
+            String sql = " SELECT i.id, i.nome, i.quantidade_por_pacote, i.valor_pago_por_pacote, ri.receita_id " +
+                    " FROM tb_insumos AS i " +
+                    " LEFT JOIN tb_receita_insumo AS ri ON ri.insumo_id = i.id AND ri.receita_id = :receitaId " +
+                    " WHERE i.id IN (:insumoIds) ";
 
-            Query query = em.createNativeQuery(sql.toString())
+            Query query = em.createNativeQuery(sql)
+                    .setParameter("receitaId", receitaId)
+                    .setParameter("insumoIds", insumoIds);
+
+            List<Object[]> listaDeResultados = query.getResultList();
+            List<AssociacaoDto> listaDeInsumos = new ArrayList<>();
+
+            for (Object[] resultado : listaDeResultados) {
+                AssociacaoDto associacaoDto = new AssociacaoDto();
+
+                InsumoDto insumoDto = new InsumoDto();
+                insumoDto.setId(((Number) resultado[0]).longValue());
+                insumoDto.setNome((String) resultado[1]);
+                insumoDto.setQuantidadePorPacote(((Number) resultado[2]).doubleValue());
+                BigDecimal valorPagoPorPacote = new BigDecimal(resultado[3].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN);
+                insumoDto.setValorPagoPorPacote(valorPagoPorPacote);
+                associacaoDto.setInsumoDto(insumoDto);
+
+                if (!isNull(resultado[4])) {
+                    ReceitaInsumoDto receitaInsumoDto = new ReceitaInsumoDto();
+                    receitaInsumoDto.setReceitaId(((Number) resultado[4]).longValue());
+                    receitaInsumoDto.setInsumoId(insumoDto.getId());
+                    associacaoDto.setReceitaInsumoDto(receitaInsumoDto);
+                }
+
+                listaDeInsumos.add(associacaoDto);
+            }
+
+            logSucessoAoObterInsumosParaAssociacaoEmLote(receitaId, insumoIds);
+            return listaDeInsumos;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterInsumosParaAssociacaoEmLote(receitaId, insumoIds, e);
+            throw new EmpreendedorErrorException(String
+                    .format("Erro inesperado ao obter os insumos para associação com a receita %d.", receitaId));
+        }
+    }
+
+    // O UPDATE da associação devolve o valor gasto anterior já com a linha bloqueada, e o total da receita recebe
+    // a diferença no mesmo comando. Duas alterações simultâneas da mesma receita não se sobrescrevem.
+    public ReceitaInsumoDto atualizarReceitaInsumoEAplicarDiferencaNoTotal(Long receitaId, Long insumoId,
+                                                                           BigDecimal quantidadeUtilizadaInsumo,
+                                                                           BigDecimal valorGastoInsumo) {
+        try{
+            String sql = " MERGE INTO tb_receitas AS r " +
+                    " USING ( " +
+                    "   SELECT receita_id, valor_gasto_insumo FROM OLD TABLE ( " +
+                    "     UPDATE tb_receita_insumo " +
+                    "     SET quantidade_utilizada_insumo = :quantidadeUtilizadaInsumo, " +
+                    "     valor_gasto_insumo = :valorGastoInsumo " +
+                    "     WHERE receita_id = :receitaId AND insumo_id = :insumoId " +
+                    "   ) " +
+                    " ) AS anterior ON r.id = anterior.receita_id " +
+                    " WHEN MATCHED THEN UPDATE " +
+                    " SET total_gasto_insumos = GREATEST(COALESCE(r.total_gasto_insumos, 0) - anterior.valor_gasto_insumo, 0) " +
+                    "   + :valorGastoInsumo, " +
+                    " custo_recalculado_em = CURRENT_TIMESTAMP ";
+
+            Query query = em.createNativeQuery(sql)
                     .setParameter("quantidadeUtilizadaInsumo", quantidadeUtilizadaInsumo)
                     .setParameter("valorGastoInsumo", valorGastoInsumo)
                     .setParameter("receitaId", receitaId)
                     .setParameter("insumoId", insumoId);
 
-            query.executeUpdate();
+            if (query.executeUpdate() == 0) {
+                throw new EmpreendedorErrorException("O insumo informado não está associado à receita informada.");
+            }
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS, RECEITA_INSUMO);
 
             ReceitaInsumoDto informacaoAssociacaoAtualizada = new ReceitaInsumoDto();
             informacaoAssociacaoAtualizada.setReceitaId(receitaId);
@@ -84,24 +263,60 @@ public class ReceitaInsumoRepository {
             logSucessoAoAtualizarReceitaInsumo(receitaId, insumoId);
             return informacaoAssociacaoAtualizada;
 
-        }catch (Exception e) {
+        } catch (EmpreendedorErrorException e) {
+            throw e;
+        } catch (Exception e) {
             logErroInesperadoAoAtualizarReceitaInsumo(receitaId, insumoId, e);
             throw new EmpreendedorErrorException(String
                     .format("Erro ao atualizar informações sobre a associação entre receita %d e insumo %d.", receitaId, insumoId));
         }
     }
 
+    // Remove as associações do insumo e abate de cada receita o valor gasto que a linha removida tinha no momento
+    // do DELETE, em um único comando.
+    public Integer removerAssociacoesDoInsumoEAbaterTotais(Long insumoId) {
+        try{
+            String sql = " MERGE INTO tb_receitas AS r " +
+                    " USING ( " +
+                    "   SELECT receita_id, valor_gasto_insumo FROM OLD TABLE ( " +
+                    "     DELETE FROM tb_receita_insumo WHERE insumo_id = :insumoId " +
+                    "   ) " +
+                    " ) AS removida ON r.id = removida.receita_id " +
+                    " WHEN MATCHED THEN UPDATE " +
+                    " SET total_gasto_insumos = GREATEST(COALESCE(r.total_gasto_insumos, 0) - removida.valor_gasto_insumo, 0), " +
+                    " custo_recalculado_em = CURRENT_TIMESTAMP ";
+
+            int totalDeReceitasAtualizadas = em.createNativeQuery(sql)
+                    .setParameter("insumoId", insumoId)
+                    .executeUpdate();
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS, RECEITA_INSUMO);
+
+            logSucessoAoRemoverAssociacoesDoInsumo(insumoId, totalDeReceitasAtualizadas);
+            return totalDeReceitasAtualizadas;
+
+        } catch (Exception e) {
+            logErroInesperadoAoRemoverAssociacoesDoInsumo(insumoId, e);
+            throw new EmpreendedorErrorException(String
+                    .format("Erro inesperado ao remover as associações do insumo %d.", insumoId));
+        }
+    }
+
     public Boolean verificarExistenciaDaAssociacaoDaReceitaEInsumo(Long receitaId, Long insumoId) {
+        if (filtrosDeExistencia.associacaoCertamenteNaoExiste(receitaId, insumoId)) {
+            logSucessoAoVerificarExistenciaDaAssociacaoDeReceitaEInsumo(receitaId, insumoId);
+            return false;
+        }
+
         try{
-            StringBuilder sql = new StringBuilder();
-            sql.append(" SELECT 1 FROM tb_receita_insumo WHERE receita_id = :receitaId ");
-            sql.append(" AND insumo_id = :insumoId ");
+            String sql = " SELECT 1 FROM tb_receita_insumo WHERE receita_id = :receitaId " +
+                    " AND insumo_id = :insumoId ";
 
-            Query query = em.createNativeQuery(sql.toString())
+            Query query = em.createNativeQuery(sql)
                     .setParameter("receitaId", receitaId)
                     .setParameter("insumoId", insumoId);
 
             List<?> listaDeResultado = query.getResultList();
+            filtrosDeExistencia.registrarConsultaAoBanco(RECEITA_INSUMO, !listaDeResultado.isEmpty());
 
             logSucessoAoVerificarExistenciaDaAssociacaoDeReceitaEInsumo(receitaId, insumoId);
             return !listaDeResultado.isEmpty();
@@ -115,16 +330,15 @@ public class ReceitaInsumoRepository {
 
     public AssociacaoDto obterTodosOsDadosDaAssociacaoPorReceitaIdEInsumoId(Long receitaId, Long insumoId) {
         try{
-            StringBuilder sql = new StringBuilder();
-            sql.append(" SELECT ri.insumo_id, ri.receita_id, ri.quantidade_utilizada_insumo, ri.valor_gasto_insumo, ");
-            sql.append(" r.id, r.nome, r.total_gasto_insumos, ");
-            sql.append(" i.id, i.nome, i.quantidade_por_pacote, i.valor_pago_por_pacote ");
-            sql.append(" FROM tb_receita_insumo AS ri ");
-            sql.append(" JOIN tb_receitas AS r ON ri.receita_id = r.id ");
-            sql.append(" JOIN tb_insumos AS i ON ri.insumo_id = i.id ");
-            sql.append(" WHERE ri.insumo_id = :insumoId AND ri.receita_id = :receitaId LIMIT 1 ");
-
-            Query query = em.createNativeQuery(sql.toString())
+            String sql = " SELECT ri.insumo_id, ri.receita_id, ri.quantidade_utilizada_insumo, ri.valor_gasto_insumo, " +
+                    " r.id, r.nome, r.total_gasto_insumos, " +
+                    " i.id, i.nome, i.quantidade_por_pacote, i.valor_pago_por_pacote " +
+                    " FROM tb_receita_insumo AS ri " +
+                    " JOIN tb_receitas AS r ON ri.receita_id = r.id " +
+                    " JOIN tb_insumos AS i ON ri.insumo_id = i.id " +
+                    " WHERE ri.insumo_id = :insumoId AND ri.receita_id = :receitaId LIMIT 1 ";
+
+            Query query = em.createNativeQuery(sql)
                     .setParameter("insumoId", insumoId)
                     .setParameter("receitaId", receitaId);
 
@@ -179,16 +393,75 @@ public class ReceitaInsumoRepository {
         }
     }
 
+    // Carrega receita, insumo e uma associação já existente em uma única consulta. Cada parte fica nula
+    // no AssociacaoDto quando não existe, e quem chama decide a mensagem de erro.
+    public AssociacaoDto obterDadosParaCriacaoDaAssociacao(Long receitaId, Long insumoId) {
+        try{
+            String sql = " SELECT r.id, r.nome, r.total_gasto_insumos, " +
+                    " i.id, i.nome, i.quantidade_por_pacote, i.valor_pago_por_pacote, " +
+                    " ri.quantidade_utilizada_insumo, ri.valor_gasto_insumo " +
+                    " FROM (VALUES (1)) AS base(um) " +
+                    " LEFT JOIN tb_receitas AS r ON r.id = :receitaId " +
+                    " LEFT JOIN tb_insumos AS i ON i.id = :insumoId " +
+                    " LEFT JOIN tb_receita_insumo AS ri ON ri.receita_id = :receitaId AND ri.insumo_id = :insumoId ";
+
+            Query query = em.createNativeQuery(sql)
+                    .setParameter("receitaId", receitaId)
+                    .setParameter("insumoId", insumoId);
+
+            Object[] resultado = (Object[]) query.getSingleResult();
+
+            AssociacaoDto dadosDaAssociacao = new AssociacaoDto();
+
+            if (!isNull(resultado[0])) {
+                ReceitaDto receitaDto = new ReceitaDto();
+                receitaDto.setId(((Number) resultado[0]).longValue());
+                receitaDto.setNome((String) resultado[1]);
+                receitaDto.setTotalGastoInsumos(new BigDecimal(resultado[2].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN));
+                dadosDaAssociacao.setReceitaDto(receitaDto);
+            }
+
+            if (!isNull(resultado[3])) {
+                InsumoDto insumoDto = new InsumoDto();
+                insumoDto.setId(((Number) resultado[3]).longValue());
+                insumoDto.setNome((String) resultado[4]);
+                insumoDto.setQuantidadePorPacote(((Number) resultado[5]).doubleValue());
+                insumoDto.setValorPagoPorPacote(new BigDecimal(resultado[6].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN));
+                dadosDaAssociacao.setInsumoDto(insumoDto);
+            }
+
+            if (!isNull(resultado[7])) {
+                ReceitaInsumoDto receitaInsumoDto = new ReceitaInsumoDto();
+                receitaInsumoDto.setReceitaId(receitaId);
+                receitaInsumoDto.setInsumoId(insumoId);
+                receitaInsumoDto.setQuantidadeUtilizadaInsumo(new BigDecimal(resultado[7].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN));
+                receitaInsumoDto.setValorGastoInsumo(new BigDecimal(resultado[8].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN));
+                dadosDaAssociacao.setReceitaInsumoDto(receitaInsumoDto);
+            }
+
+            logSucessoAoObterDadosParaCriacaoDaAssociacao(receitaId, insumoId);
+            return dadosDaAssociacao;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterDadosParaCriacaoDaAssociacao(receitaId, insumoId, e);
+            throw new EmpreendedorErrorException(String
+                    .format("Erro inesperado ao obter os dados para criação da associação entre receita %d e insumo %d.", receitaId, insumoId));
+        }
+    }
+
     public List<AssociacaoDto> obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(Long insumoId) {
         try{
-            StringBuilder sql = new StringBuilder();
-            sql.append(" SELECT ri.insumo_id, ri.receita_id, ri.quantidade_utilizada_insumo, ri.valor_gasto_insumo, ");
-            sql.append(" r.id, r.nome, r.total_gasto_insumos ");
-            sql.append(" FROM tb_receita_insumo AS ri ");
-            sql.append(" JOIN tb_receitas AS r ON ri.receita_id = r.id ");
-            sql.append(" WHERE ri.insumo_id = :insumoId ");
-
-            Query query = em.createNativeQuery(sql.toString())
+            String sql = " SELECT ri.insumo_id, ri.receita_id, ri.quantidade_utilizada_insumo, ri.valor_gasto_insumo, " +
+                    " r.id, r.nome, r.total_gasto_insumos " +
+                    " FROM tb_receita_insumo AS ri " +
+                    " JOIN tb_receitas AS r ON ri.receita_id = r.id " +
+                    " WHERE ri.insumo_id = :insumoId ";
+
+            Query query = em.createNativeQuery(sql)
                     .setParameter("insumoId", insumoId);
 
             List<Object[]> listaDeResultados = query.getResultList();
@@ -234,12 +507,11 @@ public class ReceitaInsumoRepository {
 
     public ReceitaInsumoDto obterAssociacaoPorReceitaIdEInsumoId(Long receitaId, Long insumoId) {
         try{
-            StringBuilder sql = new StringBuilder();
-            sql.append(" SELECT insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo ");
-            sql.append(" FROM tb_receita_insumo ");
-            sql.append(" WHERE receita_id = :receitaId AND insumo_id = :insumoId LIMIT 1 ");
+            String sql = " SELECT insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo " +
+                    " FROM tb_receita_insumo " +
+                    " WHERE receita_id = :receitaId AND insumo_id = :insumoId LIMIT 1 ";
 
-            Query query = em.createNativeQuery(sql.toString())
+            Query query = em.createNativeQuery(sql)
                     .setParameter("receitaId", receitaId)
                     .setParameter("insumoId", insumoId);
 
@@ -309,6 +581,65 @@ public class ReceitaInsumoRepository {
         }
     }
 
+    // Pela chave primária, que começa por insumo_id.
+    public List<ReceitaInsumoDto> obterAssociacoesDosInsumos(Collection<Long> insumoIds) {
+        try {
+            String sql = " SELECT receita_id, insumo_id, quantidade_utilizada_insumo, valor_gasto_insumo " +
+                    " FROM tb_receita_insumo WHERE insumo_id IN (:insumoIds) ";
+
+            List<Object[]> listaDeResultados = em.createNativeQuery(sql)
+                    .setParameter("insumoIds", insumoIds)
+                    .getResultList();
+
+            List<ReceitaInsumoDto> listaDeAssociacoes = new ArrayList<>(listaDeResultados.size());
+            for (Object[] resultado : listaDeResultados) {
+                ReceitaInsumoDto receitaInsumoDto = new ReceitaInsumoDto();
+                receitaInsumoDto.setReceitaId(((Number) resultado[0]).longValue());
+                receitaInsumoDto.setInsumoId(((Number) resultado[1]).longValue());
+                receitaInsumoDto.setQuantidadeUtilizadaInsumo(new BigDecimal(resultado[2].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN));
+                receitaInsumoDto.setValorGastoInsumo(new BigDecimal(resultado[3].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN));
+                listaDeAssociacoes.add(receitaInsumoDto);
+            }
+            return listaDeAssociacoes;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterAssociacoesDosInsumos(insumoIds, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter as associações dos insumos.");
+        }
+    }
+
+    // Só as quantidades e os nomes: o valor gasto é recalculado por quem chama, com outro preço.
+    public List<ReceitaInsumoDto> obterQuantidadesDosInsumosDasReceitas(Collection<Long> receitaIds) {
+        try {
+            String sql = " SELECT ri.receita_id, ri.insumo_id, i.nome, ri.quantidade_utilizada_insumo " +
+                    " FROM tb_receita_insumo ri " +
+                    " JOIN tb_insumos i ON i.id = ri.insumo_id " +
+                    " WHERE ri.receita_id IN (:receitaIds) ";
+
+            List<Object[]> listaDeResultados = em.createNativeQuery(sql)
+                    .setParameter("receitaIds", receitaIds)
+                    .getResultList();
+
+            List<ReceitaInsumoDto> listaDeAssociacoes = new ArrayList<>(listaDeResultados.size());
+            for (Object[] resultado : listaDeResultados) {
+                ReceitaInsumoDto receitaInsumoDto = new ReceitaInsumoDto();
+                receitaInsumoDto.setReceitaId(((Number) resultado[0]).longValue());
+                receitaInsumoDto.setInsumoId(((Number) resultado[1]).longValue());
+                receitaInsumoDto.setInsumoNome((String) resultado[2]);
+                receitaInsumoDto.setQuantidadeUtilizadaInsumo(new BigDecimal(resultado[3].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN));
+                listaDeAssociacoes.add(receitaInsumoDto);
+            }
+            return listaDeAssociacoes;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterQuantidadesDosInsumosDasReceitas(receitaIds, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter os insumos das receitas.");
+        }
+    }
+
     public GlobalPageDto<ReceitaInsumoDto> obterListaFiltradaEPaginadaDeInsumosAssociadosAReceita(Long receitaId,
                                                                                                     String nomeInsumo,
                                                                                                     Integer paginaAtual,
@@ -320,7 +651,7 @@ public class ReceitaInsumoRepository {
 
         List<ReceitaInsumoDto> listaDeInsumosAssociadosAReceitaFiltradosEPaginados =
                 obterListaFiltradaEPaginadaDeInsumosAssociadosAReceitaQuery(receitaId, nomeInsumo,
-                        paginaAtual,itensPorPagina, direcao, ordenarPor);
+                        itensPorPagina, paginaAtual * itensPorPagina, direcao, ordenarPor);
 
         GlobalPageDto<ReceitaInsumoDto> insumosAssociadosAReceitaPaginaveis =
                 new GlobalPageDto<>(listaDeInsumosAssociadosAReceitaFiltradosEPaginados,
@@ -330,21 +661,37 @@ public class ReceitaInsumoRepository {
         return insumosAssociadosAReceitaPaginaveis;
     }
 
+    public GlobalPageDto<ReceitaInsumoDto> obterListaFiltradaEPaginadaDeInsumosAssociadosAReceitaSemTotal(Long receitaId,
+                                                                                                           String nomeInsumo,
+                                                                                                           Integer paginaAtual,
+                                                                                                           Integer itensPorPagina,
+                                                                                                           String direcao,
+                                                                                                           String ordenarPor) {
+        List<ReceitaInsumoDto> listaDeInsumosAssociadosAReceita =
+                obterListaFiltradaEPaginadaDeInsumosAssociadosAReceitaQuery(receitaId, nomeInsumo,
+                        itensPorPagina + 1, paginaAtual * itensPorPagina, direcao, ordenarPor);
+
+        boolean temProxima = listaDeInsumosAssociadosAReceita.size() > itensPorPagina;
+        if (temProxima) {
+            listaDeInsumosAssociadosAReceita.remove(listaDeInsumosAssociadosAReceita.size() - 1);
+        }
+
+        return new GlobalPageDto<>(listaDeInsumosAssociadosAReceita, paginaAtual, itensPorPagina, temProxima);
+    }
+
     public Long obterTotalDeInsumosAssociadosAReceitaQuery(Long receitaId, String nomeInsumo) {
+        String filtro = receitaId + ":" + defaultString(nomeInsumo);
+        Optional<Long> totalEmCache = cacheDeTotais.obterTotal(RECEITA_INSUMO, filtro);
+        if (totalEmCache.isPresent()) {
+            return totalEmCache.get();
+        }
+
+        Long versao = cacheDeTotais.obterVersao(RECEITA_INSUMO);
         try{
             Map<String, Object> parametros = new HashMap<>();
-            StringBuilder sql = new StringBuilder();
+            TipoDoFiltro tipoDoFiltro = definirFiltroPorNome(parametros, nomeInsumo, "nomeInsumo");
 
-            sql.append(" SELECT COUNT(*) FROM tb_receita_insumo AS ri ");
-            sql.append(" JOIN tb_insumos AS i ON ri.insumo_id = i.id ");
-            sql.append(" WHERE 1=1 AND ri.receita_id = :receitaId ");
-
-            if (isNotBlank(nomeInsumo)) {
-                sql.append(" AND LOWER(i.nome) LIKE LOWER(:nomeInsumo) ");
-                parametros.put("nomeInsumo", "%" + nomeInsumo + "%");
-            }
-
-            Query query = em.createNativeQuery(sql.toString())
+            Query query = em.createNativeQuery(CONSULTAS_DA_LISTAGEM.obterConsultaDoTotal(tipoDoFiltro))
                     .setParameter("receitaId", receitaId);
 
             setQueryParameters(parametros, query);
@@ -352,6 +699,8 @@ public class ReceitaInsumoRepository {
             Object resultado = query.getSingleResult();
             Number totalDeItens = (Number) resultado;
 
+            cacheDeTotais.armazenarTotal(RECEITA_INSUMO, filtro, versao, totalDeItens.longValue());
+
             logSucessoAoObterTotalDeInsumosAssociadosAReceita(receitaId);
             return totalDeItens.longValue();
 
@@ -363,31 +712,71 @@ public class ReceitaInsumoRepository {
 
     private List<ReceitaInsumoDto> obterListaFiltradaEPaginadaDeInsumosAssociadosAReceitaQuery(Long receitaId,
                                                                                                  String nomeInsumo,
-                                                                                                 Integer paginaAtual,
-                                                                                                 Integer itensPorPagina,
+                                                                                                 Integer limit,
+                                                                                                 Integer offset,
                                                                                                  String direcao,
                                                                                                  String ordenarPor) {
         try {
             Map<String, Object> parametros = new HashMap<>();
+            TipoDoFiltro filtro = definirFiltroPorNome(parametros, nomeInsumo, "nomeInsumo");
+
+            Query query = em.createNativeQuery(CONSULTAS_DA_LISTAGEM.obterConsultaDaPagina(filtro, ordenarPor, direcao))
+                    .setParameter("receitaId", receitaId)
+                    .setParameter("limit", limit)
+                    .setParameter("offset", offset);
+
+            setQueryParameters(parametros, query);
+
+            List<Object[]> listaDeResultados = query.getResultList();
+            List<ReceitaInsumoDto> listaDeInsumosAssociadosAReceita = new ArrayList<>();
+
+            for (Object[] resultado : listaDeResultados) {
+                ReceitaInsumoDto receitaInsumoDto = new ReceitaInsumoDto();
+
+                receitaInsumoDto.setInsumoId(((Number) resultado[0]).longValue());
+                receitaInsumoDto.setInsumoNome((String) resultado[1]);
+
+                BigDecimal quantidadeUtilizadaInsumo =  new BigDecimal(resultado[2].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN);
+                receitaInsumoDto.setQuantidadeUtilizadaInsumo(quantidadeUtilizadaInsumo);
 
-            StringBuilder sql = new StringBuilder();
-            sql.append(" SELECT i.id, i.nome, ri.quantidade_utilizada_insumo, ri.valor_gasto_insumo ");
-            sql.append(" FROM tb_receita_insumo AS ri ");
-            sql.append(" JOIN tb_insumos AS i ON ri.insumo_id = i.id ");
-            sql.append(" WHERE 1=1 AND ri.receita_id = :receitaId ");
+                BigDecimal valorGastoInsumo = new BigDecimal(resultado[3].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN);
+                receitaInsumoDto.setValorGastoInsumo(valorGastoInsumo);
 
-            if (isNotBlank(nomeInsumo)) {
-                sql.append(" AND LOWER(i.nome) LIKE LOWER(:nomeInsumo) ");
-                parametros.put("nomeInsumo", "%" + nomeInsumo + "%");
+                listaDeInsumosAssociadosAReceita.add(receitaInsumoDto);
             }
 
-            sql.append(" ORDER BY ").append(ordenarPor).append(" ").append(direcao).append(" ");
-            sql.append(" LIMIT :limit OFFSET :offset ");
+            logSucessoAoObterListaFiltradaEPaginadaDeInsumosAssociadosAReceita(receitaId);
+            return listaDeInsumosAssociadosAReceita;
 
-            Query query = em.createNativeQuery(sql.toString())
+        } catch (Exception e) {
+            logErroInesperadoAoObterListaFiltradaEPaginadaDeInsumosAssociadosAReceita(receitaId, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter lista de insumos associados à receita informada.");
+        }
+    }
+
+    public GlobalPageDto<ReceitaInsumoDto> obterListaFiltradaDeInsumosAssociadosAReceitaPorCursor(Long receitaId,
+                                                                                                   String nomeInsumo,
+                                                                                                   CursorDto cursor,
+                                                                                                   Integer itensPorPagina,
+                                                                                                   String direcao,
+                                                                                                   String ordenarPor) {
+        try {
+            boolean avancar = isNull(cursor) || cursor.getAvancar();
+
+            Map<String, Object> parametros = new HashMap<>();
+            TipoDoFiltro filtro = definirFiltroPorNome(parametros, nomeInsumo, "nomeInsumo");
+
+            if (!isNull(cursor)) {
+                parametros.put("valorCursor", converterValorDoCursor(cursor.getValor(), ordenarPor));
+                parametros.put("idCursor", cursor.getId());
+            }
+
+            Query query = em.createNativeQuery(CONSULTAS_DA_LISTAGEM
+                            .obterConsultaDoCursor(filtro, ordenarPor, direcao, avancar, !isNull(cursor)))
                     .setParameter("receitaId", receitaId)
-                    .setParameter("limit", itensPorPagina)
-                    .setParameter("offset", paginaAtual * itensPorPagina);
+                    .setParameter("limit", itensPorPagina + 1);
 
             setQueryParameters(parametros, query);
 
@@ -411,15 +800,196 @@ public class ReceitaInsumoRepository {
                 listaDeInsumosAssociadosAReceita.add(receitaInsumoDto);
             }
 
-            logSucessoAoObterListaFiltradaEPaginadaDeInsumosAssociadosAReceita(receitaId);
-            return listaDeInsumosAssociadosAReceita;
+            boolean haMaisItens = listaDeInsumosAssociadosAReceita.size() > itensPorPagina;
+            if (haMaisItens) {
+                listaDeInsumosAssociadosAReceita.remove(listaDeInsumosAssociadosAReceita.size() - 1);
+            }
+            if (!avancar) {
+                Collections.reverse(listaDeInsumosAssociadosAReceita);
+            }
 
+            boolean temProxima = !avancar || haMaisItens;
+            boolean temAnterior = avancar ? !isNull(cursor) : haMaisItens;
+
+            String proximoCursor = null;
+            String cursorAnterior = null;
+            if (!listaDeInsumosAssociadosAReceita.isEmpty()) {
+                ReceitaInsumoDto primeiro = listaDeInsumosAssociadosAReceita.get(0);
+                ReceitaInsumoDto ultimo = listaDeInsumosAssociadosAReceita.get(listaDeInsumosAssociadosAReceita.size() - 1);
+
+                if (temProxima) {
+                    proximoCursor = gerarCursor(ordenarPor, direcao, true,
+                            obterValorDeOrdenacao(ultimo, ordenarPor), ultimo.getInsumoId());
+                }
+                if (temAnterior) {
+                    cursorAnterior = gerarCursor(ordenarPor, direcao, false,
+                            obterValorDeOrdenacao(primeiro, ordenarPor), primeiro.getInsumoId());
+                }
+            }
+
+            logSucessoAoObterListaDeInsumosAssociadosAReceitaPorCursor(receitaId);
+            return new GlobalPageDto<>(listaDeInsumosAssociadosAReceita, itensPorPagina, proximoCursor, cursorAnterior);
+
+        } catch (EmpreendedorErrorException e) {
+            throw e;
         } catch (Exception e) {
-            logErroInesperadoAoObterListaFiltradaEPaginadaDeInsumosAssociadosAReceita(receitaId, e);
+            logErroInesperadoAoObterListaDeInsumosAssociadosAReceitaPorCursor(receitaId, e);
             throw new EmpreendedorErrorException("Erro inesperado ao obter lista de insumos associados à receita informada.");
         }
     }
 
+    private Object obterValorDeOrdenacao(ReceitaInsumoDto receitaInsumoDto, String ordenarPor) {
+        return switch (ordenarPor) {
+            case "ri.quantidade_utilizada_insumo" -> receitaInsumoDto.getQuantidadeUtilizadaInsumo().toPlainString();
+            case "ri.valor_gasto_insumo" -> receitaInsumoDto.getValorGastoInsumo().toPlainString();
+            default -> receitaInsumoDto.getInsumoNome();
+        };
+    }
+
+    private Object converterValorDoCursor(String valor, String ordenarPor) {
+        if ("i.nome".equals(ordenarPor)) {
+            return valor;
+        }
+        try {
+            return new BigDecimal(valor);
+        } catch (NumberFormatException e) {
+            throw new EmpreendedorErrorException("O cursor informado é inválido.");
+        }
+    }
+
+    // Percorre as associações na ordem da chave primária (insumo_id, receita_id) em lotes lidos a partir do último
+    // par, como a exportação de insumos. Outra ordem obrigaria o banco a ordenar todas as linhas a cada lote.
+    // O nome do insumo vem de uma subconsulta pela chave: com JOIN o H2 começa por tb_insumos e ordena o resultado.
+    public Long exportarAssociacoes(Integer tamanhoDoLoteDeLeitura, Consumer<ReceitaInsumoDto> consumidor) {
+        try {
+            String sql = " SELECT ri.receita_id, ri.insumo_id, " +
+                    " (SELECT i.nome FROM tb_insumos AS i WHERE i.id = ri.insumo_id), " +
+                    " ri.quantidade_utilizada_insumo, ri.valor_gasto_insumo " +
+                    " FROM tb_receita_insumo AS ri " +
+                    " WHERE (ri.insumo_id, ri.receita_id) > (:ultimoInsumoId, :ultimaReceitaId) " +
+                    " ORDER BY ri.insumo_id, ri.receita_id LIMIT :limit ";
+
+            long totalDeAssociacoes = 0;
+            long ultimoInsumoId = 0;
+            long ultimaReceitaId = 0;
+            List<Object[]> lote;
+            do {
+                lote = em.createNativeQuery(sql)
+                        .setParameter("ultimoInsumoId", ultimoInsumoId)
+                        .setParameter("ultimaReceitaId", ultimaReceitaId)
+                        .setParameter("limit", tamanhoDoLoteDeLeitura)
+                        .getResultList();
+
+                for (Object[] resultado : lote) {
+                    ReceitaInsumoDto receitaInsumoDto = new ReceitaInsumoDto();
+
+                    receitaInsumoDto.setReceitaId(((Number) resultado[0]).longValue());
+                    receitaInsumoDto.setInsumoId(((Number) resultado[1]).longValue());
+                    receitaInsumoDto.setInsumoNome((String) resultado[2]);
+
+                    BigDecimal quantidadeUtilizadaInsumo = new BigDecimal(resultado[3].toString())
+                            .setScale(2, RoundingMode.HALF_EVEN);
+                    receitaInsumoDto.setQuantidadeUtilizadaInsumo(quantidadeUtilizadaInsumo);
+
+                    BigDecimal valorGastoInsumo = new BigDecimal(resultado[4].toString())
+                            .setScale(2, RoundingMode.HALF_EVEN);
+                    receitaInsumoDto.setValorGastoInsumo(valorGastoInsumo);
+
+                    consumidor.accept(receitaInsumoDto);
+                    ultimoInsumoId = receitaInsumoDto.getInsumoId();
+                    ultimaReceitaId = receitaInsumoDto.getReceitaId();
+                }
+                totalDeAssociacoes += lote.size();
+            } while (lote.size() == tamanhoDoLoteDeLeitura);
+
+            logSucessoAoExportarAssociacoes(totalDeAssociacoes);
+            return totalDeAssociacoes;
+
+        } catch (Exception e) {
+            logErroInesperadoAoExportarAssociacoes(e);
+            throw new EmpreendedorErrorException("Erro inesperado ao exportar as associações entre receitas e insumos.");
+        }
+    }
+
+    // O UPDATE das associações devolve o valor gasto anterior e a quantidade de cada linha já bloqueada, e o total da
+    // receita troca um valor pelo outro no mesmo comando. As associações são bloqueadas antes das receitas, na mesma
+    // ordem da atualização e da remoção de associações, para que o recálculo e essas alterações não se travem.
+    public Integer recalcularCustosDasReceitasQueUtilizamOInsumo(Long insumoId, BigDecimal precoPorUnidadeInsumo) {
+        try {
+            String sql = " MERGE INTO tb_receitas AS r " +
+                    " USING ( " +
+                    "   SELECT receita_id, valor_gasto_insumo, quantidade_utilizada_insumo FROM OLD TABLE ( " +
+                    "     UPDATE tb_receita_insumo AS ri " +
+                    "     SET valor_gasto_insumo = " + EXPRESSAO_VALOR_GASTO_RECALCULADO +
+                    "     WHERE ri.insumo_id = :insumoId " +
+                    "   ) " +
+                    " ) AS ri ON r.id = ri.receita_id " +
+                    " WHEN MATCHED THEN UPDATE " +
+                    " SET total_gasto_insumos = GREATEST(COALESCE(r.total_gasto_insumos, 0) - ri.valor_gasto_insumo, 0) " +
+                    "   + " + EXPRESSAO_VALOR_GASTO_RECALCULADO + ", " +
+                    " custo_recalculado_em = CURRENT_TIMESTAMP ";
+
+            int totalDeAssociacoesAtualizadas = em.createNativeQuery(sql)
+                    .setParameter("precoPorUnidadeInsumo", precoPorUnidadeInsumo)
+                    .setParameter("insumoId", insumoId)
+                    .executeUpdate();
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS, RECEITA_INSUMO);
+
+            logSucessoAoRecalcularCustosDasReceitasQueUtilizamOInsumo(insumoId, totalDeAssociacoesAtualizadas);
+            return totalDeAssociacoesAtualizadas;
+
+        } catch (Exception e) {
+            logErroInesperadoAoRecalcularCustosDasReceitasQueUtilizamOInsumo(insumoId, e);
+            throw new EmpreendedorErrorException(String
+                    .format("Erro inesperado ao recalcular os custos das receitas que utilizam o insumo %d.", insumoId));
+        }
+    }
+
+    public Integer recalcularValorGastoDasAssociacoesDoInsumo(Long insumoId, BigDecimal precoPorUnidadeInsumo) {
+        try {
+            int totalDeAssociacoesAtualizadas = atualizarValorGastoDasAssociacoesDoInsumo(insumoId, precoPorUnidadeInsumo);
+            contadorDeAlteracoes.registrarAlteracao(RECEITA_INSUMO);
+
+            logSucessoAoRecalcularCustosDasReceitasQueUtilizamOInsumo(insumoId, totalDeAssociacoesAtualizadas);
+            return totalDeAssociacoesAtualizadas;
+
+        } catch (Exception e) {
+            logErroInesperadoAoRecalcularCustosDasReceitasQueUtilizamOInsumo(insumoId, e);
+            throw new EmpreendedorErrorException(String
+                    .format("Erro inesperado ao recalcular os custos das receitas que utilizam o insumo %d.", insumoId));
+        }
+    }
+
+    private int atualizarValorGastoDasAssociacoesDoInsumo(Long insumoId, BigDecimal precoPorUnidadeInsumo) {
+        String sql = " UPDATE tb_receita_insumo AS ri " +
+                " SET valor_gasto_insumo = " +
+                EXPRESSAO_VALOR_GASTO_RECALCULADO +
+                " WHERE ri.insumo_id = :insumoId ";
+
+        return em.createNativeQuery(sql)
+                .setParameter("precoPorUnidadeInsumo", precoPorUnidadeInsumo)
+                .setParameter("insumoId", insumoId)
+                .executeUpdate();
+    }
+
+    public Boolean verificarSeAReceitaUtilizaAlgumDosInsumos(Long receitaId, Collection<Long> insumoIds) {
+        try {
+            String sql = " SELECT 1 FROM tb_receita_insumo WHERE receita_id = :receitaId " +
+                    " AND insumo_id IN (:insumoIds) LIMIT 1 ";
+
+            Query query = em.createNativeQuery(sql)
+                    .setParameter("receitaId", receitaId)
+                    .setParameter("insumoIds", insumoIds);
+
+            List<?> listaDeResultado = query.getResultList();
+            return !listaDeResultado.isEmpty();
+
+        } catch (Exception e) {
+            logErroInesperadoAoVerificarSeAReceitaUtilizaAlgumDosInsumos(receitaId, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao verificar os insumos utilizados pela receita.");
+        }
+    }
+
     private void setQueryParameters(Map<String, Object> parameters, Query query) {
         for (Map.Entry<String, Object> param : parameters.entrySet()) {
             query.setParameter(param.getKey(), param.getValue());
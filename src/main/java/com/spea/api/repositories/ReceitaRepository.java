@@ -1,30 +1,62 @@
 package com.spea.api.repositories;
 
+import com.spea.api.cache.CacheDeTotais;
+import com.spea.api.cache.ContadorDeAlteracoes;
+import com.spea.api.dtos.CursorDto;
+import com.spea.api.dtos.CustoDoInsumoNaReceitaDto;
+import com.spea.api.dtos.EstadoCustoReceitaDto;
 import com.spea.api.dtos.GlobalPageDto;
-import com.spea.api.dtos.InsumoDto;
 import com.spea.api.dtos.ReceitaDto;
+import com.spea.api.dtos.ResumoCustoReceitaDto;
 import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.busca.FiltroPorNome.TipoDoFiltro;
+import com.spea.api.repositories.consultas.ConsultasDaListagem;
+import com.spea.api.repositories.existencia.FiltrosDeExistencia;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static com.spea.api.cache.TabelaMonitorada.RECEITAS;
+import static com.spea.api.repositories.busca.FiltroPorNome.adicionarFiltroPorNome;
+import static com.spea.api.repositories.busca.FiltroPorNome.definirFiltroPorNome;
+import static com.spea.api.utils.CursorUtil.*;
 import static com.spea.api.utils.LogUtil.*;
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static java.util.Objects.isNull;
 
 @Repository
 public class ReceitaRepository {
 
+    private static final ConsultasDaListagem CONSULTAS_DA_LISTAGEM = new ConsultasDaListagem(
+            " id, nome, total_gasto_insumos ",
+            " FROM tb_receitas WHERE 1=1 ", "id",
+            (sql, filtro) -> adicionarFiltroPorNome(sql, filtro, "nome", "id", "nome_busca",
+                    "tb_receitas_trigramas", "receita_id"),
+            List.of("nome", "total_gasto_insumos"));
+
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired
+    private CacheDeTotais cacheDeTotais;
+
+    @Autowired
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @Autowired
+    private FiltrosDeExistencia filtrosDeExistencia;
+
 
     public ReceitaDto cadastrarReceita(ReceitaDto receitaDto) {
         try {
@@ -34,6 +66,7 @@ public class ReceitaRepository {
                     .setParameter("nome", receitaDto.getNome());
 
             query.executeUpdate();
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS);
 
             logSucessoAoCadastrarReceita(receitaDto.getNome());
             return receitaDto;
@@ -78,34 +111,12 @@ public class ReceitaRepository {
         }
     }
 
-    public ReceitaDto atualizarTotalGastoInsumosDaReceita(Long id, ReceitaDto receitaDto) {
-        try {
-            StringBuilder sql = new StringBuilder();
-            sql.append(" UPDATE tb_receitas ");
-            sql.append(" SET total_gasto_insumos = :total_gasto_insumos ");
-            sql.append(" WHERE id = :id LIMIT 1 ");
-
-            Query query = em.createNativeQuery(sql.toString())
-                    .setParameter("total_gasto_insumos", receitaDto.getTotalGastoInsumos())
-                    .setParameter("id", id);
-
-            query.executeUpdate();
-            logSucessoAoAtualizarReceita(id);
-
-            ReceitaDto receitaDtoAtualizada = new ReceitaDto();
-            receitaDtoAtualizada.setId(id);
-            receitaDtoAtualizada.setNome(receitaDto.getNome());
-            receitaDtoAtualizada.setTotalGastoInsumos(receitaDto.getTotalGastoInsumos());
-
-            return receitaDto;
-
-        }catch (Exception e) {
-            logErroInesperadoAoAtualizarReceita(id, e);
-            throw new EmpreendedorErrorException("Erro inesperado ao atualizar receita.");
+    public Boolean verificarExistenciaDaReceitaPeloId(Long id) {
+        if (filtrosDeExistencia.receitaCertamenteNaoExiste(id)) {
+            logSucessoAoVerificarExistenciaDaReceita(id);
+            return false;
         }
-    }
 
-    public Boolean verificarExistenciaDaReceitaPeloId(Long id) {
         try {
             String sql = " SELECT 1 FROM tb_receitas WHERE id = :id LIMIT 1 ";
 
@@ -113,6 +124,7 @@ public class ReceitaRepository {
                      .setParameter("id", id);
 
             List<?> listaDeResultado = query.getResultList();
+            filtrosDeExistencia.registrarConsultaAoBanco(RECEITAS, !listaDeResultado.isEmpty());
             logSucessoAoVerificarExistenciaDaReceita(id);
 
             return !listaDeResultado.isEmpty();
@@ -125,16 +137,16 @@ public class ReceitaRepository {
 
     public ReceitaDto atualizarNomeDaReceita(Long id, ReceitaDto receitaDto) {
         try{
-            StringBuilder sql = new StringBuilder();
-            sql.append(" UPDATE tb_receitas ");
-            sql.append(" SET nome = :nome ");
-            sql.append(" WHERE id = :id LIMIT 1 ");
+            String sql = " UPDATE tb_receitas " +
+                    " SET nome = :nome " +
+                    " WHERE id = :id LIMIT 1 ";
 
-            Query query = em.createNativeQuery(sql.toString())
+            Query query = em.createNativeQuery(sql)
                     .setParameter("nome", receitaDto.getNome())
                     .setParameter("id", id);
 
             query.executeUpdate();
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS);
             logSucessoAoAtualizarReceita(id);
 
             ReceitaDto receitaDtoAtualizada = new ReceitaDto();
@@ -155,7 +167,8 @@ public class ReceitaRepository {
         Long totalDeReceitas = obterTotalDeReceitasFiltradasQuery(nome);
 
         List<ReceitaDto> listaFiltradaEPaginadaDeReceitas =
-                obterListaOrdenadaFiltradaEPaginadaDeReceitasQuery(nome, paginaAtual, itensPorPagina, direcao, ordenarPor);
+                obterListaOrdenadaFiltradaEPaginadaDeReceitasQuery(nome, itensPorPagina, paginaAtual * itensPorPagina,
+                        direcao, ordenarPor);
 
         GlobalPageDto<ReceitaDto> listaDeReceitasFiltradasEPaginadas =
                 new GlobalPageDto<>(listaFiltradaEPaginadaDeReceitas, totalDeReceitas, paginaAtual, itensPorPagina);
@@ -164,24 +177,40 @@ public class ReceitaRepository {
 
     }
 
+    public GlobalPageDto<ReceitaDto> obterListaFiltradaEPaginadaDeReceitasSemTotal(String nome, Integer paginaAtual,
+                                                                                  Integer itensPorPagina, String direcao,
+                                                                                  String ordenarPor) {
+        List<ReceitaDto> listaDeReceitas = obterListaOrdenadaFiltradaEPaginadaDeReceitasQuery(nome, itensPorPagina + 1,
+                paginaAtual * itensPorPagina, direcao, ordenarPor);
+
+        boolean temProxima = listaDeReceitas.size() > itensPorPagina;
+        if (temProxima) {
+            listaDeReceitas.remove(listaDeReceitas.size() - 1);
+        }
+
+        return new GlobalPageDto<>(listaDeReceitas, paginaAtual, itensPorPagina, temProxima);
+    }
+
     public Long obterTotalDeReceitasFiltradasQuery(String nome) {
+        Optional<Long> totalEmCache = cacheDeTotais.obterTotal(RECEITAS, nome);
+        if (totalEmCache.isPresent()) {
+            return totalEmCache.get();
+        }
+
+        Long versao = cacheDeTotais.obterVersao(RECEITAS);
         try{
             Map<String, Object> parametros = new HashMap<>();
-            StringBuilder sql = new StringBuilder();
-            sql.append(" SELECT COUNT(*) FROM tb_receitas ");
-
-            if (isNotBlank(nome)) {
-                sql.append(" WHERE LOWER(nome) LIKE LOWER(:nome) ");
-                parametros.put("nome", "%" + nome + "%");
-            }
+            TipoDoFiltro filtro = definirFiltroPorNome(parametros, nome, "nome");
 
-            Query query = em.createNativeQuery(sql.toString());
+            Query query = em.createNativeQuery(CONSULTAS_DA_LISTAGEM.obterConsultaDoTotal(filtro));
 
             setQueryParameters(parametros, query);
 
             Object resultado = query.getSingleResult();
             Number totalDeReceitas = (Number) resultado;
 
+            cacheDeTotais.armazenarTotal(RECEITAS, nome, versao, totalDeReceitas.longValue());
+
             logSucessoAoObterTotalDeReceitasFiltradas(nome);
             return totalDeReceitas.longValue();
 
@@ -191,25 +220,16 @@ public class ReceitaRepository {
         }
     }
 
-    private List<ReceitaDto> obterListaOrdenadaFiltradaEPaginadaDeReceitasQuery(String nome, Integer paginaAtual,
-                                                                                Integer itensPorPagina, String direcao,
+    private List<ReceitaDto> obterListaOrdenadaFiltradaEPaginadaDeReceitasQuery(String nome, Integer limit,
+                                                                                Integer offset, String direcao,
                                                                                 String ordenarPor) {
         try {
             Map<String, Object> parametros = new HashMap<>();
-            StringBuilder sql = new StringBuilder();
-            sql.append(" SELECT id, nome, total_gasto_insumos FROM tb_receitas ");
-
-            if (isNotBlank(nome)) {
-                sql.append(" WHERE LOWER(nome) LIKE LOWER(:nome) ");
-                parametros.put("nome", "%" + nome + "%");
-            }
+            TipoDoFiltro filtro = definirFiltroPorNome(parametros, nome, "nome");
 
-            sql.append(" ORDER BY ").append(ordenarPor).append(" ").append(direcao).append(" ");
-            sql.append(" LIMIT :limit OFFSET :offset ");
-
-            Query query = em.createNativeQuery(sql.toString())
-                    .setParameter("limit", itensPorPagina)
-                    .setParameter("offset", paginaAtual * itensPorPagina);
+            Query query = em.createNativeQuery(CONSULTAS_DA_LISTAGEM.obterConsultaDaPagina(filtro, ordenarPor, direcao))
+                    .setParameter("limit", limit)
+                    .setParameter("offset", offset);
 
             setQueryParameters(parametros, query);
 
@@ -238,6 +258,293 @@ public class ReceitaRepository {
         }
     }
 
+    public GlobalPageDto<ReceitaDto> obterListaFiltradaDeReceitasPorCursor(String nome, CursorDto cursor,
+                                                                            Integer itensPorPagina, String direcao,
+                                                                            String ordenarPor) {
+        try {
+            boolean avancar = isNull(cursor) || cursor.getAvancar();
+
+            Map<String, Object> parametros = new HashMap<>();
+            TipoDoFiltro filtro = definirFiltroPorNome(parametros, nome, "nome");
+
+            if (!isNull(cursor)) {
+                parametros.put("valorCursor", converterValorDoCursor(cursor.getValor(), ordenarPor));
+                parametros.put("idCursor", cursor.getId());
+            }
+
+            Query query = em.createNativeQuery(CONSULTAS_DA_LISTAGEM
+                            .obterConsultaDoCursor(filtro, ordenarPor, direcao, avancar, !isNull(cursor)))
+                    .setParameter("limit", itensPorPagina + 1);
+
+            setQueryParameters(parametros, query);
+
+            List<Object[]> listaDeResultados = query.getResultList();
+            List<ReceitaDto> listaDeReceitas = new ArrayList<>();
+
+            for (Object[] resultado : listaDeResultados) {
+                ReceitaDto receitaDto = new ReceitaDto();
+
+                receitaDto.setId(((Number) resultado[0]).longValue());
+                receitaDto.setNome((String) resultado[1]);
+
+                BigDecimal totalGastoInsumos = new BigDecimal(resultado[2].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN);
+                receitaDto.setTotalGastoInsumos(totalGastoInsumos);
+
+                listaDeReceitas.add(receitaDto);
+            }
+
+            boolean haMaisItens = listaDeReceitas.size() > itensPorPagina;
+            if (haMaisItens) {
+                listaDeReceitas.remove(listaDeReceitas.size() - 1);
+            }
+            if (!avancar) {
+                Collections.reverse(listaDeReceitas);
+            }
+
+            boolean temProxima = !avancar || haMaisItens;
+            boolean temAnterior = avancar ? !isNull(cursor) : haMaisItens;
+
+            String proximoCursor = null;
+            String cursorAnterior = null;
+            if (!listaDeReceitas.isEmpty()) {
+                ReceitaDto primeira = listaDeReceitas.get(0);
+                ReceitaDto ultima = listaDeReceitas.get(listaDeReceitas.size() - 1);
+
+                if (temProxima) {
+                    proximoCursor = gerarCursor(ordenarPor, direcao, true,
+                            obterValorDeOrdenacao(ultima, ordenarPor), ultima.getId());
+                }
+                if (temAnterior) {
+                    cursorAnterior = gerarCursor(ordenarPor, direcao, false,
+                            obterValorDeOrdenacao(primeira, ordenarPor), primeira.getId());
+                }
+            }
+
+            logSucessoAoObterListaDeReceitasPorCursor(nome);
+            return new GlobalPageDto<>(listaDeReceitas, itensPorPagina, proximoCursor, cursorAnterior);
+
+        } catch (EmpreendedorErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logErroInesperadoAoObterListaDeReceitasPorCursor(nome, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter lista de receitas por cursor.");
+        }
+    }
+
+    private Object obterValorDeOrdenacao(ReceitaDto receitaDto, String ordenarPor) {
+        if ("total_gasto_insumos".equals(ordenarPor)) {
+            return receitaDto.getTotalGastoInsumos().toPlainString();
+        }
+        return receitaDto.getNome();
+    }
+
+    private Object converterValorDoCursor(String valor, String ordenarPor) {
+        if ("nome".equals(ordenarPor)) {
+            return valor;
+        }
+        try {
+            return new BigDecimal(valor);
+        } catch (NumberFormatException e) {
+            throw new EmpreendedorErrorException("O cursor informado é inválido.");
+        }
+    }
+
+    // Percorre a tabela em ordem de id em lotes lidos a partir do último id, como a exportação de insumos.
+    public Long exportarReceitas(Integer tamanhoDoLoteDeLeitura, Consumer<ReceitaDto> consumidor) {
+        try {
+            String sql = " SELECT id, nome, total_gasto_insumos FROM tb_receitas " +
+                    " WHERE id > :ultimoId ORDER BY id LIMIT :limit ";
+
+            long totalDeReceitas = 0;
+            long ultimoId = 0;
+            List<Object[]> lote;
+            do {
+                lote = em.createNativeQuery(sql)
+                        .setParameter("ultimoId", ultimoId)
+                        .setParameter("limit", tamanhoDoLoteDeLeitura)
+                        .getResultList();
+
+                for (Object[] resultado : lote) {
+                    ReceitaDto receitaDto = new ReceitaDto();
+
+                    receitaDto.setId(((Number) resultado[0]).longValue());
+                    receitaDto.setNome((String) resultado[1]);
+
+                    BigDecimal totalGastoInsumos = new BigDecimal(resultado[2].toString())
+                            .setScale(2, RoundingMode.HALF_EVEN);
+                    receitaDto.setTotalGastoInsumos(totalGastoInsumos);
+
+                    consumidor.accept(receitaDto);
+                    ultimoId = receitaDto.getId();
+                }
+                totalDeReceitas += lote.size();
+            } while (lote.size() == tamanhoDoLoteDeLeitura);
+
+            logSucessoAoExportarReceitas(totalDeReceitas);
+            return totalDeReceitas;
+
+        } catch (Exception e) {
+            logErroInesperadoAoExportarReceitas(e);
+            throw new EmpreendedorErrorException("Erro inesperado ao exportar as receitas.");
+        }
+    }
+
+    public Integer recalcularTotaisDasReceitasQueUtilizamOsInsumos(Collection<Long> insumoIds) {
+        try {
+            String sql = " UPDATE tb_receitas AS r " +
+                    " SET total_gasto_insumos = ( " +
+                    "     SELECT COALESCE(SUM(ri.valor_gasto_insumo), 0) FROM tb_receita_insumo AS ri " +
+                    "     WHERE ri.receita_id = r.id ) + ( " +
+                    "     SELECT COALESCE(SUM(rs.valor_gasto_subreceita), 0) FROM tb_receita_subreceita AS rs " +
+                    "     WHERE rs.receita_id = r.id ), " +
+                    " custo_recalculado_em = CURRENT_TIMESTAMP " +
+                    " WHERE r.id IN (SELECT receita_id FROM tb_receita_insumo WHERE insumo_id IN (:insumoIds)) ";
+
+            int totalDeReceitasAtualizadas = em.createNativeQuery(sql)
+                    .setParameter("insumoIds", insumoIds)
+                    .executeUpdate();
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS);
+
+            logSucessoAoRecalcularTotaisDasReceitasQueUtilizamOsInsumos(insumoIds, totalDeReceitasAtualizadas);
+            return totalDeReceitasAtualizadas;
+
+        } catch (Exception e) {
+            logErroInesperadoAoRecalcularTotaisDasReceitasQueUtilizamOsInsumos(insumoIds, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao recalcular os totais das receitas.");
+        }
+    }
+
+    public List<ReceitaDto> obterTotaisDasReceitasPelosIds(Collection<Long> ids) {
+        try {
+            String sql = " SELECT id, nome, COALESCE(total_gasto_insumos, 0) FROM tb_receitas WHERE id IN (:ids) ";
+
+            List<Object[]> listaDeResultados = em.createNativeQuery(sql)
+                    .setParameter("ids", ids)
+                    .getResultList();
+
+            List<ReceitaDto> listaDeReceitas = new ArrayList<>(listaDeResultados.size());
+            for (Object[] resultado : listaDeResultados) {
+                ReceitaDto receitaDto = new ReceitaDto();
+                receitaDto.setId(((Number) resultado[0]).longValue());
+                receitaDto.setNome((String) resultado[1]);
+                receitaDto.setTotalGastoInsumos(new BigDecimal(resultado[2].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN));
+                listaDeReceitas.add(receitaDto);
+            }
+            return listaDeReceitas;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterTotaisDasReceitasPelosIds(ids, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter os totais das receitas pelos ids.");
+        }
+    }
+
+    public EstadoCustoReceitaDto obterEstadoDoCustoDaReceita(Long id) {
+        try {
+            String sql = " SELECT id, total_gasto_insumos, custo_recalculado_em FROM tb_receitas WHERE id = :id LIMIT 1 ";
+
+            Query query = em.createNativeQuery(sql)
+                    .setParameter("id", id);
+
+            List<Object[]> listaDeResultados = query.getResultList();
+
+            if (listaDeResultados.isEmpty()) {
+                throw new EmpreendedorErrorException("Nenhuma receita encontrada pelo id informado.");
+            }
+
+            Object[] resultado = listaDeResultados.get(0);
+
+            EstadoCustoReceitaDto estadoCustoReceitaDto = new EstadoCustoReceitaDto();
+            estadoCustoReceitaDto.setReceitaId(((Number) resultado[0]).longValue());
+
+            BigDecimal totalGastoInsumos = new BigDecimal(resultado[1].toString())
+                    .setScale(2, RoundingMode.HALF_EVEN);
+            estadoCustoReceitaDto.setTotalGastoInsumos(totalGastoInsumos);
+            estadoCustoReceitaDto.setCustoRecalculadoEm(converterParaInstant(resultado[2]));
+
+            logSucessoAoObterEstadoDoCustoDaReceita(id);
+            return estadoCustoReceitaDto;
+
+        } catch (EmpreendedorErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logErroInesperadoAoObterEstadoDoCustoDaReceita(id, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter o estado do custo da receita.");
+        }
+    }
+
+    // Lê só as tabelas de resumo mantidas por ResumoDeCustoTrigger: a linha da receita pela chave e o detalhe
+    // pelo índice de valor, já na ordem do mais caro para o mais barato.
+    public ResumoCustoReceitaDto obterResumoDoCustoDaReceita(Long id) {
+        try {
+            String sqlResumo = " SELECT receita_id, total_gasto_insumos, quantidade_de_insumos, " +
+                    " insumo_mais_caro_id, insumo_mais_caro_nome, valor_gasto_insumo_mais_caro " +
+                    " FROM tb_resumo_custo_receita WHERE receita_id = :id ";
+
+            List<Object[]> listaDeResumos = em.createNativeQuery(sqlResumo)
+                    .setParameter("id", id)
+                    .getResultList();
+
+            if (listaDeResumos.isEmpty()) {
+                throw new EmpreendedorErrorException("Nenhuma receita encontrada pelo id informado.");
+            }
+
+            Object[] resumo = listaDeResumos.get(0);
+
+            ResumoCustoReceitaDto resumoCustoReceitaDto = new ResumoCustoReceitaDto();
+            resumoCustoReceitaDto.setReceitaId(((Number) resumo[0]).longValue());
+            resumoCustoReceitaDto.setTotalGastoInsumos(new BigDecimal(resumo[1].toString()).setScale(2, RoundingMode.HALF_EVEN));
+            resumoCustoReceitaDto.setQuantidadeDeInsumos(((Number) resumo[2]).intValue());
+
+            if (!isNull(resumo[3])) {
+                CustoDoInsumoNaReceitaDto insumoMaisCaro = new CustoDoInsumoNaReceitaDto();
+                insumoMaisCaro.setInsumoId(((Number) resumo[3]).longValue());
+                insumoMaisCaro.setInsumoNome((String) resumo[4]);
+                insumoMaisCaro.setValorGastoInsumo(new BigDecimal(resumo[5].toString()).setScale(2, RoundingMode.HALF_EVEN));
+                resumoCustoReceitaDto.setInsumoMaisCaro(insumoMaisCaro);
+            }
+
+            String sqlInsumos = " SELECT insumo_id, insumo_nome, valor_gasto_insumo " +
+                    " FROM tb_resumo_custo_receita_insumo WHERE receita_id = :id " +
+                    " ORDER BY valor_gasto_insumo DESC, insumo_id ";
+
+            List<Object[]> listaDeInsumos = em.createNativeQuery(sqlInsumos)
+                    .setParameter("id", id)
+                    .getResultList();
+
+            for (Object[] insumo : listaDeInsumos) {
+                CustoDoInsumoNaReceitaDto custoDoInsumoNaReceitaDto = new CustoDoInsumoNaReceitaDto();
+                custoDoInsumoNaReceitaDto.setInsumoId(((Number) insumo[0]).longValue());
+                custoDoInsumoNaReceitaDto.setInsumoNome((String) insumo[1]);
+                custoDoInsumoNaReceitaDto.setValorGastoInsumo(new BigDecimal(insumo[2].toString()).setScale(2, RoundingMode.HALF_EVEN));
+                resumoCustoReceitaDto.getInsumos().add(custoDoInsumoNaReceitaDto);
+            }
+
+            logSucessoAoObterResumoDoCustoDaReceita(id);
+            return resumoCustoReceitaDto;
+
+        } catch (EmpreendedorErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logErroInesperadoAoObterResumoDoCustoDaReceita(id, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter o resumo do custo da receita.");
+        }
+    }
+
+    private Instant converterParaInstant(Object valor) {
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (valor instanceof LocalDateTime localDateTime) {
+            return localDateTime.atZone(ZoneId.systemDefault()).toInstant();
+        }
+        if (valor instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        return (Instant) valor;
+    }
+
     private void setQueryParameters(Map<String, Object> parameters, Query query) {
         for (Map.Entry<String, Object> param : parameters.entrySet()) {
             query.setParameter(param.getKey(), param.getValue());
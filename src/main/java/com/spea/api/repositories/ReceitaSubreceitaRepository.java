@@ -0,0 +1,398 @@
+package com.spea.api.repositories;
+
+import com.spea.api.cache.ContadorDeAlteracoes;
+import com.spea.api.dtos.ReceitaDto;
+import com.spea.api.dtos.ReceitaSubreceitaDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static com.spea.api.cache.TabelaMonitorada.RECEITAS;
+import static com.spea.api.utils.LogUtil.*;
+
+@Repository
+public class ReceitaSubreceitaRepository {
+
+    // Mesmo arredondamento HALF_EVEN de ReceitaSubreceitaService.calcularGastoComSubreceita, com s sendo a
+    // sub-receita e rs a ligação; o ROUND do H2 arredonda metades para cima.
+    private static final String EXPRESSAO_VALOR_GASTO_SUBRECEITA =
+            " CAST(CASE " +
+            "   WHEN MOD(FLOOR(s.total_gasto_insumos * rs.quantidade_utilizada_subreceita * 100), 2) = 0 " +
+            "    AND s.total_gasto_insumos * rs.quantidade_utilizada_subreceita * 100 " +
+            "      - FLOOR(s.total_gasto_insumos * rs.quantidade_utilizada_subreceita * 100) = 0.5 " +
+            "   THEN FLOOR(s.total_gasto_insumos * rs.quantidade_utilizada_subreceita * 100) / 100 " +
+            "   ELSE ROUND(s.total_gasto_insumos * rs.quantidade_utilizada_subreceita, 2) " +
+            " END AS DECIMAL(10,2)) ";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    // Serializa a criação de ligações até o fim da transação; a verificação de ciclo só é confiável com a trava.
+    public void travarLigacoesDeSubreceitas() {
+        try {
+            em.createNativeQuery(" SELECT id FROM tb_trava_subreceitas WHERE id = 1 FOR UPDATE ")
+                    .getResultList();
+
+        } catch (Exception e) {
+            logErroInesperadoAoTravarLigacoesDeSubreceitas(e);
+            throw new EmpreendedorErrorException("Erro inesperado ao travar as ligações entre receitas e sub-receitas.");
+        }
+    }
+
+    // Bloqueia a sub-receita até o fim da transação: o total lido não muda antes de a ligação ser gravada.
+    public ReceitaDto obterSubreceitaBloqueadaPeloId(Long subreceitaId) {
+        try {
+            String sql = " SELECT id, nome, total_gasto_insumos FROM tb_receitas WHERE id = :id FOR UPDATE ";
+
+            List<Object[]> listaDeResultados = em.createNativeQuery(sql)
+                    .setParameter("id", subreceitaId)
+                    .getResultList();
+
+            if (listaDeResultados.isEmpty()) {
+                throw new EmpreendedorErrorException("Nenhuma sub-receita encontrada pelo id informado.");
+            }
+
+            Object[] resultado = listaDeResultados.get(0);
+
+            ReceitaDto subreceitaDto = new ReceitaDto();
+            subreceitaDto.setId(((Number) resultado[0]).longValue());
+            subreceitaDto.setNome((String) resultado[1]);
+            subreceitaDto.setTotalGastoInsumos(new BigDecimal(resultado[2].toString())
+                    .setScale(2, RoundingMode.HALF_EVEN));
+
+            logSucessoAoObterReceitaPeloId(subreceitaId);
+            return subreceitaDto;
+
+        } catch (EmpreendedorErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logErroInesperadoAoObterReceitaPeloId(subreceitaId, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao buscar sub-receita pelo id.");
+        }
+    }
+
+    public Boolean verificarExistenciaDaSubreceitaNaReceita(Long receitaId, Long subreceitaId) {
+        try {
+            String sql = " SELECT 1 FROM tb_receita_subreceita WHERE receita_id = :receitaId " +
+                    " AND subreceita_id = :subreceitaId ";
+
+            List<?> listaDeResultado = em.createNativeQuery(sql)
+                    .setParameter("receitaId", receitaId)
+                    .setParameter("subreceitaId", subreceitaId)
+                    .getResultList();
+
+            logSucessoAoVerificarExistenciaDaSubreceitaNaReceita(receitaId, subreceitaId);
+            return !listaDeResultado.isEmpty();
+
+        } catch (Exception e) {
+            logErroInesperadoAoVerificarExistenciaDaSubreceitaNaReceita(receitaId, subreceitaId, e);
+            throw new EmpreendedorErrorException(String
+                    .format("Erro inesperado ao verificar a sub-receita %d na receita %d.", subreceitaId, receitaId));
+        }
+    }
+
+    // Soma o valor gasto ao total da receita e insere a ligação no mesmo comando, como na criação de associações.
+    public ReceitaSubreceitaDto criarSubreceitaEAtualizarTotalDaReceita(Long receitaId, Long subreceitaId,
+                                                                      BigDecimal quantidadeUtilizadaSubreceita,
+                                                                      BigDecimal valorGastoSubreceita) {
+        try {
+            String sql = " INSERT INTO tb_receita_subreceita " +
+                    " (receita_id, subreceita_id, quantidade_utilizada_subreceita, valor_gasto_subreceita) " +
+                    " SELECT r.id, :subreceitaId, :quantidadeUtilizadaSubreceita, :valorGastoSubreceita " +
+                    " FROM FINAL TABLE ( " +
+                    "   UPDATE tb_receitas " +
+                    "   SET total_gasto_insumos = COALESCE(total_gasto_insumos, 0) + :valorGastoSubreceita, " +
+                    "   custo_recalculado_em = CURRENT_TIMESTAMP " +
+                    "   WHERE id = :receitaId " +
+                    " ) AS r ";
+
+            Query query = em.createNativeQuery(sql)
+                    .setParameter("subreceitaId", subreceitaId)
+                    .setParameter("receitaId", receitaId)
+                    .setParameter("quantidadeUtilizadaSubreceita", quantidadeUtilizadaSubreceita)
+                    .setParameter("valorGastoSubreceita", valorGastoSubreceita);
+
+            if (query.executeUpdate() == 0) {
+                throw new EmpreendedorErrorException("Nenhuma receita encontrada pelo id informado.");
+            }
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS);
+
+            logSucessoAoCriarSubreceita(receitaId, subreceitaId);
+            return montarReceitaSubreceitaDto(receitaId, subreceitaId, quantidadeUtilizadaSubreceita,
+                    valorGastoSubreceita);
+
+        } catch (EmpreendedorErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logErroInesperadoAoCriarSubreceita(receitaId, subreceitaId, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao adicionar a sub-receita à receita.");
+        }
+    }
+
+    // O UPDATE da ligação devolve o valor gasto anterior já com a linha bloqueada, e o total recebe a diferença.
+    public ReceitaSubreceitaDto atualizarSubreceitaEAplicarDiferencaNoTotal(Long receitaId, Long subreceitaId,
+                                                                          BigDecimal quantidadeUtilizadaSubreceita,
+                                                                          BigDecimal valorGastoSubreceita) {
+        try {
+            String sql = " MERGE INTO tb_receitas AS r " +
+                    " USING ( " +
+                    "   SELECT receita_id, valor_gasto_subreceita FROM OLD TABLE ( " +
+                    "     UPDATE tb_receita_subreceita " +
+                    "     SET quantidade_utilizada_subreceita = :quantidadeUtilizadaSubreceita, " +
+                    "     valor_gasto_subreceita = :valorGastoSubreceita " +
+                    "     WHERE receita_id = :receitaId AND subreceita_id = :subreceitaId " +
+                    "   ) " +
+                    " ) AS anterior ON r.id = anterior.receita_id " +
+                    " WHEN MATCHED THEN UPDATE " +
+                    " SET total_gasto_insumos = GREATEST(COALESCE(r.total_gasto_insumos, 0) - anterior.valor_gasto_subreceita, 0) " +
+                    "   + :valorGastoSubreceita, " +
+                    " custo_recalculado_em = CURRENT_TIMESTAMP ";
+
+            Query query = em.createNativeQuery(sql)
+                    .setParameter("quantidadeUtilizadaSubreceita", quantidadeUtilizadaSubreceita)
+                    .setParameter("valorGastoSubreceita", valorGastoSubreceita)
+                    .setParameter("receitaId", receitaId)
+                    .setParameter("subreceitaId", subreceitaId);
+
+            if (query.executeUpdate() == 0) {
+                throw new EmpreendedorErrorException("A sub-receita informada não faz parte da receita informada.");
+            }
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS);
+
+            logSucessoAoAtualizarSubreceita(receitaId, subreceitaId);
+            return montarReceitaSubreceitaDto(receitaId, subreceitaId, quantidadeUtilizadaSubreceita,
+                    valorGastoSubreceita);
+
+        } catch (EmpreendedorErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logErroInesperadoAoAtualizarSubreceita(receitaId, subreceitaId, e);
+            throw new EmpreendedorErrorException(String
+                    .format("Erro ao atualizar a sub-receita %d da receita %d.", subreceitaId, receitaId));
+        }
+    }
+
+    // Remove a ligação e abate do total o valor gasto que ela tinha no momento do DELETE, em um único comando.
+    public void removerSubreceitaEAbaterDoTotal(Long receitaId, Long subreceitaId) {
+        try {
+            String sql = " MERGE INTO tb_receitas AS r " +
+                    " USING ( " +
+                    "   SELECT receita_id, valor_gasto_subreceita FROM OLD TABLE ( " +
+                    "     DELETE FROM tb_receita_subreceita " +
+                    "     WHERE receita_id = :receitaId AND subreceita_id = :subreceitaId " +
+                    "   ) " +
+                    " ) AS removida ON r.id = removida.receita_id " +
+                    " WHEN MATCHED THEN UPDATE " +
+                    " SET total_gasto_insumos = GREATEST(COALESCE(r.total_gasto_insumos, 0) - removida.valor_gasto_subreceita, 0), " +
+                    " custo_recalculado_em = CURRENT_TIMESTAMP ";
+
+            int totalDeReceitasAtualizadas = em.createNativeQuery(sql)
+                    .setParameter("receitaId", receitaId)
+                    .setParameter("subreceitaId", subreceitaId)
+                    .executeUpdate();
+
+            if (totalDeReceitasAtualizadas == 0) {
+                throw new EmpreendedorErrorException("A sub-receita informada não faz parte da receita informada.");
+            }
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS);
+
+            logSucessoAoRemoverSubreceita(receitaId, subreceitaId);
+
+        } catch (EmpreendedorErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logErroInesperadoAoRemoverSubreceita(receitaId, subreceitaId, e);
+            throw new EmpreendedorErrorException(String
+                    .format("Erro inesperado ao remover a sub-receita %d da receita %d.", subreceitaId, receitaId));
+        }
+    }
+
+    public List<ReceitaSubreceitaDto> obterListaDeSubreceitasDaReceita(Long receitaId) {
+        try {
+            String sql = " SELECT rs.subreceita_id, s.nome, rs.quantidade_utilizada_subreceita, rs.valor_gasto_subreceita " +
+                    " FROM tb_receita_subreceita AS rs " +
+                    " JOIN tb_receitas AS s ON s.id = rs.subreceita_id " +
+                    " WHERE rs.receita_id = :receitaId " +
+                    " ORDER BY s.nome, s.id ";
+
+            List<Object[]> listaDeResultados = em.createNativeQuery(sql)
+                    .setParameter("receitaId", receitaId)
+                    .getResultList();
+
+            List<ReceitaSubreceitaDto> listaDeSubreceitas = new ArrayList<>();
+            for (Object[] resultado : listaDeResultados) {
+                ReceitaSubreceitaDto receitaSubreceitaDto = montarReceitaSubreceitaDto(receitaId,
+                        ((Number) resultado[0]).longValue(),
+                        new BigDecimal(resultado[2].toString()).setScale(2, RoundingMode.HALF_EVEN),
+                        new BigDecimal(resultado[3].toString()).setScale(2, RoundingMode.HALF_EVEN));
+                receitaSubreceitaDto.setSubreceitaNome((String) resultado[1]);
+                listaDeSubreceitas.add(receitaSubreceitaDto);
+            }
+
+            logSucessoAoObterListaDeSubreceitasDaReceita(receitaId);
+            return listaDeSubreceitas;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterListaDeSubreceitasDaReceita(receitaId, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter as sub-receitas da receita informada.");
+        }
+    }
+
+    // Ligações de saída das receitas informadas, pela chave primária: um passo do grafo para baixo.
+    public List<ReceitaSubreceitaDto> obterLigacoesDasSubreceitasDasReceitas(Collection<Long> receitaIds) {
+        String sql = " SELECT receita_id, subreceita_id FROM tb_receita_subreceita WHERE receita_id IN (:ids) ";
+        return obterLigacoes(sql, receitaIds);
+    }
+
+    // Ligações de entrada das receitas informadas, pelo índice de subreceita_id: um passo do grafo para cima.
+    public List<ReceitaSubreceitaDto> obterLigacoesDasReceitasQueUtilizamAsSubreceitas(Collection<Long> subreceitaIds) {
+        String sql = " SELECT receita_id, subreceita_id FROM tb_receita_subreceita WHERE subreceita_id IN (:ids) ";
+        return obterLigacoes(sql, subreceitaIds);
+    }
+
+    // Primeiro passo para cima a partir das receitas que utilizam os insumos, sem trazê-las para a aplicação.
+    public List<ReceitaSubreceitaDto> obterLigacoesDasReceitasQueUtilizamOsInsumos(Collection<Long> insumoIds) {
+        String sql = " SELECT receita_id, subreceita_id FROM tb_receita_subreceita " +
+                " WHERE subreceita_id IN (SELECT receita_id FROM tb_receita_insumo WHERE insumo_id IN (:ids)) ";
+        return obterLigacoes(sql, insumoIds);
+    }
+
+    // Ligações de saída com a quantidade e o nome de cada sub-receita, sem o valor gasto.
+    public List<ReceitaSubreceitaDto> obterQuantidadesDasSubreceitasDasReceitas(Collection<Long> receitaIds) {
+        try {
+            String sql = " SELECT rs.receita_id, rs.subreceita_id, s.nome, rs.quantidade_utilizada_subreceita " +
+                    " FROM tb_receita_subreceita rs " +
+                    " JOIN tb_receitas s ON s.id = rs.subreceita_id " +
+                    " WHERE rs.receita_id IN (:ids) ";
+
+            List<Object[]> listaDeResultados = em.createNativeQuery(sql)
+                    .setParameter("ids", receitaIds)
+                    .getResultList();
+
+            List<ReceitaSubreceitaDto> listaDeLigacoes = new ArrayList<>(listaDeResultados.size());
+            for (Object[] resultado : listaDeResultados) {
+                ReceitaSubreceitaDto ligacao = new ReceitaSubreceitaDto();
+                ligacao.setReceitaId(((Number) resultado[0]).longValue());
+                ligacao.setSubreceitaId(((Number) resultado[1]).longValue());
+                ligacao.setSubreceitaNome((String) resultado[2]);
+                ligacao.setQuantidadeUtilizadaSubreceita(new BigDecimal(resultado[3].toString())
+                        .setScale(2, RoundingMode.HALF_EVEN));
+                listaDeLigacoes.add(ligacao);
+            }
+            return listaDeLigacoes;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterLigacoesDeSubreceitas(receitaIds, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter as ligações entre receitas e sub-receitas.");
+        }
+    }
+
+    // Ligações de entrada com a quantidade e o valor gasto atual, pelo índice de subreceita_id.
+    public List<ReceitaSubreceitaDto> obterValoresDasReceitasQueUtilizamAsSubreceitas(Collection<Long> subreceitaIds) {
+        try {
+            String sql = " SELECT receita_id, subreceita_id, quantidade_utilizada_subreceita, valor_gasto_subreceita " +
+                    " FROM tb_receita_subreceita WHERE subreceita_id IN (:ids) ";
+
+            List<Object[]> listaDeResultados = em.createNativeQuery(sql)
+                    .setParameter("ids", subreceitaIds)
+                    .getResultList();
+
+            List<ReceitaSubreceitaDto> listaDeLigacoes = new ArrayList<>(listaDeResultados.size());
+            for (Object[] resultado : listaDeResultados) {
+                listaDeLigacoes.add(montarReceitaSubreceitaDto(((Number) resultado[0]).longValue(),
+                        ((Number) resultado[1]).longValue(),
+                        new BigDecimal(resultado[2].toString()).setScale(2, RoundingMode.HALF_EVEN),
+                        new BigDecimal(resultado[3].toString()).setScale(2, RoundingMode.HALF_EVEN)));
+            }
+            return listaDeLigacoes;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterLigacoesDeSubreceitas(subreceitaIds, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter as ligações entre receitas e sub-receitas.");
+        }
+    }
+
+    private List<ReceitaSubreceitaDto> obterLigacoes(String sql, Collection<Long> ids) {
+        try {
+            List<Object[]> listaDeResultados = em.createNativeQuery(sql)
+                    .setParameter("ids", ids)
+                    .getResultList();
+
+            List<ReceitaSubreceitaDto> listaDeLigacoes = new ArrayList<>(listaDeResultados.size());
+            for (Object[] resultado : listaDeResultados) {
+                ReceitaSubreceitaDto ligacao = new ReceitaSubreceitaDto();
+                ligacao.setReceitaId(((Number) resultado[0]).longValue());
+                ligacao.setSubreceitaId(((Number) resultado[1]).longValue());
+                listaDeLigacoes.add(ligacao);
+            }
+            return listaDeLigacoes;
+
+        } catch (Exception e) {
+            logErroInesperadoAoObterLigacoesDeSubreceitas(ids, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao obter as ligações entre receitas e sub-receitas.");
+        }
+    }
+
+    /**
+     * Recalcula o valor gasto de todas as sub-receitas das receitas informadas a partir do total atual de cada
+     * sub-receita, e aplica a diferença no total da receita. As receitas informadas são um nível da ordem
+     * topológica: as sub-receitas delas já estão com o total final.
+     */
+    public Integer recalcularCustosDasSubreceitasDasReceitas(Collection<Long> receitaIds) {
+        try {
+            // O total da receita é atualizado antes das ligações, pois depende do valor gasto antigo.
+            String sqlTotais = " UPDATE tb_receitas AS r " +
+                    " SET total_gasto_insumos = GREATEST(COALESCE(r.total_gasto_insumos, 0) + ( " +
+                    "     SELECT COALESCE(SUM(" + EXPRESSAO_VALOR_GASTO_SUBRECEITA + " - rs.valor_gasto_subreceita), 0) " +
+                    "     FROM tb_receita_subreceita AS rs " +
+                    "     JOIN tb_receitas AS s ON s.id = rs.subreceita_id " +
+                    "     WHERE rs.receita_id = r.id ), 0), " +
+                    " custo_recalculado_em = CURRENT_TIMESTAMP " +
+                    " WHERE r.id IN (:receitaIds) ";
+
+            int totalDeReceitasAtualizadas = em.createNativeQuery(sqlTotais)
+                    .setParameter("receitaIds", receitaIds)
+                    .executeUpdate();
+
+            String sqlLigacoes = " UPDATE tb_receita_subreceita AS rs " +
+                    " SET valor_gasto_subreceita = ( " +
+                    "     SELECT " + EXPRESSAO_VALOR_GASTO_SUBRECEITA +
+                    "     FROM tb_receitas AS s WHERE s.id = rs.subreceita_id ) " +
+                    " WHERE rs.receita_id IN (:receitaIds) ";
+
+            em.createNativeQuery(sqlLigacoes)
+                    .setParameter("receitaIds", receitaIds)
+                    .executeUpdate();
+            contadorDeAlteracoes.registrarAlteracao(RECEITAS);
+
+            return totalDeReceitasAtualizadas;
+
+        } catch (Exception e) {
+            logErroInesperadoAoRecalcularCustosDasSubreceitas(receitaIds, e);
+            throw new EmpreendedorErrorException("Erro inesperado ao recalcular os custos das sub-receitas.");
+        }
+    }
+
+    private ReceitaSubreceitaDto montarReceitaSubreceitaDto(Long receitaId, Long subreceitaId,
+                                                            BigDecimal quantidadeUtilizadaSubreceita,
+                                                            BigDecimal valorGastoSubreceita) {
+        ReceitaSubreceitaDto receitaSubreceitaDto = new ReceitaSubreceitaDto();
+        receitaSubreceitaDto.setReceitaId(receitaId);
+        receitaSubreceitaDto.setSubreceitaId(subreceitaId);
+        receitaSubreceitaDto.setQuantidadeUtilizadaSubreceita(quantidadeUtilizadaSubreceita);
+        receitaSubreceitaDto.setValorGastoSubreceita(valorGastoSubreceita);
+        return receitaSubreceitaDto;
+    }
+}
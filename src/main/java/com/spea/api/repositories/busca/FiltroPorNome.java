@@ -0,0 +1,59 @@
+package com.spea.api.repositories.busca;
+
+import java.util.Map;
+import java.util.Set;
+
+import static com.spea.api.utils.StringUtil.gerarTrigramas;
+import static com.spea.api.utils.StringUtil.normalizarParaBusca;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Monta o filtro por parte do nome sobre a coluna nome_busca.
+ * Com ao menos um trigrama, os candidatos saem da tabela de trigramas pela chave primária e o LIKE só confirma
+ * a ordem dos caracteres; filtros curtos ou com curingas do LIKE continuam varrendo nome_busca.
+ * O texto do filtro depende só do tipo, para que as consultas sejam montadas uma vez por tipo; o nome procurado
+ * entra apenas nos parâmetros.
+ */
+public class FiltroPorNome {
+
+    public enum TipoDoFiltro { SEM_FILTRO, TRIGRAMAS, LIKE }
+
+    /**
+     * Preenche os parâmetros do filtro e devolve o tipo de filtro que a consulta deve usar.
+     */
+    public static TipoDoFiltro definirFiltroPorNome(Map<String, Object> parametros, String nome, String parametro) {
+        if (isBlank(nome)) {
+            return TipoDoFiltro.SEM_FILTRO;
+        }
+
+        String nomeBusca = normalizarParaBusca(nome);
+        Set<String> trigramas = gerarTrigramas(nomeBusca);
+        parametros.put(parametro, "%" + nomeBusca + "%");
+
+        if (trigramas.isEmpty() || nomeBusca.contains("%") || nomeBusca.contains("_")) {
+            return TipoDoFiltro.LIKE;
+        }
+
+        parametros.put(parametro + "Trigramas", trigramas);
+        parametros.put(parametro + "QuantidadeDeTrigramas", trigramas.size());
+        return TipoDoFiltro.TRIGRAMAS;
+    }
+
+    public static void adicionarFiltroPorNome(StringBuilder sql, TipoDoFiltro tipo, String parametro, String colunaId,
+                                              String colunaNomeBusca, String tabelaDeTrigramas,
+                                              String colunaDoRegistro) {
+        if (tipo == TipoDoFiltro.SEM_FILTRO) {
+            return;
+        }
+
+        if (tipo == TipoDoFiltro.TRIGRAMAS) {
+            sql.append(" AND ").append(colunaId).append(" IN ( ");
+            sql.append("     SELECT t.").append(colunaDoRegistro).append(" FROM ").append(tabelaDeTrigramas).append(" AS t ");
+            sql.append("     WHERE t.trigrama IN (:").append(parametro).append("Trigramas) ");
+            sql.append("     GROUP BY t.").append(colunaDoRegistro);
+            sql.append("     HAVING COUNT(*) = :").append(parametro).append("QuantidadeDeTrigramas ) ");
+        }
+
+        sql.append(" AND ").append(colunaNomeBusca).append(" LIKE :").append(parametro).append(" ");
+    }
+}
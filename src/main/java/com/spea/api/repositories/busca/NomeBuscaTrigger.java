@@ -0,0 +1,74 @@
+package com.spea.api.repositories.busca;
+
+import org.h2.tools.TriggerAdapter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import static com.spea.api.utils.StringUtil.gerarTrigramas;
+import static com.spea.api.utils.StringUtil.normalizarParaBusca;
+
+/**
+ * Mantém a coluna nome_busca e a tabela de trigramas de tb_insumos e tb_receitas.
+ * Como roda dentro do banco, cobre qualquer escrita (repositórios, importações e scripts) e acompanha o rollback.
+ * Antes da escrita preenche nome_busca; depois dela regrava os trigramas quando o nome muda.
+ * A exclusão dos trigramas fica a cargo do ON DELETE CASCADE.
+ */
+public class NomeBuscaTrigger extends TriggerAdapter {
+
+    private String tabelaDeTrigramas;
+    private String colunaDoRegistro;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        super.init(conn, schemaName, triggerName, tableName, before, type);
+
+        if ("TB_INSUMOS".equalsIgnoreCase(tableName)) {
+            tabelaDeTrigramas = "tb_insumos_trigramas";
+            colunaDoRegistro = "insumo_id";
+        } else if ("TB_RECEITAS".equalsIgnoreCase(tableName)) {
+            tabelaDeTrigramas = "tb_receitas_trigramas";
+            colunaDoRegistro = "receita_id";
+        } else {
+            throw new SQLException("Tabela sem índice de trigramas: " + tableName);
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, ResultSet oldRow, ResultSet newRow) throws SQLException {
+        if (before) {
+            newRow.updateString("NOME_BUSCA", normalizarParaBusca(newRow.getString("NOME")));
+            return;
+        }
+
+        String nomeBuscaAnterior = oldRow == null ? null : oldRow.getString("NOME_BUSCA");
+        String nomeBusca = newRow.getString("NOME_BUSCA");
+        if (oldRow != null && Objects.equals(nomeBuscaAnterior, nomeBusca)) {
+            return;
+        }
+
+        long id = newRow.getLong("ID");
+
+        if (oldRow != null) {
+            try (PreparedStatement delete = conn.prepareStatement(
+                    "DELETE FROM " + tabelaDeTrigramas + " WHERE " + colunaDoRegistro + " = ?")) {
+                delete.setLong(1, id);
+                delete.executeUpdate();
+            }
+        }
+
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO " + tabelaDeTrigramas + " (trigrama, " + colunaDoRegistro + ") VALUES (?, ?)")) {
+            for (String trigrama : gerarTrigramas(nomeBusca)) {
+                insert.setString(1, trigrama);
+                insert.setLong(2, id);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+}
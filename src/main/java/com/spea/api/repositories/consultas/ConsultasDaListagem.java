@@ -0,0 +1,115 @@
+package com.spea.api.repositories.consultas;
+
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.busca.FiltroPorNome.TipoDoFiltro;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static com.spea.api.utils.CursorUtil.obterComparadorDoCursor;
+import static com.spea.api.utils.CursorUtil.obterDirecaoDaBusca;
+import static java.util.Objects.isNull;
+
+/**
+ * Textos das consultas de uma listagem (total, página por deslocamento e página por cursor), montados uma vez, na
+ * criação, para cada tipo de filtro por nome, coluna de ordenação permitida e direção. A coluna e a direção deixam
+ * de ser concatenadas a cada requisição, e cada combinação chega ao Hibernate e ao H2 sempre com o mesmo texto, que
+ * é o que os caches de instruções preparadas dos dois usam como chave. Uma coluna fora da lista é recusada.
+ */
+public class ConsultasDaListagem {
+
+    private static final List<String> DIRECOES = List.of("asc", "desc");
+
+    private record Variante(TipoDoFiltro filtro, String ordenarPor, String direcao, boolean avancar,
+                            boolean comCursor) {
+    }
+
+    private final Map<TipoDoFiltro, String> consultasDoTotal = new HashMap<>();
+    private final Map<Variante, String> consultasDaPagina = new HashMap<>();
+    private final Map<Variante, String> consultasDoCursor = new HashMap<>();
+
+    /**
+     * @param colunas            lista do SELECT, sem a palavra SELECT
+     * @param origem             FROM e WHERE comuns a todas as consultas, terminando em uma condição (WHERE 1=1)
+     * @param colunaId           coluna de desempate da ordenação e do cursor
+     * @param filtroPorNome      acrescenta ao WHERE o filtro por nome de cada tipo
+     * @param colunasDeOrdenacao colunas aceitas em ordenarPor
+     */
+    public ConsultasDaListagem(String colunas, String origem, String colunaId,
+                               BiConsumer<StringBuilder, TipoDoFiltro> filtroPorNome,
+                               List<String> colunasDeOrdenacao) {
+        for (TipoDoFiltro filtro : TipoDoFiltro.values()) {
+            StringBuilder total = new StringBuilder(" SELECT COUNT(*) ").append(origem);
+            filtroPorNome.accept(total, filtro);
+            consultasDoTotal.put(filtro, total.toString());
+
+            for (String ordenarPor : colunasDeOrdenacao) {
+                for (String direcao : DIRECOES) {
+                    StringBuilder pagina = new StringBuilder(" SELECT ").append(colunas).append(origem);
+                    filtroPorNome.accept(pagina, filtro);
+                    pagina.append(" ORDER BY ").append(ordenarPor).append(" ").append(direcao).append(" ");
+                    pagina.append(" LIMIT :limit OFFSET :offset ");
+                    consultasDaPagina.put(new Variante(filtro, ordenarPor, direcao, true, false), pagina.toString());
+
+                    adicionarConsultaDoCursor(colunas, origem, colunaId, filtroPorNome,
+                            new Variante(filtro, ordenarPor, direcao, true, false));
+                    adicionarConsultaDoCursor(colunas, origem, colunaId, filtroPorNome,
+                            new Variante(filtro, ordenarPor, direcao, true, true));
+                    adicionarConsultaDoCursor(colunas, origem, colunaId, filtroPorNome,
+                            new Variante(filtro, ordenarPor, direcao, false, true));
+                }
+            }
+        }
+    }
+
+    public String obterConsultaDoTotal(TipoDoFiltro filtro) {
+        return consultasDoTotal.get(filtro);
+    }
+
+    public String obterConsultaDaPagina(TipoDoFiltro filtro, String ordenarPor, String direcao) {
+        return obterConsulta(consultasDaPagina, new Variante(filtro, ordenarPor, direcao, true, false));
+    }
+
+    /**
+     * Sem cursor é a primeira página; com cursor, continua depois (avancar) ou antes dele pelo par (coluna, id).
+     */
+    public String obterConsultaDoCursor(TipoDoFiltro filtro, String ordenarPor, String direcao, boolean avancar,
+                                        boolean comCursor) {
+        return obterConsulta(consultasDoCursor, new Variante(filtro, ordenarPor, direcao, avancar, comCursor));
+    }
+
+    public int obterQuantidadeDeConsultas() {
+        return consultasDoTotal.size() + consultasDaPagina.size() + consultasDoCursor.size();
+    }
+
+    private void adicionarConsultaDoCursor(String colunas, String origem, String colunaId,
+                                           BiConsumer<StringBuilder, TipoDoFiltro> filtroPorNome, Variante variante) {
+        String direcaoDaBusca = obterDirecaoDaBusca(variante.direcao(), variante.avancar());
+
+        StringBuilder sql = new StringBuilder(" SELECT ").append(colunas).append(origem);
+        filtroPorNome.accept(sql, variante.filtro());
+
+        if (variante.comCursor()) {
+            sql.append(" AND (").append(variante.ordenarPor()).append(", ").append(colunaId).append(") ");
+            sql.append(obterComparadorDoCursor(variante.direcao(), variante.avancar()))
+                    .append(" (:valorCursor, :idCursor) ");
+        }
+
+        sql.append(" ORDER BY ").append(variante.ordenarPor()).append(" ").append(direcaoDaBusca);
+        sql.append(", ").append(colunaId).append(" ").append(direcaoDaBusca).append(" ");
+        sql.append(" LIMIT :limit ");
+
+        consultasDoCursor.put(variante, sql.toString());
+    }
+
+    private static String obterConsulta(Map<Variante, String> consultas, Variante variante) {
+        String sql = consultas.get(variante);
+        if (isNull(sql)) {
+            throw new EmpreendedorErrorException(String.format("Ordenação não permitida: %s %s.",
+                    variante.ordenarPor(), variante.direcao()));
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,118 @@
+package com.spea.api.repositories.existencia;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filtro de Bloom com contadores de 8 bits no lugar dos bits, para que as chaves também possam ser removidas.
+ * Responde "não existe" com certeza e "pode existir" com a taxa de falsos positivos para a qual foi dimensionado.
+ * Um contador que chega a 255 fica saturado e não é mais decrementado: a chave continua aparecendo como possível,
+ * o que só custa uma consulta ao banco.
+ */
+public class FiltroDeBloomContador {
+
+    private static final int CONTADOR_SATURADO = 0xFF;
+
+    private final AtomicIntegerArray contadores;
+    private final int quantidadeDeContadores;
+    private final int quantidadeDeFuncoesDeHash;
+    private final AtomicLong quantidadeDeChaves = new AtomicLong();
+
+    public FiltroDeBloomContador(long quantidadeEsperada, double taxaDeFalsosPositivos) {
+        long chaves = Math.max(1, quantidadeEsperada);
+        double contadores = Math.ceil(-chaves * Math.log(taxaDeFalsosPositivos) / (Math.log(2) * Math.log(2)));
+
+        this.quantidadeDeContadores = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(64, contadores));
+        this.quantidadeDeFuncoesDeHash = (int) Math.max(1, Math.round((double) quantidadeDeContadores / chaves * Math.log(2)));
+        // Quatro contadores de 8 bits por posição.
+        this.contadores = new AtomicIntegerArray((quantidadeDeContadores + 3) / 4);
+    }
+
+    public void incluir(long chave) {
+        long hash = misturar(chave);
+        for (int i = 0; i < quantidadeDeFuncoesDeHash; i++) {
+            alterarContador(posicao(hash, i), 1);
+        }
+        quantidadeDeChaves.incrementAndGet();
+    }
+
+    /**
+     * Só deve receber chaves incluídas antes; remover uma chave que nunca entrou pode apagar outra.
+     */
+    public void remover(long chave) {
+        long hash = misturar(chave);
+        for (int i = 0; i < quantidadeDeFuncoesDeHash; i++) {
+            alterarContador(posicao(hash, i), -1);
+        }
+        quantidadeDeChaves.decrementAndGet();
+    }
+
+    public boolean podeConter(long chave) {
+        long hash = misturar(chave);
+        for (int i = 0; i < quantidadeDeFuncoesDeHash; i++) {
+            if (lerContador(posicao(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Taxa esperada para a quantidade atual de chaves: (1 - e^(-k*n/m))^k.
+     */
+    public double obterTaxaEstimadaDeFalsosPositivos() {
+        double chaves = Math.max(0, quantidadeDeChaves.get());
+        double vazios = Math.exp(-quantidadeDeFuncoesDeHash * chaves / quantidadeDeContadores);
+        return Math.pow(1 - vazios, quantidadeDeFuncoesDeHash);
+    }
+
+    public long obterQuantidadeDeChaves() {
+        return quantidadeDeChaves.get();
+    }
+
+    public static long chaveDoPar(long primeira, long segunda) {
+        return misturar(primeira) * 31 + segunda;
+    }
+
+    private int posicao(long hash, int funcao) {
+        // Duas metades do hash combinadas geram as k posições (Kirsch e Mitzenmacher).
+        int primeiro = (int) hash;
+        int segundo = (int) (hash >>> 32) | 1;
+        return Math.floorMod(primeiro + funcao * segundo, quantidadeDeContadores);
+    }
+
+    private int lerContador(int posicao) {
+        return (contadores.get(posicao >>> 2) >>> deslocamento(posicao)) & CONTADOR_SATURADO;
+    }
+
+    private void alterarContador(int posicao, int diferenca) {
+        int indice = posicao >>> 2;
+        int deslocamento = deslocamento(posicao);
+
+        while (true) {
+            int atual = contadores.get(indice);
+            int contador = (atual >>> deslocamento) & CONTADOR_SATURADO;
+
+            if (contador == CONTADOR_SATURADO || (diferenca < 0 && contador == 0)) {
+                return;
+            }
+
+            int novo = (atual & ~(CONTADOR_SATURADO << deslocamento)) | ((contador + diferenca) << deslocamento);
+            if (contadores.compareAndSet(indice, atual, novo)) {
+                return;
+            }
+        }
+    }
+
+    private static int deslocamento(int posicao) {
+        return (posicao & 3) * 8;
+    }
+
+    // Finalizador do SplitMix64: ids sequenciais viram hashes bem espalhados.
+    private static long misturar(long chave) {
+        long z = chave + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,198 @@
+package com.spea.api.repositories.existencia;
+
+import com.spea.api.cache.TabelaMonitorada;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.spea.api.cache.TabelaMonitorada.*;
+import static com.spea.api.utils.LogUtil.*;
+import static java.util.Objects.isNull;
+
+/**
+ * Filtros de Bloom com contadores para os ids de insumos e receitas e os pares (receitaId, insumoId) das associações.
+ * Um id que o filtro não contém certamente não existe e é recusado sem consultar o banco; os demais seguem para a
+ * consulta. Os filtros são montados a partir das tabelas quando a aplicação fica pronta e, daí em diante, mantidos por
+ * FiltrosDeExistenciaTrigger a cada inclusão e remoção, inclusive as feitas fora dos repositórios. Enquanto não estão
+ * prontos, todas as verificações vão ao banco.
+ */
+@Component
+public class FiltrosDeExistencia {
+
+    // Os triggers são criados pelo H2, fora do Spring: encontram os filtros do próprio banco por este registro.
+    private static final Map<String, Set<FiltrosDeExistencia>> FILTROS_POR_BANCO = new ConcurrentHashMap<>();
+
+    private static final Map<TabelaMonitorada, String> CONSULTAS_DAS_CHAVES = Map.of(
+            INSUMOS, " SELECT id FROM tb_insumos ",
+            RECEITAS, " SELECT id FROM tb_receitas ",
+            RECEITA_INSUMO, " SELECT receita_id, insumo_id FROM tb_receita_insumo ");
+
+    private final Map<TabelaMonitorada, Contadores> contadores = new EnumMap<>(TabelaMonitorada.class);
+
+    private volatile Map<TabelaMonitorada, FiltroDeBloomContador> filtros;
+    private volatile boolean prontos;
+    private String banco;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spea.filtros-de-existencia.quantidade-esperada:100000}")
+    private Long quantidadeEsperada = 100000L;
+
+    @Value("${spea.filtros-de-existencia.taxa-de-falsos-positivos:0.01}")
+    private Double taxaDeFalsosPositivos = 0.01;
+
+    public FiltrosDeExistencia() {
+        for (TabelaMonitorada tabela : TabelaMonitorada.values()) {
+            contadores.put(tabela, new Contadores());
+        }
+    }
+
+    /**
+     * Cada filtro é dimensionado para o dobro das linhas atuais, no mínimo a quantidade esperada. Os filtros são
+     * registrados para os triggers antes da leitura das tabelas, para que nenhuma inclusão feita durante a leitura
+     * fique de fora. As remoções disparadas antes de os filtros ficarem prontos não são aplicadas a eles: a leitura
+     * pode ter chegado antes ou depois do commit, e tirar uma chave que não entrou apagaria outra.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        try {
+            prontos = false;
+            banco = jdbcTemplate.queryForObject(" SELECT COALESCE(DATABASE_PATH(), DATABASE()) ", String.class);
+            logInicioDaReconstrucaoDosFiltrosDeExistencia(banco);
+
+            Map<TabelaMonitorada, FiltroDeBloomContador> novosFiltros = new EnumMap<>(TabelaMonitorada.class);
+            for (TabelaMonitorada tabela : TabelaMonitorada.values()) {
+                Long linhas = jdbcTemplate.queryForObject(
+                        " SELECT COUNT(*) FROM (" + CONSULTAS_DAS_CHAVES.get(tabela) + ") ", Long.class);
+                novosFiltros.put(tabela, new FiltroDeBloomContador(Math.max(quantidadeEsperada, 2 * linhas),
+                        taxaDeFalsosPositivos));
+            }
+            filtros = novosFiltros;
+            FILTROS_POR_BANCO.computeIfAbsent(banco, chave -> ConcurrentHashMap.newKeySet()).add(this);
+
+            FiltroDeBloomContador insumos = novosFiltros.get(INSUMOS);
+            FiltroDeBloomContador receitas = novosFiltros.get(RECEITAS);
+            FiltroDeBloomContador associacoes = novosFiltros.get(RECEITA_INSUMO);
+            jdbcTemplate.query(CONSULTAS_DAS_CHAVES.get(INSUMOS), (ResultSet linha) -> insumos.incluir(linha.getLong(1)));
+            jdbcTemplate.query(CONSULTAS_DAS_CHAVES.get(RECEITAS), (ResultSet linha) -> receitas.incluir(linha.getLong(1)));
+            jdbcTemplate.query(CONSULTAS_DAS_CHAVES.get(RECEITA_INSUMO), (ResultSet linha) -> associacoes
+                    .incluir(FiltroDeBloomContador.chaveDoPar(linha.getLong(1), linha.getLong(2))));
+
+            prontos = true;
+            logSucessoAoReconstruirFiltrosDeExistencia(insumos.obterQuantidadeDeChaves(),
+                    receitas.obterQuantidadeDeChaves(), associacoes.obterQuantidadeDeChaves());
+        } catch (Exception e) {
+            // Sem os filtros as verificações continuam corretas, apenas sempre consultando o banco.
+            logErroInesperadoAoReconstruirFiltrosDeExistencia(e);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        prontos = false;
+        if (!isNull(banco)) {
+            FILTROS_POR_BANCO.getOrDefault(banco, Set.of()).remove(this);
+        }
+    }
+
+    public boolean insumoCertamenteNaoExiste(Long id) {
+        return !isNull(id) && certamenteNaoExiste(INSUMOS, id);
+    }
+
+    public boolean receitaCertamenteNaoExiste(Long id) {
+        return !isNull(id) && certamenteNaoExiste(RECEITAS, id);
+    }
+
+    public boolean associacaoCertamenteNaoExiste(Long receitaId, Long insumoId) {
+        return !isNull(receitaId) && !isNull(insumoId)
+                && certamenteNaoExiste(RECEITA_INSUMO, FiltroDeBloomContador.chaveDoPar(receitaId, insumoId));
+    }
+
+    /**
+     * Registra o resultado de uma consulta que o filtro deixou passar: quando a linha não existe, foi um falso positivo.
+     */
+    public void registrarConsultaAoBanco(TabelaMonitorada tabela, boolean encontrado) {
+        if (!prontos) {
+            return;
+        }
+        if (encontrado) {
+            contadores.get(tabela).confirmacoes.incrementAndGet();
+        } else {
+            contadores.get(tabela).falsosPositivos.incrementAndGet();
+        }
+    }
+
+    /**
+     * Fração das verificações de linhas inexistentes que o filtro deixou chegar ao banco.
+     */
+    public double obterTaxaDeFalsosPositivos(TabelaMonitorada tabela) {
+        Contadores contadoresDaTabela = contadores.get(tabela);
+        long falsosPositivos = contadoresDaTabela.falsosPositivos.get();
+        long inexistentes = falsosPositivos + contadoresDaTabela.rejeicoes.get();
+        return inexistentes == 0 ? 0.0 : (double) falsosPositivos / inexistentes;
+    }
+
+    public double obterTaxaEstimadaDeFalsosPositivos(TabelaMonitorada tabela) {
+        Map<TabelaMonitorada, FiltroDeBloomContador> filtrosAtuais = filtros;
+        return isNull(filtrosAtuais) ? 0.0 : filtrosAtuais.get(tabela).obterTaxaEstimadaDeFalsosPositivos();
+    }
+
+    public long obterRejeicoes(TabelaMonitorada tabela) {
+        return contadores.get(tabela).rejeicoes.get();
+    }
+
+    public long obterFalsosPositivos(TabelaMonitorada tabela) {
+        return contadores.get(tabela).falsosPositivos.get();
+    }
+
+    public long obterConfirmacoes(TabelaMonitorada tabela) {
+        return contadores.get(tabela).confirmacoes.get();
+    }
+
+    static void registrarInclusao(String banco, TabelaMonitorada tabela, long chave) {
+        for (FiltrosDeExistencia filtrosDoBanco : FILTROS_POR_BANCO.getOrDefault(banco, Set.of())) {
+            filtrosDoBanco.filtros.get(tabela).incluir(chave);
+        }
+    }
+
+    // Os filtros prontos já contêm toda linha que ainda pode ser removida, lida das tabelas ou incluída pelo trigger.
+    static List<FiltrosDeExistencia> obterFiltrosProntos(String banco) {
+        return FILTROS_POR_BANCO.getOrDefault(banco, Set.of()).stream()
+                .filter(filtrosDoBanco -> filtrosDoBanco.prontos)
+                .toList();
+    }
+
+    static void registrarRemocao(Collection<FiltrosDeExistencia> filtrosProntos, TabelaMonitorada tabela, long chave) {
+        for (FiltrosDeExistencia filtrosDoBanco : filtrosProntos) {
+            filtrosDoBanco.filtros.get(tabela).remover(chave);
+        }
+    }
+
+    private boolean certamenteNaoExiste(TabelaMonitorada tabela, long chave) {
+        if (!prontos || filtros.get(tabela).podeConter(chave)) {
+            return false;
+        }
+        contadores.get(tabela).rejeicoes.incrementAndGet();
+        return true;
+    }
+
+    private static class Contadores {
+        private final AtomicLong rejeicoes = new AtomicLong();
+        private final AtomicLong falsosPositivos = new AtomicLong();
+        private final AtomicLong confirmacoes = new AtomicLong();
+    }
+}
@@ -0,0 +1,94 @@
+package com.spea.api.repositories.existencia;
+
+import com.spea.api.cache.TabelaMonitorada;
+import org.h2.tools.TriggerAdapter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Leva aos FiltrosDeExistencia as inclusões e remoções de tb_insumos, tb_receitas e tb_receita_insumo.
+ * A inclusão entra no filtro na hora, mesmo que a transação seja desfeita depois: uma chave a mais só custa uma
+ * consulta. A remoção só sai do filtro depois do commit da transação do Spring em que aconteceu, e só dos filtros que
+ * já estavam prontos quando ela foi feita; fora de uma transação do Spring não há como saber se ela foi confirmada,
+ * e a chave fica no filtro.
+ */
+public class FiltrosDeExistenciaTrigger extends TriggerAdapter {
+
+    private TabelaMonitorada tabela;
+    private String banco;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        super.init(conn, schemaName, triggerName, tableName, before, type);
+
+        if ("TB_INSUMOS".equalsIgnoreCase(tableName)) {
+            tabela = TabelaMonitorada.INSUMOS;
+        } else if ("TB_RECEITAS".equalsIgnoreCase(tableName)) {
+            tabela = TabelaMonitorada.RECEITAS;
+        } else if ("TB_RECEITA_INSUMO".equalsIgnoreCase(tableName)) {
+            tabela = TabelaMonitorada.RECEITA_INSUMO;
+        } else {
+            throw new SQLException("Tabela sem filtro de existência: " + tableName);
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, ResultSet oldRow, ResultSet newRow) throws SQLException {
+        Long chaveAnterior = oldRow == null ? null : obterChave(oldRow);
+        Long chaveNova = newRow == null ? null : obterChave(newRow);
+
+        if (chaveAnterior != null && chaveAnterior.equals(chaveNova)) {
+            return;
+        }
+
+        String bancoDaConexao = obterBanco(conn);
+        if (chaveNova != null) {
+            FiltrosDeExistencia.registrarInclusao(bancoDaConexao, tabela, chaveNova);
+        }
+        if (chaveAnterior != null) {
+            removerDepoisDoCommit(bancoDaConexao, chaveAnterior);
+        }
+    }
+
+    private void removerDepoisDoCommit(String bancoDaConexao, long chave) {
+        List<FiltrosDeExistencia> filtrosProntos = FiltrosDeExistencia.obterFiltrosProntos(bancoDaConexao);
+        if (filtrosProntos.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    FiltrosDeExistencia.registrarRemocao(filtrosProntos, tabela, chave);
+                }
+            }
+        });
+    }
+
+    private long obterChave(ResultSet linha) throws SQLException {
+        if (tabela == TabelaMonitorada.RECEITA_INSUMO) {
+            return FiltroDeBloomContador.chaveDoPar(linha.getLong("RECEITA_ID"), linha.getLong("INSUMO_ID"));
+        }
+        return linha.getLong("ID");
+    }
+
+    // Mesma identificação usada por FiltrosDeExistencia ao se registrar.
+    private String obterBanco(Connection conn) throws SQLException {
+        if (banco == null) {
+            try (Statement statement = conn.createStatement();
+                 ResultSet resultado = statement.executeQuery("SELECT COALESCE(DATABASE_PATH(), DATABASE())")) {
+                resultado.next();
+                banco = resultado.getString(1);
+            }
+        }
+        return banco;
+    }
+}
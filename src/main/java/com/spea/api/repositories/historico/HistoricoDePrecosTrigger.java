@@ -0,0 +1,42 @@
+package com.spea.api.repositories.historico;
+
+import org.h2.tools.TriggerAdapter;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Acrescenta a tb_historico_precos_insumo o preço de cada insumo cadastrado e de cada atualização que muda o preço ou
+ * o tamanho do pacote; mudanças só de nome não entram no histórico. Como roda dentro do banco, cobre qualquer escrita
+ * (repositórios, importações e scripts) e acompanha o rollback.
+ */
+public class HistoricoDePrecosTrigger extends TriggerAdapter {
+
+    @Override
+    public void fire(Connection conn, ResultSet oldRow, ResultSet newRow) throws SQLException {
+        BigDecimal quantidadePorPacote = newRow.getBigDecimal("QUANTIDADE_POR_PACOTE");
+        BigDecimal valorPagoPorPacote = newRow.getBigDecimal("VALOR_PAGO_POR_PACOTE");
+
+        if (oldRow != null
+                && oldRow.getBigDecimal("QUANTIDADE_POR_PACOTE").compareTo(quantidadePorPacote) == 0
+                && oldRow.getBigDecimal("VALOR_PAGO_POR_PACOTE").compareTo(valorPagoPorPacote) == 0) {
+            return;
+        }
+
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO tb_historico_precos_insumo (insumo_id, vigente_desde, quantidade_por_pacote, " +
+                        "valor_pago_por_pacote) VALUES (?, ?, ?, ?)")) {
+            insert.setLong(1, newRow.getLong("ID"));
+            insert.setObject(2, OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS));
+            insert.setBigDecimal(3, quantidadePorPacote);
+            insert.setBigDecimal(4, valorPagoPorPacote);
+            insert.executeUpdate();
+        }
+    }
+}
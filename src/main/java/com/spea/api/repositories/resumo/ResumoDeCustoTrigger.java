@@ -0,0 +1,234 @@
+package com.spea.api.repositories.resumo;
+
+import org.h2.tools.TriggerAdapter;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Mantém tb_resumo_custo_receita e tb_resumo_custo_receita_insumo a partir das escritas em tb_receitas,
+ * tb_receita_insumo e tb_insumos. Cada linha alterada aplica só a própria diferença: soma e subtrai do total, ajusta
+ * a quantidade de insumos e só procura de novo o insumo mais caro, pelo índice de valor, quando ele pode ter mudado.
+ * As sub-receitas de tb_receita_subreceita entram só no total; a quantidade e o detalhe continuam sendo dos insumos.
+ * Como roda dentro do banco, acompanha qualquer escrita (inclusive as atualizações em conjunto e o rollback).
+ * A exclusão da receita remove o resumo pelo ON DELETE CASCADE.
+ */
+public class ResumoDeCustoTrigger extends TriggerAdapter {
+
+    private enum TabelaDeOrigem { RECEITAS, RECEITA_INSUMO, INSUMOS, RECEITA_SUBRECEITA }
+
+    private TabelaDeOrigem tabelaDeOrigem;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        super.init(conn, schemaName, triggerName, tableName, before, type);
+
+        if ("TB_RECEITAS".equalsIgnoreCase(tableName)) {
+            tabelaDeOrigem = TabelaDeOrigem.RECEITAS;
+        } else if ("TB_RECEITA_INSUMO".equalsIgnoreCase(tableName)) {
+            tabelaDeOrigem = TabelaDeOrigem.RECEITA_INSUMO;
+        } else if ("TB_INSUMOS".equalsIgnoreCase(tableName)) {
+            tabelaDeOrigem = TabelaDeOrigem.INSUMOS;
+        } else if ("TB_RECEITA_SUBRECEITA".equalsIgnoreCase(tableName)) {
+            tabelaDeOrigem = TabelaDeOrigem.RECEITA_SUBRECEITA;
+        } else {
+            throw new SQLException("Tabela sem resumo de custo: " + tableName);
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, ResultSet oldRow, ResultSet newRow) throws SQLException {
+        switch (tabelaDeOrigem) {
+            case RECEITAS -> criarResumoDaReceita(conn, newRow.getLong("ID"));
+            case INSUMOS -> atualizarNomeDoInsumo(conn, oldRow, newRow);
+            case RECEITA_SUBRECEITA -> aplicarAlteracaoDaSubreceita(conn, oldRow, newRow);
+            default -> aplicarAlteracaoDaAssociacao(conn, oldRow, newRow);
+        }
+    }
+
+    private void criarResumoDaReceita(Connection conn, long receitaId) throws SQLException {
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO tb_resumo_custo_receita (receita_id) VALUES (?)")) {
+            insert.setLong(1, receitaId);
+            insert.executeUpdate();
+        }
+    }
+
+    private void atualizarNomeDoInsumo(Connection conn, ResultSet oldRow, ResultSet newRow) throws SQLException {
+        String nome = newRow.getString("NOME");
+        if (Objects.equals(oldRow.getString("NOME"), nome)) {
+            return;
+        }
+        long insumoId = newRow.getLong("ID");
+
+        try (PreparedStatement updateDetalhe = conn.prepareStatement(
+                "UPDATE tb_resumo_custo_receita_insumo SET insumo_nome = ? WHERE insumo_id = ?");
+             PreparedStatement updateResumo = conn.prepareStatement(
+                     "UPDATE tb_resumo_custo_receita SET insumo_mais_caro_nome = ? WHERE insumo_mais_caro_id = ?")) {
+            updateDetalhe.setString(1, nome);
+            updateDetalhe.setLong(2, insumoId);
+            updateDetalhe.executeUpdate();
+
+            updateResumo.setString(1, nome);
+            updateResumo.setLong(2, insumoId);
+            updateResumo.executeUpdate();
+        }
+    }
+
+    private void aplicarAlteracaoDaAssociacao(Connection conn, ResultSet oldRow, ResultSet newRow) throws SQLException {
+        if (oldRow != null && newRow != null
+                && (oldRow.getLong("RECEITA_ID") != newRow.getLong("RECEITA_ID")
+                || oldRow.getLong("INSUMO_ID") != newRow.getLong("INSUMO_ID"))) {
+            // A chave mudou: vale como a remoção da associação antiga e a inclusão da nova.
+            aplicarAlteracaoDaAssociacao(conn, oldRow, null);
+            aplicarAlteracaoDaAssociacao(conn, null, newRow);
+            return;
+        }
+
+        ResultSet linha = newRow != null ? newRow : oldRow;
+        long receitaId = linha.getLong("RECEITA_ID");
+        long insumoId = linha.getLong("INSUMO_ID");
+        BigDecimal valorAnterior = oldRow == null ? null : oldRow.getBigDecimal("VALOR_GASTO_INSUMO");
+        BigDecimal valorNovo = newRow == null ? null : newRow.getBigDecimal("VALOR_GASTO_INSUMO");
+
+        if (valorAnterior != null && valorNovo != null && valorAnterior.compareTo(valorNovo) == 0) {
+            return;
+        }
+
+        // Trava a receita antes do resumo, na mesma ordem dos repositórios: as alterações e remoções de associações
+        // bloqueiam a associação e depois a receita, e a criação já bloqueou a receita antes de inserir a associação.
+        if (!bloquearReceita(conn, receitaId)) {
+            return;
+        }
+        aplicarDiferencaNoResumo(conn, receitaId, valorAnterior, valorNovo);
+        atualizarDetalheDoInsumo(conn, receitaId, insumoId, valorAnterior, valorNovo);
+
+        if (podeTerMudadoOInsumoMaisCaro(conn, receitaId, insumoId, valorNovo)) {
+            recalcularInsumoMaisCaro(conn, receitaId);
+        }
+    }
+
+    private void aplicarAlteracaoDaSubreceita(Connection conn, ResultSet oldRow, ResultSet newRow) throws SQLException {
+        if (oldRow != null && newRow != null && oldRow.getLong("RECEITA_ID") != newRow.getLong("RECEITA_ID")) {
+            aplicarAlteracaoDaSubreceita(conn, oldRow, null);
+            aplicarAlteracaoDaSubreceita(conn, null, newRow);
+            return;
+        }
+
+        long receitaId = (newRow != null ? newRow : oldRow).getLong("RECEITA_ID");
+        BigDecimal valorAnterior = oldRow == null ? BigDecimal.ZERO : oldRow.getBigDecimal("VALOR_GASTO_SUBRECEITA");
+        BigDecimal valorNovo = newRow == null ? BigDecimal.ZERO : newRow.getBigDecimal("VALOR_GASTO_SUBRECEITA");
+
+        if (valorAnterior.compareTo(valorNovo) == 0 || !bloquearReceita(conn, receitaId)) {
+            return;
+        }
+
+        try (PreparedStatement update = conn.prepareStatement(
+                "UPDATE tb_resumo_custo_receita SET total_gasto_insumos = total_gasto_insumos - ? + ? WHERE receita_id = ?")) {
+            update.setBigDecimal(1, valorAnterior);
+            update.setBigDecimal(2, valorNovo);
+            update.setLong(3, receitaId);
+            update.executeUpdate();
+        }
+    }
+
+    private boolean bloquearReceita(Connection conn, long receitaId) throws SQLException {
+        try (PreparedStatement select = conn.prepareStatement("SELECT id FROM tb_receitas WHERE id = ? FOR UPDATE")) {
+            select.setLong(1, receitaId);
+
+            // Nenhuma linha: a receita está sendo removida e o resumo sai junto pelo ON DELETE CASCADE.
+            try (ResultSet resultado = select.executeQuery()) {
+                return resultado.next();
+            }
+        }
+    }
+
+    private void aplicarDiferencaNoResumo(Connection conn, long receitaId, BigDecimal valorAnterior,
+                                          BigDecimal valorNovo) throws SQLException {
+        int diferencaNaQuantidade = (valorNovo == null ? 0 : 1) - (valorAnterior == null ? 0 : 1);
+
+        try (PreparedStatement update = conn.prepareStatement(
+                "UPDATE tb_resumo_custo_receita " +
+                "SET total_gasto_insumos = total_gasto_insumos - ? + ?, quantidade_de_insumos = quantidade_de_insumos + ? " +
+                "WHERE receita_id = ?")) {
+            update.setBigDecimal(1, valorAnterior == null ? BigDecimal.ZERO : valorAnterior);
+            update.setBigDecimal(2, valorNovo == null ? BigDecimal.ZERO : valorNovo);
+            update.setInt(3, diferencaNaQuantidade);
+            update.setLong(4, receitaId);
+            update.executeUpdate();
+        }
+    }
+
+    private void atualizarDetalheDoInsumo(Connection conn, long receitaId, long insumoId, BigDecimal valorAnterior,
+                                          BigDecimal valorNovo) throws SQLException {
+        String sql;
+        if (valorNovo == null) {
+            sql = "DELETE FROM tb_resumo_custo_receita_insumo WHERE receita_id = ? AND insumo_id = ?";
+        } else if (valorAnterior == null) {
+            sql = "INSERT INTO tb_resumo_custo_receita_insumo (receita_id, insumo_id, insumo_nome, valor_gasto_insumo) " +
+                    "SELECT ?, id, nome, ? FROM tb_insumos WHERE id = ?";
+        } else {
+            sql = "UPDATE tb_resumo_custo_receita_insumo SET valor_gasto_insumo = ? WHERE receita_id = ? AND insumo_id = ?";
+        }
+
+        try (PreparedStatement statement = conn.prepareStatement(sql)) {
+            if (valorNovo == null) {
+                statement.setLong(1, receitaId);
+                statement.setLong(2, insumoId);
+            } else if (valorAnterior == null) {
+                statement.setLong(1, receitaId);
+                statement.setBigDecimal(2, valorNovo);
+                statement.setLong(3, insumoId);
+            } else {
+                statement.setBigDecimal(1, valorNovo);
+                statement.setLong(2, receitaId);
+                statement.setLong(3, insumoId);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    // O mais caro é o de maior valor gasto; no empate, o de menor id.
+    private boolean podeTerMudadoOInsumoMaisCaro(Connection conn, long receitaId, long insumoId,
+                                                 BigDecimal valorNovo) throws SQLException {
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT insumo_mais_caro_id, valor_gasto_insumo_mais_caro FROM tb_resumo_custo_receita WHERE receita_id = ?")) {
+            select.setLong(1, receitaId);
+
+            try (ResultSet resultado = select.executeQuery()) {
+                if (!resultado.next()) {
+                    return false;
+                }
+                long insumoMaisCaroId = resultado.getLong(1);
+                boolean semInsumoMaisCaro = resultado.wasNull();
+                BigDecimal valorDoMaisCaro = resultado.getBigDecimal(2);
+
+                if (semInsumoMaisCaro || insumoMaisCaroId == insumoId) {
+                    return true;
+                }
+                if (valorNovo == null) {
+                    return false;
+                }
+                int comparacao = valorNovo.compareTo(valorDoMaisCaro);
+                return comparacao > 0 || (comparacao == 0 && insumoId < insumoMaisCaroId);
+            }
+        }
+    }
+
+    private void recalcularInsumoMaisCaro(Connection conn, long receitaId) throws SQLException {
+        try (PreparedStatement update = conn.prepareStatement(
+                "UPDATE tb_resumo_custo_receita AS r SET (insumo_mais_caro_id, insumo_mais_caro_nome, valor_gasto_insumo_mais_caro) = ( " +
+                "  SELECT d.insumo_id, d.insumo_nome, d.valor_gasto_insumo FROM tb_resumo_custo_receita_insumo AS d " +
+                "  WHERE d.receita_id = r.receita_id " +
+                "  ORDER BY d.valor_gasto_insumo DESC, d.insumo_id LIMIT 1 " +
+                ") WHERE r.receita_id = ?")) {
+            update.setLong(1, receitaId);
+            update.executeUpdate();
+        }
+    }
+}
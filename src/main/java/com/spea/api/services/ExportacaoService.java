@@ -0,0 +1,224 @@
+package com.spea.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ReceitaDto;
+import com.spea.api.dtos.ReceitaInsumoDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.InsumoRepository;
+import com.spea.api.repositories.ReceitaInsumoRepository;
+import com.spea.api.repositories.ReceitaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.spea.api.services.ImportacaoDeInsumosService.FORMATO_CSV;
+import static com.spea.api.services.ImportacaoDeInsumosService.FORMATO_NDJSON;
+import static com.spea.api.utils.LogUtil.*;
+import static java.util.Objects.isNull;
+
+/**
+ * Exportação do catálogo completo em NDJSON (um objeto por linha) ou CSV (com cabeçalho, no mesmo formato aceito
+ * pela importação de insumos). As linhas são lidas em lotes pela chave primária e escritas na resposta à medida que
+ * chegam, então a memória usada não depende do tamanho do catálogo. A conexão fica ocupada até o fim do envio.
+ */
+@Service
+public class ExportacaoService {
+
+    private static final List<ColunaCsv<InsumoDto>> COLUNAS_DE_INSUMOS = List.of(
+            new ColunaCsv<>("id", InsumoDto::getId),
+            new ColunaCsv<>("nome", InsumoDto::getNome),
+            new ColunaCsv<>("quantidadePorPacote", InsumoDto::getQuantidadePorPacote),
+            new ColunaCsv<>("valorPagoPorPacote", InsumoDto::getValorPagoPorPacote));
+
+    private static final List<ColunaCsv<ReceitaDto>> COLUNAS_DE_RECEITAS = List.of(
+            new ColunaCsv<>("id", ReceitaDto::getId),
+            new ColunaCsv<>("nome", ReceitaDto::getNome),
+            new ColunaCsv<>("totalGastoInsumos", ReceitaDto::getTotalGastoInsumos));
+
+    private static final List<ColunaCsv<ReceitaInsumoDto>> COLUNAS_DE_ASSOCIACOES = List.of(
+            new ColunaCsv<>("receitaId", ReceitaInsumoDto::getReceitaId),
+            new ColunaCsv<>("insumoId", ReceitaInsumoDto::getInsumoId),
+            new ColunaCsv<>("insumoNome", ReceitaInsumoDto::getInsumoNome),
+            new ColunaCsv<>("quantidadeUtilizadaInsumo", ReceitaInsumoDto::getQuantidadeUtilizadaInsumo),
+            new ColunaCsv<>("valorGastoInsumo", ReceitaInsumoDto::getValorGastoInsumo));
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private ReceitaRepository receitaRepository;
+
+    @Autowired
+    private ReceitaInsumoRepository receitaInsumoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spea.exportacao.tamanho-do-lote-de-leitura:500}")
+    private Integer tamanhoDoLoteDeLeitura;
+
+    /**
+     * Escolhe o formato pelo cabeçalho Accept, respeitando a preferência (q) de cada tipo. Quando o cliente aceita
+     * qualquer tipo, a exportação sai em NDJSON.
+     */
+    public MediaType definirFormatoDaExportacao(String formatosAceitos) {
+        MediaType formatoEscolhido = null;
+        double maiorPreferencia = 0;
+
+        try {
+            for (MediaType aceito : MediaType.parseMediaTypes(formatosAceitos)) {
+                MediaType formato = FORMATO_NDJSON.isCompatibleWith(aceito) ? FORMATO_NDJSON
+                        : FORMATO_CSV.isCompatibleWith(aceito) ? FORMATO_CSV : null;
+
+                if (!isNull(formato) && aceito.getQualityValue() > maiorPreferencia) {
+                    formatoEscolhido = formato;
+                    maiorPreferencia = aceito.getQualityValue();
+                }
+            }
+        } catch (InvalidMediaTypeException ignorada) {
+            // Tratado pela mensagem abaixo.
+        }
+
+        if (isNull(formatoEscolhido)) {
+            throw new EmpreendedorErrorException("O formato da exportação deve ser text/csv ou application/x-ndjson.");
+        }
+        return formatoEscolhido;
+    }
+
+    @Transactional(readOnly = true)
+    public Long exportarInsumos(MediaType formato, OutputStream saida) {
+        logInicioDeExportacaoDeInsumos(formato.toString());
+
+        return exportar(formato, saida, COLUNAS_DE_INSUMOS,
+                escritor -> insumoRepository.exportarInsumos(tamanhoDoLoteDeLeitura, escritor));
+    }
+
+    @Transactional(readOnly = true)
+    public Long exportarReceitas(MediaType formato, OutputStream saida) {
+        logInicioDeExportacaoDeReceitas(formato.toString());
+
+        return exportar(formato, saida, COLUNAS_DE_RECEITAS,
+                escritor -> receitaRepository.exportarReceitas(tamanhoDoLoteDeLeitura, escritor));
+    }
+
+    @Transactional(readOnly = true)
+    public Long exportarAssociacoes(MediaType formato, OutputStream saida) {
+        logInicioDeExportacaoDeAssociacoes(formato.toString());
+
+        return exportar(formato, saida, COLUNAS_DE_ASSOCIACOES,
+                escritor -> receitaInsumoRepository.exportarAssociacoes(tamanhoDoLoteDeLeitura, escritor));
+    }
+
+    private <T> Long exportar(MediaType formato, OutputStream saida, List<ColunaCsv<T>> colunas,
+                              Function<Consumer<T>, Long> consulta) {
+        try {
+            EscritorDaExportacao<T> escritor = new EscritorDaExportacao<>(
+                    new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8)),
+                    FORMATO_CSV.equalsTypeAndSubtype(formato) ? colunas : null);
+
+            escritor.escreverCabecalho();
+            Long total = consulta.apply(escritor);
+            escritor.enviar();
+
+            return total;
+        } catch (IOException e) {
+            throw new EmpreendedorErrorException("Erro ao escrever o conteúdo da exportação.");
+        }
+    }
+
+    private record ColunaCsv<T>(String cabecalho, Function<T, Object> valor) {
+    }
+
+    /**
+     * Escreve cada item recebido da leitura em lotes. O primeiro item é enviado assim que escrito, para que o cliente
+     * receba o início da resposta sem esperar a exportação inteira, e os seguintes a cada lote de leitura.
+     */
+    private class EscritorDaExportacao<T> implements Consumer<T> {
+
+        private final Writer escritor;
+        private final List<ColunaCsv<T>> colunasDoCsv;
+        private long itensDesdeOUltimoEnvio;
+        private boolean primeiroItem = true;
+
+        EscritorDaExportacao(Writer escritor, List<ColunaCsv<T>> colunasDoCsv) {
+            this.escritor = escritor;
+            this.colunasDoCsv = colunasDoCsv;
+        }
+
+        void escreverCabecalho() throws IOException {
+            if (isNull(colunasDoCsv)) {
+                return;
+            }
+            for (int i = 0; i < colunasDoCsv.size(); i++) {
+                if (i > 0) {
+                    escritor.write(',');
+                }
+                escritor.write(colunasDoCsv.get(i).cabecalho());
+            }
+            escritor.write('\n');
+        }
+
+        @Override
+        public void accept(T item) {
+            try {
+                if (isNull(colunasDoCsv)) {
+                    escritor.write(objectMapper.writeValueAsString(item));
+                } else {
+                    escreverLinhaCsv(item);
+                }
+                escritor.write('\n');
+
+                if (primeiroItem || ++itensDesdeOUltimoEnvio >= tamanhoDoLoteDeLeitura) {
+                    enviar();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void enviar() throws IOException {
+            escritor.flush();
+            primeiroItem = false;
+            itensDesdeOUltimoEnvio = 0;
+        }
+
+        private void escreverLinhaCsv(T item) throws IOException {
+            for (int i = 0; i < colunasDoCsv.size(); i++) {
+                if (i > 0) {
+                    escritor.write(',');
+                }
+                escritor.write(formatarCampoCsv(colunasDoCsv.get(i).valor().apply(item)));
+            }
+        }
+    }
+
+    private static String formatarCampoCsv(Object valor) {
+        if (isNull(valor)) {
+            return "";
+        }
+        if (valor instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (valor instanceof Double numero) {
+            // Sem notação científica, que a importação e as planilhas não leem como o mesmo número.
+            return BigDecimal.valueOf(numero).stripTrailingZeros().toPlainString();
+        }
+
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,204 @@
+package com.spea.api.services;
+
+import com.spea.api.cache.CacheDeHistoricoDePrecos;
+import com.spea.api.cache.SerieDePrecos;
+import com.spea.api.dtos.*;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.HistoricoDePrecosRepository;
+import com.spea.api.repositories.InsumoRepository;
+import com.spea.api.repositories.ReceitaInsumoRepository;
+import com.spea.api.repositories.ReceitaRepository;
+import com.spea.api.repositories.ReceitaSubreceitaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+
+import static com.spea.api.utils.CustoEmPontoFixoUtil.calcularPrecoPorUnidadeEmMilionesimos;
+import static com.spea.api.utils.CustoEmPontoFixoUtil.calcularValorGasto;
+import static com.spea.api.utils.LogUtil.*;
+import static java.util.Objects.isNull;
+
+/**
+ * Custo das receitas em datas passadas a partir do histórico de preços dos insumos. A composição usada é a atual
+ * (insumos, sub-receitas e quantidades); só os preços são os vigentes na data. Um insumo cadastrado depois da data
+ * não tinha preço e fica sem valor e fora do total.
+ */
+@Service
+@Transactional(readOnly = true)
+public class HistoricoDePrecosService {
+
+    @Autowired
+    private HistoricoDePrecosRepository historicoDePrecosRepository;
+
+    @Autowired
+    private CacheDeHistoricoDePrecos cacheDeHistoricoDePrecos;
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private ReceitaRepository receitaRepository;
+
+    @Autowired
+    private ReceitaInsumoRepository receitaInsumoRepository;
+
+    @Autowired
+    private ReceitaSubreceitaRepository receitaSubreceitaRepository;
+
+    @Autowired
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
+    public List<PrecoDoInsumoDto> obterHistoricoDePrecosDoInsumo(Long insumoId) {
+        logInicioObtencaoDoHistoricoDePrecosDoInsumo(insumoId);
+
+        if (!insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId)) {
+            throw new EmpreendedorErrorException("Nenhum insumo encontrado pelo id informado.");
+        }
+        return historicoDePrecosRepository.obterHistoricoDePrecosDoInsumo(insumoId);
+    }
+
+    /**
+     * Desce pelas sub-receitas uma vez, lê os insumos de todas as receitas alcançadas em uma consulta e calcula os
+     * totais das sub-receitas antes das receitas que as utilizam. O preço de cada insumo na data sai de uma busca
+     * binária na série dele.
+     */
+    public CustoDaReceitaNaDataDto obterCustoDaReceitaNaData(Long receitaId, Instant instante) {
+        logInicioCalculoDoCustoDaReceitaNaData(receitaId, instante);
+
+        if (isNull(instante)) {
+            throw new EmpreendedorErrorException("O instante é obrigatório.");
+        }
+        if (!receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)) {
+            throw new EmpreendedorErrorException("Nenhuma receita encontrada pelo id informado.");
+        }
+
+        Map<Long, List<ReceitaSubreceitaDto>> subreceitasPorReceita = obterSubreceitasAlcancadas(receitaId);
+        Map<Long, List<ReceitaInsumoDto>> insumosPorReceita = new HashMap<>();
+        for (ReceitaInsumoDto associacao : receitaInsumoRepository
+                .obterQuantidadesDosInsumosDasReceitas(subreceitasPorReceita.keySet())) {
+            insumosPorReceita.computeIfAbsent(associacao.getReceitaId(), id -> new ArrayList<>()).add(associacao);
+        }
+
+        Set<Long> insumoIds = new HashSet<>();
+        insumosPorReceita.values().forEach(associacoes -> associacoes
+                .forEach(associacao -> insumoIds.add(associacao.getInsumoId())));
+        Map<Long, SerieDePrecos> series = obterSeriesDePrecos(insumoIds);
+
+        Map<Long, List<CustoDoInsumoNaDataDto>> custosDosInsumosPorReceita = new HashMap<>();
+        Map<Long, BigDecimal> totais = new HashMap<>();
+        for (List<Long> nivel : ordenarDasSubreceitasParaAsReceitas(subreceitasPorReceita)) {
+            for (Long id : nivel) {
+                BigDecimal total = BigDecimal.ZERO.setScale(2);
+
+                List<CustoDoInsumoNaDataDto> custosDosInsumos = new ArrayList<>();
+                for (ReceitaInsumoDto associacao : insumosPorReceita.getOrDefault(id, List.of())) {
+                    CustoDoInsumoNaDataDto custoDoInsumo = calcularCustoDoInsumoNaData(associacao,
+                            series.get(associacao.getInsumoId()), instante);
+                    if (!isNull(custoDoInsumo.getValorGastoInsumo())) {
+                        total = total.add(custoDoInsumo.getValorGastoInsumo());
+                    }
+                    custosDosInsumos.add(custoDoInsumo);
+                }
+                for (ReceitaSubreceitaDto ligacao : subreceitasPorReceita.get(id)) {
+                    ligacao.setValorGastoSubreceita(receitaSubreceitaService.calcularGastoComSubreceita(
+                            totais.get(ligacao.getSubreceitaId()), ligacao.getQuantidadeUtilizadaSubreceita()));
+                    total = total.add(ligacao.getValorGastoSubreceita());
+                }
+
+                custosDosInsumosPorReceita.put(id, custosDosInsumos);
+                totais.put(id, total);
+            }
+        }
+
+        CustoDaReceitaNaDataDto custoDaReceitaNaDataDto = new CustoDaReceitaNaDataDto();
+        custoDaReceitaNaDataDto.setReceitaId(receitaId);
+        custoDaReceitaNaDataDto.setInstante(instante);
+        custoDaReceitaNaDataDto.setTotalGastoInsumos(totais.get(receitaId));
+        custoDaReceitaNaDataDto.setInsumos(custosDosInsumosPorReceita.get(receitaId));
+        custoDaReceitaNaDataDto.setSubreceitas(subreceitasPorReceita.get(receitaId));
+
+        logSucessoAoCalcularCustoDaReceitaNaData(receitaId, instante);
+        return custoDaReceitaNaDataDto;
+    }
+
+    // A receita e todas as sub-receitas alcançadas a partir dela, cada uma com as próprias ligações de saída.
+    private Map<Long, List<ReceitaSubreceitaDto>> obterSubreceitasAlcancadas(Long receitaId) {
+        Map<Long, List<ReceitaSubreceitaDto>> subreceitasPorReceita = new HashMap<>();
+        subreceitasPorReceita.put(receitaId, new ArrayList<>());
+
+        Set<Long> fronteira = Set.of(receitaId);
+        while (!fronteira.isEmpty()) {
+            Set<Long> proximaFronteira = new HashSet<>();
+            for (ReceitaSubreceitaDto ligacao : receitaSubreceitaRepository
+                    .obterQuantidadesDasSubreceitasDasReceitas(fronteira)) {
+                subreceitasPorReceita.get(ligacao.getReceitaId()).add(ligacao);
+                if (!subreceitasPorReceita.containsKey(ligacao.getSubreceitaId())) {
+                    subreceitasPorReceita.put(ligacao.getSubreceitaId(), new ArrayList<>());
+                    proximaFronteira.add(ligacao.getSubreceitaId());
+                }
+            }
+            fronteira = proximaFronteira;
+        }
+        return subreceitasPorReceita;
+    }
+
+    private List<List<Long>> ordenarDasSubreceitasParaAsReceitas(Map<Long, List<ReceitaSubreceitaDto>> subreceitasPorReceita) {
+        Map<Long, Set<Long>> subreceitasDeCadaReceita = new HashMap<>();
+        subreceitasPorReceita.forEach((id, ligacoes) -> {
+            Set<Long> subreceitaIds = new HashSet<>();
+            ligacoes.forEach(ligacao -> subreceitaIds.add(ligacao.getSubreceitaId()));
+            subreceitasDeCadaReceita.put(id, subreceitaIds);
+        });
+        return receitaSubreceitaService.ordenarEmNiveis(subreceitasDeCadaReceita);
+    }
+
+    // Séries em memória quando já foram lidas; as demais em uma consulta só, guardadas para as próximas datas.
+    private Map<Long, SerieDePrecos> obterSeriesDePrecos(Set<Long> insumoIds) {
+        Map<Long, SerieDePrecos> series = new HashMap<>();
+        List<Long> insumosSemSerie = new ArrayList<>();
+        for (Long insumoId : insumoIds) {
+            Optional<SerieDePrecos> serieEmCache = cacheDeHistoricoDePrecos.obterSerie(insumoId);
+            if (serieEmCache.isPresent()) {
+                series.put(insumoId, serieEmCache.get());
+            } else {
+                insumosSemSerie.add(insumoId);
+            }
+        }
+
+        if (!insumosSemSerie.isEmpty()) {
+            Long versao = cacheDeHistoricoDePrecos.obterVersao();
+            Map<Long, SerieDePrecos> seriesLidas = historicoDePrecosRepository
+                    .obterSeriesDePrecosDosInsumos(insumosSemSerie);
+            cacheDeHistoricoDePrecos.armazenarSeries(seriesLidas, versao);
+            series.putAll(seriesLidas);
+        }
+        return series;
+    }
+
+    private CustoDoInsumoNaDataDto calcularCustoDoInsumoNaData(ReceitaInsumoDto associacao, SerieDePrecos serie,
+                                                               Instant instante) {
+        CustoDoInsumoNaDataDto custoDoInsumo = new CustoDoInsumoNaDataDto();
+        custoDoInsumo.setInsumoId(associacao.getInsumoId());
+        custoDoInsumo.setInsumoNome(associacao.getInsumoNome());
+        custoDoInsumo.setQuantidadeUtilizadaInsumo(associacao.getQuantidadeUtilizadaInsumo());
+
+        int posicao = isNull(serie) ? -1 : serie.localizarPrecoVigente(instante);
+        if (posicao < 0) {
+            return custoDoInsumo;
+        }
+
+        Double quantidadePorPacote = serie.obterQuantidadePorPacote(posicao);
+        BigDecimal valorPagoPorPacote = serie.obterValorPagoPorPacote(posicao);
+        custoDoInsumo.setPrecoVigenteDesde(serie.obterVigenteDesde(posicao));
+        custoDoInsumo.setQuantidadePorPacote(quantidadePorPacote);
+        custoDoInsumo.setValorPagoPorPacote(valorPagoPorPacote);
+        custoDoInsumo.setValorGastoInsumo(calcularValorGasto(
+                calcularPrecoPorUnidadeEmMilionesimos(quantidadePorPacote, valorPagoPorPacote),
+                associacao.getQuantidadeUtilizadaInsumo()));
+        return custoDoInsumo;
+    }
+}
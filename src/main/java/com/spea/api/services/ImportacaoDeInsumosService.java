@@ -0,0 +1,282 @@
+package com.spea.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spea.api.dtos.ErroDeImportacaoDto;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ResultadoImportacaoDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.InsumoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static com.spea.api.utils.LogUtil.*;
+import static java.util.Objects.isNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Importação de insumos em lote. O corpo é lido linha a linha, cada linha passa pelas mesmas validações de
+ * InsumoService.cadastrarInsumo, e as linhas válidas são gravadas em lotes, cada um na sua própria transação.
+ * Linhas inválidas não interrompem a importação: voltam no resultado com o número da linha e a mensagem.
+ */
+@Service
+public class ImportacaoDeInsumosService {
+
+    public static final MediaType FORMATO_CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType FORMATO_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final Map<String, String> MAP_COLUNAS_PERMITIDAS;
+    static {
+        Map<String, String> map = new HashMap<>();
+        map.put("nome", "nome");
+        map.put("nomeinsumo", "nome");
+        map.put("quantidadeporpacote", "quantidadePorPacote");
+        map.put("quantidade_por_pacote", "quantidadePorPacote");
+        map.put("valorpagoporpacote", "valorPagoPorPacote");
+        map.put("valor_pago_por_pacote", "valorPagoPorPacote");
+        MAP_COLUNAS_PERMITIDAS = Collections.unmodifiableMap(map);
+    }
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spea.importacao-insumos.tamanho-do-lote:500}")
+    private Integer tamanhoDoLote;
+
+    @Value("${spea.importacao-insumos.quantidade-maxima-de-erros:1000}")
+    private Integer quantidadeMaximaDeErros;
+
+    public ResultadoImportacaoDto importarInsumos(InputStream corpo, String formato) {
+        logInicioDeImportacaoDeInsumos(formato);
+
+        boolean csv = verificarFormatoDaImportacao(formato);
+        ResultadoImportacaoDto resultado = new ResultadoImportacaoDto();
+        List<LinhaImportada> lote = new ArrayList<>(tamanhoDoLote);
+
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8))) {
+            long numeroDaLinha = 0;
+            LeitorDeCsv leitorDeCsv = null;
+
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                numeroDaLinha++;
+                if (isBlank(linha)) {
+                    continue;
+                }
+
+                if (csv && isNull(leitorDeCsv)) {
+                    leitorDeCsv = new LeitorDeCsv(removerMarcadorDeOrdemDeBytes(linha));
+                    continue;
+                }
+
+                resultado.setTotalDeLinhas(resultado.getTotalDeLinhas() + 1);
+
+                InsumoDto insumoDto = null;
+                try {
+                    insumoDto = csv ? leitorDeCsv.lerInsumo(linha) : lerInsumoDeJson(linha);
+                    insumoService.validarDadosDoInsumo(insumoDto);
+                } catch (EmpreendedorErrorException e) {
+                    registrarErro(resultado, numeroDaLinha, isNull(insumoDto) ? null : insumoDto.getNome(), e.getMessage());
+                    continue;
+                }
+
+                lote.add(new LinhaImportada(numeroDaLinha, insumoDto));
+                if (lote.size() >= tamanhoDoLote) {
+                    gravarLote(lote, resultado);
+                    lote.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new EmpreendedorErrorException("Erro ao ler o conteúdo da importação de insumos.");
+        }
+
+        if (!lote.isEmpty()) {
+            gravarLote(lote, resultado);
+        }
+
+        logSucessoAoImportarInsumos(resultado.getTotalImportado(), resultado.getTotalDeErros());
+        return resultado;
+    }
+
+    private boolean verificarFormatoDaImportacao(String formato) {
+        try {
+            MediaType tipo = MediaType.parseMediaType(formato);
+            if (FORMATO_CSV.isCompatibleWith(tipo)) {
+                return true;
+            }
+            if (FORMATO_NDJSON.isCompatibleWith(tipo)) {
+                return false;
+            }
+        } catch (InvalidMediaTypeException ignorada) {
+            // Tratado pela mensagem abaixo.
+        }
+        throw new EmpreendedorErrorException("O formato da importação deve ser text/csv ou application/x-ndjson.");
+    }
+
+    private void gravarLote(List<LinhaImportada> lote, ResultadoImportacaoDto resultado) {
+        List<InsumoDto> listaDeInsumos = lote.stream().map(LinhaImportada::insumoDto).toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insumoRepository.cadastrarInsumosEmLote(listaDeInsumos));
+            resultado.setTotalImportado(resultado.getTotalImportado() + lote.size());
+            return;
+        } catch (Exception e) {
+            // O lote inteiro foi desfeito; cada linha é gravada sozinha para isolar as que o banco recusa.
+        }
+
+        for (LinhaImportada linhaImportada : lote) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insumoRepository.cadastrarInsumo(linhaImportada.insumoDto()));
+                resultado.setTotalImportado(resultado.getTotalImportado() + 1);
+            } catch (EmpreendedorErrorException e) {
+                registrarErro(resultado, linhaImportada.numeroDaLinha(), linhaImportada.insumoDto().getNome(), e.getMessage());
+            } catch (Exception e) {
+                registrarErro(resultado, linhaImportada.numeroDaLinha(), linhaImportada.insumoDto().getNome(),
+                        "Erro inesperado ao cadastrar um novo insumo.");
+            }
+        }
+    }
+
+    private void registrarErro(ResultadoImportacaoDto resultado, Long numeroDaLinha, String nome, String mensagem) {
+        resultado.setTotalDeErros(resultado.getTotalDeErros() + 1);
+
+        // Só o detalhe é limitado; a contagem continua para que um arquivo muito ruim não ocupe memória sem limite.
+        if (resultado.getErros().size() < quantidadeMaximaDeErros) {
+            resultado.getErros().add(new ErroDeImportacaoDto(numeroDaLinha, nome, mensagem));
+        }
+    }
+
+    private InsumoDto lerInsumoDeJson(String linha) {
+        try {
+            InsumoDto insumoDto = objectMapper.readValue(linha, InsumoDto.class);
+            if (isNull(insumoDto)) {
+                throw new EmpreendedorErrorException("A linha não contém um insumo em JSON.");
+            }
+            insumoDto.setId(null);
+            return insumoDto;
+        } catch (IOException e) {
+            throw new EmpreendedorErrorException("A linha não contém um insumo em JSON válido.");
+        }
+    }
+
+    private static String removerMarcadorDeOrdemDeBytes(String linha) {
+        return linha.startsWith("\uFEFF") ? linha.substring(1) : linha;
+    }
+
+    private record LinhaImportada(Long numeroDaLinha, InsumoDto insumoDto) {
+    }
+
+    /**
+     * Lê as linhas de um CSV a partir do cabeçalho. Aceita vírgula ou ponto e vírgula como separador, campos entre
+     * aspas com aspas duplicadas como escape e, no separador ponto e vírgula, vírgula como separador decimal.
+     */
+    private static class LeitorDeCsv {
+
+        private final char separador;
+        private final Map<String, Integer> posicaoDasColunas = new HashMap<>();
+
+        LeitorDeCsv(String cabecalho) {
+            this.separador = cabecalho.indexOf(';') >= 0 && cabecalho.indexOf(',') < 0 ? ';' : ',';
+
+            List<String> colunas = separarCampos(cabecalho);
+            for (int i = 0; i < colunas.size(); i++) {
+                String coluna = MAP_COLUNAS_PERMITIDAS.get(colunas.get(i).trim().toLowerCase(Locale.ROOT));
+                if (!isNull(coluna)) {
+                    posicaoDasColunas.putIfAbsent(coluna, i);
+                }
+            }
+
+            if (posicaoDasColunas.size() < 3) {
+                throw new EmpreendedorErrorException(
+                        "O cabeçalho do CSV deve conter as colunas nome, quantidadePorPacote e valorPagoPorPacote.");
+            }
+        }
+
+        InsumoDto lerInsumo(String linha) {
+            List<String> campos = separarCampos(linha);
+
+            InsumoDto insumoDto = new InsumoDto();
+            insumoDto.setNome(obterCampo(campos, "nome"));
+
+            String quantidadePorPacote = obterCampo(campos, "quantidadePorPacote");
+            String valorPagoPorPacote = obterCampo(campos, "valorPagoPorPacote");
+            try {
+                insumoDto.setQuantidadePorPacote(isBlank(quantidadePorPacote) ? null
+                        : Double.valueOf(normalizarNumero(quantidadePorPacote)));
+            } catch (NumberFormatException e) {
+                throw new EmpreendedorErrorException(String
+                        .format("A quantidade por pacote '%s' não é um número válido.", quantidadePorPacote));
+            }
+            try {
+                insumoDto.setValorPagoPorPacote(isBlank(valorPagoPorPacote) ? null
+                        : new BigDecimal(normalizarNumero(valorPagoPorPacote)));
+            } catch (NumberFormatException e) {
+                throw new EmpreendedorErrorException(String
+                        .format("O valor pago por pacote '%s' não é um número válido.", valorPagoPorPacote));
+            }
+
+            return insumoDto;
+        }
+
+        private String obterCampo(List<String> campos, String coluna) {
+            int posicao = posicaoDasColunas.get(coluna);
+            return posicao < campos.size() ? campos.get(posicao) : null;
+        }
+
+        private String normalizarNumero(String valor) {
+            String numero = valor.trim();
+            return separador == ';' ? numero.replace(',', '.') : numero;
+        }
+
+        private List<String> separarCampos(String linha) {
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreAspas = false;
+
+            for (int i = 0; i < linha.length(); i++) {
+                char caractere = linha.charAt(i);
+
+                if (entreAspas) {
+                    if (caractere == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else if (caractere == '"') {
+                        entreAspas = false;
+                    } else {
+                        campo.append(caractere);
+                    }
+                } else if (caractere == '"') {
+                    entreAspas = true;
+                } else if (caractere == separador) {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else {
+                    campo.append(caractere);
+                }
+            }
+            campos.add(campo.toString());
+
+            return campos;
+        }
+    }
+}
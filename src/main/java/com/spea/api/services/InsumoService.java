@@ -1,18 +1,21 @@
 package com.spea.api.services;
 
+import com.spea.api.cache.CacheDeInsumos;
 import com.spea.api.dtos.*;
 import com.spea.api.exceptions.EmpreendedorErrorException;
 import com.spea.api.repositories.InsumoRepository;
 import com.spea.api.repositories.ReceitaInsumoRepository;
 import com.spea.api.repositories.ReceitaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
 
+import static com.spea.api.utils.CursorUtil.lerCursor;
+import static com.spea.api.utils.CustoEmPontoFixoUtil.calcularValorGasto;
 import static com.spea.api.utils.LogUtil.*;
 import static com.spea.api.utils.StringUtil.normalizarEspacos;
 import static java.util.Objects.isNull;
@@ -48,15 +51,31 @@ public class InsumoService {
     @Autowired
     private ReceitaInsumoService receitaInsumoService;
 
+    @Autowired
+    private RecalculoDeCustosService recalculoDeCustosService;
+
+    @Autowired
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
+    @Autowired
+    private CacheDeInsumos cacheDeInsumos;
+
+    @Value("${spea.insumo.modo-propagacao-custos:CONJUNTO}")
+    private ModoPropagacaoDeCustos modoPropagacaoDeCustos;
+
     @Transactional
     public InsumoDto cadastrarInsumo(InsumoDto insumoDto) {
         logInicioCadastroDoInsumo(insumoDto.getNome());
 
+        validarDadosDoInsumo(insumoDto);
+
+        return insumoRepository.cadastrarInsumo(insumoDto);
+    }
+
+    protected void validarDadosDoInsumo(InsumoDto insumoDto) {
         validarNomeDoInsumo(insumoDto.getNome());
         validarQuantidadeDeInsumoPorPacote(insumoDto.getQuantidadePorPacote());
         validarValorPagoPorPacoteDeInsumo(insumoDto.getValorPagoPorPacote());
-
-        return insumoRepository.cadastrarInsumo(insumoDto);
     }
 
     private void validarNomeDoInsumo(String nome) {
@@ -101,37 +120,45 @@ public class InsumoService {
         validarValorPagoPorPacoteDeInsumo(insumoDto.getValorPagoPorPacote());
         verificarSeOInsumoExistePeloId(id);
 
+        switch (modoPropagacaoDeCustos) {
+            case CONJUNTO -> propagarCustosEmConjunto(id, insumoDto);
+            case ASSINCRONO -> recalculoDeCustosService.agendarRecalculoDoInsumo(id);
+            default -> propagarCustosIndividualmente(id, insumoDto);
+        }
+
+        return insumoRepository.atualizarInsumo(id, insumoDto);
+    }
+
+    private void propagarCustosEmConjunto(Long id, InsumoDto insumoDto) {
+        logInicioDePropagacaoDeCustosEmConjunto(id);
+
+        BigDecimal precoPorUnidadeInsumo = receitaInsumoService
+                .calcularPrecoPorUnidadeInsumo(insumoDto.getQuantidadePorPacote(), insumoDto.getValorPagoPorPacote());
+
+        receitaInsumoRepository.recalcularCustosDasReceitasQueUtilizamOInsumo(id, precoPorUnidadeInsumo);
+        receitaSubreceitaService.propagarCustosDosInsumos(List.of(id));
+    }
+
+    private void propagarCustosIndividualmente(Long id, InsumoDto insumoDto) {
         List<AssociacaoDto> listaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo = receitaInsumoRepository
                 .obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(id);
 
+        // O preço é o mesmo para todas as associações; cada uma só multiplica pela quantidade utilizada.
+        long precoPorUnidadeEmMilionesimos = receitaInsumoService
+                .calcularPrecoPorUnidadeEmMilionesimos(insumoDto.getQuantidadePorPacote(), insumoDto.getValorPagoPorPacote());
+
         for (AssociacaoDto associacao : listaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo) {
             ReceitaInsumoDto receitaInsumoDto = associacao.getReceitaInsumoDto();
-            ReceitaDto receitaDto = associacao.getReceitaDto();
 
-            BigDecimal gastoComInsumoAtualizado = receitaInsumoService
-                    .calcularGastoComInsumo(insumoDto.getQuantidadePorPacote(),
-                    insumoDto.getValorPagoPorPacote(),
+            BigDecimal gastoComInsumoAtualizado = calcularValorGasto(precoPorUnidadeEmMilionesimos,
                     receitaInsumoDto.getQuantidadeUtilizadaInsumo());
 
-            receitaInsumoRepository.atualizarReceitaInsumo(receitaInsumoDto.getReceitaId(),
+            receitaInsumoRepository.atualizarReceitaInsumoEAplicarDiferencaNoTotal(receitaInsumoDto.getReceitaId(),
                     receitaInsumoDto.getInsumoId(),
                     receitaInsumoDto.getQuantidadeUtilizadaInsumo(),
                     gastoComInsumoAtualizado);
-
-            BigDecimal valorGastoInsumoAntigo = receitaInsumoDto.getValorGastoInsumo();
-            BigDecimal totalGastoInsumosAtualizado = receitaDto
-                    .getTotalGastoInsumos()
-                    .subtract(valorGastoInsumoAntigo)
-                    .max(BigDecimal.ZERO)
-                    .add(gastoComInsumoAtualizado)
-                    .setScale(2, RoundingMode.HALF_EVEN);
-
-            receitaDto.setTotalGastoInsumos(totalGastoInsumosAtualizado);
-
-            receitaRepository.atualizarTotalGastoInsumosDaReceita(receitaDto.getId(), receitaDto);
         }
-
-        return insumoRepository.atualizarInsumo(id, insumoDto);
+        receitaSubreceitaService.propagarCustosDosInsumos(List.of(id));
     }
 
 
@@ -148,43 +175,16 @@ public class InsumoService {
         logInicioDeDelecaoDoInsumo(id);
         verificarSeOInsumoExistePeloId(id);
 
-        List<AssociacaoDto> listaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo = receitaInsumoRepository
-                .obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(id);
-
-        for (AssociacaoDto associacao : listaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo) {
-            ReceitaInsumoDto receitaInsumoDto = associacao.getReceitaInsumoDto();
-            ReceitaDto receitaDto = associacao.getReceitaDto();
-
-            BigDecimal totalAtual = receitaDto.getTotalGastoInsumos();
-            BigDecimal valorASubtrair = receitaInsumoDto.getValorGastoInsumo();
-
-            verificarTotalAtualEValorASubtrair(totalAtual, valorASubtrair);
-
-            BigDecimal valorGastoComInsumoExcluidoAbatido = totalAtual
-                    .subtract(valorASubtrair)
-                    .max(BigDecimal.ZERO)
-                    .setScale(2, RoundingMode.HALF_EVEN);
-
-            receitaDto.setTotalGastoInsumos(valorGastoComInsumoExcluidoAbatido);
-
-            receitaRepository.atualizarTotalGastoInsumosDaReceita(receitaDto.getId(), receitaDto);
-        }
+        // As receitas que utilizavam o insumo só são conhecidas antes da remoção das associações.
+        List<Long> receitaIds = receitaInsumoRepository.obterListaDeInsumosAssociadosAReceitasPeloId(id).stream()
+                .map(ReceitaInsumoDto::getReceitaId)
+                .toList();
+        receitaInsumoRepository.removerAssociacoesDoInsumoEAbaterTotais(id);
+        receitaSubreceitaService.propagarCustosDasReceitas(receitaIds);
 
         insumoRepository.deletarInsumo(id);
     }
 
-    private void verificarTotalAtualEValorASubtrair(BigDecimal totalAtual, BigDecimal valorASubtrair) {
-        logVerificacaoDeTotalAtualEValorASubtrair(totalAtual, valorASubtrair);
-
-        if (totalAtual.compareTo(BigDecimal.ZERO) < 0) {
-            throw new EmpreendedorErrorException("O total atual não pode ser negativo.");
-        }
-
-        if (valorASubtrair.compareTo(BigDecimal.ZERO) < 0) {
-            throw new EmpreendedorErrorException("O valor gasto não pode ser negativo.");
-        }
-    }
-
     @Transactional(readOnly = true)
     public GlobalPageDto<InsumoDto> obterListaFiltradaEPaginadaDeInsumos(String nome, Integer paginaAtual,
                                                                          String direcao, String ordenarPor) {
@@ -204,6 +204,32 @@ public class InsumoService {
                 ITENS_POR_PAGINA, direcaoCorrigida, ordenarPorCorrigido);
     }
 
+    public GlobalPageDto<InsumoDto> obterListaFiltradaEPaginadaDeInsumosSemTotal(String nome, Integer paginaAtual,
+                                                                                 String direcao, String ordenarPor) {
+        logInicioDeObtencaoDeInsumosFiltradosEPaginados();
+
+        String nomeSemEspacosExtras = normalizarEspacos(nome);
+        String direcaoCorrigida = corrigirDirecao(direcao);
+        String ordenarPorCorrigido = corrigirOrdenarPor(ordenarPor);
+        Integer paginaAtualCorrigida = isNull(paginaAtual) || paginaAtual < 0 ? 0 : paginaAtual;
+
+        return insumoRepository.obterListaFiltradaEPaginadaDeInsumosSemTotal(nomeSemEspacosExtras, paginaAtualCorrigida,
+                ITENS_POR_PAGINA, direcaoCorrigida, ordenarPorCorrigido);
+    }
+
+    public GlobalPageDto<InsumoDto> obterListaFiltradaDeInsumosPorCursor(String nome, String cursor,
+                                                                          String direcao, String ordenarPor) {
+        logInicioDeObtencaoDeInsumosPorCursor(nome);
+
+        String nomeSemEspacosExtras = normalizarEspacos(nome);
+        String direcaoCorrigida = corrigirDirecao(direcao);
+        String ordenarPorCorrigido = corrigirOrdenarPor(ordenarPor);
+        CursorDto cursorDto = lerCursor(cursor, ordenarPorCorrigido, direcaoCorrigida);
+
+        return insumoRepository.obterListaFiltradaDeInsumosPorCursor(nomeSemEspacosExtras, cursorDto,
+                ITENS_POR_PAGINA, direcaoCorrigida, ordenarPorCorrigido);
+    }
+
     private String corrigirOrdenarPor(String ordenarPor) {
         return MAP_ORDENAR_POR_PERMITIDOS.getOrDefault(ordenarPor, "nome");
     }
@@ -215,6 +241,11 @@ public class InsumoService {
         return direcao.toLowerCase();
     }
 
+    @Transactional(readOnly = true)
+    public EstatisticasDoCacheDto obterEstatisticasDoCacheDeInsumos() {
+        return cacheDeInsumos.obterEstatisticas();
+    }
+
     public Integer corrigirPaginaAtual(Integer paginaAtual, Long totalDeInsumos, Integer itensPorPagina) {
         if (isNull(paginaAtual) || paginaAtual < 0) {
             return 0;
@@ -0,0 +1,22 @@
+package com.spea.api.services;
+
+/**
+ * Define como a alteração de preço de um insumo é propagada para as receitas que o utilizam.
+ */
+public enum ModoPropagacaoDeCustos {
+
+    /**
+     * Recalcula e grava cada associação e cada receita individualmente.
+     */
+    INDIVIDUAL,
+
+    /**
+     * Recalcula todas as associações e receitas afetadas com instruções UPDATE em conjunto.
+     */
+    CONJUNTO,
+
+    /**
+     * Agenda o recálculo em uma fila processada em segundo plano, em lotes, após o commit da alteração.
+     */
+    ASSINCRONO
+}
@@ -0,0 +1,252 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ReceitaSubreceitaDto;
+import com.spea.api.repositories.InsumoRepository;
+import com.spea.api.repositories.ReceitaInsumoRepository;
+import com.spea.api.repositories.ReceitaRepository;
+import com.spea.api.repositories.ReceitaSubreceitaRepository;
+import com.spea.api.repositories.RecalculoPendenteRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.spea.api.utils.LogUtil.*;
+
+/**
+ * Fila de recálculo em segundo plano usada pelo modo ASSINCRONO.
+ * Várias alterações do mesmo insumo antes do processamento viram um único recálculo, e cada receita
+ * afetada por um lote tem o total recalculado uma única vez, independentemente de quantos insumos mudaram.
+ * Quando um lote falha, os insumos dele são recalculados um a um; o que continuar falhando sai da fila depois de
+ * spea.recalculo-custos.maximo-de-tentativas ciclos e fica separado até ser alterado de novo.
+ * A fila também é gravada em tb_recalculo_pendente, na transação que altera o preço, e o insumo só sai da tabela na
+ * transação que recalcula os custos. Uma queda no meio não perde o recálculo: a fila é refeita da tabela quando a
+ * aplicação inicia, inclusive com os insumos que tinham sido separados.
+ */
+@Service
+public class RecalculoDeCustosService {
+
+    private final Map<Long, Instant> insumosPendentes = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> tentativasPorInsumo = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> insumosDescartados = new ConcurrentHashMap<>();
+    private final AtomicLong totalDeFalhas = new AtomicLong();
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private ReceitaInsumoRepository receitaInsumoRepository;
+
+    @Autowired
+    private ReceitaRepository receitaRepository;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    @Autowired
+    private ReceitaSubreceitaRepository receitaSubreceitaRepository;
+
+    @Autowired
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
+    @Autowired
+    private RecalculoPendenteRepository recalculoPendenteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${spea.recalculo-custos.tamanho-do-lote:500}")
+    private Integer tamanhoDoLote;
+
+    @Value("${spea.recalculo-custos.maximo-de-tentativas:5}")
+    private Integer maximoDeTentativas;
+
+    public void agendarRecalculoDoInsumo(Long insumoId) {
+        logInicioDoAgendamentoDeRecalculoDoInsumo(insumoId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            recalculoPendenteRepository.registrarInsumoPendente(insumoId);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adicionarNaFila(insumoId);
+                }
+            });
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> recalculoPendenteRepository
+                .registrarInsumoPendente(insumoId));
+        adicionarNaFila(insumoId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarRecalculosPendentes() {
+        for (Long insumoId : recalculoPendenteRepository.obterInsumosPendentes()) {
+            insumosPendentes.putIfAbsent(insumoId, Instant.now());
+        }
+    }
+
+    // Uma nova alteração dá ao insumo descartado outra série de tentativas.
+    private void adicionarNaFila(Long insumoId) {
+        insumosDescartados.remove(insumoId);
+        tentativasPorInsumo.remove(insumoId);
+        insumosPendentes.put(insumoId, Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${spea.recalculo-custos.intervalo-ms:1000}")
+    public void processarFilaDeRecalculo() {
+        // Os insumos que falharam neste ciclo só são tentados de novo no próximo.
+        Set<Long> insumosComFalha = new HashSet<>();
+
+        while (true) {
+            Map<Long, Instant> lote = obterLoteDaFila(insumosComFalha);
+            if (lote.isEmpty()) {
+                return;
+            }
+            List<Long> insumoIds = new ArrayList<>(lote.keySet());
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> recalcularLote(insumoIds));
+                logSucessoAoProcessarLoteDeRecalculo(insumoIds);
+                removerDaFila(lote);
+            } catch (Exception e) {
+                logErroInesperadoAoProcessarLoteDeRecalculo(insumoIds, e);
+                recalcularIndividualmente(lote, insumosComFalha);
+            }
+        }
+    }
+
+    // Separa os insumos que falham dos demais, para que um só não deixe o lote inteiro na fila.
+    private void recalcularIndividualmente(Map<Long, Instant> lote, Set<Long> insumosComFalha) {
+        lote.forEach((insumoId, instante) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> recalcularLote(List.of(insumoId)));
+                removerDaFila(Map.of(insumoId, instante));
+            } catch (Exception e) {
+                insumosComFalha.add(insumoId);
+                registrarFalha(insumoId, instante, e);
+            }
+        });
+    }
+
+    private void registrarFalha(Long insumoId, Instant instante, Exception excecao) {
+        totalDeFalhas.incrementAndGet();
+        int tentativas = tentativasPorInsumo.merge(insumoId, 1, Integer::sum);
+        if (tentativas < maximoDeTentativas) {
+            logErroInesperadoAoProcessarLoteDeRecalculo(List.of(insumoId), excecao);
+            return;
+        }
+
+        // Um insumo alterado de novo durante o processamento continua na fila com as tentativas zeradas.
+        if (insumosPendentes.remove(insumoId, instante)) {
+            tentativasPorInsumo.remove(insumoId);
+            insumosDescartados.put(insumoId, instante);
+            logErroAoDescartarInsumoDaFilaDeRecalculo(insumoId, tentativas, excecao);
+        }
+    }
+
+    // Um insumo alterado de novo durante o processamento continua na fila para o próximo ciclo.
+    private void removerDaFila(Map<Long, Instant> lote) {
+        lote.forEach((insumoId, instante) -> {
+            if (insumosPendentes.remove(insumoId, instante)) {
+                tentativasPorInsumo.remove(insumoId);
+            }
+        });
+    }
+
+    private Map<Long, Instant> obterLoteDaFila(Set<Long> insumosIgnorados) {
+        Map<Long, Instant> lote = new LinkedHashMap<>();
+
+        for (Map.Entry<Long, Instant> pendente : insumosPendentes.entrySet()) {
+            if (lote.size() >= tamanhoDoLote) {
+                break;
+            }
+            if (!insumosIgnorados.contains(pendente.getKey())) {
+                lote.put(pendente.getKey(), pendente.getValue());
+            }
+        }
+
+        return lote;
+    }
+
+    private void recalcularLote(List<Long> lote) {
+        recalculoPendenteRepository.removerInsumosPendentes(lote);
+        List<InsumoDto> listaDeInsumos = insumoRepository.obterListaDeInsumosPelosIds(lote);
+
+        for (InsumoDto insumo : listaDeInsumos) {
+            BigDecimal precoPorUnidadeInsumo = receitaInsumoService
+                    .calcularPrecoPorUnidadeInsumo(insumo.getQuantidadePorPacote(), insumo.getValorPagoPorPacote());
+
+            receitaInsumoRepository.recalcularValorGastoDasAssociacoesDoInsumo(insumo.getId(), precoPorUnidadeInsumo);
+        }
+
+        receitaRepository.recalcularTotaisDasReceitasQueUtilizamOsInsumos(lote);
+        receitaSubreceitaService.propagarCustosDosInsumos(lote);
+    }
+
+    public Boolean possuiRecalculoPendente(Long receitaId) {
+        // As receitas que usam um insumo descartado também ficaram com o total desatualizado.
+        Set<Long> insumoIds = new HashSet<>(insumosPendentes.keySet());
+        insumoIds.addAll(insumosDescartados.keySet());
+        if (insumoIds.isEmpty()) {
+            return false;
+        }
+
+        if (receitaInsumoRepository.verificarSeAReceitaUtilizaAlgumDosInsumos(receitaId, insumoIds)) {
+            return true;
+        }
+
+        // A receita que usa, direta ou indiretamente, uma sub-receita afetada também recebe a mudança só com o
+        // recálculo: sobe pelas ligações como propagarCustosDosInsumos até encontrá-la ou esgotar o grafo.
+        Set<Long> visitadas = new HashSet<>();
+        List<ReceitaSubreceitaDto> ligacoes = receitaSubreceitaRepository
+                .obterLigacoesDasReceitasQueUtilizamOsInsumos(insumoIds);
+        while (!ligacoes.isEmpty()) {
+            Set<Long> fronteira = new HashSet<>();
+            for (ReceitaSubreceitaDto ligacao : ligacoes) {
+                if (ligacao.getReceitaId().equals(receitaId)) {
+                    return true;
+                }
+                if (visitadas.add(ligacao.getReceitaId())) {
+                    fronteira.add(ligacao.getReceitaId());
+                }
+            }
+            if (fronteira.isEmpty()) {
+                break;
+            }
+            ligacoes = receitaSubreceitaRepository.obterLigacoesDasReceitasQueUtilizamAsSubreceitas(fronteira);
+        }
+        return false;
+    }
+
+    public Integer obterQuantidadeDeInsumosPendentes() {
+        return insumosPendentes.size();
+    }
+
+    public Integer obterQuantidadeDeInsumosDescartados() {
+        return insumosDescartados.size();
+    }
+
+    public Long obterTotalDeFalhas() {
+        return totalDeFalhas.get();
+    }
+
+    @PreDestroy
+    public void esvaziarFilaAoEncerrar() {
+        processarFilaDeRecalculo();
+    }
+}
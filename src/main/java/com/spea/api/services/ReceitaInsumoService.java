@@ -4,6 +4,7 @@ import com.spea.api.dtos.*;
 import com.spea.api.exceptions.EmpreendedorErrorException;
 import com.spea.api.repositories.InsumoRepository;
 import com.spea.api.repositories.ReceitaInsumoRepository;
+import com.spea.api.utils.CustoEmPontoFixoUtil;
 import com.spea.api.repositories.ReceitaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -13,6 +14,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
 
+import static com.spea.api.utils.CursorUtil.lerCursor;
 import static com.spea.api.utils.LogUtil.*;
 import static com.spea.api.utils.StringUtil.normalizarEspacos;
 import static java.util.Objects.isNull;
@@ -23,6 +25,7 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 public class ReceitaInsumoService {
 
     private static final Integer ITENS_POR_PAGINA = 10;
+    private static final Integer QUANTIDADE_MAXIMA_DE_INSUMOS_POR_LOTE = 500;
     private static final List<String> DIRECAO_PERMITIDA = Arrays.asList("asc", "desc");
     private static final Map<String, String> MAP_ORDERNAR_POR_PERMITIDOS;
     static {
@@ -42,42 +45,114 @@ public class ReceitaInsumoService {
     @Autowired
     private InsumoRepository insumoRepository;
 
+    @Autowired
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
     @Transactional
     public ReceitaInsumoDto criarAssociacao(Long receitaId, Long insumoId, BigDecimal quantidadeUtilizadaInsumo) {
         logInicioCriacaoDeAssociacao(receitaId, insumoId);
 
-        verificarSeExisteAssociacaoDeInsumoEReceita(receitaId, insumoId);
+        // Uma única consulta traz receita, insumo e associação existente; as verificações seguem a mesma ordem de antes.
+        AssociacaoDto dadosDaAssociacao = receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId);
+
+        logVerificacaoExistenciaDeAssociacaoEntreReceitaEInsumo(receitaId, insumoId);
+        if (!isNull(dadosDaAssociacao.getReceitaInsumoDto())) {
+            throw new EmpreendedorErrorException("O insumo informado já está associado à receita informada.");
+        }
+
         verificarQuantidadeUtilizadaInsumo(quantidadeUtilizadaInsumo);
-        verificarExistenciaDaReceitaPeloId(receitaId);
-        verificarExistenciaDoInsumoPeloId(insumoId);
 
-        logInicioDeObtencaoDaReceitaPorId(receitaId);
-        ReceitaDto receitaEncontradaDto = receitaRepository.obterReceitaPeloId(receitaId);
+        logVerificacaoDeExistenciaDaReceita(receitaId);
+        if (isNull(dadosDaAssociacao.getReceitaDto())) {
+            throw new EmpreendedorErrorException("Nenhuma receita encontrada pelo id informado.");
+        }
 
-        logInicioDeObtencaoDoInsumoPorId(insumoId);
-        InsumoDto insumoEncontradoDto = insumoRepository.obterInsumoPeloId(insumoId);
+        logVerificacaoDeExistenciaDoInsumo(insumoId);
+        if (isNull(dadosDaAssociacao.getInsumoDto())) {
+            throw new EmpreendedorErrorException("Nenhum insumo encontrado pelo id informado.");
+        }
 
+        InsumoDto insumoEncontradoDto = dadosDaAssociacao.getInsumoDto();
 
         BigDecimal valorGastoInsumo = calcularGastoComInsumo(insumoEncontradoDto.getQuantidadePorPacote(),
                 insumoEncontradoDto.getValorPagoPorPacote(), quantidadeUtilizadaInsumo);
 
-        BigDecimal totalGastoInsumosAtualizado = receitaEncontradaDto.getTotalGastoInsumos().add(valorGastoInsumo);
+        ReceitaInsumoDto receitaInsumoDto = receitaInsumoRepository.criarAssociacaoEAtualizarTotalDaReceita(receitaId,
+                insumoId, quantidadeUtilizadaInsumo, valorGastoInsumo);
+        receitaSubreceitaService.propagarCustosDasReceitas(List.of(receitaId));
+        return receitaInsumoDto;
+    }
 
-        ReceitaDto receitaAtualizadaDto = new ReceitaDto();
-        receitaAtualizadaDto.setNome(receitaEncontradaDto.getNome());
-        receitaAtualizadaDto.setTotalGastoInsumos(totalGastoInsumosAtualizado);
+    @Transactional
+    public List<ReceitaInsumoDto> criarAssociacoesEmLote(Long receitaId, List<ReceitaInsumoDto> listaDeAssociacoes) {
+        logInicioCriacaoDeAssociacoesEmLote(receitaId, isNull(listaDeAssociacoes) ? 0 : listaDeAssociacoes.size());
 
-        receitaRepository.atualizarTotalGastoInsumosDaReceita(receitaId, receitaAtualizadaDto);
+        List<Long> insumoIds = validarListaDeAssociacoesEmLote(listaDeAssociacoes);
+        verificarExistenciaDaReceitaPeloId(receitaId);
 
-        return receitaInsumoRepository.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo, valorGastoInsumo);
+        Map<Long, AssociacaoDto> mapInsumosEncontrados = new HashMap<>();
+        for (AssociacaoDto insumoEncontrado : receitaInsumoRepository.obterInsumosParaAssociacaoEmLote(receitaId, insumoIds)) {
+            mapInsumosEncontrados.put(insumoEncontrado.getInsumoDto().getId(), insumoEncontrado);
+        }
+
+        List<Long> insumosNaoEncontrados = insumoIds.stream()
+                .filter(insumoId -> !mapInsumosEncontrados.containsKey(insumoId))
+                .toList();
+        if (!insumosNaoEncontrados.isEmpty()) {
+            throw new EmpreendedorErrorException(String
+                    .format("Nenhum insumo encontrado pelos ids informados: %s.", insumosNaoEncontrados));
+        }
+
+        List<Long> insumosJaAssociados = insumoIds.stream()
+                .filter(insumoId -> !isNull(mapInsumosEncontrados.get(insumoId).getReceitaInsumoDto()))
+                .toList();
+        if (!insumosJaAssociados.isEmpty()) {
+            throw new EmpreendedorErrorException(String
+                    .format("Os insumos %s já estão associados à receita informada.", insumosJaAssociados));
+        }
+
+        List<ReceitaInsumoDto> listaParaCadastro = new ArrayList<>();
+        for (ReceitaInsumoDto associacao : listaDeAssociacoes) {
+            InsumoDto insumoEncontradoDto = mapInsumosEncontrados.get(associacao.getInsumoId()).getInsumoDto();
+
+            ReceitaInsumoDto associacaoParaCadastro = new ReceitaInsumoDto();
+            associacaoParaCadastro.setInsumoId(insumoEncontradoDto.getId());
+            associacaoParaCadastro.setInsumoNome(insumoEncontradoDto.getNome());
+            associacaoParaCadastro.setQuantidadeUtilizadaInsumo(associacao.getQuantidadeUtilizadaInsumo());
+            associacaoParaCadastro.setValorGastoInsumo(calcularGastoComInsumo(insumoEncontradoDto.getQuantidadePorPacote(),
+                    insumoEncontradoDto.getValorPagoPorPacote(), associacao.getQuantidadeUtilizadaInsumo()));
+            listaParaCadastro.add(associacaoParaCadastro);
+        }
+
+        List<ReceitaInsumoDto> listaDeAssociacoesCriadas = receitaInsumoRepository
+                .criarAssociacoesEmLoteEAtualizarTotalDaReceita(receitaId, listaParaCadastro);
+        receitaSubreceitaService.propagarCustosDasReceitas(List.of(receitaId));
+        return listaDeAssociacoesCriadas;
     }
 
-    private void verificarSeExisteAssociacaoDeInsumoEReceita(Long receitaId, Long insumoId) {
-        logVerificacaoExistenciaDeAssociacaoEntreReceitaEInsumo(receitaId, insumoId);
+    private List<Long> validarListaDeAssociacoesEmLote(List<ReceitaInsumoDto> listaDeAssociacoes) {
+        if (isNull(listaDeAssociacoes) || listaDeAssociacoes.isEmpty()) {
+            throw new EmpreendedorErrorException("A lista de insumos a associar é obrigatória.");
+        }
+        if (listaDeAssociacoes.size() > QUANTIDADE_MAXIMA_DE_INSUMOS_POR_LOTE) {
+            throw new EmpreendedorErrorException(String
+                    .format("A lista de insumos a associar deve ter no máximo %d itens.", QUANTIDADE_MAXIMA_DE_INSUMOS_POR_LOTE));
+        }
 
-        if (receitaInsumoRepository.verificarExistenciaDaAssociacaoDaReceitaEInsumo(receitaId, insumoId)) {
-            throw new EmpreendedorErrorException("O insumo informado já está associado à receita informada.");
+        Set<Long> insumoIds = new LinkedHashSet<>();
+        for (ReceitaInsumoDto associacao : listaDeAssociacoes) {
+            if (isNull(associacao) || isNull(associacao.getInsumoId())) {
+                throw new EmpreendedorErrorException("O id do insumo é obrigatório em todos os itens da lista.");
+            }
+            verificarQuantidadeUtilizadaInsumo(associacao.getQuantidadeUtilizadaInsumo());
+
+            if (!insumoIds.add(associacao.getInsumoId())) {
+                throw new EmpreendedorErrorException(String
+                        .format("O insumo %d foi informado mais de uma vez.", associacao.getInsumoId()));
+            }
         }
+
+        return new ArrayList<>(insumoIds);
     }
 
     private void verificarSeNaoExisteAssociacaoDeInsumoEReceita(Long receitaId, Long insumoId) {
@@ -107,14 +182,36 @@ public class ReceitaInsumoService {
 
         logInicioCalculoDeGastoComInsumo(quantidadePorPacote, valorPagoPorPacote, quantidadeUtilizadaInsumo);
 
-        BigDecimal quantidadePorPacoteConvertida = BigDecimal.valueOf(quantidadePorPacote);
-
-        BigDecimal precoPorUnidadeInsumo = valorPagoPorPacote.divide(quantidadePorPacoteConvertida, 6, RoundingMode.HALF_EVEN);
+        BigDecimal precoPorUnidadeInsumo = dividirValorPelaQuantidadePorPacote(quantidadePorPacote, valorPagoPorPacote);
 
         return precoPorUnidadeInsumo.multiply(quantidadeUtilizadaInsumo)
                 .setScale(2, RoundingMode.HALF_EVEN);
     }
 
+    protected BigDecimal calcularPrecoPorUnidadeInsumo(Double quantidadePorPacote, BigDecimal valorPagoPorPacote) {
+        validarQuantidadePorPacote(quantidadePorPacote);
+        validarValorPagoPorPacote(valorPagoPorPacote);
+
+        return dividirValorPelaQuantidadePorPacote(quantidadePorPacote, valorPagoPorPacote);
+    }
+
+    /**
+     * Mesmo preço de calcularPrecoPorUnidadeInsumo, em milionésimos, para calcular o gasto de várias associações do
+     * insumo com CustoEmPontoFixoUtil.calcularValorGasto.
+     */
+    protected long calcularPrecoPorUnidadeEmMilionesimos(Double quantidadePorPacote, BigDecimal valorPagoPorPacote) {
+        validarQuantidadePorPacote(quantidadePorPacote);
+        validarValorPagoPorPacote(valorPagoPorPacote);
+
+        return CustoEmPontoFixoUtil.calcularPrecoPorUnidadeEmMilionesimos(quantidadePorPacote, valorPagoPorPacote);
+    }
+
+    private BigDecimal dividirValorPelaQuantidadePorPacote(Double quantidadePorPacote, BigDecimal valorPagoPorPacote) {
+        BigDecimal quantidadePorPacoteConvertida = BigDecimal.valueOf(quantidadePorPacote);
+
+        return valorPagoPorPacote.divide(quantidadePorPacoteConvertida, 6, RoundingMode.HALF_EVEN);
+    }
+
     private void validarValorPagoPorPacote(BigDecimal valorPagoPorPacote) {
         logValidacaoDoValorPagoPorPacoteDeInsumo(valorPagoPorPacote);
 
@@ -165,29 +262,17 @@ public class ReceitaInsumoService {
         AssociacaoDto associacaoEncontrada = receitaInsumoRepository
                 .obterTodosOsDadosDaAssociacaoPorReceitaIdEInsumoId(receitaId, insumoId);
 
-        ReceitaDto receitaEncontradaDto = associacaoEncontrada.getReceitaDto();
-
         InsumoDto insumoEncontradoDto = associacaoEncontrada.getInsumoDto();
 
         BigDecimal valorGastoInsumoAtualizado = calcularGastoComInsumo(insumoEncontradoDto.getQuantidadePorPacote(),
                 insumoEncontradoDto.getValorPagoPorPacote(),
                 quantidadeUtilizadaInsumo);
 
-        ReceitaInsumoDto receitaInsumoEncontradoDto = associacaoEncontrada.getReceitaInsumoDto();
-
-        BigDecimal valorGastoInsumoAntigo = receitaInsumoEncontradoDto.getValorGastoInsumo();
-        BigDecimal totalGastoInsumosAtualizado = receitaEncontradaDto.getTotalGastoInsumos()
-                .subtract(valorGastoInsumoAntigo)
-                .max(BigDecimal.ZERO)
-                .add(valorGastoInsumoAtualizado)
-                .setScale(2, RoundingMode.HALF_EVEN);
-
-        receitaEncontradaDto.setTotalGastoInsumos(totalGastoInsumosAtualizado);
-
-        receitaRepository.atualizarTotalGastoInsumosDaReceita(receitaId, receitaEncontradaDto);
-
-        return receitaInsumoRepository
-                .atualizarReceitaInsumo(receitaId, insumoId, quantidadeUtilizadaInsumo, valorGastoInsumoAtualizado);
+        ReceitaInsumoDto receitaInsumoDto = receitaInsumoRepository
+                .atualizarReceitaInsumoEAplicarDiferencaNoTotal(receitaId, insumoId, quantidadeUtilizadaInsumo,
+                        valorGastoInsumoAtualizado);
+        receitaSubreceitaService.propagarCustosDasReceitas(List.of(receitaId));
+        return receitaInsumoDto;
     }
 
     public GlobalPageDto<ReceitaInsumoDto> obterListaDeInsumosAssociadosAReceitaFiltradosEPaginados(Long receitaId, String nomeInsumo,
@@ -213,6 +298,40 @@ public class ReceitaInsumoService {
     }
 
 
+    public GlobalPageDto<ReceitaInsumoDto> obterListaDeInsumosAssociadosAReceitaFiltradosEPaginadosSemTotal(Long receitaId,
+                                                                                                            String nomeInsumo,
+                                                                                                            Integer paginaAtual,
+                                                                                                            String direcao,
+                                                                                                            String ordenarPor) {
+        logInicioObtencaoDaListaFiltradaEPaginadaDeInsumosAssociadosAReceita(receitaId);
+        verificarExistenciaDaReceitaPeloId(receitaId);
+
+        String nomeSemEspacosExtras = normalizarEspacos(nomeInsumo);
+        String direcaoCorrigida = corrigirDirecao(direcao);
+        String ordenarPorCorrigido = corrigirOrdenarPor(ordenarPor);
+        Integer paginaAtualCorrigida = isNull(paginaAtual) || paginaAtual < 0 ? 0 : paginaAtual;
+
+        return receitaInsumoRepository
+                .obterListaFiltradaEPaginadaDeInsumosAssociadosAReceitaSemTotal(receitaId, nomeSemEspacosExtras,
+                        paginaAtualCorrigida, ITENS_POR_PAGINA, direcaoCorrigida, ordenarPorCorrigido);
+    }
+
+    public GlobalPageDto<ReceitaInsumoDto> obterListaDeInsumosAssociadosAReceitaPorCursor(Long receitaId, String nomeInsumo,
+                                                                                          String cursor, String direcao,
+                                                                                          String ordenarPor) {
+        logInicioObtencaoDaListaDeInsumosAssociadosAReceitaPorCursor(receitaId);
+        verificarExistenciaDaReceitaPeloId(receitaId);
+
+        String nomeSemEspacosExtras = normalizarEspacos(nomeInsumo);
+        String direcaoCorrigida = corrigirDirecao(direcao);
+        String ordenarPorCorrigido = corrigirOrdenarPor(ordenarPor);
+        CursorDto cursorDto = lerCursor(cursor, ordenarPorCorrigido, direcaoCorrigida);
+
+        return receitaInsumoRepository
+                .obterListaFiltradaDeInsumosAssociadosAReceitaPorCursor(receitaId, nomeSemEspacosExtras, cursorDto,
+                        ITENS_POR_PAGINA, direcaoCorrigida, ordenarPorCorrigido);
+    }
+
     public Integer corrigirPaginaAtual(Integer paginaAtual, Long totalDeInsumos, Integer itensPorPagina) {
         if (isNull(paginaAtual) || paginaAtual < 0) {
             return 0;
@@ -1,7 +1,11 @@
 package com.spea.api.services;
 
+import com.spea.api.dtos.CursorDto;
+import com.spea.api.dtos.CustoDoInsumoNaReceitaDto;
+import com.spea.api.dtos.EstadoCustoReceitaDto;
 import com.spea.api.dtos.GlobalPageDto;
 import com.spea.api.dtos.ReceitaDto;
+import com.spea.api.dtos.ResumoCustoReceitaDto;
 import com.spea.api.exceptions.EmpreendedorErrorException;
 import com.spea.api.repositories.ReceitaInsumoRepository;
 import com.spea.api.repositories.ReceitaRepository;
@@ -9,8 +13,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.*;
 
+import static com.spea.api.utils.CursorUtil.lerCursor;
 import static com.spea.api.utils.LogUtil.*;
 import static com.spea.api.utils.StringUtil.normalizarEspacos;
 import static java.util.Objects.isNull;
@@ -34,6 +41,9 @@ public class ReceitaService {
     @Autowired
     private ReceitaRepository receitaRepository;
 
+    @Autowired
+    private RecalculoDeCustosService recalculoDeCustosService;
+
 
     @Transactional
     public ReceitaDto cadastrarReceita(ReceitaDto receitaDto) {
@@ -73,6 +83,41 @@ public class ReceitaService {
 
     }
 
+    public EstadoCustoReceitaDto obterEstadoDoCustoDaReceita(Long id) {
+        logInicioObtencaoDoEstadoDoCustoDaReceita(id);
+
+        EstadoCustoReceitaDto estadoCustoReceitaDto = receitaRepository.obterEstadoDoCustoDaReceita(id);
+        estadoCustoReceitaDto.setRecalculoPendente(recalculoDeCustosService.possuiRecalculoPendente(id));
+
+        return estadoCustoReceitaDto;
+    }
+
+    @Transactional(readOnly = true)
+    public ResumoCustoReceitaDto obterResumoDoCustoDaReceita(Long id) {
+        logInicioObtencaoDoResumoDoCustoDaReceita(id);
+
+        ResumoCustoReceitaDto resumoCustoReceitaDto = receitaRepository.obterResumoDoCustoDaReceita(id);
+        for (CustoDoInsumoNaReceitaDto custoDoInsumo : resumoCustoReceitaDto.getInsumos()) {
+            custoDoInsumo.setParticipacaoNoTotal(calcularParticipacaoNoTotal(custoDoInsumo.getValorGastoInsumo(),
+                    resumoCustoReceitaDto.getTotalGastoInsumos()));
+        }
+        if (!isNull(resumoCustoReceitaDto.getInsumoMaisCaro())) {
+            resumoCustoReceitaDto.getInsumoMaisCaro().setParticipacaoNoTotal(calcularParticipacaoNoTotal(
+                    resumoCustoReceitaDto.getInsumoMaisCaro().getValorGastoInsumo(), resumoCustoReceitaDto.getTotalGastoInsumos()));
+        }
+
+        return resumoCustoReceitaDto;
+    }
+
+    // Percentual do total com duas casas; uma receita de total zero não tem participação a dividir.
+    private BigDecimal calcularParticipacaoNoTotal(BigDecimal valorGastoInsumo, BigDecimal totalGastoInsumos) {
+        if (totalGastoInsumos.signum() == 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return valorGastoInsumo.multiply(BigDecimal.valueOf(100))
+                .divide(totalGastoInsumos, 2, RoundingMode.HALF_EVEN);
+    }
+
     public GlobalPageDto<ReceitaDto> obterListaFiltradaEPaginadaDeReceitas(String nomeReceita, Integer paginaAtual, String direcao, String ordenarPor) {
         logInicioObtencaoDeListaFiltradaEPaginadaDeReceitas(nomeReceita);
 
@@ -90,6 +135,32 @@ public class ReceitaService {
                 ITENS_POR_PAGINA, direcaoCorrigida, ordenarPorCorrigido);
     }
 
+    public GlobalPageDto<ReceitaDto> obterListaFiltradaEPaginadaDeReceitasSemTotal(String nomeReceita, Integer paginaAtual,
+                                                                                  String direcao, String ordenarPor) {
+        logInicioObtencaoDeListaFiltradaEPaginadaDeReceitas(nomeReceita);
+
+        String nomeSemEspacosExtras = normalizarEspacos(nomeReceita);
+        String direcaoCorrigida = corrigirDirecao(direcao);
+        String ordenarPorCorrigido = corrigirOrdenarPor(ordenarPor);
+        Integer paginaAtualCorrigida = isNull(paginaAtual) || paginaAtual < 0 ? 0 : paginaAtual;
+
+        return receitaRepository.obterListaFiltradaEPaginadaDeReceitasSemTotal(nomeSemEspacosExtras, paginaAtualCorrigida,
+                ITENS_POR_PAGINA, direcaoCorrigida, ordenarPorCorrigido);
+    }
+
+    public GlobalPageDto<ReceitaDto> obterListaFiltradaDeReceitasPorCursor(String nomeReceita, String cursor,
+                                                                            String direcao, String ordenarPor) {
+        logInicioObtencaoDeListaDeReceitasPorCursor(nomeReceita);
+
+        String nomeSemEspacosExtras = normalizarEspacos(nomeReceita);
+        String direcaoCorrigida = corrigirDirecao(direcao);
+        String ordenarPorCorrigido = corrigirOrdenarPor(ordenarPor);
+        CursorDto cursorDto = lerCursor(cursor, ordenarPorCorrigido, direcaoCorrigida);
+
+        return receitaRepository.obterListaFiltradaDeReceitasPorCursor(nomeSemEspacosExtras, cursorDto,
+                ITENS_POR_PAGINA, direcaoCorrigida, ordenarPorCorrigido);
+    }
+
     private String corrigirOrdenarPor(String ordenarPor) {
         return MAP_ORDENAR_POR_PERMITIDOS.getOrDefault(ordenarPor, "nome");
     }
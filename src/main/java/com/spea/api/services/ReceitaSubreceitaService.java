@@ -0,0 +1,263 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.ReceitaDto;
+import com.spea.api.dtos.ReceitaSubreceitaDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.ReceitaRepository;
+import com.spea.api.repositories.ReceitaSubreceitaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+import static com.spea.api.utils.LogUtil.*;
+import static java.util.Objects.isNull;
+
+/**
+ * Receitas usadas como ingrediente de outras receitas. As ligações formam um grafo sem ciclos, e uma mudança no
+ * total de uma receita sobe por ele em ordem topológica: cada receita afetada é recalculada uma única vez, depois de
+ * todas as suas sub-receitas, e as receitas de um mesmo nível são atualizadas juntas.
+ */
+@Service
+@Transactional
+public class ReceitaSubreceitaService {
+
+    @Autowired
+    private ReceitaSubreceitaRepository receitaSubreceitaRepository;
+
+    @Autowired
+    private ReceitaRepository receitaRepository;
+
+    @Transactional
+    public ReceitaSubreceitaDto criarSubreceita(Long receitaId, Long subreceitaId, BigDecimal quantidadeUtilizadaSubreceita) {
+        logInicioCriacaoDeSubreceita(receitaId, subreceitaId);
+
+        quantidadeUtilizadaSubreceita = verificarQuantidadeUtilizadaSubreceita(quantidadeUtilizadaSubreceita);
+        if (Objects.equals(receitaId, subreceitaId)) {
+            throw new EmpreendedorErrorException("Uma receita não pode ser sub-receita dela mesma.");
+        }
+        verificarExistenciaDaReceitaPeloId(receitaId);
+
+        receitaSubreceitaRepository.travarLigacoesDeSubreceitas();
+        if (receitaSubreceitaRepository.verificarExistenciaDaSubreceitaNaReceita(receitaId, subreceitaId)) {
+            throw new EmpreendedorErrorException("A sub-receita informada já faz parte da receita informada.");
+        }
+
+        ReceitaDto subreceitaDto = receitaSubreceitaRepository.obterSubreceitaBloqueadaPeloId(subreceitaId);
+        verificarSeALigacaoNaoFormaCiclo(receitaId, subreceitaId);
+
+        BigDecimal valorGastoSubreceita = calcularGastoComSubreceita(subreceitaDto.getTotalGastoInsumos(),
+                quantidadeUtilizadaSubreceita);
+
+        ReceitaSubreceitaDto receitaSubreceitaDto = receitaSubreceitaRepository
+                .criarSubreceitaEAtualizarTotalDaReceita(receitaId, subreceitaId, quantidadeUtilizadaSubreceita,
+                        valorGastoSubreceita);
+        receitaSubreceitaDto.setSubreceitaNome(subreceitaDto.getNome());
+
+        propagarCustosDasReceitas(List.of(receitaId));
+        return receitaSubreceitaDto;
+    }
+
+    @Transactional
+    public ReceitaSubreceitaDto atualizarQuantidadeUtilizadaSubreceita(Long receitaId, Long subreceitaId,
+                                                                      BigDecimal quantidadeUtilizadaSubreceita) {
+        logInicioAtualizacaoQuantidadeUtilizadaSubreceita(receitaId, subreceitaId);
+
+        quantidadeUtilizadaSubreceita = verificarQuantidadeUtilizadaSubreceita(quantidadeUtilizadaSubreceita);
+        if (!receitaSubreceitaRepository.verificarExistenciaDaSubreceitaNaReceita(receitaId, subreceitaId)) {
+            throw new EmpreendedorErrorException("A sub-receita informada não faz parte da receita informada.");
+        }
+
+        ReceitaDto subreceitaDto = receitaSubreceitaRepository.obterSubreceitaBloqueadaPeloId(subreceitaId);
+
+        BigDecimal valorGastoSubreceita = calcularGastoComSubreceita(subreceitaDto.getTotalGastoInsumos(),
+                quantidadeUtilizadaSubreceita);
+
+        ReceitaSubreceitaDto receitaSubreceitaDto = receitaSubreceitaRepository
+                .atualizarSubreceitaEAplicarDiferencaNoTotal(receitaId, subreceitaId, quantidadeUtilizadaSubreceita,
+                        valorGastoSubreceita);
+        receitaSubreceitaDto.setSubreceitaNome(subreceitaDto.getNome());
+
+        propagarCustosDasReceitas(List.of(receitaId));
+        return receitaSubreceitaDto;
+    }
+
+    @Transactional
+    public void removerSubreceita(Long receitaId, Long subreceitaId) {
+        logInicioRemocaoDeSubreceita(receitaId, subreceitaId);
+
+        receitaSubreceitaRepository.removerSubreceitaEAbaterDoTotal(receitaId, subreceitaId);
+
+        propagarCustosDasReceitas(List.of(receitaId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReceitaSubreceitaDto> obterListaDeSubreceitasDaReceita(Long receitaId) {
+        logInicioObtencaoDaListaDeSubreceitasDaReceita(receitaId);
+        verificarExistenciaDaReceitaPeloId(receitaId);
+
+        return receitaSubreceitaRepository.obterListaDeSubreceitasDaReceita(receitaId);
+    }
+
+    /**
+     * Leva às receitas que usam, direta ou indiretamente, alguma receita que utiliza os insumos informados a mudança
+     * já aplicada nos totais dessas receitas.
+     */
+    public void propagarCustosDosInsumos(Collection<Long> insumoIds) {
+        if (insumoIds.isEmpty()) {
+            return;
+        }
+        propagarCustos(receitaSubreceitaRepository.obterLigacoesDasReceitasQueUtilizamOsInsumos(insumoIds));
+    }
+
+    /**
+     * Leva às receitas que usam, direta ou indiretamente, as receitas informadas a mudança já aplicada nos totais delas.
+     */
+    public void propagarCustosDasReceitas(Collection<Long> receitaIds) {
+        if (receitaIds.isEmpty()) {
+            return;
+        }
+        propagarCustos(receitaSubreceitaRepository.obterLigacoesDasReceitasQueUtilizamAsSubreceitas(receitaIds));
+    }
+
+    // Sobe pelo grafo um nível por consulta, só pelas receitas ainda não visitadas, e guarda as ligações de cada
+    // receita afetada com as sub-receitas que mudaram. Sem ligações no primeiro nível não há o que propagar.
+    private void propagarCustos(List<ReceitaSubreceitaDto> ligacoesDoPrimeiroNivel) {
+        if (ligacoesDoPrimeiroNivel.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Set<Long>> subreceitasAlteradasPorReceita = new HashMap<>();
+        Set<Long> fronteira = adicionarLigacoes(subreceitasAlteradasPorReceita, ligacoesDoPrimeiroNivel);
+        while (!fronteira.isEmpty()) {
+            fronteira = adicionarLigacoes(subreceitasAlteradasPorReceita,
+                    receitaSubreceitaRepository.obterLigacoesDasReceitasQueUtilizamAsSubreceitas(fronteira));
+        }
+
+        List<List<Long>> niveis = ordenarEmNiveis(subreceitasAlteradasPorReceita);
+        for (List<Long> nivel : niveis) {
+            receitaSubreceitaRepository.recalcularCustosDasSubreceitasDasReceitas(nivel);
+        }
+
+        logSucessoAoPropagarCustosPelasSubreceitas(subreceitasAlteradasPorReceita.size(), niveis.size());
+    }
+
+    private Set<Long> adicionarLigacoes(Map<Long, Set<Long>> subreceitasAlteradasPorReceita,
+                                        List<ReceitaSubreceitaDto> ligacoes) {
+        Set<Long> receitasNovas = new HashSet<>();
+        for (ReceitaSubreceitaDto ligacao : ligacoes) {
+            Set<Long> subreceitas = subreceitasAlteradasPorReceita.get(ligacao.getReceitaId());
+            if (isNull(subreceitas)) {
+                subreceitas = new HashSet<>();
+                subreceitasAlteradasPorReceita.put(ligacao.getReceitaId(), subreceitas);
+                receitasNovas.add(ligacao.getReceitaId());
+            }
+            subreceitas.add(ligacao.getSubreceitaId());
+        }
+        return receitasNovas;
+    }
+
+    /**
+     * Ordenação topológica por níveis (algoritmo de Kahn) das receitas afetadas: uma receita entra no nível seguinte
+     * ao da última das suas sub-receitas que também foi afetada. As sub-receitas que não estão no mapa já têm o total
+     * final. Um ciclo deixaria receitas de fora e é recusado.
+     */
+    protected List<List<Long>> ordenarEmNiveis(Map<Long, Set<Long>> subreceitasAlteradasPorReceita) {
+        Map<Long, Integer> subreceitasPendentes = new HashMap<>();
+        Map<Long, List<Long>> receitasQueUtilizam = new HashMap<>();
+
+        for (Map.Entry<Long, Set<Long>> receita : subreceitasAlteradasPorReceita.entrySet()) {
+            int pendentes = 0;
+            for (Long subreceitaId : receita.getValue()) {
+                if (subreceitasAlteradasPorReceita.containsKey(subreceitaId)) {
+                    pendentes++;
+                    receitasQueUtilizam.computeIfAbsent(subreceitaId, id -> new ArrayList<>()).add(receita.getKey());
+                }
+            }
+            subreceitasPendentes.put(receita.getKey(), pendentes);
+        }
+
+        List<Long> nivel = new ArrayList<>();
+        subreceitasPendentes.forEach((receitaId, pendentes) -> {
+            if (pendentes == 0) {
+                nivel.add(receitaId);
+            }
+        });
+
+        List<List<Long>> niveis = new ArrayList<>();
+        int totalOrdenado = 0;
+        List<Long> nivelAtual = nivel;
+        while (!nivelAtual.isEmpty()) {
+            niveis.add(nivelAtual);
+            totalOrdenado += nivelAtual.size();
+
+            List<Long> proximoNivel = new ArrayList<>();
+            for (Long receitaId : nivelAtual) {
+                for (Long receitaQueUtiliza : receitasQueUtilizam.getOrDefault(receitaId, List.of())) {
+                    if (subreceitasPendentes.merge(receitaQueUtiliza, -1, Integer::sum) == 0) {
+                        proximoNivel.add(receitaQueUtiliza);
+                    }
+                }
+            }
+            nivelAtual = proximoNivel;
+        }
+
+        if (totalOrdenado < subreceitasAlteradasPorReceita.size()) {
+            throw new EmpreendedorErrorException("As sub-receitas formam um ciclo; os custos não foram propagados.");
+        }
+        return niveis;
+    }
+
+    // Desce a partir da sub-receita, um nível por consulta: se a receita aparecer, a ligação fecharia um ciclo.
+    private void verificarSeALigacaoNaoFormaCiclo(Long receitaId, Long subreceitaId) {
+        logVerificacaoDeCicloEntreReceitaESubreceita(receitaId, subreceitaId);
+
+        Set<Long> visitadas = new HashSet<>(List.of(subreceitaId));
+        Set<Long> fronteira = Set.of(subreceitaId);
+        while (!fronteira.isEmpty()) {
+            Set<Long> proximaFronteira = new HashSet<>();
+            for (ReceitaSubreceitaDto ligacao : receitaSubreceitaRepository.obterLigacoesDasSubreceitasDasReceitas(fronteira)) {
+                if (ligacao.getSubreceitaId().equals(receitaId)) {
+                    throw new EmpreendedorErrorException(
+                            "A sub-receita informada já utiliza a receita informada; a ligação formaria um ciclo.");
+                }
+                if (visitadas.add(ligacao.getSubreceitaId())) {
+                    proximaFronteira.add(ligacao.getSubreceitaId());
+                }
+            }
+            fronteira = proximaFronteira;
+        }
+    }
+
+    // Devolve a quantidade com as duas casas da coluna, para que o gasto seja calculado sobre o valor que será gravado
+    // e coincida com o recálculo feito depois pela propagação.
+    private BigDecimal verificarQuantidadeUtilizadaSubreceita(BigDecimal quantidadeUtilizadaSubreceita) {
+        logVerificacaoDeQuantidadeUtilizadaDeSubreceita(quantidadeUtilizadaSubreceita);
+
+        if (isNull(quantidadeUtilizadaSubreceita)) {
+            throw new EmpreendedorErrorException("A quantidade utilizada da sub-receita é obrigatória.");
+        }
+        BigDecimal quantidadeArredondada = quantidadeUtilizadaSubreceita.setScale(2, RoundingMode.HALF_EVEN);
+        if (quantidadeArredondada.signum() <= 0) {
+            throw new EmpreendedorErrorException("A quantidade utilizada da sub-receita deve ser maior que 0.");
+        }
+        return quantidadeArredondada;
+    }
+
+    private void verificarExistenciaDaReceitaPeloId(Long receitaId) {
+        logVerificacaoDeExistenciaDaReceita(receitaId);
+
+        if (!receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)) {
+            throw new EmpreendedorErrorException("Nenhuma receita encontrada pelo id informado.");
+        }
+    }
+
+    // A quantidade é a fração da sub-receita utilizada: 1 é a sub-receita inteira.
+    protected BigDecimal calcularGastoComSubreceita(BigDecimal totalDaSubreceita, BigDecimal quantidadeUtilizadaSubreceita) {
+        return totalDaSubreceita.multiply(quantidadeUtilizadaSubreceita)
+                .setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,187 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ReceitaDto;
+import com.spea.api.dtos.ReceitaInsumoDto;
+import com.spea.api.dtos.ReceitaSubreceitaDto;
+import com.spea.api.dtos.SimulacaoDeCustoDaReceitaDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.InsumoRepository;
+import com.spea.api.repositories.ReceitaInsumoRepository;
+import com.spea.api.repositories.ReceitaRepository;
+import com.spea.api.repositories.ReceitaSubreceitaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static com.spea.api.utils.CustoEmPontoFixoUtil.calcularValorGasto;
+import static com.spea.api.utils.LogUtil.*;
+import static java.util.Objects.isNull;
+
+/**
+ * Simula novos preços de insumos sem gravar nada: lê as associações dos insumos e as ligações das receitas que
+ * dependem deles, calcula os totais em memória e devolve a diferença de cada receita afetada, da maior para a menor.
+ * Os valores são os mesmos que a atualização dos insumos gravaria, inclusive nas receitas que usam as afetadas como
+ * sub-receita.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SimulacaoDePrecosService {
+
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(2);
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private ReceitaRepository receitaRepository;
+
+    @Autowired
+    private ReceitaInsumoRepository receitaInsumoRepository;
+
+    @Autowired
+    private ReceitaSubreceitaRepository receitaSubreceitaRepository;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    @Autowired
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
+    /**
+     * Cada preço simulado informa o id do insumo, a quantidade por pacote e o valor pago por pacote. As associações
+     * são calculadas em paralelo e as receitas nível a nível, das sub-receitas para as receitas que as utilizam.
+     */
+    public List<SimulacaoDeCustoDaReceitaDto> simularPrecos(List<InsumoDto> precosSimulados) {
+        logInicioSimulacaoDePrecos(isNull(precosSimulados) ? 0 : precosSimulados.size());
+
+        Map<Long, Long> precosPorUnidadeEmMilionesimos = validarPrecosSimulados(precosSimulados);
+
+        Map<Long, BigDecimal> diferencasDosInsumos = calcularDiferencasDosInsumos(receitaInsumoRepository
+                .obterAssociacoesDosInsumos(precosPorUnidadeEmMilionesimos.keySet()), precosPorUnidadeEmMilionesimos);
+        if (diferencasDosInsumos.isEmpty()) {
+            logSucessoAoSimularPrecos(0);
+            return List.of();
+        }
+
+        Map<Long, List<ReceitaSubreceitaDto>> subreceitasPorReceita = obterReceitasAfetadas(
+                new HashSet<>(diferencasDosInsumos.keySet()));
+        Map<Long, ReceitaDto> receitas = new HashMap<>();
+        for (ReceitaDto receita : receitaRepository.obterTotaisDasReceitasPelosIds(subreceitasPorReceita.keySet())) {
+            receitas.put(receita.getId(), receita);
+        }
+
+        Map<Long, BigDecimal> totaisSimulados = new ConcurrentHashMap<>();
+        for (List<Long> nivel : ordenarDasSubreceitasParaAsReceitas(subreceitasPorReceita)) {
+            nivel.parallelStream().forEach(id -> totaisSimulados.put(id, simularTotalDaReceita(receitas.get(id),
+                    diferencasDosInsumos.getOrDefault(id, ZERO), subreceitasPorReceita.get(id), totaisSimulados)));
+        }
+
+        List<SimulacaoDeCustoDaReceitaDto> simulacoes = receitas.values().parallelStream()
+                .map(receita -> montarSimulacao(receita, totaisSimulados.get(receita.getId())))
+                .sorted(Comparator.comparing((SimulacaoDeCustoDaReceitaDto simulacao) -> simulacao.getDiferenca().abs())
+                        .reversed()
+                        .thenComparing(SimulacaoDeCustoDaReceitaDto::getReceitaId))
+                .toList();
+
+        logSucessoAoSimularPrecos(simulacoes.size());
+        return simulacoes;
+    }
+
+    // O preço por unidade é convertido uma vez por insumo; cada associação só multiplica pela quantidade utilizada.
+    private Map<Long, Long> validarPrecosSimulados(List<InsumoDto> precosSimulados) {
+        if (isNull(precosSimulados) || precosSimulados.isEmpty()) {
+            throw new EmpreendedorErrorException("A lista de preços a simular é obrigatória.");
+        }
+
+        Map<Long, Long> precosPorUnidadeEmMilionesimos = new HashMap<>();
+        for (InsumoDto precoSimulado : precosSimulados) {
+            if (isNull(precoSimulado) || isNull(precoSimulado.getId())) {
+                throw new EmpreendedorErrorException("O id do insumo é obrigatório em cada preço simulado.");
+            }
+            long precoPorUnidade = receitaInsumoService.calcularPrecoPorUnidadeEmMilionesimos(
+                    precoSimulado.getQuantidadePorPacote(), precoSimulado.getValorPagoPorPacote());
+            if (precosPorUnidadeEmMilionesimos.put(precoSimulado.getId(), precoPorUnidade) != null) {
+                throw new EmpreendedorErrorException(String
+                        .format("O insumo %d foi informado mais de uma vez.", precoSimulado.getId()));
+            }
+        }
+
+        Set<Long> insumosNaoEncontrados = new TreeSet<>(precosPorUnidadeEmMilionesimos.keySet());
+        insumoRepository.obterListaDeInsumosPelosIds(precosPorUnidadeEmMilionesimos.keySet())
+                .forEach(insumo -> insumosNaoEncontrados.remove(insumo.getId()));
+        if (!insumosNaoEncontrados.isEmpty()) {
+            throw new EmpreendedorErrorException(String
+                    .format("Os insumos %s não estão cadastrados.", insumosNaoEncontrados));
+        }
+        return precosPorUnidadeEmMilionesimos;
+    }
+
+    private Map<Long, BigDecimal> calcularDiferencasDosInsumos(List<ReceitaInsumoDto> associacoes,
+                                                               Map<Long, Long> precosPorUnidadeEmMilionesimos) {
+        return associacoes.parallelStream()
+                .collect(Collectors.groupingByConcurrent(ReceitaInsumoDto::getReceitaId, Collectors.reducing(ZERO,
+                        associacao -> calcularValorGasto(precosPorUnidadeEmMilionesimos.get(associacao.getInsumoId()),
+                                associacao.getQuantidadeUtilizadaInsumo()).subtract(associacao.getValorGastoInsumo()),
+                        BigDecimal::add)));
+    }
+
+    // Sobe pelas ligações de sub-receitas a partir das receitas que usam os insumos; cada receita alcançada fica com as
+    // ligações para as suas sub-receitas também afetadas.
+    private Map<Long, List<ReceitaSubreceitaDto>> obterReceitasAfetadas(Set<Long> receitaIds) {
+        Map<Long, List<ReceitaSubreceitaDto>> subreceitasPorReceita = new HashMap<>();
+        receitaIds.forEach(id -> subreceitasPorReceita.put(id, new ArrayList<>()));
+
+        Set<Long> fronteira = receitaIds;
+        while (!fronteira.isEmpty()) {
+            Set<Long> proximaFronteira = new HashSet<>();
+            for (ReceitaSubreceitaDto ligacao : receitaSubreceitaRepository
+                    .obterValoresDasReceitasQueUtilizamAsSubreceitas(fronteira)) {
+                if (!subreceitasPorReceita.containsKey(ligacao.getReceitaId())) {
+                    subreceitasPorReceita.put(ligacao.getReceitaId(), new ArrayList<>());
+                    proximaFronteira.add(ligacao.getReceitaId());
+                }
+                subreceitasPorReceita.get(ligacao.getReceitaId()).add(ligacao);
+            }
+            fronteira = proximaFronteira;
+        }
+        return subreceitasPorReceita;
+    }
+
+    private List<List<Long>> ordenarDasSubreceitasParaAsReceitas(Map<Long, List<ReceitaSubreceitaDto>> subreceitasPorReceita) {
+        Map<Long, Set<Long>> subreceitasDeCadaReceita = new HashMap<>();
+        subreceitasPorReceita.forEach((id, ligacoes) -> {
+            Set<Long> subreceitaIds = new HashSet<>();
+            ligacoes.forEach(ligacao -> subreceitaIds.add(ligacao.getSubreceitaId()));
+            subreceitasDeCadaReceita.put(id, subreceitaIds);
+        });
+        return receitaSubreceitaService.ordenarEmNiveis(subreceitasDeCadaReceita);
+    }
+
+    // Como no recálculo gravado, o total nunca fica negativo.
+    private BigDecimal simularTotalDaReceita(ReceitaDto receita, BigDecimal diferencaDosInsumos,
+                                             List<ReceitaSubreceitaDto> ligacoes, Map<Long, BigDecimal> totaisSimulados) {
+        BigDecimal total = receita.getTotalGastoInsumos().add(diferencaDosInsumos);
+        for (ReceitaSubreceitaDto ligacao : ligacoes) {
+            BigDecimal valorGastoSimulado = receitaSubreceitaService.calcularGastoComSubreceita(
+                    totaisSimulados.get(ligacao.getSubreceitaId()), ligacao.getQuantidadeUtilizadaSubreceita());
+            total = total.add(valorGastoSimulado.subtract(ligacao.getValorGastoSubreceita()));
+        }
+        return total.max(ZERO);
+    }
+
+    private SimulacaoDeCustoDaReceitaDto montarSimulacao(ReceitaDto receita, BigDecimal totalSimulado) {
+        SimulacaoDeCustoDaReceitaDto simulacao = new SimulacaoDeCustoDaReceitaDto();
+        simulacao.setReceitaId(receita.getId());
+        simulacao.setReceitaNome(receita.getNome());
+        simulacao.setTotalAtual(receita.getTotalGastoInsumos());
+        simulacao.setTotalSimulado(totalSimulado);
+        simulacao.setDiferenca(totalSimulado.subtract(receita.getTotalGastoInsumos()));
+        return simulacao;
+    }
+}
@@ -0,0 +1,82 @@
+package com.spea.api.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Mantém um a cada N eventos de uma categoria de log, decidindo antes de o evento ser criado.
+ * A amostragem é informada como "categoria=N" separados por vírgula, em que a categoria é o nome de um logger
+ * ou um prefixo dele. WARN e ERROR nunca são descartados.
+ */
+public class AmostragemDeLogsTurboFilter extends TurboFilter {
+
+    private static final String SEM_CATEGORIA = "";
+
+    private final Map<String, Integer> taxaPorCategoria = new HashMap<>();
+    private final Map<String, AtomicLong> contadorPorCategoria = new HashMap<>();
+    private final Map<String, String> categoriaPorLogger = new ConcurrentHashMap<>();
+
+    private String amostragem;
+
+    public void setAmostragem(String amostragem) {
+        this.amostragem = amostragem;
+    }
+
+    @Override
+    public void start() {
+        if (!isBlank(amostragem)) {
+            for (String item : amostragem.split(",")) {
+                String[] partes = item.trim().split("=");
+                try {
+                    int taxa = Integer.parseInt(partes[1].trim());
+                    if (taxa > 1) {
+                        taxaPorCategoria.put(partes[0].trim(), taxa);
+                        contadorPorCategoria.put(partes[0].trim(), new AtomicLong());
+                    }
+                } catch (RuntimeException e) {
+                    addWarn("Amostragem de log ignorada, use categoria=N: " + item);
+                }
+            }
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Sem formato é só uma consulta de nível (isInfoEnabled), que não deve contar como evento.
+        if (isNull(format) || taxaPorCategoria.isEmpty() || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        String categoria = categoriaPorLogger.computeIfAbsent(logger.getName(), this::encontrarCategoria);
+        if (categoria.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long evento = contadorPorCategoria.get(categoria).getAndIncrement();
+        return evento % taxaPorCategoria.get(categoria) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private String encontrarCategoria(String nomeDoLogger) {
+        String categoriaEncontrada = SEM_CATEGORIA;
+        for (String categoria : taxaPorCategoria.keySet()) {
+            boolean pertence = nomeDoLogger.equals(categoria) || nomeDoLogger.startsWith(categoria + ".");
+            if (pertence && categoria.length() > categoriaEncontrada.length()) {
+                categoriaEncontrada = categoria;
+            }
+        }
+        return categoriaEncontrada;
+    }
+}
@@ -0,0 +1,76 @@
+package com.spea.api.utils;
+
+import com.spea.api.dtos.CursorDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Codifica e decodifica os cursores opacos da paginação por chave (coluna de ordenação + id).
+ */
+public class CursorUtil {
+
+    private static final String VERSAO = "1";
+    private static final String SEPARADOR = "\n";
+    private static final String AVANCAR = "P";
+    private static final String VOLTAR = "A";
+
+    public static String gerarCursor(String ordenarPor, String direcao, Boolean avancar, Object valor, Long id) {
+        String conteudo = String.join(SEPARADOR, VERSAO, ordenarPor, direcao,
+                avancar ? AVANCAR : VOLTAR, String.valueOf(id), String.valueOf(valor));
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Retorna null para um cursor vazio, que representa a primeira página.
+     */
+    public static CursorDto lerCursor(String cursor, String ordenarPor, String direcao) {
+        if (isBlank(cursor)) {
+            return null;
+        }
+
+        String[] partes;
+        try {
+            String conteudo = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            partes = conteudo.split(SEPARADOR, 6);
+        } catch (IllegalArgumentException e) {
+            throw new EmpreendedorErrorException("O cursor informado é inválido.");
+        }
+
+        if (partes.length != 6 || !VERSAO.equals(partes[0])
+                || !(AVANCAR.equals(partes[3]) || VOLTAR.equals(partes[3]))) {
+            throw new EmpreendedorErrorException("O cursor informado é inválido.");
+        }
+
+        if (!partes[1].equals(ordenarPor) || !partes[2].equals(direcao)) {
+            throw new EmpreendedorErrorException("O cursor informado não corresponde à ordenação solicitada.");
+        }
+
+        try {
+            return new CursorDto(partes[1], partes[2], AVANCAR.equals(partes[3]), partes[5], Long.valueOf(partes[4]));
+        } catch (NumberFormatException e) {
+            throw new EmpreendedorErrorException("O cursor informado é inválido.");
+        }
+    }
+
+    /**
+     * Operador usado na comparação (coluna, id) contra o cursor. Voltar uma página inverte a busca.
+     */
+    public static String obterComparadorDoCursor(String direcao, Boolean avancar) {
+        boolean crescente = "asc".equals(direcao);
+        return crescente == avancar ? ">" : "<";
+    }
+
+    public static String obterDirecaoDaBusca(String direcao, Boolean avancar) {
+        if (avancar) {
+            return direcao;
+        }
+        return "asc".equals(direcao) ? "desc" : "asc";
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.spea.api.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Cálculo do custo das associações em inteiros escalados: o preço por unidade em milionésimos e o valor gasto em
+ * centavos, com arredondamento HALF_EVEN explícito. O resultado é idêntico, inclusive na escala, ao de
+ * ReceitaInsumoService.calcularGastoComInsumo; quando algum passo não cabe em um long o cálculo volta para BigDecimal.
+ * Serve aos laços que calculam várias associações do mesmo insumo: o preço é convertido uma vez e cada associação
+ * custa uma multiplicação e uma divisão de long.
+ */
+public class CustoEmPontoFixoUtil {
+
+    public static final int ESCALA_DO_PRECO_POR_UNIDADE = 6;
+    public static final int ESCALA_DO_VALOR_GASTO = 2;
+
+    // Nenhum cálculo válido chega a este valor; indica que o passo não coube em um long.
+    static final long NAO_REPRESENTAVEL = Long.MIN_VALUE;
+
+    private static final long[] POTENCIAS_DE_DEZ = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    /**
+     * valorPagoPorPacote / quantidadePorPacote com 6 casas, em milionésimos. A quantidade passa por
+     * BigDecimal.valueOf(Double), como no cálculo em BigDecimal, para partir do mesmo decimal.
+     */
+    public static long calcularPrecoPorUnidadeEmMilionesimos(Double quantidadePorPacote, BigDecimal valorPagoPorPacote) {
+        BigDecimal quantidadePorPacoteConvertida = BigDecimal.valueOf(quantidadePorPacote);
+
+        long valorPagoSemEscala = obterValorSemEscala(valorPagoPorPacote);
+        long quantidadeSemEscala = obterValorSemEscala(quantidadePorPacoteConvertida);
+        if (valorPagoSemEscala != NAO_REPRESENTAVEL && quantidadeSemEscala != NAO_REPRESENTAVEL) {
+            long precoPorUnidade = dividirEmMilionesimos(valorPagoSemEscala, valorPagoPorPacote.scale(),
+                    quantidadeSemEscala, quantidadePorPacoteConvertida.scale());
+            if (precoPorUnidade != NAO_REPRESENTAVEL) {
+                return precoPorUnidade;
+            }
+        }
+
+        return valorPagoPorPacote
+                .divide(quantidadePorPacoteConvertida, ESCALA_DO_PRECO_POR_UNIDADE, RoundingMode.HALF_EVEN)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /**
+     * precoPorUnidade * quantidadeUtilizadaInsumo com 2 casas, já na escala devolvida pelo cálculo em BigDecimal.
+     */
+    public static BigDecimal calcularValorGasto(long precoPorUnidadeEmMilionesimos, BigDecimal quantidadeUtilizadaInsumo) {
+        long quantidadeSemEscala = obterValorSemEscala(quantidadeUtilizadaInsumo);
+        if (quantidadeSemEscala != NAO_REPRESENTAVEL) {
+            long valorGastoEmCentavos = calcularValorGastoEmCentavos(precoPorUnidadeEmMilionesimos, quantidadeSemEscala,
+                    quantidadeUtilizadaInsumo.scale());
+            if (valorGastoEmCentavos != NAO_REPRESENTAVEL) {
+                return BigDecimal.valueOf(valorGastoEmCentavos, ESCALA_DO_VALOR_GASTO);
+            }
+        }
+
+        return BigDecimal.valueOf(precoPorUnidadeEmMilionesimos, ESCALA_DO_PRECO_POR_UNIDADE)
+                .multiply(quantidadeUtilizadaInsumo)
+                .setScale(ESCALA_DO_VALOR_GASTO, RoundingMode.HALF_EVEN);
+    }
+
+    static long dividirEmMilionesimos(long valorSemEscala, int escalaDoValor, long quantidadeSemEscala,
+                                      int escalaDaQuantidade) {
+        // valor / quantidade * 10^6 = valorSemEscala * 10^(6 + escalaDaQuantidade - escalaDoValor) / quantidadeSemEscala
+        int expoente = ESCALA_DO_PRECO_POR_UNIDADE + escalaDaQuantidade - escalaDoValor;
+
+        if (expoente >= 0) {
+            long dividendo = multiplicarPorPotenciaDeDez(valorSemEscala, expoente);
+            return dividendo == NAO_REPRESENTAVEL ? NAO_REPRESENTAVEL
+                    : dividirArredondandoParaOPar(dividendo, quantidadeSemEscala);
+        }
+
+        long divisor = multiplicarPorPotenciaDeDez(quantidadeSemEscala, -expoente);
+        return divisor == NAO_REPRESENTAVEL ? NAO_REPRESENTAVEL : dividirArredondandoParaOPar(valorSemEscala, divisor);
+    }
+
+    static long calcularValorGastoEmCentavos(long precoPorUnidadeEmMilionesimos, long quantidadeSemEscala,
+                                             int escalaDaQuantidade) {
+        long produto;
+        try {
+            produto = Math.multiplyExact(precoPorUnidadeEmMilionesimos, quantidadeSemEscala);
+        } catch (ArithmeticException e) {
+            return NAO_REPRESENTAVEL;
+        }
+
+        // O produto tem escala 6 + escalaDaQuantidade; o valor gasto tem escala 2.
+        int casasARemover = ESCALA_DO_PRECO_POR_UNIDADE + escalaDaQuantidade - ESCALA_DO_VALOR_GASTO;
+        if (casasARemover >= 0) {
+            return casasARemover < POTENCIAS_DE_DEZ.length
+                    ? dividirArredondandoParaOPar(produto, POTENCIAS_DE_DEZ[casasARemover])
+                    : NAO_REPRESENTAVEL;
+        }
+        return multiplicarPorPotenciaDeDez(produto, -casasARemover);
+    }
+
+    static long dividirArredondandoParaOPar(long dividendo, long divisor) {
+        if (divisor == 0 || (dividendo == Long.MIN_VALUE && divisor == -1)) {
+            return NAO_REPRESENTAVEL;
+        }
+
+        long quociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (resto == 0) {
+            return quociente;
+        }
+
+        // Compara o resto com a metade do divisor sem calcular 2 * resto, que poderia estourar.
+        long restoAbsoluto = Math.abs(resto);
+        long faltaParaODivisor = Math.abs(divisor) - restoAbsoluto;
+        boolean afastarDoZero = restoAbsoluto > faltaParaODivisor
+                || (restoAbsoluto == faltaParaODivisor && (quociente & 1) != 0);
+
+        if (!afastarDoZero) {
+            return quociente;
+        }
+        return (dividendo < 0) == (divisor < 0) ? quociente + 1 : quociente - 1;
+    }
+
+    private static long multiplicarPorPotenciaDeDez(long valor, int expoente) {
+        if (expoente >= POTENCIAS_DE_DEZ.length) {
+            return valor == 0 ? 0 : NAO_REPRESENTAVEL;
+        }
+        try {
+            long resultado = Math.multiplyExact(valor, POTENCIAS_DE_DEZ[expoente]);
+            return resultado == NAO_REPRESENTAVEL ? NAO_REPRESENTAVEL : resultado;
+        } catch (ArithmeticException e) {
+            return NAO_REPRESENTAVEL;
+        }
+    }
+
+    private static long obterValorSemEscala(BigDecimal valor) {
+        // Até 18 dígitos o valor sem escala sempre cabe em um long.
+        return valor.precision() <= 18 ? valor.unscaledValue().longValue() : NAO_REPRESENTAVEL;
+    }
+}
@@ -4,10 +4,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
-
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Logs da aplicação separados por categoria, cada uma com o próprio logger filho de com.spea.api.utils.LogUtil:
+ * inicio, validacao, calculo, sucesso e erro. As validações e o cálculo passo a passo ficam em DEBUG; o nível e a
+ * amostragem de cada categoria são configurados em logback-spring.xml e application.properties.
+ * Os métodos só montam argumentos depois de conferir o nível, para que logs desligados não custem nada.
+ */
 public class LogUtil {
 
-    private static final Logger logger = LoggerFactory.getLogger(LogUtil.class);
+    private static final String CATEGORIA = LogUtil.class.getName();
+
+    private static final Logger loggerInicio = LoggerFactory.getLogger(CATEGORIA + ".inicio");
+    private static final Logger loggerValidacao = LoggerFactory.getLogger(CATEGORIA + ".validacao");
+    private static final Logger loggerCalculo = LoggerFactory.getLogger(CATEGORIA + ".calculo");
+    private static final Logger loggerSucesso = LoggerFactory.getLogger(CATEGORIA + ".sucesso");
+    private static final Logger loggerErro = LoggerFactory.getLogger(CATEGORIA + ".erro");
 
 
 
@@ -15,11 +29,30 @@ public class LogUtil {
 
     //Genérico
     private static void logInicioDeProcesso(String processo, Object valor) {
-        logger.info("[INÍCIO] Iniciando processo de {}: {}", processo, valor);
+        if (loggerInicio.isInfoEnabled()) {
+            loggerInicio.info("[INÍCIO] Iniciando processo de {}: {}", processo, valor);
+        }
     }
 
     private static void logInicioDeProcessoAssociacao(String processo, Object valor1,  Object valor2) {
-        logger.info("[INÍCIO] Iniciando processo de {}: receita {} e insumo: {}", processo, valor1, valor2);
+        if (loggerInicio.isInfoEnabled()) {
+            loggerInicio.info("[INÍCIO] Iniciando processo de {}: receita {} e insumo: {}", processo, valor1, valor2);
+        }
+    }
+
+    private static void logInicioDeProcessoSubreceita(String processo, Object receitaId, Object subreceitaId) {
+        if (loggerInicio.isInfoEnabled()) {
+            loggerInicio.info("[INÍCIO] Iniciando processo de {}: receita {} e sub-receita {}", processo, receitaId, subreceitaId);
+        }
+    }
+
+    // Banco
+    public static void logInicioDaCompactacaoDoBanco(Integer preenchimento) {
+        logInicioDeProcesso("compactação do arquivo do banco com preenchimento (%)", preenchimento);
+    }
+
+    public static void logInicioDaReconstrucaoDosFiltrosDeExistencia(String banco) {
+        logInicioDeProcesso("reconstrução dos filtros de existência do banco", banco);
     }
 
     // Insumo
@@ -27,10 +60,22 @@ public class LogUtil {
         logInicioDeProcesso("cadastro do insumo", nome);
     }
 
+    public static void logInicioDeImportacaoDeInsumos(String formato) {
+        logInicioDeProcesso("importação de insumos no formato", formato);
+    }
+
+    public static void logInicioDeExportacaoDeInsumos(String formato) {
+        logInicioDeProcesso("exportação de insumos no formato", formato);
+    }
+
     public static void logInicioDeObtencaoDeInsumosFiltradosEPaginados() {
         logInicioDeProcesso("obtenção de insumos", null);
     }
 
+    public static void logInicioDeObtencaoDeInsumosPorCursor(String nome) {
+        logInicioDeProcesso("obtenção de insumos por cursor filtrados por", nome);
+    }
+
     public static void logInicioDeObtencaoDoInsumoPorId(Long insumoId) {
         logInicioDeProcesso("obtenção de insumo pelo id", insumoId);
     }
@@ -43,6 +88,30 @@ public class LogUtil {
         logInicioDeProcesso("deleção do insumo pelo identificador", identificador);
     }
 
+    public static void logInicioDePropagacaoDeCustosEmConjunto(Long insumoId) {
+        logInicioDeProcesso("propagação em conjunto dos custos do insumo", insumoId);
+    }
+
+    public static void logInicioObtencaoDoEstadoDoCustoDaReceita(Long receitaId) {
+        logInicioDeProcesso("obtenção do estado do custo da receita", receitaId);
+    }
+
+    public static void logInicioObtencaoDoResumoDoCustoDaReceita(Long receitaId) {
+        logInicioDeProcesso("obtenção do resumo do custo da receita", receitaId);
+    }
+
+    public static void logInicioDoAgendamentoDeRecalculoDoInsumo(Long insumoId) {
+        logInicioDeProcesso("agendamento do recálculo dos custos do insumo", insumoId);
+    }
+
+    public static void logInicioObtencaoDoHistoricoDePrecosDoInsumo(Long insumoId) {
+        logInicioDeProcesso("obtenção do histórico de preços do insumo", insumoId);
+    }
+
+    public static void logInicioSimulacaoDePrecos(Integer quantidadeDeInsumos) {
+        logInicioDeProcesso("simulação de preços, quantidade de insumos", quantidadeDeInsumos);
+    }
+
     // Receita
 
     public static void logInicioCadastroDeReceita(String nome) {
@@ -61,18 +130,36 @@ public class LogUtil {
         logInicioDeProcesso("obtenção de lista das receitas paginadas e filtradas por", nome);
     }
 
+    public static void logInicioObtencaoDeListaDeReceitasPorCursor(String nome) {
+        logInicioDeProcesso("obtenção de lista das receitas por cursor filtradas por", nome);
+    }
+
+    public static void logInicioDeExportacaoDeReceitas(String formato) {
+        logInicioDeProcesso("exportação de receitas no formato", formato);
+    }
+
+    public static void logInicioCalculoDoCustoDaReceitaNaData(Long receitaId, Instant instante) {
+        if (loggerInicio.isInfoEnabled()) {
+            loggerInicio.info("[INÍCIO] Iniciando processo de cálculo do custo da receita {} em {}", receitaId, instante);
+        }
+    }
+
     // Receita-Insumo
 
     public static void logInicioCriacaoDeAssociacao(Long receitaId, Long insumoId) {
         logInicioDeProcessoAssociacao("criação de associação entre", receitaId, insumoId);
     }
 
+    public static void logInicioCriacaoDeAssociacoesEmLote(Long receitaId, Integer totalDeInsumos) {
+        logInicioDeProcessoAssociacao("criação em lote de associações entre", receitaId, totalDeInsumos);
+    }
+
     public static void logInicioCalculoDeGastoComInsumo(Double quantidadePorPacote, BigDecimal valorPagoPorPacote,
                                                         BigDecimal quantidadeUtilizadaInsumo) {
-        logInicioDeProcesso("calculo de gasto com insumo", null);
-        logger.info("Quantidade por pacote: {}", quantidadePorPacote);
-        logger.info("Valor pago por pacote: {}", valorPagoPorPacote);
-        logger.info("Quantidade utilizada de insumo: {}", quantidadeUtilizadaInsumo);
+        if (loggerCalculo.isDebugEnabled()) {
+            loggerCalculo.debug("[CÁLCULO] Calculando gasto com insumo: quantidade por pacote {}, valor pago por pacote {}," +
+                    " quantidade utilizada {}", quantidadePorPacote, valorPagoPorPacote, quantidadeUtilizadaInsumo);
+        }
     }
 
     public static void logInicioAtualizacaoQuantidadeUtilizadaInsumo(Long receitaId, Long insumoId) {
@@ -83,21 +170,52 @@ public class LogUtil {
         logInicioDeProcesso("obtenção da lista filtrada e paginadade de insumos associados a receita", receitaId);
     }
 
+    public static void logInicioObtencaoDaListaDeInsumosAssociadosAReceitaPorCursor(Long receitaId) {
+        logInicioDeProcesso("obtenção da lista por cursor de insumos associados a receita", receitaId);
+    }
+
+    public static void logInicioDeExportacaoDeAssociacoes(String formato) {
+        logInicioDeProcesso("exportação das associações entre receitas e insumos no formato", formato);
+    }
+
+    // Receita-Subreceita
+    public static void logInicioCriacaoDeSubreceita(Long receitaId, Long subreceitaId) {
+        logInicioDeProcessoSubreceita("inclusão de sub-receita", receitaId, subreceitaId);
+    }
+
+    public static void logInicioAtualizacaoQuantidadeUtilizadaSubreceita(Long receitaId, Long subreceitaId) {
+        logInicioDeProcessoSubreceita("atualização da quantidade utilizada de sub-receita", receitaId, subreceitaId);
+    }
+
+    public static void logInicioRemocaoDeSubreceita(Long receitaId, Long subreceitaId) {
+        logInicioDeProcessoSubreceita("remoção de sub-receita", receitaId, subreceitaId);
+    }
+
+    public static void logInicioObtencaoDaListaDeSubreceitasDaReceita(Long receitaId) {
+        logInicioDeProcesso("obtenção da lista de sub-receitas da receita", receitaId);
+    }
+
 
     // LOGS DE VALIDAÇÕES
 
     // Genérico
     private static void logValidacao(String campo, Object valor) {
-        logger.info("[VALIDAÇÃO] Validando {}: {} ", campo, valor);
+        if (loggerValidacao.isDebugEnabled()) {
+            loggerValidacao.debug("[VALIDAÇÃO] Validando {}: {} ", campo, valor);
+        }
     }
 
     private static void logValidacao(String campo, Object valor1, Object valor2) {
-        logger.info("[VALIDAÇÃO] Validando {}: receita {} e insumo {}", campo, valor1, valor2);
+        if (loggerValidacao.isDebugEnabled()) {
+            loggerValidacao.debug("[VALIDAÇÃO] Validando {}: receita {} e insumo {}", campo, valor1, valor2);
+        }
     }
 
     // Insumo
     public static void logFiltroValidacao(String procedimento, Object valor) {
-        logger.info("[VALIDAÇÃO - FILTRO] Validando filtro {}: {}", procedimento, valor);
+        if (loggerValidacao.isDebugEnabled()) {
+            loggerValidacao.debug("[VALIDAÇÃO - FILTRO] Validando filtro {}: {}", procedimento, valor);
+        }
     }
 
     public static void logValidacaoNomeDoInsumo(String nome) {
@@ -116,10 +234,6 @@ public class LogUtil {
         logValidacao("existência do insumo pelo identificador", identificador);
     }
 
-    public static void logVerificacaoDeTotalAtualEValorASubtrair(BigDecimal totalAtual, BigDecimal valorASubtrair) {
-        logger.info("[VALIDAÇÃO] Validando total atual {} e valor a subtrair {}", totalAtual, valorASubtrair);
-    }
-
     // Receita
     public static void logValidacaoNomeDaReceita(String nome) {
         logValidacao("nome da receita", nome);
@@ -138,20 +252,68 @@ public class LogUtil {
         logValidacao("existência de associação entre", receitaId, insumoId);
     }
 
+    // Receita-Subreceita
+    public static void logVerificacaoDeQuantidadeUtilizadaDeSubreceita(BigDecimal quantidadeUtilizadaSubreceita) {
+        logValidacao("quantidade utilizada de sub-receita", quantidadeUtilizadaSubreceita);
+    }
+
+    public static void logVerificacaoDeCicloEntreReceitaESubreceita(Long receitaId, Long subreceitaId) {
+        if (loggerValidacao.isDebugEnabled()) {
+            loggerValidacao.debug("[VALIDAÇÃO] Validando ausência de ciclo: receita {} e sub-receita {}", receitaId, subreceitaId);
+        }
+    }
+
 
     //LOGS DE SUCESSOS
 
     //Genérico
 
     private static void logSucesso(String procedimento, Object valor) {
-        logger.info("[SUCESSO] Sucesso ao {}: {}", procedimento, valor);
+        if (loggerSucesso.isInfoEnabled()) {
+            loggerSucesso.info("[SUCESSO] Sucesso ao {}: {}", procedimento, valor);
+        }
     }
 
     private static void logSucesso(String procedimento, Object valor1, Object valor2) {
-        logger.info("[SUCESSO] Sucesso ao {}: receita {} e insumo {}", procedimento, valor1, valor2);
+        if (loggerSucesso.isInfoEnabled()) {
+            loggerSucesso.info("[SUCESSO] Sucesso ao {}: receita {} e insumo {}", procedimento, valor1, valor2);
+        }
+    }
+
+    private static void logSucessoSubreceita(String procedimento, Object receitaId, Object subreceitaId) {
+        if (loggerSucesso.isInfoEnabled()) {
+            loggerSucesso.info("[SUCESSO] Sucesso ao {}: receita {} e sub-receita {}", procedimento, receitaId, subreceitaId);
+        }
+    }
+
+    // Banco
+    public static void logSucessoAoCompactarBanco(Integer preenchimentoAntes, Integer preenchimentoDepois) {
+        if (loggerSucesso.isInfoEnabled()) {
+            loggerSucesso.info("[SUCESSO] Compactação do arquivo do banco concluída: preenchimento de {}% para {}%",
+                    preenchimentoAntes, preenchimentoDepois);
+        }
+    }
+
+    public static void logSucessoAoReconstruirFiltrosDeExistencia(Long insumos, Long receitas, Long associacoes) {
+        if (loggerSucesso.isInfoEnabled()) {
+            loggerSucesso.info("[SUCESSO] Filtros de existência reconstruídos: {} insumos, {} receitas e {} associações",
+                    insumos, receitas, associacoes);
+        }
     }
 
     // Insumo
+    public static void logSucessoAoImportarInsumos(Long totalImportado, Long totalDeErros) {
+        loggerSucesso.info("[SUCESSO] Importação de insumos concluída: {} cadastrados e {} linhas com erro", totalImportado, totalDeErros);
+    }
+
+    public static void logSucessoAoExportarInsumos(Long totalDeInsumos) {
+        logSucesso("exportar insumos, quantidade", totalDeInsumos);
+    }
+
+    public static void logSucessoAoCadastrarInsumosEmLote(Integer totalDeInsumos) {
+        loggerSucesso.info("[SUCESSO] Sucesso ao cadastrar lote de {} insumos", totalDeInsumos);
+    }
+
     public static void logSucessoAoCadastrarInsumo(String nome) {
         logSucesso("cadastrar o insumo", nome);
     }
@@ -160,6 +322,10 @@ public class LogUtil {
         logSucesso("obter lista de insumos paginados filtrados por",  nome);
     }
 
+    public static void logSucessoAoObterListaDeInsumosPorCursor(String nome) {
+        logSucesso("obter lista de insumos por cursor filtrados por", nome);
+    }
+
     public static void logSucessoAoObterTotalDeInsumosFiltrados(String nome) {
         logSucesso("obter total de insumos filtrados por", nome);
     }
@@ -180,6 +346,18 @@ public class LogUtil {
         logSucesso("obter insumo pelo id", id);
     }
 
+    public static void logSucessoAoObterHistoricoDePrecosDoInsumo(Long insumoId) {
+        logSucesso("obter histórico de preços do insumo", insumoId);
+    }
+
+    public static void logSucessoAoObterSeriesDePrecosDosInsumos(Integer quantidadeDeInsumos) {
+        logSucesso("obter histórico de preços dos insumos, quantidade", quantidadeDeInsumos);
+    }
+
+    public static void logSucessoAoSimularPrecos(Integer quantidadeDeReceitas) {
+        logSucesso("simular preços, receitas afetadas", quantidadeDeReceitas);
+    }
+
     // Receita
     public static void logSucessoAoCadastrarReceita(String nome) {
         logSucesso("cadastrar a receita", nome);
@@ -201,15 +379,41 @@ public class LogUtil {
         logSucesso("obter lista de receitas paginadas e filtradas por", nome);
     }
 
+    public static void logSucessoAoObterListaDeReceitasPorCursor(String nome) {
+        logSucesso("obter lista de receitas por cursor filtradas por", nome);
+    }
+
     public static void logSucessoAoObterTotalDeReceitasFiltradas(String nome) {
         logSucesso("obter total de receitas filtradas por", nome);
     }
 
+    public static void logSucessoAoExportarReceitas(Long totalDeReceitas) {
+        logSucesso("exportar receitas, quantidade", totalDeReceitas);
+    }
+
+    public static void logSucessoAoCalcularCustoDaReceitaNaData(Long receitaId, Instant instante) {
+        if (loggerSucesso.isInfoEnabled()) {
+            loggerSucesso.info("[SUCESSO] Sucesso ao calcular o custo da receita {} em {}", receitaId, instante);
+        }
+    }
+
     // Receita-Insumo
     public static void logSucessoAoCriarAssociacaoEntreReceitaEInsumo(Long receitaId, Long insumoId) {
         logSucesso("criar associação entre", receitaId, insumoId);
     }
 
+    public static void logSucessoAoCriarAssociacoesEmLote(Long receitaId, Integer totalDeInsumos) {
+        logSucesso("criar em lote as associações entre", receitaId, totalDeInsumos);
+    }
+
+    public static void logSucessoAoExportarAssociacoes(Long totalDeAssociacoes) {
+        logSucesso("exportar associações entre receitas e insumos, quantidade", totalDeAssociacoes);
+    }
+
+    public static void logSucessoAoObterInsumosParaAssociacaoEmLote(Long receitaId, Collection<Long> insumoIds) {
+        logSucesso("obter os insumos para associação em lote entre", receitaId, insumoIds);
+    }
+
     public static void logSucessoAoVerificarExistenciaDaAssociacaoDeReceitaEInsumo(Long receitaId, Long insumoId) {
         logSucesso("verificar existência da associação entre", receitaId, insumoId);
     }
@@ -226,6 +430,10 @@ public class LogUtil {
         logSucesso("obter todos os dados da associação entre", receitaId , insumoId);
     }
 
+    public static void logSucessoAoObterDadosParaCriacaoDaAssociacao(Long receitaId, Long insumoId) {
+        logSucesso("obter os dados para criação da associação entre", receitaId, insumoId);
+    }
+
     public static void logSucessoAoObterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(Long insumoId) {
         logSucesso("obter lista de associações e receitas relacionadas ao insumo", insumoId);
     }
@@ -238,19 +446,119 @@ public class LogUtil {
         logSucesso("obter lista de insumos associados à receita", receitaId);
     }
 
+    public static void logSucessoAoObterListaDeInsumosAssociadosAReceitaPorCursor(Long receitaId) {
+        logSucesso("obter lista por cursor de insumos associados à receita", receitaId);
+    }
+
+    public static void logSucessoAoRecalcularCustosDasReceitasQueUtilizamOInsumo(Long insumoId, Integer totalDeAssociacoes) {
+        loggerSucesso.info("[SUCESSO] Sucesso ao recalcular custos das receitas que utilizam o insumo {}: {} associações atualizadas",
+                insumoId, totalDeAssociacoes);
+    }
+
+    public static void logSucessoAoRemoverAssociacoesDoInsumo(Long insumoId, Integer totalDeReceitas) {
+        loggerSucesso.info("[SUCESSO] Sucesso ao remover as associações do insumo {}: {} receitas atualizadas",
+                insumoId, totalDeReceitas);
+    }
+
+    public static void logSucessoAoObterListaDeInsumosPelosIds(Collection<Long> ids) {
+        logSucesso("obter lista de insumos pelos ids", ids);
+    }
+
+    public static void logSucessoAoRecalcularTotaisDasReceitasQueUtilizamOsInsumos(Collection<Long> insumoIds, Integer totalDeReceitas) {
+        loggerSucesso.info("[SUCESSO] Sucesso ao recalcular totais das receitas que utilizam os insumos {}: {} receitas atualizadas",
+                insumoIds, totalDeReceitas);
+    }
+
+    public static void logSucessoAoObterEstadoDoCustoDaReceita(Long id) {
+        logSucesso("obter estado do custo da receita", id);
+    }
+
+    public static void logSucessoAoObterResumoDoCustoDaReceita(Long id) {
+        logSucesso("obter resumo do custo da receita", id);
+    }
+
+    public static void logSucessoAoProcessarLoteDeRecalculo(Collection<Long> insumoIds) {
+        logSucesso("processar lote de recálculo dos insumos", insumoIds);
+    }
+
+    public static void logSucessoAoObterRecalculosPendentes(Integer quantidadeDeInsumos) {
+        logSucesso("obter recálculos pendentes, quantidade", quantidadeDeInsumos);
+    }
+
+    // Receita-Subreceita
+    public static void logSucessoAoVerificarExistenciaDaSubreceitaNaReceita(Long receitaId, Long subreceitaId) {
+        logSucessoSubreceita("verificar existência da sub-receita", receitaId, subreceitaId);
+    }
+
+    public static void logSucessoAoCriarSubreceita(Long receitaId, Long subreceitaId) {
+        logSucessoSubreceita("incluir sub-receita", receitaId, subreceitaId);
+    }
+
+    public static void logSucessoAoAtualizarSubreceita(Long receitaId, Long subreceitaId) {
+        logSucessoSubreceita("atualizar sub-receita", receitaId, subreceitaId);
+    }
+
+    public static void logSucessoAoRemoverSubreceita(Long receitaId, Long subreceitaId) {
+        logSucessoSubreceita("remover sub-receita", receitaId, subreceitaId);
+    }
+
+    public static void logSucessoAoObterListaDeSubreceitasDaReceita(Long receitaId) {
+        logSucesso("obter lista de sub-receitas da receita", receitaId);
+    }
+
+    public static void logSucessoAoPropagarCustosPelasSubreceitas(Integer totalDeReceitas, Integer totalDeNiveis) {
+        if (loggerSucesso.isInfoEnabled()) {
+            loggerSucesso.info("[SUCESSO] Sucesso ao propagar custos pelas sub-receitas: {} receitas atualizadas em {} níveis",
+                    totalDeReceitas, totalDeNiveis);
+        }
+    }
+
+    //LOGS DE ALERTAS (categoria erro, em WARN)
+
+    public static void logAlertaDeMuitasInstrucoesSqlNaRequisicao(String metodo, String rota, Integer quantidade) {
+        if (loggerErro.isWarnEnabled()) {
+            loggerErro.warn("[ALERTA] A requisição {} {} executou {} instruções SQL", metodo, rota, quantidade);
+        }
+    }
+
     //LOGS DE ERROS
 
     //Genérico
     private static void logErroInesperado(String procedimento, Object identificador, Exception excecao) {
-        logger.error("[ERRO] Erro inesperado ao {} {}: {}", procedimento, identificador, excecao.getMessage(), excecao);
+        if (loggerErro.isErrorEnabled()) {
+            loggerErro.error("[ERRO] Erro inesperado ao {} {}: {}", procedimento, identificador, excecao.getMessage(), excecao);
+        }
     }
 
     private static void logErroInesperado(String procedimento, Object identificador1, Object identificador2, Exception excecao) {
-        logger.error("[ERRO] Erro inesperado ao {} receita {} e insumo {}: {}", procedimento, identificador1, identificador2, excecao.getMessage(), excecao);
+        if (loggerErro.isErrorEnabled()) {
+            loggerErro.error("[ERRO] Erro inesperado ao {} receita {} e insumo {}: {}", procedimento, identificador1, identificador2,
+                    excecao.getMessage(), excecao);
+        }
+    }
+
+    private static void logErroInesperadoSubreceita(String procedimento, Object receitaId, Object subreceitaId, Exception excecao) {
+        if (loggerErro.isErrorEnabled()) {
+            loggerErro.error("[ERRO] Erro inesperado ao {} receita {} e sub-receita {}: {}", procedimento, receitaId, subreceitaId,
+                    excecao.getMessage(), excecao);
+        }
+    }
+
+    // Banco
+    public static void logErroInesperadoAoCompactarBanco(Exception excecao) {
+        logErroInesperado("compactar", "o arquivo do banco", excecao);
+    }
+
+    public static void logErroInesperadoAoReconstruirFiltrosDeExistencia(Exception excecao) {
+        logErroInesperado("reconstruir", "os filtros de existência", excecao);
     }
 
     // Insumo
 
+    public static void logErroInesperadoAoCadastrarInsumosEmLote(Integer totalDeInsumos, Exception excecao) {
+        logErroInesperado("cadastrar lote de insumos de tamanho", totalDeInsumos, excecao);
+    }
+
     public static void logErroInesperadoAoCadastrarInsumo(String nome, Exception excecao) {
         logErroInesperado("cadastrar o insumo", nome, excecao);
     }
@@ -263,6 +571,10 @@ public class LogUtil {
         logErroInesperado("obter lista de insumos paginados e filtrados por", nome, excecao);
     }
 
+    public static void logErroInesperadoAoObterListaDeInsumosPorCursor(String nome, Exception excecao) {
+        logErroInesperado("obter lista de insumos por cursor filtrados por", nome, excecao);
+    }
+
     public static void logErroInesperadoAoVerificarExistenciaDoInsumo(Long id,Exception excecao) {
         logErroInesperado("verificar existência do insumo pelo id", id, excecao);
     }
@@ -279,6 +591,18 @@ public class LogUtil {
         logErroInesperado("obter insumo pelo id", identificador, excecao);
     }
 
+    public static void logErroInesperadoAoExportarInsumos(Exception excecao) {
+        logErroInesperado("exportar", "os insumos", excecao);
+    }
+
+    public static void logErroInesperadoAoObterHistoricoDePrecosDoInsumo(Long insumoId, Exception excecao) {
+        logErroInesperado("obter histórico de preços do insumo", insumoId, excecao);
+    }
+
+    public static void logErroInesperadoAoObterSeriesDePrecosDosInsumos(Collection<Long> insumoIds, Exception excecao) {
+        logErroInesperado("obter histórico de preços dos insumos", insumoIds, excecao);
+    }
+
     // Receita
     public static void logErroInesperadoAoCadastrarReceita(String nome, Exception excecao) {
         logErroInesperado("cadastrar a receita", nome, excecao);
@@ -300,15 +624,39 @@ public class LogUtil {
         logErroInesperado("obter lista de receitas paginadas e filtradas por", nome, excecao);
     }
 
+    public static void logErroInesperadoAoObterListaDeReceitasPorCursor(String nome, Exception excecao) {
+        logErroInesperado("obter lista de receitas por cursor filtradas por", nome, excecao);
+    }
+
     public static void logErroInesperadoAoObterTotalDeReceitasFiltradas(String nome, Exception excecao){
         logErroInesperado("obter total de receitas filtradas por", nome, excecao);
     }
 
+    public static void logErroInesperadoAoExportarReceitas(Exception excecao) {
+        logErroInesperado("exportar", "as receitas", excecao);
+    }
+
+    public static void logErroInesperadoAoObterTotaisDasReceitasPelosIds(Collection<Long> ids, Exception excecao) {
+        logErroInesperado("obter os totais das receitas pelos ids", ids, excecao);
+    }
+
     // Receita-Insumo
     public static void logErroInesperadoAoCriarAssociacaoEntreReceitaEInsumo(Long receitaId, Long insumoId, Exception excecao) {
         logErroInesperado("criar associação entre", receitaId, insumoId, excecao);
     }
 
+    public static void logErroInesperadoAoCriarAssociacoesEmLote(Long receitaId, Integer totalDeInsumos, Exception excecao) {
+        logErroInesperado("criar em lote as associações entre", receitaId, totalDeInsumos, excecao);
+    }
+
+    public static void logErroInesperadoAoExportarAssociacoes(Exception excecao) {
+        logErroInesperado("exportar", "as associações entre receitas e insumos", excecao);
+    }
+
+    public static void logErroInesperadoAoObterInsumosParaAssociacaoEmLote(Long receitaId, Collection<Long> insumoIds, Exception excecao) {
+        logErroInesperado("obter os insumos para associação em lote entre", receitaId, insumoIds, excecao);
+    }
+
     public static void logErroInesperadoAoVerificarExistenciaDaAssociacaoDeReceitaEInsumo(Long receitaId, Long insumoId, Exception excecao) {
         logErroInesperado("verificar existência da associação entre", receitaId, insumoId, excecao);
     }
@@ -325,6 +673,10 @@ public class LogUtil {
         logErroInesperado("obter todos dados da associacao entre", receitaId, insumoId, excecao);
     }
 
+    public static void logErroInesperadoAoObterDadosParaCriacaoDaAssociacao(Long receitaId, Long insumoId, Exception excecao) {
+        logErroInesperado("obter os dados para criação da associação entre", receitaId, insumoId, excecao);
+    }
+
     public static void logErroInesperadoAoObterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(Long insumoId, Exception e) {
         logErroInesperado("obter lista de associações e receitas relacionadas ao insumo", insumoId, e);
     }
@@ -337,4 +689,100 @@ public class LogUtil {
         logErroInesperado("obter lista de insumos associados à receita", receitaId, excecao);
     }
 
+    public static void logErroInesperadoAoObterListaDeInsumosAssociadosAReceitaPorCursor(Long receitaId, Exception excecao) {
+        logErroInesperado("obter lista por cursor de insumos associados à receita", receitaId, excecao);
+    }
+
+    public static void logErroInesperadoAoRecalcularCustosDasReceitasQueUtilizamOInsumo(Long insumoId, Exception excecao) {
+        logErroInesperado("recalcular custos das receitas que utilizam o insumo", insumoId, excecao);
+    }
+
+    public static void logErroInesperadoAoRemoverAssociacoesDoInsumo(Long insumoId, Exception excecao) {
+        logErroInesperado("remover as associações do insumo", insumoId, excecao);
+    }
+
+    public static void logErroInesperadoAoObterListaDeInsumosPelosIds(Collection<Long> ids, Exception excecao) {
+        logErroInesperado("obter lista de insumos pelos ids", ids, excecao);
+    }
+
+    public static void logErroInesperadoAoRecalcularTotaisDasReceitasQueUtilizamOsInsumos(Collection<Long> insumoIds, Exception excecao) {
+        logErroInesperado("recalcular totais das receitas que utilizam os insumos", insumoIds, excecao);
+    }
+
+    public static void logErroInesperadoAoObterEstadoDoCustoDaReceita(Long id, Exception excecao) {
+        logErroInesperado("obter estado do custo da receita", id, excecao);
+    }
+
+    public static void logErroInesperadoAoObterResumoDoCustoDaReceita(Long id, Exception excecao) {
+        logErroInesperado("obter resumo do custo da receita", id, excecao);
+    }
+
+    public static void logErroInesperadoAoVerificarSeAReceitaUtilizaAlgumDosInsumos(Long receitaId, Exception excecao) {
+        logErroInesperado("verificar os insumos utilizados pela receita", receitaId, excecao);
+    }
+
+    public static void logErroInesperadoAoProcessarLoteDeRecalculo(Collection<Long> insumoIds, Exception excecao) {
+        logErroInesperado("processar lote de recálculo dos insumos", insumoIds, excecao);
+    }
+
+    public static void logErroInesperadoAoRegistrarRecalculoPendente(Long insumoId, Exception excecao) {
+        logErroInesperado("registrar o recálculo pendente do insumo", insumoId, excecao);
+    }
+
+    public static void logErroInesperadoAoRemoverRecalculosPendentes(Collection<Long> insumoIds, Exception excecao) {
+        logErroInesperado("remover os recálculos pendentes dos insumos", insumoIds, excecao);
+    }
+
+    public static void logErroInesperadoAoObterRecalculosPendentes(Exception excecao) {
+        logErroInesperado("obter", "os recálculos pendentes", excecao);
+    }
+
+    public static void logErroAoDescartarInsumoDaFilaDeRecalculo(Long insumoId, Integer tentativas, Exception excecao) {
+        if (loggerErro.isErrorEnabled()) {
+            loggerErro.error("[ERRO] O insumo {} saiu da fila de recálculo depois de {} tentativas com erro: {}",
+                    insumoId, tentativas, excecao.getMessage(), excecao);
+        }
+    }
+
+    public static void logErroInesperadoAoObterQuantidadesDosInsumosDasReceitas(Collection<Long> receitaIds, Exception excecao) {
+        logErroInesperado("obter os insumos das receitas", receitaIds, excecao);
+    }
+
+    public static void logErroInesperadoAoObterAssociacoesDosInsumos(Collection<Long> insumoIds, Exception excecao) {
+        logErroInesperado("obter as associações dos insumos", insumoIds, excecao);
+    }
+
+    // Receita-Subreceita
+    public static void logErroInesperadoAoTravarLigacoesDeSubreceitas(Exception excecao) {
+        logErroInesperado("travar", "as ligações entre receitas e sub-receitas", excecao);
+    }
+
+    public static void logErroInesperadoAoVerificarExistenciaDaSubreceitaNaReceita(Long receitaId, Long subreceitaId, Exception excecao) {
+        logErroInesperadoSubreceita("verificar existência da sub-receita", receitaId, subreceitaId, excecao);
+    }
+
+    public static void logErroInesperadoAoCriarSubreceita(Long receitaId, Long subreceitaId, Exception excecao) {
+        logErroInesperadoSubreceita("incluir sub-receita", receitaId, subreceitaId, excecao);
+    }
+
+    public static void logErroInesperadoAoAtualizarSubreceita(Long receitaId, Long subreceitaId, Exception excecao) {
+        logErroInesperadoSubreceita("atualizar sub-receita", receitaId, subreceitaId, excecao);
+    }
+
+    public static void logErroInesperadoAoRemoverSubreceita(Long receitaId, Long subreceitaId, Exception excecao) {
+        logErroInesperadoSubreceita("remover sub-receita", receitaId, subreceitaId, excecao);
+    }
+
+    public static void logErroInesperadoAoObterListaDeSubreceitasDaReceita(Long receitaId, Exception excecao) {
+        logErroInesperado("obter lista de sub-receitas da receita", receitaId, excecao);
+    }
+
+    public static void logErroInesperadoAoObterLigacoesDeSubreceitas(Collection<Long> ids, Exception excecao) {
+        logErroInesperado("obter as ligações de sub-receitas pelos ids", ids, excecao);
+    }
+
+    public static void logErroInesperadoAoRecalcularCustosDasSubreceitas(Collection<Long> receitaIds, Exception excecao) {
+        logErroInesperado("recalcular custos das sub-receitas das receitas", receitaIds, excecao);
+    }
+
 }
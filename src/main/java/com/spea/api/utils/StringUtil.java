@@ -1,9 +1,15 @@
 package com.spea.api.utils;
 
 import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 public class StringUtil {
 
+    private static final Pattern MARCAS_DE_ACENTUACAO = Pattern.compile("\\p{M}+");
+
     public static String normalizarEspacos(String input) {
         if (input == null) {
             return null;
@@ -11,4 +17,28 @@ public class StringUtil {
         return input.trim().replaceAll("\\s+", " ");
     }
 
+    /**
+     * Forma usada na busca por nome: sem acentos e em minúsculas. É a mesma gravada na coluna nome_busca.
+     */
+    public static String normalizarParaBusca(String input) {
+        if (input == null) {
+            return null;
+        }
+        String semAcentos = MARCAS_DE_ACENTUACAO
+                .matcher(Normalizer.normalize(input, Normalizer.Form.NFD))
+                .replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    public static Set<String> gerarTrigramas(String textoNormalizado) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        if (textoNormalizado == null) {
+            return trigramas;
+        }
+        for (int i = 0; i + 3 <= textoNormalizado.length(); i++) {
+            trigramas.add(textoNormalizado.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+
 }
@@ -0,0 +1,82 @@
+CREATE TABLE tb_insumos (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    nome VARCHAR(100) NOT NULL,
+    quantidade_por_pacote DECIMAL(10,2) NOT NULL,
+    valor_pago_por_pacote DECIMAL(10,2) NOT NULL,
+    nome_busca VARCHAR(100)
+);
+
+CREATE TABLE tb_receitas (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    nome VARCHAR(100) NOT NULL,
+    total_gasto_insumos DECIMAL(10,2) DEFAULT 0.00,
+    custo_recalculado_em TIMESTAMP,
+    nome_busca VARCHAR(100)
+);
+
+CREATE TABLE tb_receita_insumo (
+ insumo_id BIGINT NOT NULL,
+ receita_id BIGINT NOT NULL,
+ quantidade_utilizada_insumo DECIMAL(10,2) NOT NULL,
+ valor_gasto_insumo DECIMAL(10,2) NOT NULL,
+ PRIMARY KEY (insumo_Id, receita_id),
+ CONSTRAINT fk_receita FOREIGN KEY (receita_id) REFERENCES tb_receitas(id) ON DELETE CASCADE,
+ CONSTRAINT fk_insumo FOREIGN KEY (insumo_id) REFERENCES tb_insumos(id) ON DELETE CASCADE
+ );
+
+-- Busca por nome: nome_busca guarda o nome sem acentos e em minúsculas, e cada trigrama dele aponta para o registro.
+CREATE TABLE tb_insumos_trigramas (
+ trigrama VARCHAR(3) NOT NULL,
+ insumo_id BIGINT NOT NULL,
+ PRIMARY KEY (trigrama, insumo_id),
+ CONSTRAINT fk_insumo_trigrama FOREIGN KEY (insumo_id) REFERENCES tb_insumos(id) ON DELETE CASCADE
+);
+
+CREATE TABLE tb_receitas_trigramas (
+ trigrama VARCHAR(3) NOT NULL,
+ receita_id BIGINT NOT NULL,
+ PRIMARY KEY (trigrama, receita_id),
+ CONSTRAINT fk_receita_trigrama FOREIGN KEY (receita_id) REFERENCES tb_receitas(id) ON DELETE CASCADE
+);
+
+CREATE TRIGGER trg_insumos_nome_busca BEFORE INSERT, UPDATE ON tb_insumos
+ FOR EACH ROW CALL 'com.spea.api.repositories.busca.NomeBuscaTrigger';
+CREATE TRIGGER trg_insumos_trigramas AFTER INSERT, UPDATE ON tb_insumos
+ FOR EACH ROW CALL 'com.spea.api.repositories.busca.NomeBuscaTrigger';
+CREATE TRIGGER trg_receitas_nome_busca BEFORE INSERT, UPDATE ON tb_receitas
+ FOR EACH ROW CALL 'com.spea.api.repositories.busca.NomeBuscaTrigger';
+CREATE TRIGGER trg_receitas_trigramas AFTER INSERT, UPDATE ON tb_receitas
+ FOR EACH ROW CALL 'com.spea.api.repositories.busca.NomeBuscaTrigger';
+
+-- Resumo do custo por receita, mantido pelos triggers abaixo a cada escrita em tb_receitas, tb_receita_insumo e
+-- tb_insumos, para ser lido sem junções: o total, a quantidade de insumos e o insumo mais caro de cada receita,
+-- e o valor gasto com cada insumo junto do nome dele.
+CREATE TABLE tb_resumo_custo_receita (
+ receita_id BIGINT PRIMARY KEY,
+ total_gasto_insumos DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+ quantidade_de_insumos INT NOT NULL DEFAULT 0,
+ insumo_mais_caro_id BIGINT,
+ insumo_mais_caro_nome VARCHAR(100),
+ valor_gasto_insumo_mais_caro DECIMAL(10,2),
+ CONSTRAINT fk_resumo_receita FOREIGN KEY (receita_id) REFERENCES tb_receitas(id) ON DELETE CASCADE
+);
+
+CREATE TABLE tb_resumo_custo_receita_insumo (
+ receita_id BIGINT NOT NULL,
+ insumo_id BIGINT NOT NULL,
+ insumo_nome VARCHAR(100) NOT NULL,
+ valor_gasto_insumo DECIMAL(10,2) NOT NULL,
+ PRIMARY KEY (receita_id, insumo_id),
+ CONSTRAINT fk_resumo_insumo_receita FOREIGN KEY (receita_id) REFERENCES tb_receitas(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_resumo_custo_receita_insumo_valor
+ ON tb_resumo_custo_receita_insumo (receita_id, valor_gasto_insumo DESC, insumo_id);
+CREATE INDEX idx_resumo_custo_receita_insumo_insumo ON tb_resumo_custo_receita_insumo (insumo_id);
+
+CREATE TRIGGER trg_receitas_resumo_custo AFTER INSERT ON tb_receitas
+ FOR EACH ROW CALL 'com.spea.api.repositories.resumo.ResumoDeCustoTrigger';
+CREATE TRIGGER trg_receita_insumo_resumo_custo AFTER INSERT, UPDATE, DELETE ON tb_receita_insumo
+ FOR EACH ROW CALL 'com.spea.api.repositories.resumo.ResumoDeCustoTrigger';
+CREATE TRIGGER trg_insumos_resumo_custo AFTER UPDATE ON tb_insumos
+ FOR EACH ROW CALL 'com.spea.api.repositories.resumo.ResumoDeCustoTrigger';
@@ -0,0 +1,19 @@
+-- Índices para os filtros e ordenações das consultas dos repositórios. Cada ordenação termina no id, como o
+-- desempate da paginação por cursor, para que a página saia do índice já na ordem pedida.
+
+-- A chave primária de tb_receita_insumo começa por insumo_id; as listagens e os recálculos de uma receita filtram
+-- por receita_id.
+CREATE INDEX idx_receita_insumo_receita ON tb_receita_insumo (receita_id, insumo_id);
+CREATE INDEX idx_receita_insumo_receita_quantidade
+ ON tb_receita_insumo (receita_id, quantidade_utilizada_insumo, insumo_id);
+CREATE INDEX idx_receita_insumo_receita_valor ON tb_receita_insumo (receita_id, valor_gasto_insumo, insumo_id);
+
+CREATE INDEX idx_insumos_nome ON tb_insumos (nome, id);
+CREATE INDEX idx_insumos_quantidade_por_pacote ON tb_insumos (quantidade_por_pacote, id);
+CREATE INDEX idx_insumos_valor_pago_por_pacote ON tb_insumos (valor_pago_por_pacote, id);
+
+CREATE INDEX idx_receitas_nome ON tb_receitas (nome, id);
+CREATE INDEX idx_receitas_total_gasto_insumos ON tb_receitas (total_gasto_insumos, id);
+
+-- ResumoDeCustoTrigger atualiza o nome do insumo mais caro pelo id quando o insumo é renomeado.
+CREATE INDEX idx_resumo_custo_receita_insumo_mais_caro ON tb_resumo_custo_receita (insumo_mais_caro_id);
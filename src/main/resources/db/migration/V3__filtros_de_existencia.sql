@@ -0,0 +1,8 @@
+-- Mantém os filtros de Bloom das verificações de existência (FiltrosDeExistencia) a cada inclusão e remoção de
+-- insumos, receitas e associações. Os ids de insumos e receitas não mudam; a chave de uma associação pode mudar.
+CREATE TRIGGER trg_insumos_filtro_existencia AFTER INSERT, DELETE ON tb_insumos
+ FOR EACH ROW CALL 'com.spea.api.repositories.existencia.FiltrosDeExistenciaTrigger';
+CREATE TRIGGER trg_receitas_filtro_existencia AFTER INSERT, DELETE ON tb_receitas
+ FOR EACH ROW CALL 'com.spea.api.repositories.existencia.FiltrosDeExistenciaTrigger';
+CREATE TRIGGER trg_receita_insumo_filtro_existencia AFTER INSERT, UPDATE, DELETE ON tb_receita_insumo
+ FOR EACH ROW CALL 'com.spea.api.repositories.existencia.FiltrosDeExistenciaTrigger';
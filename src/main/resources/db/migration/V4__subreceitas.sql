@@ -0,0 +1,27 @@
+-- Sub-receitas: uma receita usada como ingrediente de outra, como uma massa ou um molho. A quantidade utilizada é a
+-- fração da sub-receita que entra na receita (1.00 é a sub-receita inteira) e o valor gasto é essa fração do total
+-- dela. O total de uma receita soma os insumos e as sub-receitas, e as ligações não podem formar ciclos.
+CREATE TABLE tb_receita_subreceita (
+ receita_id BIGINT NOT NULL,
+ subreceita_id BIGINT NOT NULL,
+ quantidade_utilizada_subreceita DECIMAL(10,2) NOT NULL,
+ valor_gasto_subreceita DECIMAL(10,2) NOT NULL,
+ PRIMARY KEY (receita_id, subreceita_id),
+ CONSTRAINT fk_receita_composta FOREIGN KEY (receita_id) REFERENCES tb_receitas(id) ON DELETE CASCADE,
+ CONSTRAINT fk_subreceita FOREIGN KEY (subreceita_id) REFERENCES tb_receitas(id) ON DELETE CASCADE,
+ CONSTRAINT ck_receita_subreceita_distintas CHECK (receita_id <> subreceita_id)
+);
+
+-- A propagação de custos sobe de cada sub-receita para as receitas que a utilizam.
+CREATE INDEX idx_receita_subreceita_subreceita ON tb_receita_subreceita (subreceita_id, receita_id);
+
+-- Linha única travada por quem cria uma ligação: duas ligações criadas ao mesmo tempo poderiam fechar um ciclo
+-- sem que a verificação de uma enxergasse a outra.
+CREATE TABLE tb_trava_subreceitas (
+ id INT PRIMARY KEY
+);
+
+INSERT INTO tb_trava_subreceitas (id) VALUES (1);
+
+CREATE TRIGGER trg_receita_subreceita_resumo_custo AFTER INSERT, UPDATE, DELETE ON tb_receita_subreceita
+ FOR EACH ROW CALL 'com.spea.api.repositories.resumo.ResumoDeCustoTrigger';
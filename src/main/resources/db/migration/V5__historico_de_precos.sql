@@ -0,0 +1,19 @@
+-- Histórico de preços dos insumos: uma linha por preço ou tamanho de pacote vigente, a partir do instante em que
+-- passou a valer. As linhas só são incluídas, pelo trigger de tb_insumos, e continuam depois que o insumo é deletado.
+-- O custo de uma receita em uma data passada usa o preço vigente de cada insumo naquela data.
+CREATE TABLE tb_historico_precos_insumo (
+ id BIGINT PRIMARY KEY AUTO_INCREMENT,
+ insumo_id BIGINT NOT NULL,
+ vigente_desde TIMESTAMP WITH TIME ZONE NOT NULL,
+ quantidade_por_pacote DECIMAL(10,2) NOT NULL,
+ valor_pago_por_pacote DECIMAL(10,2) NOT NULL
+);
+
+CREATE INDEX idx_historico_precos_insumo ON tb_historico_precos_insumo (insumo_id, vigente_desde, id);
+
+-- O preço anterior à migração não é conhecido: os insumos existentes começam o histórico com o preço atual.
+INSERT INTO tb_historico_precos_insumo (insumo_id, vigente_desde, quantidade_por_pacote, valor_pago_por_pacote)
+SELECT id, CURRENT_TIMESTAMP, quantidade_por_pacote, valor_pago_por_pacote FROM tb_insumos;
+
+CREATE TRIGGER trg_insumos_historico_precos AFTER INSERT, UPDATE ON tb_insumos
+ FOR EACH ROW CALL 'com.spea.api.repositories.historico.HistoricoDePrecosTrigger';
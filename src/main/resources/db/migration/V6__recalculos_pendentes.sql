@@ -0,0 +1,8 @@
+-- Fila de recálculo do modo ASSINCRONO: o insumo entra na mesma transação que altera o preço e só sai na transação
+-- que recalcula os custos dele, então uma queda entre as duas não perde o recálculo. A fila em memória é refeita a
+-- partir desta tabela quando a aplicação inicia.
+CREATE TABLE tb_recalculo_pendente (
+ insumo_id BIGINT PRIMARY KEY,
+ agendado_em TIMESTAMP WITH TIME ZONE NOT NULL,
+ CONSTRAINT fk_recalculo_pendente_insumo FOREIGN KEY (insumo_id) REFERENCES tb_insumos(id) ON DELETE CASCADE
+);
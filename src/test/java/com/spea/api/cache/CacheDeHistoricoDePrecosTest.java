@@ -0,0 +1,60 @@
+package com.spea.api.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheDeHistoricoDePrecosTest {
+
+    private CacheDeHistoricoDePrecos cacheDeHistoricoDePrecos;
+
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @BeforeEach
+    void setUp() {
+        contadorDeAlteracoes = new ContadorDeAlteracoes();
+        cacheDeHistoricoDePrecos = new CacheDeHistoricoDePrecos();
+        ReflectionTestUtils.setField(cacheDeHistoricoDePrecos, "contadorDeAlteracoes", contadorDeAlteracoes);
+    }
+
+    @Test
+    @DisplayName("Deve remover a série do insumo menos consultado quando atingir a quantidade máxima")
+    void deveRemoverMenosConsultadaAoAtingirQuantidadeMaxima() {
+        // Arrange
+        ReflectionTestUtils.setField(cacheDeHistoricoDePrecos, "quantidadeMaxima", 2);
+        cacheDeHistoricoDePrecos.armazenarSeries(Map.of(1L, criarSerie(), 2L, criarSerie()),
+                cacheDeHistoricoDePrecos.obterVersao());
+        cacheDeHistoricoDePrecos.obterSerie(1L);
+
+        // Act
+        cacheDeHistoricoDePrecos.armazenarSeries(Map.of(3L, criarSerie()), cacheDeHistoricoDePrecos.obterVersao());
+
+        // Assert
+        assertTrue(cacheDeHistoricoDePrecos.obterSerie(1L).isPresent());
+        assertTrue(cacheDeHistoricoDePrecos.obterSerie(2L).isEmpty());
+        assertTrue(cacheDeHistoricoDePrecos.obterSerie(3L).isPresent());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar séries lidas enquanto algum insumo era alterado")
+    void naoDeveGuardarSeriesLidasDuranteAlteracao() {
+        // Arrange
+        Long versao = cacheDeHistoricoDePrecos.obterVersao();
+        contadorDeAlteracoes.registrarAlteracao(TabelaMonitorada.INSUMOS);
+
+        // Act
+        cacheDeHistoricoDePrecos.armazenarSeries(Map.of(1L, criarSerie()), versao);
+
+        // Assert
+        assertTrue(cacheDeHistoricoDePrecos.obterSerie(1L).isEmpty());
+    }
+
+    private SerieDePrecos criarSerie() {
+        return new SerieDePrecos(new long[]{0L}, new long[]{1000L}, new long[]{500L});
+    }
+}
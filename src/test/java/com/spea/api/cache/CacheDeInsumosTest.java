@@ -0,0 +1,110 @@
+package com.spea.api.cache;
+
+import com.spea.api.dtos.EstatisticasDoCacheDto;
+import com.spea.api.dtos.InsumoDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheDeInsumosTest {
+
+    private CacheDeInsumos cacheDeInsumos;
+
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @BeforeEach
+    void setUp() {
+        contadorDeAlteracoes = new ContadorDeAlteracoes();
+        cacheDeInsumos = new CacheDeInsumos();
+        ReflectionTestUtils.setField(cacheDeInsumos, "contadorDeAlteracoes", contadorDeAlteracoes);
+    }
+
+    @Test
+    @DisplayName("Deve devolver uma cópia do insumo guardado e contar acertos e faltas")
+    void deveDevolverCopiaEContarAcertosEFaltas() {
+        // Arrange
+        cacheDeInsumos.armazenarInsumo(criarInsumo(1L, "Farinha"), cacheDeInsumos.obterVersao());
+
+        // Act
+        Optional<InsumoDto> primeiraLeitura = cacheDeInsumos.obterInsumo(1L);
+        primeiraLeitura.orElseThrow().setNome("Alterado fora do cache");
+        Optional<InsumoDto> segundaLeitura = cacheDeInsumos.obterInsumo(1L);
+        Optional<InsumoDto> inexistente = cacheDeInsumos.obterInsumo(2L);
+
+        // Assert
+        assertEquals("Farinha", segundaLeitura.orElseThrow().getNome());
+        assertTrue(inexistente.isEmpty());
+
+        EstatisticasDoCacheDto estatisticas = cacheDeInsumos.obterEstatisticas();
+        assertEquals(2L, estatisticas.getAcertos());
+        assertEquals(1L, estatisticas.getFaltas());
+        assertEquals(1L, estatisticas.getTamanhoAtual());
+    }
+
+    @Test
+    @DisplayName("Deve remover o insumo menos acessado quando atingir a quantidade máxima")
+    void deveRemoverMenosAcessadoAoAtingirQuantidadeMaxima() {
+        // Arrange
+        ReflectionTestUtils.setField(cacheDeInsumos, "quantidadeMaxima", 2);
+        cacheDeInsumos.armazenarInsumo(criarInsumo(1L, "Farinha"), cacheDeInsumos.obterVersao());
+        cacheDeInsumos.armazenarInsumo(criarInsumo(2L, "Ovo"), cacheDeInsumos.obterVersao());
+        cacheDeInsumos.obterInsumo(1L);
+
+        // Act
+        cacheDeInsumos.armazenarInsumo(criarInsumo(3L, "Leite"), cacheDeInsumos.obterVersao());
+
+        // Assert
+        assertTrue(cacheDeInsumos.obterInsumo(1L).isPresent());
+        assertTrue(cacheDeInsumos.obterInsumo(2L).isEmpty());
+        assertTrue(cacheDeInsumos.obterInsumo(3L).isPresent());
+        assertEquals(1L, cacheDeInsumos.obterEstatisticas().getRemocoesPorTamanho());
+    }
+
+    @Test
+    @DisplayName("Deve descartar o insumo após o tempo de vida")
+    void deveDescartarInsumoAposTempoDeVida() {
+        // Arrange
+        ReflectionTestUtils.setField(cacheDeInsumos, "tempoDeVidaMs", 0L);
+        cacheDeInsumos.armazenarInsumo(criarInsumo(1L, "Farinha"), cacheDeInsumos.obterVersao());
+
+        // Act
+        Optional<InsumoDto> insumo = cacheDeInsumos.obterInsumo(1L);
+
+        // Assert
+        assertTrue(insumo.isEmpty());
+        assertEquals(1L, cacheDeInsumos.obterEstatisticas().getRemocoesPorTempo());
+        assertEquals(0L, cacheDeInsumos.obterEstatisticas().getTamanhoAtual());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o insumo e não guardar um valor lido antes de uma alteração")
+    void deveInvalidarEIgnorarValorLidoAntesDeAlteracao() {
+        // Arrange
+        cacheDeInsumos.armazenarInsumo(criarInsumo(1L, "Farinha"), cacheDeInsumos.obterVersao());
+        Long versaoAntesDaAlteracao = cacheDeInsumos.obterVersao();
+
+        // Act
+        contadorDeAlteracoes.registrarAlteracao(TabelaMonitorada.INSUMOS);
+        cacheDeInsumos.invalidarInsumo(1L);
+        cacheDeInsumos.armazenarInsumo(criarInsumo(1L, "Farinha antiga"), versaoAntesDaAlteracao);
+
+        // Assert
+        assertTrue(cacheDeInsumos.obterInsumo(1L).isEmpty());
+        assertEquals(1L, cacheDeInsumos.obterEstatisticas().getInvalidacoes());
+    }
+
+    private InsumoDto criarInsumo(Long id, String nome) {
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setId(id);
+        insumoDto.setNome(nome);
+        insumoDto.setQuantidadePorPacote(1000.0);
+        insumoDto.setValorPagoPorPacote(new BigDecimal("5.90"));
+        return insumoDto;
+    }
+}
@@ -0,0 +1,89 @@
+package com.spea.api.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheDeTotaisTest {
+
+    private CacheDeTotais cacheDeTotais;
+
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @BeforeEach
+    void setUp() {
+        contadorDeAlteracoes = new ContadorDeAlteracoes();
+        cacheDeTotais = new CacheDeTotais();
+        ReflectionTestUtils.setField(cacheDeTotais, "contadorDeAlteracoes", contadorDeAlteracoes);
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar o total para filtros equivalentes após normalização")
+    void deveReaproveitarTotalParaFiltrosEquivalentes() {
+        // Arrange
+        Long versao = cacheDeTotais.obterVersao(TabelaMonitorada.INSUMOS);
+        cacheDeTotais.armazenarTotal(TabelaMonitorada.INSUMOS, "  Farinha   de Trigo ", versao, 3L);
+
+        // Act
+        Optional<Long> total = cacheDeTotais.obterTotal(TabelaMonitorada.INSUMOS, "farinha de trigo");
+
+        // Assert
+        assertEquals(3L, total.orElseThrow());
+        assertTrue(cacheDeTotais.obterTotal(TabelaMonitorada.RECEITAS, "farinha de trigo").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o total quando a tabela for alterada")
+    void deveInvalidarTotalQuandoATabelaForAlterada() {
+        // Arrange
+        Long versao = cacheDeTotais.obterVersao(TabelaMonitorada.RECEITAS);
+        cacheDeTotais.armazenarTotal(TabelaMonitorada.RECEITAS, null, versao, 10L);
+        cacheDeTotais.armazenarTotal(TabelaMonitorada.INSUMOS, null, cacheDeTotais.obterVersao(TabelaMonitorada.INSUMOS), 4L);
+
+        // Act
+        contadorDeAlteracoes.registrarAlteracao(TabelaMonitorada.RECEITAS);
+
+        // Assert
+        assertTrue(cacheDeTotais.obterTotal(TabelaMonitorada.RECEITAS, null).isEmpty());
+        assertEquals(Optional.of(4L), cacheDeTotais.obterTotal(TabelaMonitorada.INSUMOS, ""));
+    }
+
+    @Test
+    @DisplayName("Não deve reaproveitar um total calculado com uma versão anterior à última escrita")
+    void naoDeveReaproveitarTotalCalculadoDuranteUmaEscrita() {
+        // Arrange
+        Long versaoLidaAntesDaConsulta = cacheDeTotais.obterVersao(TabelaMonitorada.INSUMOS);
+        contadorDeAlteracoes.registrarAlteracao(TabelaMonitorada.INSUMOS);
+
+        // Act
+        cacheDeTotais.armazenarTotal(TabelaMonitorada.INSUMOS, "sal", versaoLidaAntesDaConsulta, 1L);
+
+        // Assert
+        assertTrue(cacheDeTotais.obterTotal(TabelaMonitorada.INSUMOS, "sal").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve remover primeiro os totais desatualizados e depois os menos acessados ao atingir a quantidade máxima")
+    void deveRemoverDesatualizadosEMenosAcessadosAoAtingirQuantidadeMaxima() {
+        // Arrange
+        ReflectionTestUtils.setField(cacheDeTotais, "quantidadeMaxima", 2);
+        cacheDeTotais.armazenarTotal(TabelaMonitorada.RECEITAS, "bolo", cacheDeTotais.obterVersao(TabelaMonitorada.RECEITAS), 2L);
+        cacheDeTotais.armazenarTotal(TabelaMonitorada.INSUMOS, null, cacheDeTotais.obterVersao(TabelaMonitorada.INSUMOS), 9L);
+        contadorDeAlteracoes.registrarAlteracao(TabelaMonitorada.RECEITAS);
+
+        // Act
+        cacheDeTotais.armazenarTotal(TabelaMonitorada.INSUMOS, "sal", cacheDeTotais.obterVersao(TabelaMonitorada.INSUMOS), 1L);
+        cacheDeTotais.obterTotal(TabelaMonitorada.INSUMOS, null);
+        cacheDeTotais.armazenarTotal(TabelaMonitorada.INSUMOS, "ovo", cacheDeTotais.obterVersao(TabelaMonitorada.INSUMOS), 5L);
+
+        // Assert
+        assertEquals(Optional.of(9L), cacheDeTotais.obterTotal(TabelaMonitorada.INSUMOS, null));
+        assertTrue(cacheDeTotais.obterTotal(TabelaMonitorada.INSUMOS, "sal").isEmpty());
+        assertEquals(Optional.of(5L), cacheDeTotais.obterTotal(TabelaMonitorada.INSUMOS, "ovo"));
+    }
+}
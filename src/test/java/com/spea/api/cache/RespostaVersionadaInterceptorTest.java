@@ -0,0 +1,110 @@
+package com.spea.api.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RespostaVersionadaInterceptorTest {
+
+    private RespostaVersionadaInterceptor interceptor;
+
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @BeforeEach
+    void setUp() {
+        contadorDeAlteracoes = new ContadorDeAlteracoes();
+        interceptor = new RespostaVersionadaInterceptor();
+        ReflectionTestUtils.setField(interceptor, "contadorDeAlteracoes", contadorDeAlteracoes);
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 sem chamar o controller quando o If-None-Match trouxer o ETag atual")
+    void deveResponderNaoModificadoQuandoOEtagForIgual() throws Exception {
+        // Arrange
+        String etag = executar(null).getHeader("ETag");
+
+        // Act
+        MockHttpServletResponse igual = executar(etag);
+        MockHttpServletResponse emUmaLista = executar("W/\"outro\", " + etag);
+        MockHttpServletResponse semOPrefixoFraco = executar(etag.substring(2));
+
+        // Assert
+        assertTrue(etag.startsWith("W/\""));
+        assertEquals(304, igual.getStatus());
+        assertEquals(etag, igual.getHeader("ETag"));
+        assertEquals(304, emUmaLista.getStatus());
+        assertEquals(304, semOPrefixoFraco.getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve mudar o ETag quando alguma das tabelas da resposta for alterada")
+    void deveMudarOEtagQuandoATabelaForAlterada() throws Exception {
+        // Arrange
+        String etag = executar(null).getHeader("ETag");
+        contadorDeAlteracoes.registrarAlteracao(TabelaMonitorada.RECEITAS);
+        String etagAposAlterarOutraTabela = executar(null).getHeader("ETag");
+
+        // Act
+        contadorDeAlteracoes.registrarAlteracao(TabelaMonitorada.INSUMOS);
+        MockHttpServletResponse resposta = executar(etag);
+
+        // Assert
+        assertEquals(etag, etagAposAlterarOutraTabela);
+        assertEquals(200, resposta.getStatus());
+        assertNotEquals(etag, resposta.getHeader("ETag"));
+        assertEquals("no-cache", resposta.getHeader("Cache-Control"));
+    }
+
+    @Test
+    @DisplayName("Deve gerar ETags diferentes para parâmetros diferentes e ignorar endpoints sem a anotação")
+    void deveDiferenciarParametrosEIgnorarEndpointsSemAnotacao() throws Exception {
+        // Arrange
+        MockHttpServletRequest outraPagina = new MockHttpServletRequest("GET", "/insumo/lista");
+        outraPagina.setQueryString("paginaAtual=1");
+        MockHttpServletResponse respostaDaOutraPagina = new MockHttpServletResponse();
+        MockHttpServletResponse respostaSemAnotacao = new MockHttpServletResponse();
+
+        // Act
+        interceptor.preHandle(outraPagina, respostaDaOutraPagina, criarHandler("listar"));
+        boolean continua = interceptor.preHandle(new MockHttpServletRequest("GET", "/insumo/cadastrar"),
+                respostaSemAnotacao, criarHandler("cadastrar"));
+
+        // Assert
+        assertNotEquals(executar(null).getHeader("ETag"), respostaDaOutraPagina.getHeader("ETag"));
+        assertTrue(continua);
+        assertNull(respostaSemAnotacao.getHeader("ETag"));
+    }
+
+    private MockHttpServletResponse executar(String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/insumo/lista");
+        request.setQueryString("paginaAtual=0");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean continua = interceptor.preHandle(request, response, criarHandler("listar"));
+        assertEquals(response.getStatus() != 304, continua);
+        return response;
+    }
+
+    private HandlerMethod criarHandler(String metodo) throws NoSuchMethodException {
+        return new HandlerMethod(new ControllerDeTeste(), ControllerDeTeste.class.getMethod(metodo));
+    }
+
+    public static class ControllerDeTeste {
+
+        @RespostaVersionada(TabelaMonitorada.INSUMOS)
+        public void listar() {
+        }
+
+        public void cadastrar() {
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.spea.api.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerieDePrecosTest {
+
+    private static final Instant JANEIRO = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant MARCO = Instant.parse("2025-03-01T00:00:00Z");
+    private static final Instant JUNHO = Instant.parse("2025-06-01T00:00:00Z");
+
+    private final SerieDePrecos serie = new SerieDePrecos(
+            new long[]{
+                    SerieDePrecos.converterParaMicrossegundos(JANEIRO),
+                    SerieDePrecos.converterParaMicrossegundos(MARCO),
+                    SerieDePrecos.converterParaMicrossegundos(MARCO),
+                    SerieDePrecos.converterParaMicrossegundos(JUNHO)},
+            new long[]{100000, 100000, 50000, 50000},
+            new long[]{500, 600, 350, 400});
+
+    @Test
+    @DisplayName("Deve localizar o último preço que passou a valer até o instante")
+    void deveLocalizarPrecoVigente() {
+        // Act & Assert
+        assertEquals(0, serie.localizarPrecoVigente(JANEIRO));
+        assertEquals(0, serie.localizarPrecoVigente(MARCO.minusNanos(1_000)));
+        assertEquals(3, serie.localizarPrecoVigente(JUNHO.plusSeconds(1)));
+        assertEquals(new BigDecimal("4.00"), serie.obterValorPagoPorPacote(3));
+    }
+
+    @Test
+    @DisplayName("Deve usar o último preço incluído quando dois passaram a valer no mesmo instante")
+    void deveUsarUltimoPrecoDoMesmoInstante() {
+        // Act
+        int posicao = serie.localizarPrecoVigente(MARCO);
+
+        // Assert
+        assertEquals(2, posicao);
+        assertEquals(500.0, serie.obterQuantidadePorPacote(posicao));
+        assertEquals(new BigDecimal("3.50"), serie.obterValorPagoPorPacote(posicao));
+        assertEquals(MARCO, serie.obterVigenteDesde(posicao));
+    }
+
+    @Test
+    @DisplayName("Deve indicar que não havia preço antes do primeiro registro")
+    void deveIndicarAusenciaDePrecoAntesDoPrimeiroRegistro() {
+        // Act & Assert
+        assertEquals(-1, serie.localizarPrecoVigente(JANEIRO.minusSeconds(1)));
+        assertEquals(-1, new SerieDePrecos(new long[0], new long[0], new long[0]).localizarPrecoVigente(JUNHO));
+    }
+}
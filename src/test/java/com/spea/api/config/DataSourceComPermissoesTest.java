@@ -0,0 +1,114 @@
+package com.spea.api.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DataSourceComPermissoesTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection conexao;
+
+    private DataSourceComPermissoes dataSourceComPermissoes;
+
+    @BeforeEach
+    void setUp() {
+        dataSourceComPermissoes = new DataSourceComPermissoes(dataSource, 2, 50L);
+    }
+
+    @Test
+    @DisplayName("Deve devolver a permissão uma única vez quando a conexão é fechada")
+    void deveDevolverPermissaoUmaVezAoFecharConexao() throws SQLException {
+        // Arrange
+        when(dataSource.getConnection()).thenReturn(conexao);
+
+        // Act
+        Connection conexaoObtida = dataSourceComPermissoes.getConnection();
+        Integer disponiveisComConexaoAberta = dataSourceComPermissoes.obterPermissoesDisponiveis();
+        conexaoObtida.close();
+        conexaoObtida.close();
+
+        // Assert
+        assertEquals(1, disponiveisComConexaoAberta);
+        assertEquals(2, dataSourceComPermissoes.obterPermissoesDisponiveis());
+        verify(conexao, times(1)).close();
+    }
+
+    @Test
+    @DisplayName("Deve repassar as demais chamadas para a conexão original")
+    void deveRepassarChamadasParaConexaoOriginal() throws SQLException {
+        // Arrange
+        when(dataSource.getConnection()).thenReturn(conexao);
+        when(conexao.getAutoCommit()).thenReturn(true);
+        doThrow(new SQLException("Falha no commit")).when(conexao).commit();
+
+        // Act
+        Connection conexaoObtida = dataSourceComPermissoes.getConnection();
+
+        // Assert
+        assertTrue(conexaoObtida.getAutoCommit());
+        assertEquals("Falha no commit", assertThrows(SQLException.class, conexaoObtida::commit).getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve comparar as conexões pela identidade do proxy e expor a conexão original")
+    void deveCompararConexoesPelaIdentidadeDoProxy() throws SQLException {
+        // Arrange
+        when(dataSource.getConnection()).thenReturn(conexao);
+
+        // Act
+        Connection conexaoObtida = dataSourceComPermissoes.getConnection();
+        Connection outraConexao = dataSourceComPermissoes.getConnection();
+
+        // Assert
+        assertEquals(conexaoObtida, conexaoObtida);
+        assertNotEquals(conexaoObtida, outraConexao);
+        assertNotEquals(conexaoObtida, conexao);
+        assertEquals(System.identityHashCode(conexaoObtida), conexaoObtida.hashCode());
+        assertSame(conexao, ((ConnectionProxy) conexaoObtida).getTargetConnection());
+        assertSame(conexao, DataSourceUtils.getTargetConnection(conexaoObtida));
+    }
+
+    @Test
+    @DisplayName("Deve falhar após o tempo máximo de espera quando todas as permissões estão em uso")
+    void deveFalharQuandoPermissoesEsgotadas() throws SQLException {
+        // Arrange
+        when(dataSource.getConnection()).thenReturn(conexao);
+        dataSourceComPermissoes.getConnection();
+        dataSourceComPermissoes.getConnection();
+
+        // Act & Assert
+        SQLTransientConnectionException excecao = assertThrows(SQLTransientConnectionException.class,
+                () -> dataSourceComPermissoes.getConnection());
+        assertEquals("Nenhuma conexão com o banco foi liberada em 50 ms.", excecao.getMessage());
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Deve devolver a permissão quando o pool não consegue abrir a conexão")
+    void deveDevolverPermissaoQuandoPoolFalhar() throws SQLException {
+        // Arrange
+        when(dataSource.getConnection()).thenThrow(new SQLException("Banco indisponível"));
+
+        // Act & Assert
+        assertThrows(SQLException.class, () -> dataSourceComPermissoes.getConnection());
+        assertEquals(2, dataSourceComPermissoes.obterPermissoesDisponiveis());
+    }
+}
@@ -0,0 +1,92 @@
+package com.spea.api.config;
+
+import com.spea.api.SpeaApiApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sobe a aplicação duas vezes sobre o mesmo arquivo, como um reinício em produção.
+class PerfilPersistenteIntegrationTest {
+
+    @TempDir
+    private Path diretorio;
+
+    @Test
+    @DisplayName("Deve manter os dados entre reinícios sem reaplicar as migrações já executadas")
+    void deveManterOsDadosEntreReinicios() {
+        // Arrange
+        try (ConfigurableApplicationContext contexto = iniciar()) {
+            JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) " +
+                    "VALUES ('Açúcar persistido', 1000, 4.50)");
+        }
+
+        // Act
+        try (ConfigurableApplicationContext contexto = iniciar()) {
+            JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+            contexto.getBean(CompactacaoDoBancoH2.class).compactar();
+
+            // Assert
+            assertEquals("acucar persistido", jdbcTemplate.queryForObject(
+                    "SELECT nome_busca FROM tb_insumos WHERE nome = 'Açúcar persistido'", String.class));
+            assertEquals(6, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL AND \"success\"", Integer.class));
+            assertEquals(65536, jdbcTemplate.queryForObject(
+                    "SELECT CAST(SETTING_VALUE AS INT) FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'CACHE_SIZE'",
+                    Integer.class));
+        }
+        assertTrue(Files.exists(diretorio.resolve("spea-db.mv.db")));
+    }
+
+    @Test
+    @DisplayName("Deve adotar um arquivo criado antes das migrações e aplicar só as versões seguintes")
+    void deveAdotarArquivoCriadoAntesDasMigracoes() throws Exception {
+        // Arrange
+        String url = "jdbc:h2:file:" + diretorio.resolve("spea-db").toAbsolutePath();
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Reader esquemaInicial = new InputStreamReader(new ClassPathResource("db/migration/V1__esquema_inicial.sql")
+                     .getInputStream(), StandardCharsets.UTF_8)) {
+            RunScript.execute(conn, esquemaInicial);
+            conn.createStatement().executeUpdate("INSERT INTO tb_receitas (nome) VALUES ('Receita antiga')");
+        }
+
+        // Act
+        try (ConfigurableApplicationContext contexto = iniciar()) {
+            JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+
+            // Assert
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_receitas", Integer.class));
+            assertEquals(List.of("1", "2", "3", "4", "5", "6"), jdbcTemplate.queryForList(
+                    "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL " +
+                            "ORDER BY \"installed_rank\"", String.class));
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES " +
+                    "WHERE INDEX_NAME = 'IDX_RECEITA_INSUMO_RECEITA'", Integer.class));
+        }
+    }
+
+    private ConfigurableApplicationContext iniciar() {
+        return new SpringApplicationBuilder(SpeaApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("persistente")
+                .logStartupInfo(false)
+                .run("--spea.h2.arquivo=" + diretorio.resolve("spea-db").toAbsolutePath(),
+                        "--logging.level.com.spea.api=WARN");
+    }
+}
@@ -0,0 +1,68 @@
+package com.spea.api.config;
+
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.services.InsumoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Banco próprio: este contexto é diferente dos demais e não deve ver nem deixar dados no banco compartilhado.
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:spea-threads-virtuais",
+        "spea.datasource.permissoes=4"
+})
+class ThreadsVirtuaisIntegrationTest {
+
+    private static final int QUANTIDADE_DE_REQUISICOES = 500;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Test
+    @DisplayName("Deve atender muitas chamadas em threads virtuais sem passar do limite de conexões")
+    void deveAtenderChamadasEmThreadsVirtuaisDentroDoLimiteDeConexoes() throws Exception {
+        // Arrange
+        DataSourceComPermissoes dataSourceComPermissoes = assertInstanceOf(DataSourceComPermissoes.class, dataSource);
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setNome("Insumo virtual");
+        insumoDto.setQuantidadePorPacote(100.0);
+        insumoDto.setValorPagoPorPacote(BigDecimal.TEN);
+        insumoService.cadastrarInsumo(insumoDto);
+
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < QUANTIDADE_DE_REQUISICOES; i++) {
+                tarefas.add(executor.submit(() -> {
+                    int disponiveis = dataSourceComPermissoes.obterPermissoesDisponiveis();
+                    assertTrue(disponiveis >= 0 && disponiveis <= 4);
+                    return insumoService.obterListaFiltradaEPaginadaDeInsumos("Insumo virtual", 1, "asc", "nome");
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        // Assert
+        assertEquals(4, dataSourceComPermissoes.obterPermissoesDisponiveis());
+        assertEquals(0, dataSourceComPermissoes.obterQuantidadeAguardandoPermissao());
+    }
+}
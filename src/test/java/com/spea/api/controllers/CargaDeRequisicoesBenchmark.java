@@ -0,0 +1,103 @@
+package com.spea.api.controllers;
+
+import com.spea.api.SpeaApiApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teste de carga do modelo de threads: cada operação dispara clientesSimultaneos requisições HTTP ao mesmo tempo
+ * contra a aplicação rodando no Tomcat e espera todas responderem. threadsVirtuais=false é o pool padrão de threads
+ * de plataforma do Tomcat; true liga spring.threads.virtual.enabled e o limite de conexões do DataSource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CargaDeRequisicoesBenchmark {
+
+    @Param({"false", "true"})
+    private boolean threadsVirtuais;
+
+    @Param({"100", "1000"})
+    private int clientesSimultaneos;
+
+    private ConfigurableApplicationContext contexto;
+    private ExecutorService clientes;
+    private HttpClient httpClient;
+    private List<URI> enderecos;
+    private int proximoEndereco;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(SpeaApiApplication.class)
+                .logStartupInfo(false)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + threadsVirtuais,
+                        "--spring.datasource.url=jdbc:h2:mem:carga-" + UUID.randomUUID(),
+                        "--logging.level.com.spea.api=WARN");
+
+        List<Object[]> insumos = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            insumos.add(new Object[]{"Insumo " + i, 100 + i % 900, 1 + (i % 5000) / 100.0});
+        }
+        contexto.getBean(JdbcTemplate.class).batchUpdate(
+                "INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, ?, ?)", insumos);
+
+        String porta = contexto.getEnvironment().getProperty("local.server.port");
+        enderecos = new ArrayList<>();
+        for (int pagina = 0; pagina < 50; pagina++) {
+            enderecos.add(URI.create("http://localhost:" + porta + "/insumo/lista?nomeInsumo=Insumo%201&paginaAtual=" + pagina));
+        }
+
+        // Os clientes rodam em threads virtuais nos dois cenários, para que só o servidor mude entre eles.
+        clientes = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientes)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        httpClient.close();
+        clientes.close();
+        contexto.close();
+    }
+
+    @Benchmark
+    public int atenderRequisicoesSimultaneas() {
+        List<CompletableFuture<HttpResponse<Void>>> respostas = new ArrayList<>(clientesSimultaneos);
+        for (int i = 0; i < clientesSimultaneos; i++) {
+            proximoEndereco = (proximoEndereco + 1) % enderecos.size();
+            HttpRequest requisicao = HttpRequest.newBuilder(enderecos.get(proximoEndereco)).GET().build();
+            respostas.add(httpClient.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding()));
+        }
+
+        int comSucesso = 0;
+        for (CompletableFuture<HttpResponse<Void>> resposta : respostas) {
+            if (resposta.join().statusCode() == 200) {
+                comSucesso++;
+            }
+        }
+        if (comSucesso != clientesSimultaneos) {
+            throw new IllegalStateException((clientesSimultaneos - comSucesso) + " requisições falharam");
+        }
+        return comSucesso;
+    }
+}
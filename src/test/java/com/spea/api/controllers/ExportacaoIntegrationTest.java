@@ -0,0 +1,133 @@
+package com.spea.api.controllers;
+
+import com.spea.api.metricas.ContadorDeSql;
+import com.spea.api.services.ExportacaoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Banco próprio: este contexto é diferente dos demais e não deve ver nem deixar dados no banco compartilhado.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:spea-exportacao",
+                "spea.exportacao.tamanho-do-lote-de-leitura=100"
+        })
+class ExportacaoIntegrationTest {
+
+    private static final int QUANTIDADE_DE_INSUMOS = 3000;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_insumos", Integer.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) " +
+                "SELECT 'Exportado ' || X, 1000, 5.00 FROM SYSTEM_RANGE(1, " + QUANTIDADE_DE_INSUMOS + ")");
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Bolo, de \"fubá\"', 0.50)");
+        jdbcTemplate.update("INSERT INTO tb_receita_insumo (receita_id, insumo_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                "SELECT r.id, i.id, 100, 0.50 FROM tb_receitas r, tb_insumos i WHERE i.nome = 'Exportado 7'");
+    }
+
+    @Test
+    @DisplayName("Deve exportar todos os insumos em NDJSON, um por linha, na ordem do id")
+    void deveExportarTodosOsInsumosEmNdjson() throws Exception {
+        // Act
+        HttpResponse<InputStream> resposta = obter("/insumo/exportar", "application/x-ndjson");
+        List<String> linhas = lerLinhas(resposta);
+
+        // Assert
+        assertEquals(200, resposta.statusCode());
+        assertEquals("application/x-ndjson;charset=UTF-8", resposta.headers().firstValue("Content-Type").orElseThrow());
+        assertTrue(resposta.headers().firstValue("Content-Disposition").orElseThrow().contains("insumos.ndjson"));
+        assertEquals(QUANTIDADE_DE_INSUMOS, linhas.size());
+        assertTrue(linhas.get(0).contains("\"nome\":\"Exportado 1\""));
+        assertTrue(linhas.get(QUANTIDADE_DE_INSUMOS - 1).contains("\"nome\":\"Exportado " + QUANTIDADE_DE_INSUMOS + "\""));
+    }
+
+    @Test
+    @DisplayName("Deve enviar o primeiro insumo depois de ler só o primeiro lote da tabela")
+    void deveEnviarOPrimeiroInsumoAntesDeLerATabelaInteira() {
+        // Arrange
+        int[] consultasNoPrimeiroEnvio = new int[1];
+        ByteArrayOutputStream saida = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                if (consultasNoPrimeiroEnvio[0] == 0 && size() > 0) {
+                    consultasNoPrimeiroEnvio[0] = ContadorDeSql.obterQuantidade();
+                }
+            }
+        };
+
+        // Act
+        Long total;
+        int consultas;
+        ContadorDeSql.iniciarContagem();
+        try {
+            total = exportacaoService.exportarInsumos(MediaType.parseMediaType("application/x-ndjson"), saida);
+        } finally {
+            consultas = ContadorDeSql.encerrarContagem();
+        }
+
+        // Assert
+        assertEquals(QUANTIDADE_DE_INSUMOS, total);
+        assertEquals(1, consultasNoPrimeiroEnvio[0]);
+        assertEquals(QUANTIDADE_DE_INSUMOS / 100 + 1, consultas);
+    }
+
+    @Test
+    @DisplayName("Deve exportar receitas e associações em CSV quando o Accept pedir text/csv")
+    void deveExportarReceitasEAssociacoesEmCsv() throws Exception {
+        // Act
+        List<String> receitas = lerLinhas(obter("/receita/exportar", "text/csv"));
+        List<String> associacoes = lerLinhas(obter("/receita-insumo/exportar", "text/csv"));
+        HttpResponse<InputStream> recusada = obter("/receita/exportar", "application/json");
+
+        // Assert
+        assertEquals(List.of("id,nome,totalGastoInsumos", "1,\"Bolo, de \"\"fubá\"\"\",0.50"), receitas);
+        assertEquals("receitaId,insumoId,insumoNome,quantidadeUtilizadaInsumo,valorGastoInsumo", associacoes.get(0));
+        assertEquals("1,7,Exportado 7,100.00,0.50", associacoes.get(1));
+        assertEquals(406, recusada.statusCode());
+    }
+
+    private HttpResponse<InputStream> obter(String caminho, String formato) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+                .header("Accept", formato)
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private List<String> lerLinhas(HttpResponse<InputStream> resposta) throws Exception {
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(resposta.body(), StandardCharsets.UTF_8))) {
+            return leitor.lines().toList();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.spea.api.controllers;
+
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.services.InsumoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Banco próprio: este contexto é diferente dos demais e não deve ver nem deixar dados no banco compartilhado.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:spea-resposta-versionada")
+class RespostaVersionadaIntegrationTest {
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 20; i++) {
+            cadastrarInsumo("Insumo versionado " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 sem consultar o banco e 200 com novo ETag depois de uma escrita")
+    void deveResponderNaoModificadoAteAProximaEscrita() throws Exception {
+        // Arrange
+        HttpResponse<byte[]> primeira = obter("/insumo/lista?nomeInsumo=versionado", null);
+        String etag = primeira.headers().firstValue("ETag").orElseThrow();
+        double consultasAntes = obterQuantidadeDeConsultasDaListagem();
+
+        // Act
+        HttpResponse<byte[]> naoModificada = obter("/insumo/lista?nomeInsumo=versionado", etag);
+        double consultasDepois = obterQuantidadeDeConsultasDaListagem();
+
+        cadastrarInsumo("Insumo versionado novo");
+        HttpResponse<byte[]> aposEscrita = obter("/insumo/lista?nomeInsumo=versionado", etag);
+
+        // Assert
+        assertEquals(200, primeira.statusCode());
+        assertEquals(304, naoModificada.statusCode());
+        assertEquals(0, naoModificada.body().length);
+        assertEquals(consultasAntes, consultasDepois);
+
+        assertEquals(200, aposEscrita.statusCode());
+        assertNotEquals(etag, aposEscrita.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Deve comprimir a listagem com gzip mantendo o ETag e o 304")
+    void deveComprimirEAceitarOEtagFraco() throws Exception {
+        // Arrange
+        HttpRequest comGzip = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/receita-insumo/lista-insumos-associados/receita/1"))
+                .header("Accept-Encoding", "gzip")
+                .build();
+        HttpResponse<byte[]> listaDeInsumos = httpClient.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + porta + "/insumo/lista?nomeInsumo=versionado"))
+                .header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        // Act
+        String etag = listaDeInsumos.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<byte[]> naoModificada = httpClient.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + porta + "/insumo/lista?nomeInsumo=versionado"))
+                .header("Accept-Encoding", "gzip").header("If-None-Match", etag).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> associacoes = httpClient.send(comGzip, HttpResponse.BodyHandlers.ofByteArray());
+
+        // Assert
+        assertEquals("gzip", listaDeInsumos.headers().firstValue("Content-Encoding").orElseThrow());
+        assertTrue(etag.startsWith("W/"));
+        assertEquals(304, naoModificada.statusCode());
+        assertTrue(associacoes.headers().firstValue("ETag").isPresent());
+    }
+
+    private HttpResponse<byte[]> obter(String caminho, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private double obterQuantidadeDeConsultasDaListagem() {
+        Timer timer = meterRegistry.find("spea.repositorio.tempo")
+                .tag("metodo", "obterListaFiltradaEPaginadaDeInsumos")
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private void cadastrarInsumo(String nome) {
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setNome(nome);
+        insumoDto.setQuantidadePorPacote(1000.0);
+        insumoDto.setValorPagoPorPacote(new BigDecimal("12.50"));
+        insumoService.cadastrarInsumo(insumoDto);
+    }
+}
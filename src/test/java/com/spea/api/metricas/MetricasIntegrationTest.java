@@ -0,0 +1,175 @@
+package com.spea.api.metricas;
+
+import com.spea.api.config.MetricasConfig;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.services.InsumoService;
+import com.spea.api.services.ModoPropagacaoDeCustos;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MetricasIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Autowired
+    private SqlPorRequisicaoFilter sqlPorRequisicaoFilter;
+
+    @AfterEach
+    void tearDown() {
+        definirModoPropagacaoDeCustos(ModoPropagacaoDeCustos.CONJUNTO);
+    }
+
+    @Test
+    @DisplayName("Deve medir o tempo e as linhas devolvidas por método de repositório")
+    void deveMedirTempoELinhasPorMetodoDeRepositorio() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, 100, 2.00)",
+                    "Insumo medido " + i);
+        }
+
+        // Act
+        insumoService.obterListaFiltradaEPaginadaDeInsumos("Insumo medido", 1, "asc", "nome");
+
+        // Assert
+        Timer tempo = meterRegistry.find(MetricasDosRepositorios.METRICA_TEMPO)
+                .tags("classe", "InsumoRepository", "metodo", "obterListaFiltradaEPaginadaDeInsumos", "excecao", "nenhuma")
+                .timer();
+        DistributionSummary linhas = meterRegistry.find(MetricasDosRepositorios.METRICA_LINHAS)
+                .tags("classe", "InsumoRepository", "metodo", "obterListaFiltradaEPaginadaDeInsumos")
+                .summary();
+
+        assertNotNull(tempo);
+        assertTrue(tempo.count() >= 1);
+        assertNotNull(linhas);
+        assertEquals(3.0, linhas.max());
+        assertNotNull(meterRegistry.find(MetricasDosRepositorios.METRICA_TEMPO)
+                .tags("metodo", "obterTotalDeInsumosFiltradosQuery").timer());
+    }
+
+    @Test
+    @DisplayName("Deve manter constante o número de instruções SQL da atualização do insumo em conjunto")
+    void deveManterConstanteONumeroDeSqlDaAtualizacaoEmConjunto() {
+        // Arrange
+        Long insumoComPoucasReceitas = criarInsumoUsadoPorReceitas(2);
+        Long insumoComMuitasReceitas = criarInsumoUsadoPorReceitas(20);
+
+        // Act
+        int sqlComPoucasReceitas = contarSqlDaAtualizacao(insumoComPoucasReceitas);
+        int sqlComMuitasReceitas = contarSqlDaAtualizacao(insumoComMuitasReceitas);
+
+        definirModoPropagacaoDeCustos(ModoPropagacaoDeCustos.INDIVIDUAL);
+        int sqlIndividualComMuitasReceitas = contarSqlDaAtualizacao(criarInsumoUsadoPorReceitas(20));
+
+        // Assert
+        assertTrue(sqlComPoucasReceitas > 0);
+        assertEquals(sqlComPoucasReceitas, sqlComMuitasReceitas);
+        // No modo individual cada associação vira uma instrução, que é o N+1 que a métrica deve revelar.
+        assertTrue(sqlIndividualComMuitasReceitas >= 20, "instruções: " + sqlIndividualComMuitasReceitas);
+    }
+
+    @Test
+    @DisplayName("Deve registrar as instruções SQL da requisição pela rota do controller")
+    void deveRegistrarSqlDaRequisicaoPelaRota() throws Exception {
+        // Arrange
+        Long insumoId = criarInsumoUsadoPorReceitas(0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/insumo/" + insumoId);
+
+        // Act
+        sqlPorRequisicaoFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/insumo/{id}");
+            insumoService.obterListaFiltradaEPaginadaDeInsumos("Insumo da requisição", 1, "asc", "nome");
+        });
+
+        // Assert
+        DistributionSummary sqlPorRequisicao = meterRegistry.find(SqlPorRequisicaoFilter.METRICA_SQL_POR_REQUISICAO)
+                .tags("metodo", "GET", "rota", "/insumo/{id}")
+                .summary();
+
+        assertNotNull(sqlPorRequisicao);
+        assertEquals(2.0, sqlPorRequisicao.max());
+        assertEquals(0, ContadorDeSql.obterQuantidade());
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar a consulta preparada ao repetir a listagem em outra página")
+    void deveReaproveitarConsultaPreparadaAoRepetirListagem() {
+        // Arrange
+        insumoService.obterListaFiltradaEPaginadaDeInsumosSemTotal(null, 0, "desc", "valorPagoPorPacote");
+        double acertosAntes = contarCacheDeConsultas("acerto");
+        double falhasAntes = contarCacheDeConsultas("falha");
+
+        // Act
+        for (int pagina = 0; pagina < 5; pagina++) {
+            insumoService.obterListaFiltradaEPaginadaDeInsumosSemTotal(null, pagina, "desc", "valorPagoPorPacote");
+        }
+
+        // Assert
+        assertEquals(falhasAntes, contarCacheDeConsultas("falha"));
+        assertTrue(contarCacheDeConsultas("acerto") >= acertosAntes + 5);
+    }
+
+    private double contarCacheDeConsultas(String resultado) {
+        return meterRegistry.get(MetricasConfig.METRICA_CACHE_DE_CONSULTAS).tag("resultado", resultado)
+                .functionCounter().count();
+    }
+
+    private void definirModoPropagacaoDeCustos(ModoPropagacaoDeCustos modo) {
+        InsumoService alvo = AopTestUtils.getTargetObject(insumoService);
+        ReflectionTestUtils.setField(alvo, "modoPropagacaoDeCustos", modo);
+    }
+
+    private int contarSqlDaAtualizacao(Long insumoId) {
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setNome("Insumo reajustado " + insumoId);
+        insumoDto.setQuantidadePorPacote(100.0);
+        insumoDto.setValorPagoPorPacote(new BigDecimal("3.00"));
+
+        ContadorDeSql.iniciarContagem();
+        try {
+            insumoService.atualizarInsumo(insumoId, insumoDto);
+            return ContadorDeSql.obterQuantidade();
+        } finally {
+            ContadorDeSql.encerrarContagem();
+        }
+    }
+
+    private Long criarInsumoUsadoPorReceitas(int quantidadeDeReceitas) {
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES ('Insumo da requisição', 100, 2.00)");
+        Long insumoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+
+        for (int i = 0; i < quantidadeDeReceitas; i++) {
+            jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES (?, 2.00)", "Receita medida " + i);
+            Long receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+            jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                    "VALUES (?, ?, 100.00, 2.00)", insumoId, receitaId);
+        }
+        return insumoId;
+    }
+}
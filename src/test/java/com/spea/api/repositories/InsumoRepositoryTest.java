@@ -1,7 +1,13 @@
 package com.spea.api.repositories;
 
+import com.spea.api.cache.CacheDeHistoricoDePrecos;
+import com.spea.api.cache.CacheDeInsumos;
+import com.spea.api.cache.CacheDeTotais;
+import com.spea.api.cache.ContadorDeAlteracoes;
+import com.spea.api.dtos.GlobalPageDto;
 import com.spea.api.dtos.InsumoDto;
 import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.existencia.FiltrosDeExistencia;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.junit.jupiter.api.DisplayName;
@@ -15,11 +21,13 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static com.spea.api.cache.TabelaMonitorada.INSUMOS;
+import static com.spea.api.cache.TabelaMonitorada.RECEITA_INSUMO;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class InsumoRepositoryTest {
@@ -33,6 +41,21 @@ class InsumoRepositoryTest {
     @Mock
     private Query query;
 
+    @Mock
+    private CacheDeTotais cacheDeTotais;
+
+    @Mock
+    private CacheDeInsumos cacheDeInsumos;
+
+    @Mock
+    private CacheDeHistoricoDePrecos cacheDeHistoricoDePrecos;
+
+    @Mock
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @Mock
+    private FiltrosDeExistencia filtrosDeExistencia;
+
     // Método cadastrarInsumo
     @Test
     @DisplayName("Deve cadastrar um insumo com sucesso.")
@@ -93,7 +116,7 @@ class InsumoRepositoryTest {
     @DisplayName("Deve retornar true quando insumo existir pelo ID.")
     void deveRetornarTrueQuandoInsumoExistirPeloId() {
         Long id = 1L;
-        List<?> listaMock = Collections.singletonList(new Object[]{1});
+        List<?> listaMock = Collections.singletonList(new Object[]{1L, "Farinha de Trigo", 1000.00, new BigDecimal("5.90")});
 
         // Configuração do mock
         when(em.createNativeQuery(anyString())).thenReturn(query);
@@ -108,6 +131,32 @@ class InsumoRepositoryTest {
         verify(em).createNativeQuery(anyString());
         verify(query).setParameter("id", id);
         verify(query).getResultList();
+        verify(cacheDeInsumos).armazenarInsumo(argThat(insumo -> id.equals(insumo.getId())), any());
+    }
+
+    @Test
+    @DisplayName("Deve responder pela existência do insumo a partir do cache sem consultar o banco.")
+    void deveResponderExistenciaDoInsumoPeloCache() {
+        Long id = 1L;
+        InsumoDto insumoEmCache = new InsumoDto();
+        insumoEmCache.setId(id);
+
+        when(cacheDeInsumos.obterInsumo(id)).thenReturn(Optional.of(insumoEmCache));
+
+        assertTrue(insumoRepository.verificarExistenciaDoInsumoPeloId(id));
+        assertSame(insumoEmCache, insumoRepository.obterInsumoPeloId(id));
+        verifyNoInteractions(em);
+    }
+
+    @Test
+    @DisplayName("Deve recusar o insumo que o filtro de existência não contém sem consultar o banco.")
+    void deveRecusarInsumoForaDoFiltroDeExistenciaSemConsultarOBanco() {
+        Long id = 999L;
+
+        when(filtrosDeExistencia.insumoCertamenteNaoExiste(id)).thenReturn(true);
+
+        assertFalse(insumoRepository.verificarExistenciaDoInsumoPeloId(id));
+        verifyNoInteractions(em);
     }
 
     @Test
@@ -129,6 +178,7 @@ class InsumoRepositoryTest {
         verify(em).createNativeQuery(anyString());
         verify(query).setParameter("id", id);
         verify(query).getResultList();
+        verify(filtrosDeExistencia).registrarConsultaAoBanco(INSUMOS, false);
     }
 
     @Test
@@ -186,6 +236,7 @@ class InsumoRepositoryTest {
         verify(query).setParameter("valorPagoPorPacote", dto.getValorPagoPorPacote());
         verify(query).setParameter("id", id);
         verify(query).executeUpdate();
+        verify(cacheDeInsumos).invalidarInsumo(id);
     }
 
     @Test
@@ -231,6 +282,7 @@ class InsumoRepositoryTest {
         verify(em).createNativeQuery(sqlEsperada);
         verify(query).setParameter("id", id);
         verify(query).executeUpdate();
+        verify(cacheDeInsumos).invalidarInsumo(id);
     }
 
     @Test
@@ -349,4 +401,78 @@ class InsumoRepositoryTest {
         verify(query).setParameter("id", id);
         verify(query).getResultList();
     }
+
+    @Test
+    @DisplayName("Deve registrar a alteração dos insumos e das associações ao deletar um insumo")
+    void deveRegistrarAlteracaoAoDeletarInsumo() {
+        // Arrange
+        when(em.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter("id", 1L)).thenReturn(query);
+
+        // Act
+        insumoRepository.deletarInsumo(1L);
+
+        // Assert
+        verify(contadorDeAlteracoes).registrarAlteracao(INSUMOS, RECEITA_INSUMO);
+    }
+
+    // Método obterTotalDeInsumosFiltradosQuery
+    @Test
+    @DisplayName("Deve retornar o total em cache sem executar o COUNT")
+    void deveRetornarTotalEmCacheSemConsultarOBanco() {
+        // Arrange
+        when(cacheDeTotais.obterTotal(INSUMOS, "farinha")).thenReturn(Optional.of(42L));
+
+        // Act
+        Long total = insumoRepository.obterTotalDeInsumosFiltradosQuery("farinha");
+
+        // Assert
+        assertEquals(42L, total);
+        verify(em, never()).createNativeQuery(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve armazenar o total consultado com a versão lida antes do COUNT")
+    void deveArmazenarTotalConsultadoComAVersaoLidaAntesDaConsulta() {
+        // Arrange
+        when(cacheDeTotais.obterVersao(INSUMOS)).thenReturn(7L);
+        when(em.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.getSingleResult()).thenReturn(15L);
+
+        // Act
+        Long total = insumoRepository.obterTotalDeInsumosFiltradosQuery("farinha");
+
+        // Assert
+        assertEquals(15L, total);
+        verify(cacheDeTotais).armazenarTotal(INSUMOS, "farinha", 7L, 15L);
+    }
+
+    // Método obterListaFiltradaEPaginadaDeInsumosSemTotal
+    @Test
+    @DisplayName("Deve buscar um item a mais para indicar a próxima página sem contar o total")
+    void deveIndicarProximaPaginaSemContarOTotal() {
+        // Arrange
+        List<Object[]> resultados = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            resultados.add(new Object[]{i, "Insumo " + i, 100.0, new BigDecimal("5.00")});
+        }
+
+        when(em.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter("limit", 3)).thenReturn(query);
+        when(query.setParameter("offset", 2)).thenReturn(query);
+        when(query.getResultList()).thenReturn(resultados);
+
+        // Act
+        GlobalPageDto<InsumoDto> pagina = insumoRepository
+                .obterListaFiltradaEPaginadaDeInsumosSemTotal(null, 1, 2, "asc", "nome");
+
+        // Assert
+        assertEquals(2, pagina.getItens().size());
+        assertTrue(pagina.getTemProxima());
+        assertTrue(pagina.getTemAnterior());
+        assertNull(pagina.getTotalDeItens());
+        assertNull(pagina.getTotalDePaginas());
+        verify(em, times(1)).createNativeQuery(anyString());
+    }
 }
@@ -0,0 +1,98 @@
+package com.spea.api.repositories;
+
+import com.spea.api.SpeaApiApplication;
+import com.spea.api.dtos.GlobalPageDto;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ReceitaInsumoDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta e mapeamento das linhas para DTOs nos repositórios, contra um H2 em memória com o volume informado.
+ * itensPorPagina controla quantas linhas cada chamada mapeia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeamentoDeLinhasBenchmark {
+
+    @Param({"10000", "100000"})
+    private int quantidadeDeInsumos;
+
+    @Param({"10", "500"})
+    private int itensPorPagina;
+
+    private ConfigurableApplicationContext contexto;
+    private InsumoRepository insumoRepository;
+    private ReceitaInsumoRepository receitaInsumoRepository;
+    private Long receitaId;
+    private List<Long> idsDaPagina;
+    private int totalDePaginas;
+    private int pagina;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(SpeaApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                        "--logging.level.com.spea.api=WARN");
+
+        insumoRepository = contexto.getBean(InsumoRepository.class);
+        receitaInsumoRepository = contexto.getBean(ReceitaInsumoRepository.class);
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+
+        List<Object[]> insumos = new ArrayList<>();
+        for (int i = 0; i < quantidadeDeInsumos; i++) {
+            insumos.add(new Object[]{"Insumo " + i, 100 + i % 900, 1 + (i % 5000) / 100.0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, ?, ?)",
+                insumos);
+
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Receita grande', 0.00)");
+        receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+        jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                "SELECT id, ?, 10.00, 0.50 FROM tb_insumos", receitaId);
+
+        idsDaPagina = jdbcTemplate.queryForList("SELECT id FROM tb_insumos ORDER BY id LIMIT ?", Long.class, itensPorPagina);
+        totalDePaginas = quantidadeDeInsumos / itensPorPagina;
+    }
+
+    private int proximaPagina() {
+        pagina = (pagina + 7) % totalDePaginas;
+        return pagina;
+    }
+
+    @Benchmark
+    public GlobalPageDto<InsumoDto> listarInsumos() {
+        return insumoRepository.obterListaFiltradaEPaginadaDeInsumosSemTotal(null, proximaPagina(), itensPorPagina,
+                "asc", "nome");
+    }
+
+    @Benchmark
+    public GlobalPageDto<ReceitaInsumoDto> listarInsumosAssociadosAReceita() {
+        return receitaInsumoRepository.obterListaFiltradaEPaginadaDeInsumosAssociadosAReceitaSemTotal(receitaId, null,
+                proximaPagina(), itensPorPagina, "asc", "i.nome");
+    }
+
+    @Benchmark
+    public List<InsumoDto> obterInsumosPelosIds() {
+        return insumoRepository.obterListaDeInsumosPelosIds(idsDaPagina);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+}
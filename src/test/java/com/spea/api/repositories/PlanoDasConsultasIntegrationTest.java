@@ -0,0 +1,236 @@
+package com.spea.api.repositories;
+
+import com.spea.api.dtos.CursorDto;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ReceitaDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Executa as consultas dos repositórios com as estatísticas de consultas do H2 ligadas e pede o plano de cada
+ * instrução registrada, inclusive as dos triggers. Nenhuma delas pode varrer uma tabela inteira: quando uma consulta
+ * nova ou alterada não tiver índice, a mensagem mostra a instrução e o plano escolhido.
+ */
+@SpringBootTest
+@Transactional
+class PlanoDasConsultasIntegrationTest {
+
+    private static final int QUANTIDADE_DE_INSUMOS = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private ReceitaRepository receitaRepository;
+
+    @Autowired
+    private ReceitaInsumoRepository receitaInsumoRepository;
+
+    @Autowired
+    private ReceitaSubreceitaRepository receitaSubreceitaRepository;
+
+    @Autowired
+    private HistoricoDePrecosRepository historicoDePrecosRepository;
+
+    private List<Long> insumoIds;
+    private Long receitaId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) " +
+                "SELECT 'Plano insumo ' || X, 1000.00, 5.00 FROM SYSTEM_RANGE(1, " + QUANTIDADE_DE_INSUMOS + ")");
+        insumoIds = jdbcTemplate.queryForList(
+                "SELECT id FROM tb_insumos WHERE nome LIKE 'Plano insumo %' ORDER BY id", Long.class);
+
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome) SELECT 'Plano receita ' || X FROM SYSTEM_RANGE(1, 50)");
+        receitaId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM tb_receitas WHERE nome LIKE 'Plano receita %'",
+                Long.class);
+        jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, " +
+                "valor_gasto_insumo) SELECT i.id, r.id, 250.00, 1.25 FROM tb_insumos AS i, tb_receitas AS r " +
+                "WHERE i.nome LIKE 'Plano insumo 1%' AND r.nome LIKE 'Plano receita %'");
+
+        jdbcTemplate.execute("SET QUERY_STATISTICS_MAX_ENTRIES 1000");
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+    }
+
+    @Test
+    @DisplayName("Deve usar um índice em todas as consultas dos repositórios")
+    void deveUsarIndiceEmTodasAsConsultas() throws Exception {
+        // Arrange
+        Long insumoId = insumoIds.get(0);
+        Long insumoSemAssociacaoId = insumoIds.get(1);
+        List<Long> algunsInsumos = insumoIds.subList(0, 5);
+
+        // Act
+        executarConsultasDeInsumos(insumoId, algunsInsumos);
+        executarConsultasDeReceitas(algunsInsumos);
+        executarConsultasDeAssociacoes(insumoId, insumoSemAssociacaoId, algunsInsumos);
+        executarConsultasDeSubreceitas(algunsInsumos);
+        List<String> consultasSemIndice = obterConsultasSemIndice();
+
+        // Assert
+        assertTrue(consultasSemIndice.isEmpty(), () -> "Consultas sem índice:\n" + String.join("\n\n", consultasSemIndice));
+    }
+
+    private void executarConsultasDeInsumos(Long insumoId, List<Long> algunsInsumos) {
+        for (String ordenarPor : List.of("nome", "quantidade_por_pacote", "valor_pago_por_pacote")) {
+            insumoRepository.obterListaFiltradaEPaginadaDeInsumos(null, 1, 10, "asc", ordenarPor);
+            insumoRepository.obterListaFiltradaEPaginadaDeInsumosSemTotal(null, 0, 10, "desc", ordenarPor);
+            insumoRepository.obterListaFiltradaDeInsumosPorCursor(null,
+                    new CursorDto(ordenarPor, "asc", true, "5.00", insumoId), 10, "asc", ordenarPor);
+        }
+        insumoRepository.obterListaFiltradaEPaginadaDeInsumos("plano insumo 12", 0, 10, "asc", "nome");
+        insumoRepository.obterListaFiltradaDeInsumosPorCursor("plano insumo 12", null, 10, "asc", "nome");
+
+        insumoRepository.obterInsumoPeloId(insumoId);
+        insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId);
+        insumoRepository.obterListaDeInsumosPelosIds(algunsInsumos);
+        insumoRepository.exportarInsumos(50, insumo -> { });
+
+        InsumoDto insumoDto = insumoRepository.obterInsumoPeloId(insumoId);
+        insumoDto.setNome("Plano insumo renomeado");
+        insumoRepository.atualizarInsumo(insumoId, insumoDto);
+    }
+
+    private void executarConsultasDeReceitas(List<Long> algunsInsumos) {
+        for (String ordenarPor : List.of("nome", "total_gasto_insumos")) {
+            receitaRepository.obterListaFiltradaEPaginadaDeReceitas(null, 1, 10, "asc", ordenarPor);
+            receitaRepository.obterListaFiltradaEPaginadaDeReceitasSemTotal(null, 0, 10, "desc", ordenarPor);
+            receitaRepository.obterListaFiltradaDeReceitasPorCursor(null,
+                    new CursorDto(ordenarPor, "asc", true, "1.25", receitaId), 10, "asc", ordenarPor);
+        }
+        receitaRepository.obterListaFiltradaEPaginadaDeReceitas("plano receita 2", 0, 10, "asc", "nome");
+
+        receitaRepository.obterReceitaPeloId(receitaId);
+        receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId);
+        receitaRepository.obterEstadoDoCustoDaReceita(receitaId);
+        receitaRepository.obterResumoDoCustoDaReceita(receitaId);
+        receitaRepository.obterTotaisDasReceitasPelosIds(List.of(receitaId, receitaId + 1));
+        receitaRepository.exportarReceitas(50, receita -> { });
+        receitaRepository.recalcularTotaisDasReceitasQueUtilizamOsInsumos(algunsInsumos);
+
+        ReceitaDto receitaDto = new ReceitaDto();
+        receitaDto.setNome("Plano receita renomeada");
+        receitaRepository.atualizarNomeDaReceita(receitaId, receitaDto);
+    }
+
+    private void executarConsultasDeAssociacoes(Long insumoId, Long insumoSemAssociacaoId, List<Long> algunsInsumos) {
+        for (String ordenarPor : List.of("i.nome", "ri.quantidade_utilizada_insumo", "ri.valor_gasto_insumo")) {
+            receitaInsumoRepository.obterListaFiltradaEPaginadaDeInsumosAssociadosAReceita(receitaId, null, 1, 10,
+                    "asc", ordenarPor);
+            receitaInsumoRepository.obterListaFiltradaEPaginadaDeInsumosAssociadosAReceitaSemTotal(receitaId, null, 0,
+                    10, "desc", ordenarPor);
+            receitaInsumoRepository.obterListaFiltradaDeInsumosAssociadosAReceitaPorCursor(receitaId, null,
+                    new CursorDto(ordenarPor, "asc", true, "1.25", insumoId), 10, "asc", ordenarPor);
+        }
+        receitaInsumoRepository.obterListaFiltradaEPaginadaDeInsumosAssociadosAReceita(receitaId, "plano insumo 1", 0,
+                10, "asc", "i.nome");
+
+        receitaInsumoRepository.verificarExistenciaDaAssociacaoDaReceitaEInsumo(receitaId, insumoId);
+        receitaInsumoRepository.obterAssociacaoPorReceitaIdEInsumoId(receitaId, insumoId);
+        receitaInsumoRepository.obterTodosOsDadosDaAssociacaoPorReceitaIdEInsumoId(receitaId, insumoId);
+        receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoSemAssociacaoId);
+        receitaInsumoRepository.obterInsumosParaAssociacaoEmLote(receitaId, algunsInsumos);
+        receitaInsumoRepository.obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(insumoId);
+        receitaInsumoRepository.obterListaDeInsumosAssociadosAReceitasPeloId(insumoId);
+        receitaInsumoRepository.verificarSeAReceitaUtilizaAlgumDosInsumos(receitaId, algunsInsumos);
+        receitaInsumoRepository.exportarAssociacoes(50, associacao -> { });
+        receitaInsumoRepository.obterQuantidadesDosInsumosDasReceitas(List.of(receitaId, receitaId + 1));
+        receitaInsumoRepository.obterAssociacoesDosInsumos(algunsInsumos);
+        historicoDePrecosRepository.obterHistoricoDePrecosDoInsumo(insumoId);
+        historicoDePrecosRepository.obterSeriesDePrecosDosInsumos(algunsInsumos);
+
+        receitaInsumoRepository.criarAssociacaoEAtualizarTotalDaReceita(receitaId, insumoSemAssociacaoId,
+                new BigDecimal("100.00"), new BigDecimal("0.50"));
+        receitaInsumoRepository.atualizarReceitaInsumoEAplicarDiferencaNoTotal(receitaId, insumoSemAssociacaoId,
+                new BigDecimal("300.00"), new BigDecimal("1.50"));
+        receitaInsumoRepository.recalcularCustosDasReceitasQueUtilizamOInsumo(insumoId, new BigDecimal("0.005000"));
+        receitaInsumoRepository.recalcularValorGastoDasAssociacoesDoInsumo(insumoId, new BigDecimal("0.006000"));
+        receitaInsumoRepository.removerAssociacoesDoInsumoEAbaterTotais(insumoId);
+    }
+
+    private void executarConsultasDeSubreceitas(List<Long> algunsInsumos) {
+        Long subreceitaId = receitaId + 1;
+        List<Long> receitaIds = List.of(receitaId, subreceitaId);
+
+        receitaSubreceitaRepository.travarLigacoesDeSubreceitas();
+        receitaSubreceitaRepository.obterSubreceitaBloqueadaPeloId(subreceitaId);
+        receitaSubreceitaRepository.criarSubreceitaEAtualizarTotalDaReceita(receitaId, subreceitaId,
+                new BigDecimal("0.50"), new BigDecimal("1.00"));
+        receitaSubreceitaRepository.verificarExistenciaDaSubreceitaNaReceita(receitaId, subreceitaId);
+        receitaSubreceitaRepository.obterListaDeSubreceitasDaReceita(receitaId);
+        receitaSubreceitaRepository.obterLigacoesDasSubreceitasDasReceitas(receitaIds);
+        receitaSubreceitaRepository.obterQuantidadesDasSubreceitasDasReceitas(receitaIds);
+        receitaSubreceitaRepository.obterLigacoesDasReceitasQueUtilizamAsSubreceitas(receitaIds);
+        receitaSubreceitaRepository.obterValoresDasReceitasQueUtilizamAsSubreceitas(receitaIds);
+        receitaSubreceitaRepository.obterLigacoesDasReceitasQueUtilizamOsInsumos(algunsInsumos);
+        receitaSubreceitaRepository.recalcularCustosDasSubreceitasDasReceitas(List.of(receitaId));
+        receitaSubreceitaRepository.atualizarSubreceitaEAplicarDiferencaNoTotal(receitaId, subreceitaId,
+                new BigDecimal("1.00"), new BigDecimal("2.00"));
+        receitaSubreceitaRepository.removerSubreceitaEAbaterDoTotal(receitaId, subreceitaId);
+    }
+
+    private List<String> obterConsultasSemIndice() throws Exception {
+        List<String> instrucoes = jdbcTemplate.queryForList(
+                "SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class);
+        // Desligar as estatísticas também apaga as instruções registradas.
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+
+        List<String> consultasSemIndice = new ArrayList<>();
+        for (String instrucao : instrucoes) {
+            String normalizada = instrucao.trim().toUpperCase(Locale.ROOT);
+            boolean lePelasTabelas = normalizada.contains("TB_") && !normalizada.contains("INFORMATION_SCHEMA");
+            // INSERT com VALUES não consulta a tabela; o INSERT ... SELECT do setUp não é de um repositório.
+            if (!lePelasTabelas || (normalizada.startsWith("INSERT") && !normalizada.contains("SELECT"))
+                    || normalizada.contains("SYSTEM_RANGE") || normalizada.contains("'PLANO ")) {
+                continue;
+            }
+
+            String plano = obterPlano(instrucao);
+            if (plano.contains(".tableScan")) {
+                consultasSemIndice.add(instrucao.trim() + "\n" + plano);
+            }
+        }
+        return consultasSemIndice;
+    }
+
+    // Os parâmetros só precisam de um valor qualquer: o H2 escolhe os índices sem olhar para eles.
+    private String obterPlano(String instrucao) {
+        return jdbcTemplate.execute((Connection conn) -> {
+            try (PreparedStatement explain = conn.prepareStatement("EXPLAIN " + instrucao)) {
+                int quantidadeDeParametros = explain.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= quantidadeDeParametros; i++) {
+                    explain.setObject(i, 1);
+                }
+                try (ResultSet resultado = explain.executeQuery()) {
+                    resultado.next();
+                    return resultado.getString(1);
+                }
+            }
+        });
+    }
+}
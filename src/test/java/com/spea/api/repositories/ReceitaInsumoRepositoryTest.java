@@ -1,7 +1,10 @@
 package com.spea.api.repositories;
 
+import com.spea.api.cache.CacheDeTotais;
+import com.spea.api.cache.ContadorDeAlteracoes;
 import com.spea.api.dtos.ReceitaInsumoDto;
 import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.existencia.FiltrosDeExistencia;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.junit.jupiter.api.DisplayName;
@@ -33,66 +36,14 @@ class ReceitaInsumoRepositoryTest {
     @Mock
     private Query query;
 
-    @Test
-    @DisplayName("Deve criar associação entre receita e insumo com sucesso")
-    void deveCriarAssociacaoComSucesso() {
-        // Arrange
-        Long receitaId = 1L;
-        Long insumoId = 2L;
-        BigDecimal quantidadeUtilizadaInsumo = new BigDecimal("100.50");
-        BigDecimal valorGastoInsumo = new BigDecimal("5.02");
-
-        // Configuração do mock
-        when(em.createNativeQuery(anyString())).thenReturn(query);
-        when(query.setParameter(eq("insumoId"), eq(insumoId))).thenReturn(query);
-        when(query.setParameter(eq("receitaId"), eq(receitaId))).thenReturn(query);
-        when(query.setParameter(eq("quantidadeUtilizadaInsumo"), eq(quantidadeUtilizadaInsumo))).thenReturn(query);
-        when(query.setParameter(eq("valorGastoInsumo"), eq(valorGastoInsumo))).thenReturn(query);
-        when(query.executeUpdate()).thenReturn(1);
-
-        // Execução
-        ReceitaInsumoDto resultado = receitaInsumoRepository.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo, valorGastoInsumo);
-
-        // Verificações
-        assertNotNull(resultado);
-        assertEquals(receitaId, resultado.getReceitaId());
-        assertEquals(insumoId, resultado.getInsumoId());
-        assertEquals(quantidadeUtilizadaInsumo, resultado.getQuantidadeUtilizadaInsumo());
-        assertEquals(valorGastoInsumo, resultado.getValorGastoInsumo());
-
-        verify(em).createNativeQuery(anyString());
-        verify(query).setParameter("insumoId", insumoId);
-        verify(query).setParameter("receitaId", receitaId);
-        verify(query).setParameter("quantidadeUtilizadaInsumo", quantidadeUtilizadaInsumo);
-        verify(query).setParameter("valorGastoInsumo", valorGastoInsumo);
-        verify(query).executeUpdate();
-    }
-
-    @Test
-    @DisplayName("Deve lançar exceção quando ocorrer erro inesperado ao criar associação")
-    void deveLancarExcecaoQuandoOcorrerErroAoCriarAssociacao() {
-        // Arrange
-        Long receitaId = 1L;
-        Long insumoId = 2L;
-        BigDecimal quantidadeUtilizadaInsumo = new BigDecimal("100.50");
-        BigDecimal valorGastoInsumo = new BigDecimal("5.02");
-
-        // Configuração do mock para lançar exceção
-        when(em.createNativeQuery(anyString())).thenReturn(query);
-        when(query.setParameter(anyString(), any())).thenReturn(query);
-        when(query.executeUpdate()).thenThrow(new RuntimeException("Erro simulado"));
-
-        // Execução e verificação
-        EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class, () -> {
-            receitaInsumoRepository.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo, valorGastoInsumo);
-        });
+    @Mock
+    private CacheDeTotais cacheDeTotais;
 
-        assertEquals("Erro inesperado ao criar associação entre receita e insumo.", excecao.getMessage());
+    @Mock
+    private ContadorDeAlteracoes contadorDeAlteracoes;
 
-        verify(em).createNativeQuery(anyString());
-        verify(query, times(4)).setParameter(anyString(), any());
-        verify(query).executeUpdate();
-    }
+    @Mock
+    private FiltrosDeExistencia filtrosDeExistencia;
 
     // Método verificarExistenciaDaAssociacaoDaReceitaEInsumo
 
@@ -175,103 +126,45 @@ class ReceitaInsumoRepositoryTest {
 
     // Método obterListaDeInsumosAssociadosAReceitasPeloId
 
+    // Método recalcularCustosDasReceitasQueUtilizamOInsumo
 
-    // Método atualizarReceitaInsumo
     @Test
-    @DisplayName("Deve atualizar associação entre receita e insumo com sucesso")
-    void deveAtualizarAssociacaoComSucesso() {
+    @DisplayName("Deve recalcular totais e associações do insumo com uma única instrução em conjunto")
+    void deveRecalcularCustosDasReceitasQueUtilizamOInsumoEmConjunto() {
         // Arrange
-        Long receitaId = 1L;
         Long insumoId = 2L;
-        BigDecimal quantidadeUtilizadaInsumo = new BigDecimal("150.75");
-        BigDecimal valorGastoInsumo = new BigDecimal("7.53");
+        BigDecimal precoPorUnidadeInsumo = new BigDecimal("0.050000");
 
-        // Configuração do mock
         when(em.createNativeQuery(anyString())).thenReturn(query);
-        when(query.setParameter(eq("quantidadeUtilizadaInsumo"), eq(quantidadeUtilizadaInsumo))).thenReturn(query);
-        when(query.setParameter(eq("valorGastoInsumo"), eq(valorGastoInsumo))).thenReturn(query);
-        when(query.setParameter(eq("receitaId"), eq(receitaId))).thenReturn(query);
-        when(query.setParameter(eq("insumoId"), eq(insumoId))).thenReturn(query);
-        when(query.executeUpdate()).thenReturn(1);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(3);
 
         // Execução
-        ReceitaInsumoDto resultado = receitaInsumoRepository.atualizarReceitaInsumo(
-                receitaId, insumoId, quantidadeUtilizadaInsumo, valorGastoInsumo);
+        Integer resultado = receitaInsumoRepository.recalcularCustosDasReceitasQueUtilizamOInsumo(insumoId, precoPorUnidadeInsumo);
 
         // Verificações
-        assertNotNull(resultado);
-        assertEquals(receitaId, resultado.getReceitaId());
-        assertEquals(insumoId, resultado.getInsumoId());
-        assertEquals(quantidadeUtilizadaInsumo, resultado.getQuantidadeUtilizadaInsumo());
-        assertEquals(valorGastoInsumo, resultado.getValorGastoInsumo());
-
+        assertEquals(3, resultado);
         verify(em).createNativeQuery(anyString());
-        verify(query).setParameter("quantidadeUtilizadaInsumo", quantidadeUtilizadaInsumo);
-        verify(query).setParameter("valorGastoInsumo", valorGastoInsumo);
-        verify(query).setParameter("receitaId", receitaId);
         verify(query).setParameter("insumoId", insumoId);
+        verify(query).setParameter("precoPorUnidadeInsumo", precoPorUnidadeInsumo);
         verify(query).executeUpdate();
     }
 
     @Test
-    @DisplayName("Deve lançar exceção quando ocorrer erro ao atualizar associação")
-    void deveLancarExcecaoQuandoOcorrerErroAoAtualizarAssociacao() {
+    @DisplayName("Deve lançar exceção quando ocorrer erro ao recalcular custos das receitas do insumo")
+    void deveLancarExcecaoQuandoOcorrerErroAoRecalcularCustos() {
         // Arrange
-        Long receitaId = 1L;
         Long insumoId = 2L;
-        BigDecimal quantidadeUtilizadaInsumo = new BigDecimal("150.75");
-        BigDecimal valorGastoInsumo = new BigDecimal("7.53");
 
-        // Configuração do mock para lançar exceção
         when(em.createNativeQuery(anyString())).thenReturn(query);
         when(query.setParameter(anyString(), any())).thenReturn(query);
         when(query.executeUpdate()).thenThrow(new RuntimeException("Erro de banco de dados"));
 
         // Execução e verificação
-        EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class, () -> {
-            receitaInsumoRepository.atualizarReceitaInsumo(
-                    receitaId, insumoId, quantidadeUtilizadaInsumo, valorGastoInsumo);
-        });
-
-        assertEquals("Erro ao atualizar informações sobre a associação entre receita 1 e insumo 2.", excecao.getMessage());
-
-        verify(em).createNativeQuery(anyString());
-        verify(query, times(4)).setParameter(anyString(), any());
-        verify(query).executeUpdate();
-    }
+        EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class, () ->
+                receitaInsumoRepository.recalcularCustosDasReceitasQueUtilizamOInsumo(insumoId, new BigDecimal("0.050000")));
 
-    @Test
-    @DisplayName("Deve executar a atualização mesmo quando nenhum registro for afetado")
-    void deveExecutarAtualizacaoMesmoQuandoNenhumRegistroForAfetado() {
-        // Arrange
-        Long receitaId = 1L;
-        Long insumoId = 2L;
-        BigDecimal quantidadeUtilizadaInsumo = new BigDecimal("150.75");
-        BigDecimal valorGastoInsumo = new BigDecimal("7.53");
-
-        // Configuração do mock
-        when(em.createNativeQuery(anyString())).thenReturn(query);
-        when(query.setParameter(eq("quantidadeUtilizadaInsumo"), eq(quantidadeUtilizadaInsumo))).thenReturn(query);
-        when(query.setParameter(eq("valorGastoInsumo"), eq(valorGastoInsumo))).thenReturn(query);
-        when(query.setParameter(eq("receitaId"), eq(receitaId))).thenReturn(query);
-        when(query.setParameter(eq("insumoId"), eq(insumoId))).thenReturn(query);
-        when(query.executeUpdate()).thenReturn(0); // Nenhuma linha afetada
-
-        // Execução
-        ReceitaInsumoDto resultado = receitaInsumoRepository.atualizarReceitaInsumo(
-                receitaId, insumoId, quantidadeUtilizadaInsumo, valorGastoInsumo);
-
-        // Verificações
-        assertNotNull(resultado);
-        assertEquals(receitaId, resultado.getReceitaId());
-        assertEquals(insumoId, resultado.getInsumoId());
-
-        verify(em).createNativeQuery(anyString());
-        verify(query).setParameter("quantidadeUtilizadaInsumo", quantidadeUtilizadaInsumo);
-        verify(query).setParameter("valorGastoInsumo", valorGastoInsumo);
-        verify(query).setParameter("receitaId", receitaId);
-        verify(query).setParameter("insumoId", insumoId);
+        assertEquals("Erro inesperado ao recalcular os custos das receitas que utilizam o insumo 2.", excecao.getMessage());
         verify(query).executeUpdate();
     }
-
-}
\ No newline at end of file
+}
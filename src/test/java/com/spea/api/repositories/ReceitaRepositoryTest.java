@@ -1,7 +1,11 @@
 package com.spea.api.repositories;
 
+import com.spea.api.cache.CacheDeTotais;
+import com.spea.api.cache.ContadorDeAlteracoes;
+import com.spea.api.dtos.EstadoCustoReceitaDto;
 import com.spea.api.dtos.ReceitaDto;
 import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.existencia.FiltrosDeExistencia;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.junit.jupiter.api.DisplayName;
@@ -12,6 +16,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -33,6 +39,15 @@ class ReceitaRepositoryTest {
     @Mock
     private Query query;
 
+    @Mock
+    private CacheDeTotais cacheDeTotais;
+
+    @Mock
+    private ContadorDeAlteracoes contadorDeAlteracoes;
+
+    @Mock
+    private FiltrosDeExistencia filtrosDeExistencia;
+
     // Método cadastrarReceita
     @Test
     @DisplayName("Deve cadastrar receita com sucesso")
@@ -101,77 +116,6 @@ class ReceitaRepositoryTest {
         verify(em).createNativeQuery(anyString());
     }
 
-    // Método atualizarTotalGastoInsumosDaReceita
-    @Test
-    @DisplayName("Deve atualizar receita com sucesso")
-    void deveAtualizarReceitaComSucesso() {
-        // Arrange
-        Long id = 1L;
-        ReceitaDto receitaDto = new ReceitaDto();
-        receitaDto.setTotalGastoInsumos(new BigDecimal("25.50"));
-
-        String sqlEsperada = " UPDATE tb_receitas  SET total_gasto_insumos = :total_gasto_insumos  WHERE id = :id LIMIT 1 ";
-
-        when(em.createNativeQuery(sqlEsperada)).thenReturn(query);
-        when(query.setParameter("total_gasto_insumos", receitaDto.getTotalGastoInsumos())).thenReturn(query);
-        when(query.setParameter("id", id)).thenReturn(query);
-        when(query.executeUpdate()).thenReturn(1);
-
-        // Act
-        ReceitaDto resultado = receitaRepository.atualizarTotalGastoInsumosDaReceita(id, receitaDto);
-
-        // Assert
-        assertNotNull(resultado);
-        assertEquals(receitaDto.getTotalGastoInsumos(), resultado.getTotalGastoInsumos());
-
-        verify(em).createNativeQuery(sqlEsperada);
-        verify(query).setParameter("total_gasto_insumos", receitaDto.getTotalGastoInsumos());
-        verify(query).setParameter("id", id);
-        verify(query).executeUpdate();
-    }
-
-    @Test
-    @DisplayName("Deve lançar exceção quando ocorrer erro ao atualizar receita")
-    void deveLancarExcecaoQuandoOcorrerErroAoAtualizar() {
-        // Arrange
-        Long id = 1L;
-        ReceitaDto receitaDto = new ReceitaDto();
-        receitaDto.setNome("Pizza");
-        receitaDto.setTotalGastoInsumos(new BigDecimal("20.00"));
-
-        when(em.createNativeQuery(anyString())).thenReturn(query);
-        when(query.setParameter(anyString(), any())).thenReturn(query);
-        when(query.executeUpdate()).thenThrow(new RuntimeException("Erro de banco de dados"));
-
-        // Act & Assert
-        EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class,
-                () -> receitaRepository.atualizarTotalGastoInsumosDaReceita(id, receitaDto));
-
-        assertEquals("Erro inesperado ao atualizar receita.", excecao.getMessage());
-        verify(em).createNativeQuery(anyString());
-        verify(query).executeUpdate();
-    }
-
-    @Test
-    @DisplayName("Deve retornar o DTO da receita atualizada")
-    void deveRetornarODtoDaReceitaAtualizada() {
-        // Arrange
-        Long id = 1L;
-        ReceitaDto receitaDto = new ReceitaDto();
-        receitaDto.setNome("Lasanha");
-        receitaDto.setTotalGastoInsumos(new BigDecimal("15.75"));
-
-        when(em.createNativeQuery(anyString())).thenReturn(query);
-        when(query.setParameter(anyString(), any())).thenReturn(query);
-        when(query.executeUpdate()).thenReturn(1);
-
-        // Act
-        ReceitaDto resultado = receitaRepository.atualizarTotalGastoInsumosDaReceita(id, receitaDto);
-
-        // Assert
-        assertSame(receitaDto, resultado);
-    }
-
     // Método verificarExistenciaDaReceitaPeloId
     @Test
     @DisplayName("Deve retornar true quando receita existir pelo ID")
@@ -309,4 +253,42 @@ class ReceitaRepositoryTest {
         verify(query).getResultList();
     }
 
-}
\ No newline at end of file
+    // Método obterEstadoDoCustoDaReceita
+    @Test
+    @DisplayName("Deve obter o total e a data do último recálculo da receita")
+    void deveObterEstadoDoCustoDaReceita() {
+        // Arrange
+        Long id = 1L;
+        Instant recalculadoEm = Instant.parse("2025-01-01T10:00:00Z");
+        Object[] resultado = {1L, new BigDecimal("25.5"), Timestamp.from(recalculadoEm)};
+        List<Object[]> listaDeResultados = new ArrayList<>();
+        listaDeResultados.add(resultado);
+
+        when(em.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter("id", id)).thenReturn(query);
+        when(query.getResultList()).thenReturn(listaDeResultados);
+
+        // Act
+        EstadoCustoReceitaDto estado = receitaRepository.obterEstadoDoCustoDaReceita(id);
+
+        // Assert
+        assertEquals(id, estado.getReceitaId());
+        assertEquals(new BigDecimal("25.50"), estado.getTotalGastoInsumos());
+        assertEquals(recalculadoEm, estado.getCustoRecalculadoEm());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao obter o estado do custo de uma receita inexistente")
+    void deveLancarExcecaoAoObterEstadoDoCustoDeReceitaInexistente() {
+        // Arrange
+        when(em.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter("id", 99L)).thenReturn(query);
+        when(query.getResultList()).thenReturn(Collections.emptyList());
+
+        // Act & Assert
+        EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class,
+                () -> receitaRepository.obterEstadoDoCustoDaReceita(99L));
+
+        assertEquals("Nenhuma receita encontrada pelo id informado.", excecao.getMessage());
+    }
+}
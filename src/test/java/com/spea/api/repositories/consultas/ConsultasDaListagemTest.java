@@ -0,0 +1,74 @@
+package com.spea.api.repositories.consultas;
+
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.busca.FiltroPorNome.TipoDoFiltro;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.spea.api.repositories.busca.FiltroPorNome.adicionarFiltroPorNome;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultasDaListagemTest {
+
+    private ConsultasDaListagem consultasDaListagem;
+
+    @BeforeEach
+    void setUp() {
+        consultasDaListagem = new ConsultasDaListagem(" id, nome ", " FROM tb_insumos WHERE 1=1 ", "id",
+                (sql, filtro) -> adicionarFiltroPorNome(sql, filtro, "nome", "id", "nome_busca",
+                        "tb_insumos_trigramas", "insumo_id"),
+                List.of("nome", "valor_pago_por_pacote"));
+    }
+
+    @Test
+    @DisplayName("Deve montar uma consulta para cada filtro, coluna, direção e variante de cursor")
+    void deveMontarUmaConsultaParaCadaCombinacao() {
+        // Arrange
+        int tiposDeFiltro = TipoDoFiltro.values().length;
+
+        // Act
+        int quantidade = consultasDaListagem.obterQuantidadeDeConsultas();
+
+        // Assert
+        // Total por filtro; por coluna e direção, uma página por deslocamento e três por cursor.
+        assertEquals(tiposDeFiltro + tiposDeFiltro * 2 * 2 * 4, quantidade);
+    }
+
+    @Test
+    @DisplayName("Deve devolver sempre o mesmo texto para a mesma combinação")
+    void deveDevolverOMesmoTextoParaAMesmaCombinacao() {
+        // Act
+        String primeira = consultasDaListagem.obterConsultaDaPagina(TipoDoFiltro.LIKE, "nome", "desc");
+        String segunda = consultasDaListagem.obterConsultaDaPagina(TipoDoFiltro.LIKE, "nome", "desc");
+
+        // Assert
+        assertSame(primeira, segunda);
+        assertTrue(primeira.contains("nome_busca LIKE :nome"));
+        assertTrue(primeira.contains("ORDER BY nome desc"));
+    }
+
+    @Test
+    @DisplayName("Deve comparar o par (coluna, id) na consulta que volta a partir do cursor")
+    void deveCompararOParNaConsultaQueVoltaAPartirDoCursor() {
+        // Act
+        String sql = consultasDaListagem.obterConsultaDoCursor(TipoDoFiltro.SEM_FILTRO, "valor_pago_por_pacote",
+                "asc", false, true);
+
+        // Assert
+        assertTrue(sql.contains("(valor_pago_por_pacote, id) < (:valorCursor, :idCursor)"));
+        assertTrue(sql.contains("ORDER BY valor_pago_por_pacote desc, id desc"));
+        assertFalse(sql.contains("nome_busca"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar uma coluna de ordenação fora da lista")
+    void deveRecusarColunaDeOrdenacaoForaDaLista() {
+        // Act & Assert
+        EmpreendedorErrorException exception = assertThrows(EmpreendedorErrorException.class,
+                () -> consultasDaListagem.obterConsultaDaPagina(TipoDoFiltro.SEM_FILTRO, "id; DROP TABLE", "asc"));
+        assertEquals("Ordenação não permitida: id; DROP TABLE asc.", exception.getMessage());
+    }
+}
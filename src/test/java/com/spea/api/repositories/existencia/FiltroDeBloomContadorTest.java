@@ -0,0 +1,88 @@
+package com.spea.api.repositories.existencia;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroDeBloomContadorTest {
+
+    @Test
+    @DisplayName("Deve conter todas as chaves incluídas e recusar quase todas as demais")
+    void deveConterAsChavesIncluidasERecusarAsDemais() {
+        // Arrange
+        FiltroDeBloomContador filtro = new FiltroDeBloomContador(10000, 0.01);
+        for (long id = 1; id <= 10000; id++) {
+            filtro.incluir(id);
+        }
+
+        // Act
+        int falsosPositivos = 0;
+        for (long id = 10001; id <= 110000; id++) {
+            if (filtro.podeConter(id)) {
+                falsosPositivos++;
+            }
+        }
+
+        // Assert
+        for (long id = 1; id <= 10000; id++) {
+            assertTrue(filtro.podeConter(id), "id " + id);
+        }
+        assertTrue(falsosPositivos < 2000, "falsos positivos: " + falsosPositivos);
+        assertEquals(0.01, filtro.obterTaxaEstimadaDeFalsosPositivos(), 0.005);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a chave removida sem perder as que dividem contadores com ela")
+    void deveRecusarChaveRemovidaSemPerderAsDemais() {
+        // Arrange
+        FiltroDeBloomContador filtro = new FiltroDeBloomContador(1000, 0.01);
+        for (long id = 1; id <= 1000; id++) {
+            filtro.incluir(id);
+        }
+
+        // Act
+        for (long id = 1; id <= 1000; id += 2) {
+            filtro.remover(id);
+        }
+
+        // Assert
+        for (long id = 2; id <= 1000; id += 2) {
+            assertTrue(filtro.podeConter(id), "id " + id);
+        }
+        assertFalse(filtro.podeConter(1L));
+        assertEquals(500, filtro.obterQuantidadeDeChaves());
+    }
+
+    @Test
+    @DisplayName("Deve manter como possível a chave cujos contadores saturaram")
+    void deveManterChaveComContadoresSaturados() {
+        // Arrange
+        FiltroDeBloomContador filtro = new FiltroDeBloomContador(100, 0.01);
+        for (int i = 0; i < 300; i++) {
+            filtro.incluir(7L);
+        }
+
+        // Act
+        for (int i = 0; i < 300; i++) {
+            filtro.remover(7L);
+        }
+
+        // Assert
+        assertTrue(filtro.podeConter(7L));
+    }
+
+    @Test
+    @DisplayName("Deve distinguir os pares de ids pela ordem")
+    void deveDistinguirParesPelaOrdem() {
+        // Arrange
+        FiltroDeBloomContador filtro = new FiltroDeBloomContador(100, 0.01);
+
+        // Act
+        filtro.incluir(FiltroDeBloomContador.chaveDoPar(1L, 2L));
+
+        // Assert
+        assertTrue(filtro.podeConter(FiltroDeBloomContador.chaveDoPar(1L, 2L)));
+        assertFalse(filtro.podeConter(FiltroDeBloomContador.chaveDoPar(2L, 1L)));
+    }
+}
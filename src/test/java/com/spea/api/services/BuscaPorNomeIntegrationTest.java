@@ -0,0 +1,122 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.GlobalPageDto;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ReceitaDto;
+import com.spea.api.dtos.ReceitaInsumoDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class BuscaPorNomeIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Autowired
+    private ReceitaService receitaService;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    @Test
+    @DisplayName("Deve encontrar insumos ignorando maiúsculas e acentos no filtro e no nome")
+    void deveEncontrarInsumosIgnorandoMaiusculasEAcentos() {
+        // Arrange
+        inserirInsumo("Açúcar Refinado");
+        inserirInsumo("AÇUCAR mascavo");
+        inserirInsumo("Farinha de trigo");
+
+        // Act
+        List<String> semAcento = nomes(insumoService.obterListaFiltradaEPaginadaDeInsumos("acucar", 0, "asc", "nomeInsumo"));
+        List<String> comAcento = nomes(insumoService.obterListaFiltradaEPaginadaDeInsumos("AÇÚCAR", 0, "asc", "nomeInsumo"));
+        List<String> trecho = nomes(insumoService.obterListaFiltradaEPaginadaDeInsumos("cúcar ref", 0, "asc", "nomeInsumo"));
+
+        // Assert
+        assertEquals(List.of("AÇUCAR mascavo", "Açúcar Refinado"), semAcento);
+        assertEquals(semAcento, comAcento);
+        assertEquals(List.of("Açúcar Refinado"), trecho);
+    }
+
+    @Test
+    @DisplayName("Deve buscar por filtros curtos e por curingas sem depender dos trigramas")
+    void deveBuscarPorFiltrosCurtosECuringas() {
+        // Arrange
+        inserirInsumo("Óleo de soja");
+        inserirInsumo("Ovo caipira");
+        inserirInsumo("Sal grosso");
+
+        // Act
+        List<String> curto = nomes(insumoService.obterListaFiltradaEPaginadaDeInsumos("ol", 0, "asc", "nomeInsumo"));
+        List<String> curinga = nomes(insumoService.obterListaFiltradaEPaginadaDeInsumos("o%a", 0, "asc", "nomeInsumo"));
+
+        // Assert
+        assertEquals(List.of("Óleo de soja"), curto);
+        assertEquals(List.of("Ovo caipira", "Óleo de soja"), curinga);
+    }
+
+    @Test
+    @DisplayName("Deve manter a busca atualizada quando o nome da receita é alterado")
+    void deveManterBuscaAtualizadaAoRenomearReceita() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Pão de queijo', 0.00)");
+        Long receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+
+        // Act
+        jdbcTemplate.update("UPDATE tb_receitas SET nome = 'Broa de milho' WHERE id = ?", receitaId);
+
+        // Assert
+        assertTrue(receitaService.obterListaFiltradaEPaginadaDeReceitas("pao de queijo", 0, "asc", "nomeReceita")
+                .getItens().isEmpty());
+        GlobalPageDto<ReceitaDto> pagina = receitaService.obterListaFiltradaEPaginadaDeReceitas("BROA", 0, "asc", "nomeReceita");
+        assertEquals(List.of(receitaId), pagina.getItens().stream().map(ReceitaDto::getId).toList());
+        assertEquals("broa de milho", jdbcTemplate.queryForObject(
+                "SELECT nome_busca FROM tb_receitas WHERE id = ?", String.class, receitaId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_receitas_trigramas WHERE receita_id = ? AND trigrama = 'pao'", Integer.class, receitaId));
+    }
+
+    @Test
+    @DisplayName("Deve filtrar os insumos associados a uma receita pelo nome normalizado")
+    void deveFiltrarInsumosAssociadosPeloNomeNormalizado() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Bolo', 0.00)");
+        Long receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+        for (String nome : List.of("Maçã verde", "Maca peruana", "Manteiga")) {
+            Long insumoId = inserirInsumo(nome);
+            jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                    "VALUES (?, ?, 1.00, 1.00)", insumoId, receitaId);
+        }
+
+        // Act
+        GlobalPageDto<ReceitaInsumoDto> pagina = receitaInsumoService
+                .obterListaDeInsumosAssociadosAReceitaFiltradosEPaginados(receitaId, "MAÇA", 0, "asc", "nomeInsumo");
+
+        // Assert
+        assertEquals(2L, pagina.getTotalDeItens());
+        assertEquals(List.of("Maca peruana", "Maçã verde"),
+                pagina.getItens().stream().map(ReceitaInsumoDto::getInsumoNome).toList());
+    }
+
+    private Long inserirInsumo(String nome) {
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, 100, 5.00)",
+                nome);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+    }
+
+    private List<String> nomes(GlobalPageDto<InsumoDto> pagina) {
+        return pagina.getItens().stream().map(InsumoDto::getNome).toList();
+    }
+}
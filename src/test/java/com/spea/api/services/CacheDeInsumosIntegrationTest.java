@@ -0,0 +1,86 @@
+package com.spea.api.services;
+
+import com.spea.api.cache.CacheDeInsumos;
+import com.spea.api.dtos.EstatisticasDoCacheDto;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.repositories.InsumoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sem @Transactional: a invalidação também acontece quando a transação do serviço termina.
+@SpringBootTest
+class CacheDeInsumosIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private CacheDeInsumos cacheDeInsumos;
+
+    private Long insumoId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES ('Fermento em cache', 100, 3.00)");
+        insumoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tb_insumos WHERE id = ?", insumoId);
+    }
+
+    @Test
+    @DisplayName("Deve servir leituras repetidas pelo cache e devolver o valor novo após atualizar o insumo")
+    void deveServirLeiturasPeloCacheEInvalidarAoAtualizar() {
+        // Arrange
+        EstatisticasDoCacheDto antes = cacheDeInsumos.obterEstatisticas();
+
+        // Act
+        insumoRepository.obterInsumoPeloId(insumoId);
+        insumoRepository.obterInsumoPeloId(insumoId);
+        assertTrue(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId));
+
+        InsumoDto insumoAtualizado = new InsumoDto();
+        insumoAtualizado.setNome("Fermento em cache");
+        insumoAtualizado.setQuantidadePorPacote(100.0);
+        insumoAtualizado.setValorPagoPorPacote(new BigDecimal("4.50"));
+        insumoService.atualizarInsumo(insumoId, insumoAtualizado);
+
+        InsumoDto lidoAposAtualizar = insumoRepository.obterInsumoPeloId(insumoId);
+
+        // Assert
+        EstatisticasDoCacheDto depois = insumoService.obterEstatisticasDoCacheDeInsumos();
+        assertEquals(new BigDecimal("4.50"), lidoAposAtualizar.getValorPagoPorPacote());
+        assertTrue(depois.getAcertos() - antes.getAcertos() >= 2);
+        assertTrue(depois.getInvalidacoes() > antes.getInvalidacoes());
+    }
+
+    @Test
+    @DisplayName("Deve deixar de reconhecer o insumo após a deleção")
+    void deveDeixarDeReconhecerInsumoAposDeletar() {
+        // Arrange
+        assertTrue(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId));
+
+        // Act
+        insumoService.deletarInsumo(insumoId);
+
+        // Assert
+        assertFalse(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId));
+    }
+}
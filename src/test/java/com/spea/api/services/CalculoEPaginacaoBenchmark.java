@@ -0,0 +1,115 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.GlobalPageDto;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.utils.CustoEmPontoFixoUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.spea.api.utils.StringUtil.normalizarEspacos;
+
+/**
+ * Caminhos executados em toda criação de associação e em toda listagem, sem banco: cálculo do gasto com insumo
+ * (em BigDecimal e em ponto fixo),
+ * correção da página atual, montagem do GlobalPageDto e normalização de espaços do filtro.
+ * Cada chamada usa uma entrada diferente de um conjunto pré-gerado para evitar que o JIT otimize sobre constantes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculoEPaginacaoBenchmark {
+
+    private static final int QUANTIDADE_DE_ENTRADAS = 1024;
+
+    private final ReceitaInsumoService receitaInsumoService = new ReceitaInsumoService();
+    private final InsumoService insumoService = new InsumoService();
+    private final ReceitaService receitaService = new ReceitaService();
+
+    private final Double[] quantidadesPorPacote = new Double[QUANTIDADE_DE_ENTRADAS];
+    private final BigDecimal[] valoresPagosPorPacote = new BigDecimal[QUANTIDADE_DE_ENTRADAS];
+    private final BigDecimal[] quantidadesUtilizadas = new BigDecimal[QUANTIDADE_DE_ENTRADAS];
+    private final long[] precosPorUnidadeEmMilionesimos = new long[QUANTIDADE_DE_ENTRADAS];
+    private final Integer[] paginas = new Integer[QUANTIDADE_DE_ENTRADAS];
+    private final Long[] totais = new Long[QUANTIDADE_DE_ENTRADAS];
+    private final String[] filtros = new String[QUANTIDADE_DE_ENTRADAS];
+
+    private List<InsumoDto> paginaDeInsumos;
+    private int indice;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        Random aleatorio = new Random(42);
+
+        for (int i = 0; i < QUANTIDADE_DE_ENTRADAS; i++) {
+            quantidadesPorPacote[i] = 50.0 + aleatorio.nextInt(5000);
+            valoresPagosPorPacote[i] = BigDecimal.valueOf(100 + aleatorio.nextInt(20000), 2);
+            quantidadesUtilizadas[i] = BigDecimal.valueOf(1 + aleatorio.nextInt(100000), 2);
+            precosPorUnidadeEmMilionesimos[i] = CustoEmPontoFixoUtil
+                    .calcularPrecoPorUnidadeEmMilionesimos(quantidadesPorPacote[i], valoresPagosPorPacote[i]);
+            paginas[i] = aleatorio.nextInt(12) - 1;
+            totais[i] = (long) aleatorio.nextInt(1000);
+            filtros[i] = "  farinha" + " ".repeat(aleatorio.nextInt(4) + 1) + "de\ttrigo  " + i + " ";
+        }
+
+        paginaDeInsumos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            InsumoDto insumoDto = new InsumoDto();
+            insumoDto.setId((long) i);
+            insumoDto.setNome("Insumo " + i);
+            paginaDeInsumos.add(insumoDto);
+        }
+    }
+
+    private int proximo() {
+        indice = (indice + 1) & (QUANTIDADE_DE_ENTRADAS - 1);
+        return indice;
+    }
+
+    @Benchmark
+    public BigDecimal calcularGastoComInsumo() {
+        int i = proximo();
+        return receitaInsumoService.calcularGastoComInsumo(quantidadesPorPacote[i], valoresPagosPorPacote[i],
+                quantidadesUtilizadas[i]);
+    }
+
+    // Como no laço da propagação individual: o preço do insumo já convertido, só o gasto de cada associação.
+    @Benchmark
+    public BigDecimal calcularValorGastoEmPontoFixo() {
+        int i = proximo();
+        return CustoEmPontoFixoUtil.calcularValorGasto(precosPorUnidadeEmMilionesimos[i], quantidadesUtilizadas[i]);
+    }
+
+    @Benchmark
+    public void corrigirPaginaAtual(Blackhole blackhole) {
+        int i = proximo();
+        blackhole.consume(insumoService.corrigirPaginaAtual(paginas[i], totais[i], 10));
+        blackhole.consume(receitaService.corrigirPaginaAtual(paginas[i], totais[i], 10));
+        blackhole.consume(receitaInsumoService.corrigirPaginaAtual(paginas[i], totais[i], 10));
+    }
+
+    @Benchmark
+    public GlobalPageDto<InsumoDto> construirPaginaComTotal() {
+        int i = proximo();
+        return new GlobalPageDto<>(paginaDeInsumos, totais[i], Math.max(paginas[i], 0), 10);
+    }
+
+    @Benchmark
+    public GlobalPageDto<InsumoDto> construirPaginaSemTotal() {
+        int i = proximo();
+        return new GlobalPageDto<>(paginaDeInsumos, Math.max(paginas[i], 0), 10, (i & 1) == 0);
+    }
+
+    @Benchmark
+    public String normalizarEspacosDoFiltro() {
+        return normalizarEspacos(filtros[proximo()]);
+    }
+}
@@ -0,0 +1,74 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.ReceitaInsumoDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class CriacaoDeAssociacaoIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    private Long receitaId;
+    private Long insumoId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Pizza Margherita', 50.00)");
+        receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES ('Mussarela', 500, 25.00)");
+        insumoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+    }
+
+    @Test
+    @DisplayName("Deve inserir a associação e atualizar o total da receita no mesmo comando")
+    void deveInserirAssociacaoEAtualizarTotal() {
+        // Act
+        ReceitaInsumoDto resultado = receitaInsumoService.criarAssociacao(receitaId, insumoId, new BigDecimal("100.50"));
+
+        // Assert
+        assertEquals(new BigDecimal("5.02"), resultado.getValorGastoInsumo());
+        assertEquals(0, new BigDecimal("55.02").compareTo(jdbcTemplate.queryForObject(
+                "SELECT total_gasto_insumos FROM tb_receitas WHERE id = ?", BigDecimal.class, receitaId)));
+        assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT custo_recalculado_em FROM tb_receitas WHERE id = ?", Object.class, receitaId));
+        assertEquals(0, new BigDecimal("5.02").compareTo(jdbcTemplate.queryForObject(
+                "SELECT valor_gasto_insumo FROM tb_receita_insumo WHERE receita_id = ? AND insumo_id = ?",
+                BigDecimal.class, receitaId, insumoId)));
+    }
+
+    @Test
+    @DisplayName("Deve manter as mensagens e a ordem das validações da criação de associação")
+    void deveManterMensagensEOrdemDasValidacoes() {
+        // Arrange
+        receitaInsumoService.criarAssociacao(receitaId, insumoId, new BigDecimal("1.00"));
+
+        // Act & Assert
+        assertEquals("O insumo informado já está associado à receita informada.", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaInsumoService.criarAssociacao(receitaId, insumoId, null)).getMessage());
+        assertEquals("A quantidade utilizada de insumo é obrigatória.", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaInsumoService.criarAssociacao(-1L, -1L, null)).getMessage());
+        assertEquals("Nenhuma receita encontrada pelo id informado.", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaInsumoService.criarAssociacao(-1L, -1L, BigDecimal.ONE)).getMessage());
+        assertEquals("Nenhum insumo encontrado pelo id informado.", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaInsumoService.criarAssociacao(receitaId, -1L, BigDecimal.ONE)).getMessage());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_receita_insumo WHERE receita_id = ?", Integer.class, receitaId));
+    }
+}
@@ -0,0 +1,99 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.ReceitaInsumoDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class CriacaoDeAssociacoesEmLoteIntegrationTest {
+
+    private static final int QUANTIDADE_DE_INSUMOS = 25;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    private Long receitaId;
+    private final List<Long> insumoIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Bolo completo', 10.00)");
+        receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+
+        for (int i = 0; i < QUANTIDADE_DE_INSUMOS; i++) {
+            jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, ?, ?)",
+                    "Insumo do bolo " + i, 100 + i, new BigDecimal("4.30").add(BigDecimal.valueOf(i)));
+            insumoIds.add(jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve criar todas as associações e somar ao total o mesmo valor das criações individuais")
+    void deveCriarTodasAsAssociacoesEAtualizarTotal() {
+        // Arrange
+        List<ReceitaInsumoDto> listaDeAssociacoes = new ArrayList<>();
+        for (int i = 0; i < QUANTIDADE_DE_INSUMOS; i++) {
+            listaDeAssociacoes.add(criarItem(insumoIds.get(i), new BigDecimal("33.33").add(BigDecimal.valueOf(i))));
+        }
+
+        // Act
+        List<ReceitaInsumoDto> resultado = receitaInsumoService.criarAssociacoesEmLote(receitaId, listaDeAssociacoes);
+
+        // Assert
+        BigDecimal somaEsperada = resultado.stream()
+                .map(ReceitaInsumoDto::getValorGastoInsumo)
+                .reduce(new BigDecimal("10.00"), BigDecimal::add);
+
+        assertEquals(QUANTIDADE_DE_INSUMOS, resultado.size());
+        assertEquals(QUANTIDADE_DE_INSUMOS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_receita_insumo WHERE receita_id = ?", Integer.class, receitaId));
+        assertEquals(0, somaEsperada.compareTo(jdbcTemplate.queryForObject(
+                "SELECT total_gasto_insumos FROM tb_receitas WHERE id = ?", BigDecimal.class, receitaId)));
+        assertEquals(0, somaEsperada.subtract(new BigDecimal("10.00")).compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(valor_gasto_insumo) FROM tb_receita_insumo WHERE receita_id = ?", BigDecimal.class, receitaId)));
+        assertEquals("Insumo do bolo 0", resultado.get(0).getInsumoNome());
+    }
+
+    @Test
+    @DisplayName("Não deve criar nenhuma associação quando algum item do lote for inválido")
+    void naoDeveCriarNenhumaAssociacaoQuandoAlgumItemForInvalido() {
+        // Arrange
+        receitaInsumoService.criarAssociacao(receitaId, insumoIds.get(1), BigDecimal.ONE);
+        List<ReceitaInsumoDto> listaDeAssociacoes = List.of(
+                criarItem(insumoIds.get(0), BigDecimal.ONE),
+                criarItem(insumoIds.get(1), BigDecimal.ONE));
+
+        // Act & Assert
+        assertEquals("Os insumos [" + insumoIds.get(1) + "] já estão associados à receita informada.",
+                assertThrows(EmpreendedorErrorException.class,
+                        () -> receitaInsumoService.criarAssociacoesEmLote(receitaId, listaDeAssociacoes)).getMessage());
+        assertEquals("Nenhuma receita encontrada pelo id informado.", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaInsumoService.criarAssociacoesEmLote(-1L, List.of(criarItem(insumoIds.get(0), BigDecimal.ONE))))
+                .getMessage());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_receita_insumo WHERE receita_id = ?", Integer.class, receitaId));
+    }
+
+    private ReceitaInsumoDto criarItem(Long insumoId, BigDecimal quantidadeUtilizadaInsumo) {
+        ReceitaInsumoDto item = new ReceitaInsumoDto();
+        item.setInsumoId(insumoId);
+        item.setQuantidadeUtilizadaInsumo(quantidadeUtilizadaInsumo);
+        return item;
+    }
+}
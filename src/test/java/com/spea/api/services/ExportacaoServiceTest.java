@@ -0,0 +1,138 @@
+package com.spea.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ReceitaInsumoDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.InsumoRepository;
+import com.spea.api.repositories.ReceitaInsumoRepository;
+import com.spea.api.repositories.ReceitaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static com.spea.api.services.ImportacaoDeInsumosService.FORMATO_CSV;
+import static com.spea.api.services.ImportacaoDeInsumosService.FORMATO_NDJSON;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacaoServiceTest {
+
+    @InjectMocks
+    private ExportacaoService exportacaoService;
+
+    @Mock
+    private InsumoRepository insumoRepository;
+
+    @Mock
+    private ReceitaRepository receitaRepository;
+
+    @Mock
+    private ReceitaInsumoRepository receitaInsumoRepository;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportacaoService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(exportacaoService, "tamanhoDoLoteDeLeitura", 2);
+    }
+
+    @Test
+    @DisplayName("Deve escolher o formato pelo Accept, respeitando a preferência, e recusar formatos não suportados")
+    void deveEscolherOFormatoPeloAccept() {
+        // Act & Assert
+        assertEquals(FORMATO_NDJSON, exportacaoService.definirFormatoDaExportacao("*/*"));
+        assertEquals(FORMATO_CSV, exportacaoService.definirFormatoDaExportacao("text/csv"));
+        assertEquals(FORMATO_CSV, exportacaoService.definirFormatoDaExportacao("application/x-ndjson;q=0.5, text/*"));
+
+        EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class,
+                () -> exportacaoService.definirFormatoDaExportacao("application/json"));
+        assertEquals("O formato da exportação deve ser text/csv ou application/x-ndjson.", excecao.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve escrever os insumos em CSV com cabeçalho, aspas quando necessário e números sem notação científica")
+    void deveEscreverInsumosEmCsv() {
+        // Arrange
+        doAnswer(invocacao -> {
+            Consumer<InsumoDto> consumidor = invocacao.getArgument(1);
+            consumidor.accept(criarInsumo(1L, "Farinha \"tipo 1\", especial", 1.0E7, "5.00"));
+            consumidor.accept(criarInsumo(2L, "Ovo", 12.0, "9.90"));
+            return 2L;
+        }).when(insumoRepository).exportarInsumos(eq(2), any());
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Act
+        Long total = exportacaoService.exportarInsumos(FORMATO_CSV, saida);
+
+        // Assert
+        assertEquals(2L, total);
+        assertEquals("""
+                id,nome,quantidadePorPacote,valorPagoPorPacote
+                1,"Farinha ""tipo 1"", especial",10000000,5.00
+                2,Ovo,12,9.90
+                """, saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Deve escrever uma associação por linha em NDJSON e enviar o primeiro item e cada lote assim que escritos")
+    void deveEscreverAssociacoesEmNdjsonEnviandoPorLote() throws IOException {
+        // Arrange
+        OutputStream saida = spy(new ByteArrayOutputStream());
+        doAnswer(invocacao -> {
+            Consumer<ReceitaInsumoDto> consumidor = invocacao.getArgument(1);
+            consumidor.accept(criarAssociacao(1L, 10L));
+            verify(saida, times(1)).flush();
+
+            consumidor.accept(criarAssociacao(1L, 11L));
+            consumidor.accept(criarAssociacao(2L, 10L));
+            verify(saida, times(2)).flush();
+            return 3L;
+        }).when(receitaInsumoRepository).exportarAssociacoes(eq(2), any());
+
+        // Act
+        exportacaoService.exportarAssociacoes(FORMATO_NDJSON, saida);
+
+        // Assert
+        String[] linhas = saida.toString().split("\n");
+        assertEquals(3, linhas.length);
+        assertEquals("{\"insumoId\":10,\"insumoNome\":\"Insumo 10\",\"receitaId\":1," +
+                "\"quantidadeUtilizadaInsumo\":2.50,\"valorGastoInsumo\":1.25}", linhas[0]);
+        verify(saida, times(3)).flush();
+        verifyNoInteractions(insumoRepository, receitaRepository);
+    }
+
+    private InsumoDto criarInsumo(Long id, String nome, Double quantidadePorPacote, String valorPagoPorPacote) {
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setId(id);
+        insumoDto.setNome(nome);
+        insumoDto.setQuantidadePorPacote(quantidadePorPacote);
+        insumoDto.setValorPagoPorPacote(new BigDecimal(valorPagoPorPacote));
+        return insumoDto;
+    }
+
+    private ReceitaInsumoDto criarAssociacao(Long receitaId, Long insumoId) {
+        ReceitaInsumoDto receitaInsumoDto = new ReceitaInsumoDto();
+        receitaInsumoDto.setReceitaId(receitaId);
+        receitaInsumoDto.setInsumoId(insumoId);
+        receitaInsumoDto.setInsumoNome("Insumo " + insumoId);
+        receitaInsumoDto.setQuantidadeUtilizadaInsumo(new BigDecimal("2.50"));
+        receitaInsumoDto.setValorGastoInsumo(new BigDecimal("1.25"));
+        return receitaInsumoDto;
+    }
+}
@@ -0,0 +1,168 @@
+package com.spea.api.services;
+
+import com.spea.api.cache.TabelaMonitorada;
+import com.spea.api.config.MetricasConfig;
+import com.spea.api.metricas.ContadorDeSql;
+import com.spea.api.repositories.InsumoRepository;
+import com.spea.api.repositories.ReceitaInsumoRepository;
+import com.spea.api.repositories.ReceitaRepository;
+import com.spea.api.repositories.existencia.FiltroDeBloomContador;
+import com.spea.api.repositories.existencia.FiltrosDeExistencia;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sem @Transactional: as remoções só saem dos filtros depois do commit.
+@SpringBootTest
+class FiltrosDeExistenciaIntegrationTest {
+
+    private static final int IDS_INEXISTENTES = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private ReceitaRepository receitaRepository;
+
+    @Autowired
+    private ReceitaInsumoRepository receitaInsumoRepository;
+
+    @Autowired
+    private FiltrosDeExistencia filtrosDeExistencia;
+
+    private Long insumoId;
+    private Long receitaId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) " +
+                "VALUES ('Insumo filtrado', 100, 2.00)");
+        insumoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Receita filtrada', 0.00)");
+        receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+        jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, " +
+                "valor_gasto_insumo) VALUES (?, ?, 10.00, 0.20)", insumoId, receitaId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tb_receitas WHERE id = ?", receitaId);
+        jdbcTemplate.update("DELETE FROM tb_insumos WHERE id = ?", insumoId);
+    }
+
+    @Test
+    @DisplayName("Deve encontrar as linhas incluídas fora dos repositórios e recusar ids inexistentes sem consultar o banco")
+    void deveRecusarIdsInexistentesSemConsultarOBanco() {
+        // Arrange
+        long recusasAntes = filtrosDeExistencia.obterRejeicoes(TabelaMonitorada.INSUMOS);
+
+        // Act
+        ContadorDeSql.iniciarContagem();
+        int consultasDosInexistentes;
+        try {
+            for (long id = insumoId + 1_000_000; id < insumoId + 1_000_000 + IDS_INEXISTENTES; id++) {
+                assertFalse(insumoRepository.verificarExistenciaDoInsumoPeloId(id));
+            }
+            consultasDosInexistentes = ContadorDeSql.obterQuantidade();
+        } finally {
+            ContadorDeSql.encerrarContagem();
+        }
+
+        // Assert
+        assertTrue(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId));
+        assertTrue(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId));
+        assertTrue(receitaInsumoRepository.verificarExistenciaDaAssociacaoDaReceitaEInsumo(receitaId, insumoId));
+        assertFalse(receitaInsumoRepository.verificarExistenciaDaAssociacaoDaReceitaEInsumo(receitaId,
+                insumoId + 1_000_000));
+
+        assertTrue(consultasDosInexistentes < IDS_INEXISTENTES / 10, "consultas: " + consultasDosInexistentes);
+        assertEquals(IDS_INEXISTENTES - consultasDosInexistentes,
+                filtrosDeExistencia.obterRejeicoes(TabelaMonitorada.INSUMOS) - recusasAntes);
+
+        Gauge falsosPositivos = meterRegistry.find(MetricasConfig.METRICA_FALSOS_POSITIVOS)
+                .tag("tabela", "insumos").gauge();
+        assertNotNull(falsosPositivos);
+        assertTrue(falsosPositivos.value() >= 0 && falsosPositivos.value() < 0.1);
+    }
+
+    @Test
+    @DisplayName("Deve tirar do filtro o insumo removido só depois do commit")
+    void deveTirarDoFiltroORemovidoSoDepoisDoCommit() {
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            insumoService.deletarInsumo(insumoId);
+            status.setRollbackOnly();
+        });
+        boolean existeDepoisDoRollback = insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId);
+
+        insumoService.deletarInsumo(insumoId);
+
+        // Assert
+        assertTrue(existeDepoisDoRollback);
+        assertTrue(filtrosDeExistencia.insumoCertamenteNaoExiste(insumoId));
+        assertTrue(filtrosDeExistencia.associacaoCertamenteNaoExiste(receitaId, insumoId));
+        assertFalse(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId));
+    }
+
+    @Test
+    @DisplayName("Não deve tirar dos filtros em reconstrução a chave removida antes de a leitura chegar a ela")
+    @SuppressWarnings("unchecked")
+    void naoDeveTirarDosFiltrosEmReconstrucaoAChaveQueALeituraNaoIncluiu() {
+        // Arrange
+        FiltrosDeExistencia filtrosReconstruidos = new FiltrosDeExistencia();
+        ReflectionTestUtils.setField(filtrosReconstruidos, "jdbcTemplate", jdbcTemplate);
+
+        try {
+            // Act
+            transactionTemplate.executeWithoutResult(status -> {
+                insumoService.deletarInsumo(insumoId);
+                // Roda entre o commit e a saída da remoção dos filtros, quando a linha já não é lida.
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        filtrosReconstruidos.reconstruir();
+                    }
+                });
+            });
+
+            // Assert
+            Map<TabelaMonitorada, FiltroDeBloomContador> filtros = (Map<TabelaMonitorada, FiltroDeBloomContador>)
+                    ReflectionTestUtils.getField(filtrosReconstruidos, "filtros");
+            assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_insumos", Long.class),
+                    filtros.get(TabelaMonitorada.INSUMOS).obterQuantidadeDeChaves());
+
+            List<Long> insumoIds = jdbcTemplate.queryForList("SELECT id FROM tb_insumos", Long.class);
+            assertTrue(insumoIds.stream().noneMatch(filtrosReconstruidos::insumoCertamenteNaoExiste));
+            assertTrue(filtrosReconstruidos.insumoCertamenteNaoExiste(insumoId));
+        } finally {
+            filtrosReconstruidos.encerrar();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.CustoDaReceitaNaDataDto;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.PrecoDoInsumoDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class HistoricoDePrecosIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HistoricoDePrecosService historicoDePrecosService;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    @Autowired
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
+    @Test
+    @DisplayName("Deve guardar só as mudanças de preço ou de pacote, na ordem em que passaram a valer")
+    void deveGuardarSoAsMudancasDePreco() {
+        // Arrange
+        Long insumoId = inserirInsumo("Cacau histórico", "1000.00", "30.00");
+
+        // Act
+        atualizarInsumo(insumoId, "Cacau em pó", "1000.00", "30.00");
+        atualizarInsumo(insumoId, "Cacau em pó", "1000.00", "36.00");
+        atualizarInsumo(insumoId, "Cacau em pó", "500.00", "36.00");
+        List<PrecoDoInsumoDto> historico = historicoDePrecosService.obterHistoricoDePrecosDoInsumo(insumoId);
+
+        // Assert
+        assertEquals(3, historico.size());
+        assertEquals(List.of(new BigDecimal("30.00"), new BigDecimal("36.00"), new BigDecimal("36.00")),
+                historico.stream().map(PrecoDoInsumoDto::getValorPagoPorPacote).toList());
+        assertEquals(500.0, historico.get(2).getQuantidadePorPacote());
+        assertFalse(historico.get(1).getVigenteDesde().isBefore(historico.get(0).getVigenteDesde()));
+    }
+
+    @Test
+    @DisplayName("Deve calcular o custo da receita e das sub-receitas com os preços vigentes em cada data")
+    void deveCalcularCustoComOsPrecosVigentesEmCadaData() throws InterruptedException {
+        // Arrange
+        Long farinha = inserirInsumo("Farinha histórica", "1000.00", "10.00");
+        Long queijo = inserirInsumo("Queijo histórico", "1000.00", "40.00");
+        Long massa = inserirReceita("Massa histórica");
+        Long pizza = inserirReceita("Pizza histórica");
+        receitaInsumoService.criarAssociacao(massa, farinha, new BigDecimal("500.00"));
+        receitaInsumoService.criarAssociacao(pizza, queijo, new BigDecimal("250.00"));
+        receitaSubreceitaService.criarSubreceita(pizza, massa, new BigDecimal("0.50"));
+
+        Instant antesDoReajuste = marcarInstante();
+        atualizarInsumo(farinha, "Farinha histórica", "1000.00", "20.00");
+        Instant depoisDoReajuste = marcarInstante();
+        atualizarInsumo(queijo, "Queijo histórico", "500.00", "40.00");
+
+        // Act
+        CustoDaReceitaNaDataDto custoAntes = historicoDePrecosService.obterCustoDaReceitaNaData(pizza, antesDoReajuste);
+        CustoDaReceitaNaDataDto custoDepois = historicoDePrecosService.obterCustoDaReceitaNaData(pizza, depoisDoReajuste);
+        CustoDaReceitaNaDataDto custoAtual = historicoDePrecosService.obterCustoDaReceitaNaData(pizza, Instant.now());
+
+        // Assert
+        // Massa: 500 g de farinha; pizza: 250 g de queijo e meia massa.
+        assertEquals(new BigDecimal("12.50"), custoAntes.getTotalGastoInsumos());
+        assertEquals(new BigDecimal("2.50"), custoAntes.getSubreceitas().get(0).getValorGastoSubreceita());
+        assertEquals(new BigDecimal("15.00"), custoDepois.getTotalGastoInsumos());
+        assertEquals(new BigDecimal("25.00"), custoAtual.getTotalGastoInsumos());
+        assertEquals(new BigDecimal("20.00"), custoAtual.getInsumos().get(0).getValorGastoInsumo());
+        assertEquals(custoAtual.getTotalGastoInsumos(), jdbcTemplate.queryForObject(
+                "SELECT total_gasto_insumos FROM tb_receitas WHERE id = ?", BigDecimal.class, pizza));
+    }
+
+    @Test
+    @DisplayName("Deve deixar fora do total o insumo que ainda não tinha preço na data")
+    void deveDeixarForaDoTotalInsumoSemPrecoNaData() throws InterruptedException {
+        // Arrange
+        Long receitaId = inserirReceita("Bolo histórico");
+        Long acucar = inserirInsumo("Açúcar histórico", "1000.00", "6.00");
+        receitaInsumoService.criarAssociacao(receitaId, acucar, new BigDecimal("200.00"));
+
+        Instant antesDoCadastro = marcarInstante();
+        Long fermento = inserirInsumo("Fermento histórico", "100.00", "5.00");
+        receitaInsumoService.criarAssociacao(receitaId, fermento, new BigDecimal("10.00"));
+
+        // Act
+        CustoDaReceitaNaDataDto custo = historicoDePrecosService.obterCustoDaReceitaNaData(receitaId, antesDoCadastro);
+
+        // Assert
+        assertEquals(new BigDecimal("1.20"), custo.getTotalGastoInsumos());
+        assertEquals(2, custo.getInsumos().size());
+        assertTrue(custo.getInsumos().stream()
+                .anyMatch(insumo -> insumo.getInsumoId().equals(fermento) && insumo.getValorGastoInsumo() == null));
+    }
+
+    // Separa o instante marcado das escritas vizinhas, que o histórico registra com precisão de microssegundos.
+    private Instant marcarInstante() throws InterruptedException {
+        Thread.sleep(2);
+        Instant instante = Instant.now();
+        Thread.sleep(2);
+        return instante;
+    }
+
+    private void atualizarInsumo(Long insumoId, String nome, String quantidadePorPacote, String valorPagoPorPacote) {
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setNome(nome);
+        insumoDto.setQuantidadePorPacote(Double.valueOf(quantidadePorPacote));
+        insumoDto.setValorPagoPorPacote(new BigDecimal(valorPagoPorPacote));
+        insumoService.atualizarInsumo(insumoId, insumoDto);
+    }
+
+    private Long inserirInsumo(String nome, String quantidadePorPacote, String valorPagoPorPacote) {
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, ?, ?)",
+                nome, new BigDecimal(quantidadePorPacote), new BigDecimal(valorPagoPorPacote));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+    }
+
+    private Long inserirReceita(String nome) {
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome) VALUES (?)", nome);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.ResultadoImportacaoDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sem @Transactional: cada lote confirma a própria transação.
+@SpringBootTest
+class ImportacaoDeInsumosIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImportacaoDeInsumosService importacaoDeInsumosService;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tb_insumos WHERE nome LIKE 'Importado %'");
+    }
+
+    @Test
+    @DisplayName("Deve importar um CSV grande em vários lotes e devolver os erros por linha")
+    void deveImportarCsvEmVariosLotes() {
+        // Arrange
+        StringBuilder csv = new StringBuilder("nome,quantidadePorPacote,valorPagoPorPacote\n");
+        for (int i = 0; i < 1200; i++) {
+            if (i % 100 == 0) {
+                csv.append("Importado ").append(i).append(",0,5.00\n");
+            } else {
+                csv.append("Importado ").append(i).append(",").append(100 + i).append(",5.00\n");
+            }
+        }
+
+        // Act
+        ResultadoImportacaoDto resultado = importacaoDeInsumosService.importarInsumos(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), "text/csv");
+
+        // Assert
+        assertEquals(1200L, resultado.getTotalDeLinhas());
+        assertEquals(1188L, resultado.getTotalImportado());
+        assertEquals(12L, resultado.getTotalDeErros());
+        assertEquals(2L, resultado.getErros().get(0).getLinha());
+        assertEquals("A quantidade de insumo por pacote deve ser maior que 0.", resultado.getErros().get(0).getMensagem());
+
+        assertEquals(1188, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_insumos WHERE nome LIKE 'Importado %'", Integer.class));
+        assertEquals("importado 7", jdbcTemplate.queryForObject(
+                "SELECT nome_busca FROM tb_insumos WHERE nome = 'Importado 7'", String.class));
+    }
+
+    @Test
+    @DisplayName("Deve importar NDJSON apontando a linha que não passou na validação")
+    void deveImportarNdjson() {
+        // Arrange
+        String ndjson = """
+                {"nome":"Importado leite","quantidadePorPacote":1000,"valorPagoPorPacote":4.99}
+                {"nome":"Importado ovo","quantidadePorPacote":12}
+                """;
+
+        // Act
+        ResultadoImportacaoDto resultado = importacaoDeInsumosService.importarInsumos(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), "application/x-ndjson");
+
+        // Assert
+        assertEquals(1L, resultado.getTotalImportado());
+        assertEquals(2L, resultado.getErros().get(0).getLinha());
+        assertEquals("Importado ovo", resultado.getErros().get(0).getNome());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_insumos WHERE nome = 'Importado leite'", Integer.class));
+    }
+}
@@ -0,0 +1,186 @@
+package com.spea.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spea.api.dtos.ErroDeImportacaoDto;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ResultadoImportacaoDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.InsumoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ImportacaoDeInsumosServiceTest {
+
+    @InjectMocks
+    private ImportacaoDeInsumosService importacaoDeInsumosService;
+
+    @Mock
+    private InsumoService insumoService;
+
+    @Mock
+    private InsumoRepository insumoRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importacaoDeInsumosService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(importacaoDeInsumosService, "tamanhoDoLote", 2);
+        ReflectionTestUtils.setField(importacaoDeInsumosService, "quantidadeMaximaDeErros", 1000);
+
+        doAnswer(invocacao -> {
+            Consumer<TransactionStatus> acao = invocacao.getArgument(0);
+            acao.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Deve ler o CSV pelo cabeçalho e gravar as linhas válidas em lotes")
+    void deveLerCsvPeloCabecalhoEGravarEmLotes() {
+        // Arrange
+        String csv = """
+                valorPagoPorPacote,nome,quantidadePorPacote
+                16.90,Muçarela,500
+                5.00,"Farinha ""tipo 1"", especial",1000
+
+                7.5,Açúcar,1000
+                """;
+
+        // Act
+        ResultadoImportacaoDto resultado = importacaoDeInsumosService.importarInsumos(corpo(csv), "text/csv; charset=UTF-8");
+
+        // Assert
+        ArgumentCaptor<List<InsumoDto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(insumoRepository, times(2)).cadastrarInsumosEmLote(captor.capture());
+
+        List<InsumoDto> primeiroLote = captor.getAllValues().get(0);
+        assertEquals(2, primeiroLote.size());
+        assertEquals("Muçarela", primeiroLote.get(0).getNome());
+        assertEquals(500.0, primeiroLote.get(0).getQuantidadePorPacote());
+        assertEquals(new BigDecimal("16.90"), primeiroLote.get(0).getValorPagoPorPacote());
+        assertEquals("Farinha \"tipo 1\", especial", primeiroLote.get(1).getNome());
+        assertEquals(1, captor.getAllValues().get(1).size());
+
+        assertEquals(3L, resultado.getTotalDeLinhas());
+        assertEquals(3L, resultado.getTotalImportado());
+        assertEquals(0L, resultado.getTotalDeErros());
+    }
+
+    @Test
+    @DisplayName("Deve devolver o erro de cada linha inválida sem interromper a importação")
+    void deveDevolverErrosPorLinhaSemInterromper() {
+        // Arrange
+        String ndjson = """
+                {"nome":"Leite","quantidadePorPacote":1000,"valorPagoPorPacote":4.99}
+                {"nome":"","quantidadePorPacote":1000,"valorPagoPorPacote":4.99}
+                isto não é json
+                {"nome":"Ovo","quantidadePorPacote":12,"valorPagoPorPacote":9.00}
+                """;
+        doThrow(new EmpreendedorErrorException("O nome do insumo é obrigatório."))
+                .when(insumoService).validarDadosDoInsumo(argThat(insumo -> "".equals(insumo.getNome())));
+
+        // Act
+        ResultadoImportacaoDto resultado = importacaoDeInsumosService.importarInsumos(corpo(ndjson), "application/x-ndjson");
+
+        // Assert
+        assertEquals(4L, resultado.getTotalDeLinhas());
+        assertEquals(2L, resultado.getTotalImportado());
+        assertEquals(2L, resultado.getTotalDeErros());
+
+        ErroDeImportacaoDto erroDeValidacao = resultado.getErros().get(0);
+        assertEquals(2L, erroDeValidacao.getLinha());
+        assertEquals("O nome do insumo é obrigatório.", erroDeValidacao.getMensagem());
+
+        ErroDeImportacaoDto erroDeLeitura = resultado.getErros().get(1);
+        assertEquals(3L, erroDeLeitura.getLinha());
+        assertEquals("A linha não contém um insumo em JSON válido.", erroDeLeitura.getMensagem());
+    }
+
+    @Test
+    @DisplayName("Deve gravar linha a linha quando o banco recusar o lote e apontar somente a linha recusada")
+    void deveGravarLinhaALinhaQuandoOLoteFalhar() {
+        // Arrange
+        String csv = """
+                nome;quantidade_por_pacote;valor_pago_por_pacote
+                Manteiga;200;12,50
+                Fermento;100000000000;3,00
+                """;
+        when(insumoRepository.cadastrarInsumosEmLote(anyList()))
+                .thenThrow(new EmpreendedorErrorException("Erro inesperado ao cadastrar o lote de insumos."));
+        when(insumoRepository.cadastrarInsumo(argThat(insumo -> "Fermento".equals(insumo.getNome()))))
+                .thenThrow(new EmpreendedorErrorException("Erro inesperado ao cadastrar um novo insumo."));
+
+        // Act
+        ResultadoImportacaoDto resultado = importacaoDeInsumosService.importarInsumos(corpo(csv), "text/csv");
+
+        // Assert
+        assertEquals(1L, resultado.getTotalImportado());
+        assertEquals(1L, resultado.getTotalDeErros());
+        assertEquals(3L, resultado.getErros().get(0).getLinha());
+        assertEquals("Fermento", resultado.getErros().get(0).getNome());
+        verify(insumoRepository).cadastrarInsumo(argThat(insumo ->
+                new BigDecimal("12.50").equals(insumo.getValorPagoPorPacote())));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar formatos não suportados e cabeçalhos de CSV sem as colunas obrigatórias")
+    void deveRejeitarFormatoECabecalhoInvalidos() {
+        // Act & Assert
+        EmpreendedorErrorException formato = assertThrows(EmpreendedorErrorException.class,
+                () -> importacaoDeInsumosService.importarInsumos(corpo("{}"), "application/json"));
+        assertEquals("O formato da importação deve ser text/csv ou application/x-ndjson.", formato.getMessage());
+
+        EmpreendedorErrorException cabecalho = assertThrows(EmpreendedorErrorException.class,
+                () -> importacaoDeInsumosService.importarInsumos(corpo("nome,preco\nLeite,4.99\n"), "text/csv"));
+        assertEquals("O cabeçalho do CSV deve conter as colunas nome, quantidadePorPacote e valorPagoPorPacote.",
+                cabecalho.getMessage());
+
+        verify(insumoRepository, never()).cadastrarInsumosEmLote(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve limitar os erros detalhados sem deixar de contá-los")
+    void deveLimitarErrosDetalhados() {
+        // Arrange
+        ReflectionTestUtils.setField(importacaoDeInsumosService, "quantidadeMaximaDeErros", 2);
+        String csv = "nome,quantidadePorPacote,valorPagoPorPacote\n" + "Sal,abc,1.00\n".repeat(5);
+
+        // Act
+        ResultadoImportacaoDto resultado = importacaoDeInsumosService.importarInsumos(corpo(csv), "text/csv");
+
+        // Assert
+        assertEquals(5L, resultado.getTotalDeErros());
+        assertEquals(2, resultado.getErros().size());
+        assertEquals("A quantidade por pacote 'abc' não é um número válido.", resultado.getErros().get(0).getMensagem());
+    }
+
+    private InputStream corpo(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
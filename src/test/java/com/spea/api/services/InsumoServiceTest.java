@@ -12,11 +12,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -48,10 +48,17 @@ class InsumoServiceTest {
     @Mock
     private ReceitaInsumoService receitaInsumoService;
 
+    @Mock
+    private RecalculoDeCustosService recalculoDeCustosService;
+
+    @Mock
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(insumoService, "modoPropagacaoDeCustos", ModoPropagacaoDeCustos.INDIVIDUAL);
     }
 
     // Método cadastrarInsumo
@@ -335,8 +342,7 @@ class InsumoServiceTest {
         verify(insumoRepository).verificarExistenciaDoInsumoPeloId(id);
         verify(receitaInsumoRepository).obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(id);
         verify(insumoRepository).atualizarInsumo(id, insumoDto);
-        verify(receitaInsumoRepository, never()).atualizarReceitaInsumo(any(), any(), any(), any());
-        verify(receitaRepository, never()).atualizarTotalGastoInsumosDaReceita(any(), any());
+        verify(receitaInsumoRepository, never()).atualizarReceitaInsumoEAplicarDiferencaNoTotal(any(), any(), any(), any());
     }
 
     @Test
@@ -381,10 +387,9 @@ class InsumoServiceTest {
         when(insumoRepository.verificarExistenciaDoInsumoPeloId(id)).thenReturn(true);
         when(receitaInsumoRepository.obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(id))
                 .thenReturn(associacoesCompletas);
-        when(receitaInsumoService.calcularGastoComInsumo(1000.0, new BigDecimal("10.00"), new BigDecimal("200.00")))
-                .thenReturn(new BigDecimal("2.00"));
-        when(receitaInsumoService.calcularGastoComInsumo(1000.0, new BigDecimal("10.00"), new BigDecimal("300.00")))
-                .thenReturn(new BigDecimal("3.00"));
+        // 10.00 / 1000 = 0.010000 por unidade
+        when(receitaInsumoService.calcularPrecoPorUnidadeEmMilionesimos(1000.0, new BigDecimal("10.00")))
+                .thenReturn(10_000L);
         when(insumoRepository.atualizarInsumo(id, insumoDto)).thenReturn(insumoAtualizado);
 
         // Act
@@ -394,259 +399,113 @@ class InsumoServiceTest {
         assertNotNull(resultado);
         assertEquals(id, resultado.getId());
 
-        // Verifica que os custos foram atualizados
-        verify(receitaInsumoRepository).atualizarReceitaInsumo(1L, id, new BigDecimal("200.00"), new BigDecimal("2.00"));
-        verify(receitaInsumoRepository).atualizarReceitaInsumo(2L, id, new BigDecimal("300.00"), new BigDecimal("3.00"));
-
-        // Verifica que os totais das receitas foram atualizados
-        ArgumentCaptor<ReceitaDto> receitaDtoCaptor = ArgumentCaptor.forClass(ReceitaDto.class);
-        verify(receitaRepository).atualizarTotalGastoInsumosDaReceita(eq(1L), receitaDtoCaptor.capture());
-        assertEquals(0, new BigDecimal("50.00").compareTo(receitaDtoCaptor.getValue().getTotalGastoInsumos()));
-
-        verify(receitaRepository).atualizarTotalGastoInsumosDaReceita(eq(2L), receitaDtoCaptor.capture());
-        assertEquals(0, new BigDecimal("75.00").compareTo(receitaDtoCaptor.getValue().getTotalGastoInsumos()));
+        // Verifica que os custos foram atualizados e a diferença aplicada no total de cada receita pelo banco
+        verify(receitaInsumoRepository)
+                .atualizarReceitaInsumoEAplicarDiferencaNoTotal(1L, id, new BigDecimal("200.00"), new BigDecimal("2.00"));
+        verify(receitaInsumoRepository)
+                .atualizarReceitaInsumoEAplicarDiferencaNoTotal(2L, id, new BigDecimal("300.00"), new BigDecimal("3.00"));
     }
 
     @Test
-    @DisplayName("Deve garantir que total não fique negativo durante atualização")
-    void deveGarantirQueTotalNaoFiqueNegativoDuranteAtualizacao() {
+    @DisplayName("Deve propagar custos em conjunto sem carregar as associações quando o modo for CONJUNTO")
+    void devePropagarCustosEmConjuntoQuandoModoForConjunto() {
         // Arrange
+        ReflectionTestUtils.setField(insumoService, "modoPropagacaoDeCustos", ModoPropagacaoDeCustos.CONJUNTO);
+
         Long id = 1L;
         InsumoDto insumoDto = new InsumoDto();
         insumoDto.setNome("Farinha");
         insumoDto.setQuantidadePorPacote(1000.0);
-        insumoDto.setValorPagoPorPacote(new BigDecimal("20.00"));
-
-        // Associação com valor antigo maior que o total atual
-        ReceitaInsumoDto associacao = criarAssociacao(1L, id, new BigDecimal("100.00"), new BigDecimal("15.00"));
-        ReceitaDto receita = new ReceitaDto();
-        receita.setId(1L);
-        receita.setTotalGastoInsumos(new BigDecimal("10.00"));
-
-        // Criar AssociacaoDto com ambos os DTOs
-        AssociacaoDto associacaoCompleta = new AssociacaoDto();
-        associacaoCompleta.setReceitaInsumoDto(associacao);
-        associacaoCompleta.setReceitaDto(receita);
-
-        List<AssociacaoDto> associacoesCompletas = List.of(associacaoCompleta);
+        insumoDto.setValorPagoPorPacote(new BigDecimal("10.00"));
 
         InsumoDto insumoAtualizado = new InsumoDto();
         insumoAtualizado.setId(id);
         insumoAtualizado.setNome("Farinha");
-        insumoAtualizado.setQuantidadePorPacote(1000.0);
-        insumoAtualizado.setValorPagoPorPacote(new BigDecimal("20.00"));
 
         when(insumoRepository.verificarExistenciaDoInsumoPeloId(id)).thenReturn(true);
-        when(receitaInsumoRepository.obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(id))
-                .thenReturn(associacoesCompletas);
-        when(receitaInsumoService.calcularGastoComInsumo(1000.0, new BigDecimal("20.00"), new BigDecimal("100.00")))
-                .thenReturn(new BigDecimal("2.00"));
+        when(receitaInsumoService.calcularPrecoPorUnidadeInsumo(1000.0, new BigDecimal("10.00")))
+                .thenReturn(new BigDecimal("0.010000"));
+        when(receitaInsumoRepository.recalcularCustosDasReceitasQueUtilizamOInsumo(id, new BigDecimal("0.010000")))
+                .thenReturn(2);
         when(insumoRepository.atualizarInsumo(id, insumoDto)).thenReturn(insumoAtualizado);
 
         // Act
         InsumoDto resultado = insumoService.atualizarInsumo(id, insumoDto);
 
-        // Assert - Verifica que o total não ficou negativo
-        ArgumentCaptor<ReceitaDto> receitaDtoCaptor = ArgumentCaptor.forClass(ReceitaDto.class);
-        verify(receitaRepository).atualizarTotalGastoInsumosDaReceita(eq(1L), receitaDtoCaptor.capture());
-
-        // Cálculo: 10.00 - 15.00 (antigo) = -5.00 → max(0) = 0.00 + 2.00 (novo) = 2.00
-        assertEquals(0, new BigDecimal("2.00").compareTo(receitaDtoCaptor.getValue().getTotalGastoInsumos()));
-
-        // Verifica que a atualização da associação foi chamada
-        verify(receitaInsumoRepository).atualizarReceitaInsumo(1L, id, new BigDecimal("100.00"), new BigDecimal("2.00"));
+        // Assert
+        assertEquals(id, resultado.getId());
+        verify(receitaInsumoRepository).recalcularCustosDasReceitasQueUtilizamOInsumo(id, new BigDecimal("0.010000"));
+        verify(receitaInsumoRepository, never()).obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(any());
+        verify(receitaInsumoRepository, never()).atualizarReceitaInsumoEAplicarDiferencaNoTotal(any(), any(), any(), any());
     }
 
-    // Método deletarInsumo
     @Test
-    @DisplayName("Deve deletar insumo sem associações com sucesso")
-    void deveDeletarInsumoSemAssociacoesComSucesso() {
+    @DisplayName("Deve agendar o recálculo sem propagar custos na hora quando o modo for ASSINCRONO")
+    void deveAgendarRecalculoQuandoModoForAssincrono() {
         // Arrange
+        ReflectionTestUtils.setField(insumoService, "modoPropagacaoDeCustos", ModoPropagacaoDeCustos.ASSINCRONO);
+
         Long id = 1L;
-        List<AssociacaoDto> listaVazia = new ArrayList<>();
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setNome("Farinha");
+        insumoDto.setQuantidadePorPacote(1000.0);
+        insumoDto.setValorPagoPorPacote(new BigDecimal("10.00"));
+
+        InsumoDto insumoAtualizado = new InsumoDto();
+        insumoAtualizado.setId(id);
 
         when(insumoRepository.verificarExistenciaDoInsumoPeloId(id)).thenReturn(true);
-        when(receitaInsumoRepository.obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(id))
-                .thenReturn(listaVazia);
-        doNothing().when(insumoRepository).deletarInsumo(id);
+        when(insumoRepository.atualizarInsumo(id, insumoDto)).thenReturn(insumoAtualizado);
 
         // Act
-        insumoService.deletarInsumo(id);
+        InsumoDto resultado = insumoService.atualizarInsumo(id, insumoDto);
 
         // Assert
-        verify(insumoRepository).verificarExistenciaDoInsumoPeloId(id);
-        verify(receitaInsumoRepository).obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(id);
-        verify(insumoRepository).deletarInsumo(id);
-        verify(receitaRepository, never()).obterReceitaPeloId(any());
-        verify(receitaRepository, never()).atualizarTotalGastoInsumosDaReceita(any(), any());
+        assertEquals(id, resultado.getId());
+        verify(recalculoDeCustosService).agendarRecalculoDoInsumo(id);
+        verify(receitaInsumoRepository, never()).recalcularCustosDasReceitasQueUtilizamOInsumo(any(), any());
+        verify(receitaInsumoRepository, never()).obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(any());
     }
 
+    // Método deletarInsumo
     @Test
-    @DisplayName("Deve deletar insumo com associações e atualizar totais das receitas")
-    void deveDeletarInsumoComAssociacionesEAtualizarTotais() {
+    @DisplayName("Deve deletar insumo sem associações com sucesso")
+    void deveDeletarInsumoSemAssociacoesComSucesso() {
         // Arrange
         Long id = 1L;
 
-        // Mock das associações do insumo - AGORA usando AssociacaoDto
-        ReceitaInsumoDto associacao1 = criarAssociacao(1L, id, new BigDecimal("100.50"), new BigDecimal("25.25"));
-        ReceitaInsumoDto associacao2 = criarAssociacao(2L, id, new BigDecimal("75.25"), new BigDecimal("18.75"));
-
-        // Mock das receitas associadas
-        ReceitaDto receita1 = new ReceitaDto();
-        receita1.setId(1L);
-        receita1.setTotalGastoInsumos(new BigDecimal("150.00"));
-
-        ReceitaDto receita2 = new ReceitaDto();
-        receita2.setId(2L);
-        receita2.setTotalGastoInsumos(new BigDecimal("200.00"));
-
-        // Criar AssociacaoDto com ambos os DTOs
-        AssociacaoDto associacaoCompleta1 = new AssociacaoDto();
-        associacaoCompleta1.setReceitaInsumoDto(associacao1);
-        associacaoCompleta1.setReceitaDto(receita1);
-
-        AssociacaoDto associacaoCompleta2 = new AssociacaoDto();
-        associacaoCompleta2.setReceitaInsumoDto(associacao2);
-        associacaoCompleta2.setReceitaDto(receita2);
-
-        List<AssociacaoDto> associacoesCompletas = Arrays.asList(associacaoCompleta1, associacaoCompleta2);
-
-        ReceitaDto receitaAtualizada1 = new ReceitaDto();
-        receitaAtualizada1.setId(1L);
-        receitaAtualizada1.setTotalGastoInsumos(new BigDecimal("124.75"));
-
-        ReceitaDto receitaAtualizada2 = new ReceitaDto();
-        receitaAtualizada2.setId(2L);
-        receitaAtualizada2.setTotalGastoInsumos(new BigDecimal("181.25"));
-
         when(insumoRepository.verificarExistenciaDoInsumoPeloId(id)).thenReturn(true);
-        when(receitaInsumoRepository.obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(id))
-                .thenReturn(associacoesCompletas);
-        when(receitaRepository.atualizarTotalGastoInsumosDaReceita(eq(1L), any(ReceitaDto.class))).thenReturn(receitaAtualizada1);
-        when(receitaRepository.atualizarTotalGastoInsumosDaReceita(eq(2L), any(ReceitaDto.class))).thenReturn(receitaAtualizada2);
+        when(receitaInsumoRepository.removerAssociacoesDoInsumoEAbaterTotais(id)).thenReturn(0);
         doNothing().when(insumoRepository).deletarInsumo(id);
 
         // Act
         insumoService.deletarInsumo(id);
 
-        // Assert - Verifica que os totais foram atualizados corretamente
-        verify(receitaRepository).atualizarTotalGastoInsumosDaReceita(eq(1L), argThat(dto ->
-                dto.getTotalGastoInsumos().equals(new BigDecimal("124.75")))); // 150 - 25.25
-        verify(receitaRepository).atualizarTotalGastoInsumosDaReceita(eq(2L), argThat(dto ->
-                dto.getTotalGastoInsumos().equals(new BigDecimal("181.25")))); // 200 - 18.75
+        // Assert
+        verify(insumoRepository).verificarExistenciaDoInsumoPeloId(id);
+        verify(receitaInsumoRepository).removerAssociacoesDoInsumoEAbaterTotais(id);
         verify(insumoRepository).deletarInsumo(id);
+        verify(receitaRepository, never()).obterReceitaPeloId(any());
     }
 
     @Test
-    @DisplayName("Deve garantir que total não fique negativo após subtração")
-    void deveGarantirQueTotalNaoFiqueNegativo() {
+    @DisplayName("Deve abater os totais das receitas no banco antes de deletar insumo com associações")
+    void deveDeletarInsumoComAssociacionesEAtualizarTotais() {
         // Arrange
         Long id = 1L;
 
-        // Criar associação usando AssociacaoDto
-        ReceitaInsumoDto associacao = criarAssociacao(1L, id, new BigDecimal("50.00"), new BigDecimal("30.00"));
-        ReceitaDto receita = new ReceitaDto();
-        receita.setId(1L);
-        receita.setTotalGastoInsumos(new BigDecimal("25.00")); // Total menor que o valor a subtrair
-
-        // Criar AssociacaoDto com ambos os DTOs
-        AssociacaoDto associacaoCompleta = new AssociacaoDto();
-        associacaoCompleta.setReceitaInsumoDto(associacao);
-        associacaoCompleta.setReceitaDto(receita);
-
-        List<AssociacaoDto> associacoesCompletas = List.of(associacaoCompleta);
-
-        ReceitaDto receitaAtualizada = new ReceitaDto();
-        receitaAtualizada.setId(1L);
-        receitaAtualizada.setTotalGastoInsumos(new BigDecimal("0.00"));
-
         when(insumoRepository.verificarExistenciaDoInsumoPeloId(id)).thenReturn(true);
-        when(receitaInsumoRepository.obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(id))
-                .thenReturn(associacoesCompletas);
-        when(receitaRepository.atualizarTotalGastoInsumosDaReceita(eq(1L), any(ReceitaDto.class))).thenReturn(receitaAtualizada);
+        when(receitaInsumoRepository.removerAssociacoesDoInsumoEAbaterTotais(id)).thenReturn(2);
         doNothing().when(insumoRepository).deletarInsumo(id);
 
         // Act
         insumoService.deletarInsumo(id);
 
-        // Assert - Verifica que o método foi chamado e captura o argumento
-        ArgumentCaptor<ReceitaDto> receitaDtoCaptor = ArgumentCaptor.forClass(ReceitaDto.class);
-        verify(receitaRepository).atualizarTotalGastoInsumosDaReceita(eq(1L), receitaDtoCaptor.capture());
-
-        ReceitaDto dtoAtualizado = receitaDtoCaptor.getValue();
-        assertEquals(0, new BigDecimal("0.00").compareTo(dtoAtualizado.getTotalGastoInsumos()));
-
-        verify(insumoRepository).deletarInsumo(id);
-    }
-
-    @Test
-    @DisplayName("Deve lançar exceção quando total atual for negativo")
-    void deveLancarExcecaoQuandoTotalAtualForNegativo() {
-        // Arrange
-        Long id = 1L;
-
-        // Criar associação usando AssociacaoDto
-        ReceitaInsumoDto associacao = criarAssociacao(1L, id, new BigDecimal("50.00"), new BigDecimal("10.00"));
-        ReceitaDto receita = new ReceitaDto();
-        receita.setId(1L);
-        receita.setTotalGastoInsumos(new BigDecimal("-5.00")); // Total negativo
-
-        // Criar AssociacaoDto com ambos os DTOs
-        AssociacaoDto associacaoCompleta = new AssociacaoDto();
-        associacaoCompleta.setReceitaInsumoDto(associacao);
-        associacaoCompleta.setReceitaDto(receita);
-
-        List<AssociacaoDto> associacoesCompletas = List.of(associacaoCompleta);
-
-        when(insumoRepository.verificarExistenciaDoInsumoPeloId(id)).thenReturn(true);
-        when(receitaInsumoRepository.obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(id))
-                .thenReturn(associacoesCompletas);
-
-        // Act & Assert
-        EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class, () -> {
-            insumoService.deletarInsumo(id);
-        });
-
-        assertEquals("O total atual não pode ser negativo.", excecao.getMessage());
-        verify(insumoRepository, never()).deletarInsumo(any());
-
-        // Verifica que não houve tentativa de atualizar a receita
-        verify(receitaRepository, never()).atualizarTotalGastoInsumosDaReceita(any(), any());
-    }
-
-    @Test
-    @DisplayName("Deve lançar exceção quando valor a subtrair for negativo")
-    void deveLancarExcecaoQuandoValorASubtrairForNegativo() {
-        // Arrange
-        Long id = 1L;
-
-        // Criar associação usando AssociacaoDto
-        ReceitaInsumoDto associacao = criarAssociacao(1L, id, new BigDecimal("50.00"), new BigDecimal("-5.00")); // Valor negativo
-        ReceitaDto receita = new ReceitaDto();
-        receita.setId(1L);
-        receita.setTotalGastoInsumos(new BigDecimal("100.00"));
-
-        // Criar AssociacaoDto com ambos os DTOs
-        AssociacaoDto associacaoCompleta = new AssociacaoDto();
-        associacaoCompleta.setReceitaInsumoDto(associacao);
-        associacaoCompleta.setReceitaDto(receita);
-
-        List<AssociacaoDto> associacoesCompletas = List.of(associacaoCompleta);
-
-        when(insumoRepository.verificarExistenciaDoInsumoPeloId(id)).thenReturn(true);
-        when(receitaInsumoRepository.obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(id))
-                .thenReturn(associacoesCompletas);
-
-        // Act & Assert
-        EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class, () -> {
-            insumoService.deletarInsumo(id);
-        });
-
-        assertEquals("O valor gasto não pode ser negativo.", excecao.getMessage());
-        verify(insumoRepository, never()).deletarInsumo(any());
-
-        // Verifica que não houve tentativa de atualizar a receita
-        verify(receitaRepository, never()).atualizarTotalGastoInsumosDaReceita(any(), any());
+        // Assert
+        var ordem = inOrder(receitaInsumoRepository, insumoRepository);
+        ordem.verify(receitaInsumoRepository).removerAssociacoesDoInsumoEAbaterTotais(id);
+        ordem.verify(insumoRepository).deletarInsumo(id);
+        verify(receitaInsumoRepository, never()).obterListaDeAssociacoesEReceitasRelacionadasAoMesmoInsumo(any());
     }
 
     @Test
@@ -664,7 +523,7 @@ class InsumoServiceTest {
 
         assertEquals("O ID do insumo informado não está cadastrado.", excecao.getMessage());
         verify(insumoRepository, never()).deletarInsumo(any());
-        verify(receitaInsumoRepository, never()).obterListaDeInsumosAssociadosAReceitasPeloId(any());
+        verify(receitaInsumoRepository, never()).removerAssociacoesDoInsumoEAbaterTotais(any());
     }
 
     // Método auxiliar para criar associações
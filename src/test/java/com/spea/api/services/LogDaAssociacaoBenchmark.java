@@ -0,0 +1,80 @@
+package com.spea.api.services;
+
+import com.spea.api.SpeaApiApplication;
+import com.spea.api.dtos.ReceitaInsumoDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a vazão de ReceitaInsumoService.atualizarQuantidadeUtilizadaInsumo com os logs como eram antes
+ * (todas as validações emitidas e escritas de forma síncrona) e com a configuração atual
+ * (validações em DEBUG e escrita pela fila assíncrona). A saída do console vai para target/benchmark-log.txt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogDaAssociacaoBenchmark {
+
+    @Param({"SINCRONO_DETALHADO", "ASSINCRONO"})
+    private String modo;
+
+    private ConfigurableApplicationContext contexto;
+    private ReceitaInsumoService receitaInsumoService;
+    private PrintStream saidaOriginal;
+    private Long receitaId;
+    private Long insumoId;
+    private long iteracao;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        saidaOriginal = System.out;
+        System.setOut(new PrintStream(new FileOutputStream("target/benchmark-log.txt"), false));
+
+        String[] argumentos = "SINCRONO_DETALHADO".equals(modo)
+                ? new String[]{"--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                "--spring.profiles.active=log-sincrono", "--logging.level.com.spea.api.utils.LogUtil=DEBUG"}
+                : new String[]{"--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID()};
+
+        contexto = new SpringApplicationBuilder(SpeaApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(argumentos);
+
+        receitaInsumoService = contexto.getBean(ReceitaInsumoService.class);
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Receita', 0.00)");
+        receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) " +
+                "VALUES ('Farinha', 1000.00, 5.00)");
+        insumoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+
+        receitaInsumoService.criarAssociacao(receitaId, insumoId, new BigDecimal("100.00"));
+    }
+
+    @Benchmark
+    public ReceitaInsumoDto atualizarQuantidadeDaAssociacao() {
+        return receitaInsumoService.atualizarQuantidadeUtilizadaInsumo(receitaId, insumoId,
+                BigDecimal.valueOf(10000 + (iteracao++ % 100), 2));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+        System.out.close();
+        System.setOut(saidaOriginal);
+    }
+}
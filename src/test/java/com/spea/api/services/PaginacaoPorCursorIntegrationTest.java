@@ -0,0 +1,164 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.GlobalPageDto;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ReceitaDto;
+import com.spea.api.dtos.ReceitaInsumoDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class PaginacaoPorCursorIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Autowired
+    private ReceitaService receitaService;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    @Test
+    @DisplayName("Deve percorrer os insumos por cursor nos dois sentidos sem repetir nem pular itens com valores empatados")
+    void devePercorrerInsumosPorCursorNosDoisSentidos() {
+        // Arrange
+        jdbcTemplate.update("DELETE FROM tb_receita_insumo");
+        jdbcTemplate.update("DELETE FROM tb_insumos");
+        for (int i = 0; i < 37; i++) {
+            jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, ?, ?)",
+                    "Insumo " + (i % 7), 100 + (i % 3), new BigDecimal("5.00").add(BigDecimal.valueOf(i % 4)));
+        }
+
+        for (String ordenarPor : List.of("nomeInsumo", "quantidadePorPacote", "valorPagoPorPacote")) {
+            for (String direcao : List.of("asc", "desc")) {
+                // Act
+                List<List<Long>> paginasParaFrente = new ArrayList<>();
+                GlobalPageDto<InsumoDto> pagina = insumoService.obterListaFiltradaDeInsumosPorCursor(null, "", direcao, ordenarPor);
+                paginasParaFrente.add(ids(pagina.getItens(), InsumoDto::getId));
+                assertFalse(pagina.getTemAnterior());
+
+                while (pagina.getTemProxima()) {
+                    pagina = insumoService.obterListaFiltradaDeInsumosPorCursor(null, pagina.getProximoCursor(), direcao, ordenarPor);
+                    paginasParaFrente.add(ids(pagina.getItens(), InsumoDto::getId));
+                }
+
+                List<List<Long>> paginasParaTras = new ArrayList<>();
+                paginasParaTras.add(ids(pagina.getItens(), InsumoDto::getId));
+                while (pagina.getTemAnterior()) {
+                    pagina = insumoService.obterListaFiltradaDeInsumosPorCursor(null, pagina.getCursorAnterior(), direcao, ordenarPor);
+                    paginasParaTras.add(ids(pagina.getItens(), InsumoDto::getId));
+                }
+                Collections.reverse(paginasParaTras);
+
+                // Assert
+                List<Long> esperado = idsOrdenadosDosInsumos(ordenarPor, direcao);
+                assertEquals(esperado, achatar(paginasParaFrente), ordenarPor + " " + direcao);
+                assertEquals(4, paginasParaFrente.size());
+                assertEquals(paginasParaFrente, paginasParaTras);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve percorrer receitas e insumos associados por cursor respeitando o filtro por nome")
+    void devePercorrerReceitasEAssociacoesPorCursorComFiltro() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Receita base', 0.00)");
+        Long receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+
+        for (int i = 0; i < 25; i++) {
+            jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES (?, ?)",
+                    "Bolo cursor " + i, BigDecimal.valueOf(i % 5));
+            jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, 100, 5.00)",
+                    (i % 2 == 0 ? "Leite cursor " : "Ovo cursor ") + i);
+            Long insumoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+            jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                    "VALUES (?, ?, ?, ?)", insumoId, receitaId, BigDecimal.valueOf(i % 3 + 1), BigDecimal.valueOf(i % 3 + 1));
+        }
+
+        // Act
+        List<Long> receitas = new ArrayList<>();
+        GlobalPageDto<ReceitaDto> paginaDeReceitas = receitaService
+                .obterListaFiltradaDeReceitasPorCursor("bolo cursor", "", "desc", "totalGastoInsumos");
+        receitas.addAll(ids(paginaDeReceitas.getItens(), ReceitaDto::getId));
+        while (paginaDeReceitas.getTemProxima()) {
+            paginaDeReceitas = receitaService.obterListaFiltradaDeReceitasPorCursor("bolo cursor",
+                    paginaDeReceitas.getProximoCursor(), "desc", "totalGastoInsumos");
+            receitas.addAll(ids(paginaDeReceitas.getItens(), ReceitaDto::getId));
+        }
+
+        List<Long> insumos = new ArrayList<>();
+        GlobalPageDto<ReceitaInsumoDto> paginaDeInsumos = receitaInsumoService
+                .obterListaDeInsumosAssociadosAReceitaPorCursor(receitaId, "leite", "", "asc", "valorGastoInsumo");
+        insumos.addAll(ids(paginaDeInsumos.getItens(), ReceitaInsumoDto::getInsumoId));
+        while (paginaDeInsumos.getTemProxima()) {
+            paginaDeInsumos = receitaInsumoService.obterListaDeInsumosAssociadosAReceitaPorCursor(receitaId, "leite",
+                    paginaDeInsumos.getProximoCursor(), "asc", "valorGastoInsumo");
+            insumos.addAll(ids(paginaDeInsumos.getItens(), ReceitaInsumoDto::getInsumoId));
+        }
+
+        // Assert
+        assertEquals(jdbcTemplate.queryForList("SELECT id FROM tb_receitas WHERE nome LIKE 'Bolo cursor%' " +
+                "ORDER BY total_gasto_insumos DESC, id DESC", Long.class), receitas);
+        assertEquals(jdbcTemplate.queryForList("SELECT i.id FROM tb_receita_insumo ri JOIN tb_insumos i ON i.id = ri.insumo_id " +
+                "WHERE ri.receita_id = ? AND i.nome LIKE 'Leite cursor%' ORDER BY ri.valor_gasto_insumo ASC, i.id ASC",
+                Long.class, receitaId), insumos);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar um cursor gerado para outra ordenação")
+    void deveRejeitarCursorDeOutraOrdenacao() {
+        // Arrange
+        for (int i = 0; i < 12; i++) {
+            jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, 100, 5.00)",
+                    "Sal " + i);
+        }
+        String proximoCursor = insumoService.obterListaFiltradaDeInsumosPorCursor(null, "", "asc", "nomeInsumo")
+                .getProximoCursor();
+
+        // Act & Assert
+        EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class,
+                () -> insumoService.obterListaFiltradaDeInsumosPorCursor(null, proximoCursor, "desc", "nomeInsumo"));
+        assertEquals("O cursor informado não corresponde à ordenação solicitada.", excecao.getMessage());
+
+        EmpreendedorErrorException cursorInvalido = assertThrows(EmpreendedorErrorException.class,
+                () -> insumoService.obterListaFiltradaDeInsumosPorCursor(null, "nao-e-um-cursor", "asc", "nomeInsumo"));
+        assertEquals("O cursor informado é inválido.", cursorInvalido.getMessage());
+    }
+
+    private List<Long> idsOrdenadosDosInsumos(String ordenarPor, String direcao) {
+        String coluna = switch (ordenarPor) {
+            case "quantidadePorPacote" -> "quantidade_por_pacote";
+            case "valorPagoPorPacote" -> "valor_pago_por_pacote";
+            default -> "nome";
+        };
+        return jdbcTemplate.queryForList("SELECT id FROM tb_insumos ORDER BY " + coluna + " " + direcao + ", id " + direcao,
+                Long.class);
+    }
+
+    private <T> List<Long> ids(List<T> itens, Function<T, Long> id) {
+        return itens.stream().map(id).toList();
+    }
+
+    private List<Long> achatar(List<List<Long>> paginas) {
+        return paginas.stream().flatMap(List::stream).toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.spea.api.services;
+
+import com.spea.api.SpeaApiApplication;
+import com.spea.api.dtos.GlobalPageDto;
+import com.spea.api.dtos.ReceitaInsumoDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a criação de uma associação e a leitura de uma página de insumos associados com o H2 em memória e no
+ * perfil persistente (arquivo MVStore), com quantidadeDeAssociacoes já gravadas em receitas de 1000 insumos cada.
+ * A carga inicial passa pelos triggers do resumo de custo, então leva alguns minutos com 1M de associações.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenciaEmArquivoBenchmark {
+
+    private static final int INSUMOS_POR_RECEITA = 1000;
+
+    @Param({"1000000"})
+    private int quantidadeDeAssociacoes;
+
+    @Param({"MEMORIA", "ARQUIVO"})
+    private String modo;
+
+    private ConfigurableApplicationContext contexto;
+    private JdbcTemplate jdbcTemplate;
+    private ReceitaInsumoService receitaInsumoService;
+    private Path diretorio;
+    private List<Long> insumoIds;
+    private Long receitaLidaId;
+    private Long receitaDeInsercaoId;
+    private int proximaInsercao;
+    private int proximaPagina;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        SpringApplicationBuilder aplicacao = new SpringApplicationBuilder(SpeaApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false);
+
+        if ("ARQUIVO".equals(modo)) {
+            diretorio = Files.createTempDirectory("spea-benchmark");
+            contexto = aplicacao.profiles("persistente")
+                    .run("--spea.h2.arquivo=" + diretorio.resolve("spea-db").toAbsolutePath(),
+                            "--logging.level.com.spea.api=WARN");
+        } else {
+            contexto = aplicacao.run("--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                    "--logging.level.com.spea.api=WARN");
+        }
+
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        receitaInsumoService = contexto.getBean(ReceitaInsumoService.class);
+
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) " +
+                "SELECT 'Insumo ' || X, 1000.00, 5.00 FROM SYSTEM_RANGE(1, " + INSUMOS_POR_RECEITA + ")");
+        insumoIds = jdbcTemplate.queryForList("SELECT id FROM tb_insumos ORDER BY id", Long.class);
+
+        // Uma receita por vez, para que cada transação da carga tenha 1000 linhas.
+        int quantidadeDeReceitas = Math.max(1, quantidadeDeAssociacoes / INSUMOS_POR_RECEITA);
+        for (int i = 0; i < quantidadeDeReceitas; i++) {
+            Long receitaId = cadastrarReceita("Receita " + i);
+            jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                    "SELECT id, ?, 250.00, 1.25 FROM tb_insumos", receitaId);
+            if (i == 0) {
+                receitaLidaId = receitaId;
+            }
+        }
+        receitaDeInsercaoId = cadastrarReceita("Receita de inserção 0");
+    }
+
+    @Benchmark
+    public ReceitaInsumoDto criarAssociacao() {
+        if (proximaInsercao == insumoIds.size()) {
+            receitaDeInsercaoId = cadastrarReceita("Receita de inserção " + receitaDeInsercaoId);
+            proximaInsercao = 0;
+        }
+        return receitaInsumoService.criarAssociacao(receitaDeInsercaoId, insumoIds.get(proximaInsercao++),
+                new BigDecimal("250.00"));
+    }
+
+    @Benchmark
+    public GlobalPageDto<ReceitaInsumoDto> listarInsumosAssociados() {
+        proximaPagina = (proximaPagina + 1) % (INSUMOS_POR_RECEITA / 10);
+        return receitaInsumoService.obterListaDeInsumosAssociadosAReceitaFiltradosEPaginados(receitaLidaId, null,
+                proximaPagina, "asc", "nomeInsumo");
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+        if (diretorio != null) {
+            FileSystemUtils.deleteRecursively(diretorio.toFile());
+        }
+    }
+
+    private Long cadastrarReceita(String nome) {
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome) VALUES (?)", nome);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+    }
+}
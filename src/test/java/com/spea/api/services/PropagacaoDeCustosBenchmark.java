@@ -0,0 +1,80 @@
+package com.spea.api.services;
+
+import com.spea.api.SpeaApiApplication;
+import com.spea.api.dtos.InsumoDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o tempo de InsumoService.atualizarInsumo nos modos INDIVIDUAL e CONJUNTO
+ * conforme cresce o número de receitas que utilizam o insumo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropagacaoDeCustosBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int quantidadeDeReceitas;
+
+    @Param({"INDIVIDUAL", "CONJUNTO"})
+    private String modo;
+
+    private ConfigurableApplicationContext contexto;
+    private InsumoService insumoService;
+    private Long insumoId;
+    private long iteracao;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(SpeaApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                        "--spea.insumo.modo-propagacao-custos=" + modo,
+                        "--logging.level.com.spea.api=WARN");
+
+        insumoService = contexto.getBean(InsumoService.class);
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) " +
+                "VALUES ('Farinha', 1000.00, 5.00)");
+        insumoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+
+        List<Object[]> receitas = new ArrayList<>();
+        for (int i = 0; i < quantidadeDeReceitas; i++) {
+            receitas.add(new Object[]{"Receita " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES (?, 10.00)", receitas);
+
+        jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                "SELECT ?, id, 250.00, 1.25 FROM tb_receitas", insumoId);
+    }
+
+    @Benchmark
+    public InsumoDto atualizarPrecoDoInsumo() {
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setNome("Farinha");
+        insumoDto.setQuantidadePorPacote(1000.0);
+        insumoDto.setValorPagoPorPacote(BigDecimal.valueOf(500 + (iteracao++ % 100), 2));
+
+        return insumoService.atualizarInsumo(insumoId, insumoDto);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+}
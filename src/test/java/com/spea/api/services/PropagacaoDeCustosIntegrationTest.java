@@ -0,0 +1,158 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.repositories.ReceitaInsumoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class PropagacaoDeCustosIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReceitaInsumoRepository receitaInsumoRepository;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Test
+    @DisplayName("Deve recalcular em conjunto com o mesmo arredondamento HALF_EVEN do cálculo individual")
+    void deveRecalcularEmConjuntoComOMesmoArredondamentoDoCalculoIndividual() {
+        // Arrange
+        Long insumoId = inserirInsumo("Farinha", new BigDecimal("500.00"), new BigDecimal("25.00"));
+
+        List<BigDecimal> quantidades = new ArrayList<>(List.of(
+                new BigDecimal("100.50"),  // 5.025  → 5.02
+                new BigDecimal("100.75"),  // 5.0375 → 5.04
+                new BigDecimal("100.30"))); // 5.015  → 5.02
+
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            quantidades.add(BigDecimal.valueOf(1 + random.nextInt(9_999_999), 2));
+        }
+
+        List<Long> receitaIds = new ArrayList<>();
+        for (BigDecimal quantidade : quantidades) {
+            Long receitaId = inserirReceita(new BigDecimal("50.00"));
+            jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                    "VALUES (?, ?, ?, ?)", insumoId, receitaId, quantidade, new BigDecimal("3.00"));
+            receitaIds.add(receitaId);
+        }
+
+        Double novaQuantidadePorPacote = 333.0;
+        BigDecimal novoValorPagoPorPacote = new BigDecimal("17.89");
+
+        BigDecimal precoPorUnidadeInsumo = receitaInsumoService
+                .calcularPrecoPorUnidadeInsumo(novaQuantidadePorPacote, novoValorPagoPorPacote);
+
+        // Act
+        Integer totalAtualizado = receitaInsumoRepository
+                .recalcularCustosDasReceitasQueUtilizamOInsumo(insumoId, precoPorUnidadeInsumo);
+
+        // Assert
+        assertEquals(quantidades.size(), totalAtualizado);
+
+        for (int i = 0; i < quantidades.size(); i++) {
+            BigDecimal esperado = receitaInsumoService
+                    .calcularGastoComInsumo(novaQuantidadePorPacote, novoValorPagoPorPacote, quantidades.get(i));
+
+            Map<String, Object> linha = jdbcTemplate.queryForMap(
+                    "SELECT ri.valor_gasto_insumo, r.total_gasto_insumos FROM tb_receita_insumo ri " +
+                    "JOIN tb_receitas r ON r.id = ri.receita_id WHERE ri.receita_id = ?", receitaIds.get(i));
+
+            assertEquals(esperado, ((BigDecimal) linha.get("VALOR_GASTO_INSUMO")).setScale(2, RoundingMode.HALF_EVEN));
+            assertEquals(new BigDecimal("47.00").add(esperado),
+                    ((BigDecimal) linha.get("TOTAL_GASTO_INSUMOS")).setScale(2, RoundingMode.HALF_EVEN));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve produzir os mesmos totais nos modos INDIVIDUAL e CONJUNTO ao atualizar um insumo")
+    void deveProduzirOsMesmosTotaisNosDoisModos() {
+        // Arrange
+        Long insumoIndividual = inserirInsumo("Açúcar", new BigDecimal("1000.00"), new BigDecimal("6.00"));
+        Long insumoConjunto = inserirInsumo("Açúcar", new BigDecimal("1000.00"), new BigDecimal("6.00"));
+
+        List<Long> receitasIndividual = new ArrayList<>();
+        List<Long> receitasConjunto = new ArrayList<>();
+
+        Random random = new Random(7);
+        for (int i = 0; i < 50; i++) {
+            BigDecimal quantidade = BigDecimal.valueOf(1 + random.nextInt(500_000), 2);
+            BigDecimal valorGasto = receitaInsumoService.calcularGastoComInsumo(1000.0, new BigDecimal("6.00"), quantidade);
+            BigDecimal totalInicial = valorGasto.add(BigDecimal.valueOf(random.nextInt(10_000), 2));
+
+            receitasIndividual.add(inserirReceitaAssociada(insumoIndividual, quantidade, valorGasto, totalInicial));
+            receitasConjunto.add(inserirReceitaAssociada(insumoConjunto, quantidade, valorGasto, totalInicial));
+        }
+
+        InsumoDto insumoAtualizado = new InsumoDto();
+        insumoAtualizado.setNome("Açúcar refinado");
+        insumoAtualizado.setQuantidadePorPacote(750.0);
+        insumoAtualizado.setValorPagoPorPacote(new BigDecimal("7.35"));
+
+        // Act
+        atualizarInsumoNoModo(insumoIndividual, insumoAtualizado, ModoPropagacaoDeCustos.INDIVIDUAL);
+        atualizarInsumoNoModo(insumoConjunto, insumoAtualizado, ModoPropagacaoDeCustos.CONJUNTO);
+
+        // Assert
+        for (int i = 0; i < receitasIndividual.size(); i++) {
+            assertEquals(obterTotal(receitasIndividual.get(i)), obterTotal(receitasConjunto.get(i)));
+        }
+    }
+
+    private void atualizarInsumoNoModo(Long insumoId, InsumoDto insumoDto, ModoPropagacaoDeCustos modo) {
+        Object alvo = AopTestUtils.getTargetObject(insumoService);
+        Object modoAnterior = ReflectionTestUtils.getField(alvo, "modoPropagacaoDeCustos");
+        try {
+            ReflectionTestUtils.setField(alvo, "modoPropagacaoDeCustos", modo);
+            insumoService.atualizarInsumo(insumoId, insumoDto);
+        } finally {
+            ReflectionTestUtils.setField(alvo, "modoPropagacaoDeCustos", modoAnterior);
+        }
+    }
+
+    private BigDecimal obterTotal(Long receitaId) {
+        return jdbcTemplate.queryForObject("SELECT total_gasto_insumos FROM tb_receitas WHERE id = ?",
+                BigDecimal.class, receitaId).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private Long inserirReceitaAssociada(Long insumoId, BigDecimal quantidade, BigDecimal valorGasto, BigDecimal total) {
+        Long receitaId = inserirReceita(total);
+        jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                "VALUES (?, ?, ?, ?)", insumoId, receitaId, quantidade, valorGasto);
+        return receitaId;
+    }
+
+    private Long inserirInsumo(String nome, BigDecimal quantidadePorPacote, BigDecimal valorPagoPorPacote) {
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, ?, ?)",
+                nome, quantidadePorPacote, valorPagoPorPacote);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+    }
+
+    private Long inserirReceita(BigDecimal totalGastoInsumos) {
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES (?, ?)", "Receita", totalGastoInsumos);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+    }
+}
@@ -0,0 +1,268 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ReceitaSubreceitaDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.InsumoRepository;
+import com.spea.api.repositories.ReceitaInsumoRepository;
+import com.spea.api.repositories.ReceitaRepository;
+import com.spea.api.repositories.ReceitaSubreceitaRepository;
+import com.spea.api.repositories.RecalculoPendenteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RecalculoDeCustosServiceTest {
+
+    @InjectMocks
+    private RecalculoDeCustosService recalculoDeCustosService;
+
+    @Mock
+    private InsumoRepository insumoRepository;
+
+    @Mock
+    private ReceitaInsumoRepository receitaInsumoRepository;
+
+    @Mock
+    private ReceitaRepository receitaRepository;
+
+    @Mock
+    private ReceitaInsumoService receitaInsumoService;
+
+    @Mock
+    private ReceitaSubreceitaRepository receitaSubreceitaRepository;
+
+    @Mock
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
+    @Mock
+    private RecalculoPendenteRepository recalculoPendenteRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(recalculoDeCustosService, "tamanhoDoLote", 500);
+        ReflectionTestUtils.setField(recalculoDeCustosService, "maximoDeTentativas", 3);
+
+        doAnswer(invocacao -> {
+            Consumer<TransactionStatus> acao = invocacao.getArgument(0);
+            acao.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Deve agrupar várias alterações do mesmo insumo em um único recálculo")
+    void deveAgruparAlteracoesDoMesmoInsumo() {
+        // Arrange
+        InsumoDto farinha = criarInsumo(1L, 1000.0, "10.00");
+        InsumoDto acucar = criarInsumo(2L, 500.0, "4.00");
+
+        when(insumoRepository.obterListaDeInsumosPelosIds(anyCollection())).thenReturn(List.of(farinha, acucar));
+        when(receitaInsumoService.calcularPrecoPorUnidadeInsumo(1000.0, new BigDecimal("10.00")))
+                .thenReturn(new BigDecimal("0.010000"));
+        when(receitaInsumoService.calcularPrecoPorUnidadeInsumo(500.0, new BigDecimal("4.00")))
+                .thenReturn(new BigDecimal("0.008000"));
+
+        recalculoDeCustosService.agendarRecalculoDoInsumo(1L);
+        recalculoDeCustosService.agendarRecalculoDoInsumo(1L);
+        recalculoDeCustosService.agendarRecalculoDoInsumo(2L);
+        recalculoDeCustosService.agendarRecalculoDoInsumo(1L);
+
+        // Act
+        recalculoDeCustosService.processarFilaDeRecalculo();
+
+        // Assert
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(receitaRepository, times(1)).recalcularTotaisDasReceitasQueUtilizamOsInsumos(captor.capture());
+        assertEquals(Set.of(1L, 2L), Set.copyOf(captor.getValue()));
+
+        verify(receitaInsumoRepository, times(1))
+                .recalcularValorGastoDasAssociacoesDoInsumo(1L, new BigDecimal("0.010000"));
+        verify(receitaInsumoRepository, times(1))
+                .recalcularValorGastoDasAssociacoesDoInsumo(2L, new BigDecimal("0.008000"));
+        assertEquals(0, recalculoDeCustosService.obterQuantidadeDeInsumosPendentes());
+    }
+
+    @Test
+    @DisplayName("Deve gravar o insumo agendado, refazer a fila a partir da tabela e tirá-lo da tabela no recálculo")
+    void deveManterAFilaNaTabelaDeRecalculosPendentes() {
+        // Arrange
+        when(insumoRepository.obterListaDeInsumosPelosIds(anyCollection())).thenReturn(List.of());
+        when(recalculoPendenteRepository.obterInsumosPendentes()).thenReturn(List.of(1L, 2L));
+
+        recalculoDeCustosService.agendarRecalculoDoInsumo(1L);
+        recalculoDeCustosService.carregarRecalculosPendentes();
+
+        // Act
+        recalculoDeCustosService.processarFilaDeRecalculo();
+
+        // Assert
+        verify(recalculoPendenteRepository).registrarInsumoPendente(1L);
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(recalculoPendenteRepository).removerInsumosPendentes(captor.capture());
+        assertEquals(Set.of(1L, 2L), Set.copyOf(captor.getValue()));
+        assertEquals(0, recalculoDeCustosService.obterQuantidadeDeInsumosPendentes());
+    }
+
+    @Test
+    @DisplayName("Deve processar a fila em lotes respeitando o tamanho configurado")
+    void deveProcessarAFilaEmLotes() {
+        // Arrange
+        ReflectionTestUtils.setField(recalculoDeCustosService, "tamanhoDoLote", 2);
+        when(insumoRepository.obterListaDeInsumosPelosIds(anyCollection())).thenReturn(List.of());
+
+        for (long id = 1; id <= 5; id++) {
+            recalculoDeCustosService.agendarRecalculoDoInsumo(id);
+        }
+
+        // Act
+        recalculoDeCustosService.processarFilaDeRecalculo();
+
+        // Assert
+        verify(receitaRepository, times(3)).recalcularTotaisDasReceitasQueUtilizamOsInsumos(anyCollection());
+        assertEquals(0, recalculoDeCustosService.obterQuantidadeDeInsumosPendentes());
+    }
+
+    @Test
+    @DisplayName("Deve manter os insumos na fila quando o processamento do lote falhar")
+    void deveManterInsumosNaFilaQuandoOLoteFalhar() {
+        // Arrange
+        when(insumoRepository.obterListaDeInsumosPelosIds(anyCollection()))
+                .thenThrow(new EmpreendedorErrorException("Erro inesperado ao obter lista de insumos pelos ids."));
+
+        recalculoDeCustosService.agendarRecalculoDoInsumo(1L);
+
+        // Act
+        recalculoDeCustosService.processarFilaDeRecalculo();
+
+        // Assert
+        assertEquals(1, recalculoDeCustosService.obterQuantidadeDeInsumosPendentes());
+        verify(receitaRepository, never()).recalcularTotaisDasReceitasQueUtilizamOsInsumos(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve recalcular os demais insumos do lote quando um deles falhar")
+    void deveRecalcularDemaisInsumosQuandoUmFalhar() {
+        // Arrange
+        when(insumoRepository.obterListaDeInsumosPelosIds(anyCollection())).thenAnswer(invocacao -> {
+            Collection<Long> ids = invocacao.getArgument(0);
+            if (ids.contains(2L)) {
+                throw new EmpreendedorErrorException("Erro inesperado ao obter lista de insumos pelos ids.");
+            }
+            return List.of();
+        });
+
+        recalculoDeCustosService.agendarRecalculoDoInsumo(1L);
+        recalculoDeCustosService.agendarRecalculoDoInsumo(2L);
+        recalculoDeCustosService.agendarRecalculoDoInsumo(3L);
+
+        // Act
+        recalculoDeCustosService.processarFilaDeRecalculo();
+
+        // Assert
+        verify(receitaRepository).recalcularTotaisDasReceitasQueUtilizamOsInsumos(List.of(1L));
+        verify(receitaRepository).recalcularTotaisDasReceitasQueUtilizamOsInsumos(List.of(3L));
+        assertEquals(1, recalculoDeCustosService.obterQuantidadeDeInsumosPendentes());
+        assertEquals(1L, recalculoDeCustosService.obterTotalDeFalhas());
+    }
+
+    @Test
+    @DisplayName("Deve descartar da fila o insumo que falhar em todas as tentativas até ser alterado de novo")
+    void deveDescartarInsumoQueFalharEmTodasAsTentativas() {
+        // Arrange
+        when(insumoRepository.obterListaDeInsumosPelosIds(anyCollection()))
+                .thenThrow(new EmpreendedorErrorException("Erro inesperado ao obter lista de insumos pelos ids."));
+        when(receitaInsumoRepository.verificarSeAReceitaUtilizaAlgumDosInsumos(eq(10L), eq(Set.of(1L)))).thenReturn(true);
+
+        recalculoDeCustosService.agendarRecalculoDoInsumo(1L);
+
+        // Act
+        for (int ciclo = 0; ciclo < 3; ciclo++) {
+            recalculoDeCustosService.processarFilaDeRecalculo();
+        }
+
+        // Assert
+        assertEquals(0, recalculoDeCustosService.obterQuantidadeDeInsumosPendentes());
+        assertEquals(1, recalculoDeCustosService.obterQuantidadeDeInsumosDescartados());
+        assertEquals(3L, recalculoDeCustosService.obterTotalDeFalhas());
+        assertTrue(recalculoDeCustosService.possuiRecalculoPendente(10L));
+
+        recalculoDeCustosService.agendarRecalculoDoInsumo(1L);
+        assertEquals(1, recalculoDeCustosService.obterQuantidadeDeInsumosPendentes());
+        assertEquals(0, recalculoDeCustosService.obterQuantidadeDeInsumosDescartados());
+    }
+
+    @Test
+    @DisplayName("Deve indicar recálculo pendente somente quando a receita utiliza um insumo da fila")
+    void deveIndicarRecalculoPendenteDaReceita() {
+        // Arrange
+        assertFalse(recalculoDeCustosService.possuiRecalculoPendente(10L));
+        recalculoDeCustosService.agendarRecalculoDoInsumo(1L);
+
+        when(receitaInsumoRepository.verificarSeAReceitaUtilizaAlgumDosInsumos(eq(10L), eq(Set.of(1L)))).thenReturn(true);
+        when(receitaInsumoRepository.verificarSeAReceitaUtilizaAlgumDosInsumos(eq(20L), eq(Set.of(1L)))).thenReturn(false);
+
+        // Act & Assert
+        assertTrue(recalculoDeCustosService.possuiRecalculoPendente(10L));
+        assertFalse(recalculoDeCustosService.possuiRecalculoPendente(20L));
+    }
+
+    @Test
+    @DisplayName("Deve indicar recálculo pendente na receita que usa, por sub-receitas, uma receita com insumo da fila")
+    void deveIndicarRecalculoPendentePelasSubreceitas() {
+        // Arrange
+        // 10 usa o insumo 1; 20 usa 10 como sub-receita e 30 usa 20; 40 não usa nenhuma delas.
+        recalculoDeCustosService.agendarRecalculoDoInsumo(1L);
+
+        when(receitaSubreceitaRepository.obterLigacoesDasReceitasQueUtilizamOsInsumos(Set.of(1L)))
+                .thenReturn(List.of(criarLigacao(20L, 10L)));
+        when(receitaSubreceitaRepository.obterLigacoesDasReceitasQueUtilizamAsSubreceitas(Set.of(20L)))
+                .thenReturn(List.of(criarLigacao(30L, 20L)));
+        when(receitaSubreceitaRepository.obterLigacoesDasReceitasQueUtilizamAsSubreceitas(Set.of(30L)))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        assertTrue(recalculoDeCustosService.possuiRecalculoPendente(30L));
+        assertFalse(recalculoDeCustosService.possuiRecalculoPendente(40L));
+    }
+
+    private ReceitaSubreceitaDto criarLigacao(Long receitaId, Long subreceitaId) {
+        ReceitaSubreceitaDto receitaSubreceitaDto = new ReceitaSubreceitaDto();
+        receitaSubreceitaDto.setReceitaId(receitaId);
+        receitaSubreceitaDto.setSubreceitaId(subreceitaId);
+        return receitaSubreceitaDto;
+    }
+
+    private InsumoDto criarInsumo(Long id, Double quantidadePorPacote, String valorPagoPorPacote) {
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setId(id);
+        insumoDto.setQuantidadePorPacote(quantidadePorPacote);
+        insumoDto.setValorPagoPorPacote(new BigDecimal(valorPagoPorPacote));
+        return insumoDto;
+    }
+}
@@ -0,0 +1,68 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.InsumoDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Banco próprio e intervalo longo: a fila só é processada quando o teste pede.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:spea-recalculo-pendente",
+        "spea.insumo.modo-propagacao-custos=ASSINCRONO",
+        "spea.recalculo-custos.intervalo-ms=3600000"
+})
+class RecalculoPendenteIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Autowired
+    private RecalculoDeCustosService recalculoDeCustosService;
+
+    @Test
+    @DisplayName("Deve recuperar da tabela o recálculo agendado antes de a aplicação reiniciar")
+    void deveRecuperarORecalculoAgendadoDepoisDeReiniciar() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) " +
+                "VALUES ('Insumo agendado', 1000, 5.00)");
+        Long insumoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Receita agendada', 0.50)");
+        Long receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+        jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, " +
+                "valor_gasto_insumo) VALUES (?, ?, 100.00, 0.50)", insumoId, receitaId);
+
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setNome("Insumo agendado");
+        insumoDto.setQuantidadePorPacote(1000.0);
+        insumoDto.setValorPagoPorPacote(new BigDecimal("10.00"));
+        insumoService.atualizarInsumo(insumoId, insumoDto);
+
+        // A fila em memória se perde com o processo; só a tabela sobrevive.
+        ((Map<?, ?>) ReflectionTestUtils.getField(recalculoDeCustosService, "insumosPendentes")).clear();
+        boolean pendenteSemAFila = recalculoDeCustosService.possuiRecalculoPendente(receitaId);
+
+        // Act
+        recalculoDeCustosService.carregarRecalculosPendentes();
+        boolean pendenteAoIniciar = recalculoDeCustosService.possuiRecalculoPendente(receitaId);
+        recalculoDeCustosService.processarFilaDeRecalculo();
+
+        // Assert
+        assertFalse(pendenteSemAFila);
+        assertTrue(pendenteAoIniciar);
+        assertFalse(recalculoDeCustosService.possuiRecalculoPendente(receitaId));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_recalculo_pendente", Integer.class));
+        assertEquals(0, new BigDecimal("1.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT total_gasto_insumos FROM tb_receitas WHERE id = ?", BigDecimal.class, receitaId)));
+    }
+}
@@ -1,5 +1,6 @@
 package com.spea.api.services;
 
+import com.spea.api.dtos.AssociacaoDto;
 import com.spea.api.dtos.InsumoDto;
 import com.spea.api.dtos.ReceitaDto;
 import com.spea.api.dtos.ReceitaInsumoDto;
@@ -17,9 +18,12 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +41,9 @@ class ReceitaInsumoServiceTest {
     @Mock
     private ReceitaRepository receitaRepository;
 
+    @Mock
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -65,11 +72,10 @@ class ReceitaInsumoServiceTest {
         associacaoSalva.setQuantidadeUtilizadaInsumo(quantidadeUtilizadaInsumo);
         associacaoSalva.setValorGastoInsumo(new BigDecimal("5.02"));
 
-        when(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)).thenReturn(true);
-        when(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId)).thenReturn(true);
-        when(receitaRepository.obterReceitaPeloId(receitaId)).thenReturn(receitaEncontradaDto);
-        when(insumoRepository.obterInsumoPeloId(insumoId)).thenReturn(insumoEncontradoDto);
-        when(receitaInsumoRepository.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo, new BigDecimal("5.02")))
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId))
+                .thenReturn(criarDadosDaAssociacao(receitaEncontradaDto, insumoEncontradoDto));
+        when(receitaInsumoRepository.criarAssociacaoEAtualizarTotalDaReceita(receitaId, insumoId, quantidadeUtilizadaInsumo,
+                new BigDecimal("5.02")))
                 .thenReturn(associacaoSalva);
 
         // Act
@@ -82,11 +88,9 @@ class ReceitaInsumoServiceTest {
         assertEquals(quantidadeUtilizadaInsumo, resultado.getQuantidadeUtilizadaInsumo());
         assertEquals(new BigDecimal("5.02"), resultado.getValorGastoInsumo());
 
-        verify(receitaRepository).verificarExistenciaDaReceitaPeloId(receitaId);
-        verify(insumoRepository).verificarExistenciaDoInsumoPeloId(insumoId);
-        verify(receitaRepository).obterReceitaPeloId(receitaId);
-        verify(insumoRepository).obterInsumoPeloId(insumoId);
-        verify(receitaInsumoRepository).criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo, new BigDecimal("5.02"));
+        verify(receitaInsumoRepository).obterDadosParaCriacaoDaAssociacao(receitaId, insumoId);
+        verify(receitaInsumoRepository).criarAssociacaoEAtualizarTotalDaReceita(receitaId, insumoId, quantidadeUtilizadaInsumo,
+                new BigDecimal("5.02"));
     }
 
     @Test
@@ -97,17 +101,16 @@ class ReceitaInsumoServiceTest {
         Long insumoId = 2L;
         BigDecimal quantidadeUtilizadaInsumo = null;
 
+        // Nem receita nem insumo existem: a quantidade inválida é apontada antes
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId)).thenReturn(new AssociacaoDto());
+
         // Act & Assert
         EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class,
                 () -> receitaInsumoService.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo));
 
         assertEquals("A quantidade utilizada de insumo é obrigatória.", excecao.getMessage());
 
-        verify(receitaRepository, never()).verificarExistenciaDaReceitaPeloId(any());
-        verify(insumoRepository, never()).verificarExistenciaDoInsumoPeloId(any());
-        verify(receitaRepository, never()).obterReceitaPeloId(any());
-        verify(insumoRepository, never()).obterInsumoPeloId(any());
-        verify(receitaInsumoRepository, never()).criarAssociacao(any(), any(), any(), any());
+        verify(receitaInsumoRepository, never()).criarAssociacaoEAtualizarTotalDaReceita(any(), any(), any(), any());
     }
 
     @Test
@@ -123,6 +126,9 @@ class ReceitaInsumoServiceTest {
         // Testando valor negativo
         BigDecimal quantidadeUtilizadaInsumoNegativo = new BigDecimal("-10.50");
 
+        // Nem receita nem insumo existem: a quantidade inválida é apontada antes
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId)).thenReturn(new AssociacaoDto());
+
         // Act & Assert - Teste com valor ZERO
         EmpreendedorErrorException excecaoZero = assertThrows(EmpreendedorErrorException.class,
                 () -> receitaInsumoService.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumoZero));
@@ -136,11 +142,7 @@ class ReceitaInsumoServiceTest {
         assertEquals("A quantidade utilizada de insumo deve ser maior que 0.", excecaoNegativo.getMessage());
 
         // Verificações comuns para ambos os casos
-        verify(receitaRepository, never()).verificarExistenciaDaReceitaPeloId(any());
-        verify(insumoRepository, never()).verificarExistenciaDoInsumoPeloId(any());
-        verify(receitaRepository, never()).obterReceitaPeloId(any());
-        verify(insumoRepository, never()).obterInsumoPeloId(any());
-        verify(receitaInsumoRepository, never()).criarAssociacao(any(), any(), any(), any());
+        verify(receitaInsumoRepository, never()).criarAssociacaoEAtualizarTotalDaReceita(any(), any(), any(), any());
     }
 
     @Test
@@ -151,7 +153,12 @@ class ReceitaInsumoServiceTest {
         Long insumoId = 2L;
         BigDecimal quantidadeUtilizadaInsumo = new BigDecimal("100.50");
 
-        when(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)).thenReturn(false);
+        InsumoDto insumoEncontradoDto = new InsumoDto();
+        insumoEncontradoDto.setQuantidadePorPacote(500.0);
+        insumoEncontradoDto.setValorPagoPorPacote(new BigDecimal("25.00"));
+
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId))
+                .thenReturn(criarDadosDaAssociacao(null, insumoEncontradoDto));
 
         // Act & Assert
         EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class,
@@ -159,11 +166,8 @@ class ReceitaInsumoServiceTest {
 
         assertEquals("Nenhuma receita encontrada pelo id informado.", excecao.getMessage());
 
-        verify(receitaRepository).verificarExistenciaDaReceitaPeloId(receitaId);
-        verify(insumoRepository, never()).verificarExistenciaDoInsumoPeloId(any());
-        verify(receitaRepository, never()).obterReceitaPeloId(any());
-        verify(insumoRepository, never()).obterInsumoPeloId(any());
-        verify(receitaInsumoRepository, never()).criarAssociacao(any(), any(), any(), any());
+        verify(receitaInsumoRepository).obterDadosParaCriacaoDaAssociacao(receitaId, insumoId);
+        verify(receitaInsumoRepository, never()).criarAssociacaoEAtualizarTotalDaReceita(any(), any(), any(), any());
     }
 
     @Test
@@ -174,8 +178,12 @@ class ReceitaInsumoServiceTest {
         Long insumoId = 999L; // ID que não existe
         BigDecimal quantidadeUtilizadaInsumo = new BigDecimal("100.50");
 
-        when(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)).thenReturn(true);
-        when(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId)).thenReturn(false);
+        ReceitaDto receitaEncontradaDto = new ReceitaDto();
+        receitaEncontradaDto.setNome("Pizza Margherita");
+        receitaEncontradaDto.setTotalGastoInsumos(new BigDecimal("50.00"));
+
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId))
+                .thenReturn(criarDadosDaAssociacao(receitaEncontradaDto, null));
 
         // Act & Assert
         EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class,
@@ -183,11 +191,8 @@ class ReceitaInsumoServiceTest {
 
         assertEquals("Nenhum insumo encontrado pelo id informado.", excecao.getMessage());
 
-        verify(receitaRepository).verificarExistenciaDaReceitaPeloId(receitaId);
-        verify(insumoRepository).verificarExistenciaDoInsumoPeloId(insumoId);
-        verify(receitaRepository, never()).obterReceitaPeloId(any());
-        verify(insumoRepository, never()).obterInsumoPeloId(any());
-        verify(receitaInsumoRepository, never()).criarAssociacao(any(), any(), any(), any());
+        verify(receitaInsumoRepository).obterDadosParaCriacaoDaAssociacao(receitaId, insumoId);
+        verify(receitaInsumoRepository, never()).criarAssociacaoEAtualizarTotalDaReceita(any(), any(), any(), any());
     }
 
     @Test
@@ -206,10 +211,8 @@ class ReceitaInsumoServiceTest {
         insumoEncontradoDto.setQuantidadePorPacote(null); // QUANTIDADE POR PACOTE NULA
         insumoEncontradoDto.setValorPagoPorPacote(new BigDecimal("25.00"));
 
-        when(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)).thenReturn(true);
-        when(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId)).thenReturn(true);
-        when(receitaRepository.obterReceitaPeloId(receitaId)).thenReturn(receitaEncontradaDto);
-        when(insumoRepository.obterInsumoPeloId(insumoId)).thenReturn(insumoEncontradoDto);
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId))
+                .thenReturn(criarDadosDaAssociacao(receitaEncontradaDto, insumoEncontradoDto));
 
         // Act & Assert
         EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class,
@@ -217,11 +220,8 @@ class ReceitaInsumoServiceTest {
 
         assertEquals("A quantidade por pacote não pode ser nula.", excecao.getMessage());
 
-        verify(receitaRepository).verificarExistenciaDaReceitaPeloId(receitaId);
-        verify(insumoRepository).verificarExistenciaDoInsumoPeloId(insumoId);
-        verify(receitaRepository).obterReceitaPeloId(receitaId);
-        verify(insumoRepository).obterInsumoPeloId(insumoId);
-        verify(receitaInsumoRepository, never()).criarAssociacao(any(), any(), any(), any());
+        verify(receitaInsumoRepository).obterDadosParaCriacaoDaAssociacao(receitaId, insumoId);
+        verify(receitaInsumoRepository, never()).criarAssociacaoEAtualizarTotalDaReceita(any(), any(), any(), any());
     }
 
     @Test
@@ -246,12 +246,9 @@ class ReceitaInsumoServiceTest {
         insumoComQuantidadeNegativa.setQuantidadePorPacote(-500.0);
         insumoComQuantidadeNegativa.setValorPagoPorPacote(new BigDecimal("25.00"));
 
-        when(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)).thenReturn(true);
-        when(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId)).thenReturn(true);
-        when(receitaRepository.obterReceitaPeloId(receitaId)).thenReturn(receitaEncontradaDto);
-
         // Act & Assert - Teste com valor ZERO
-        when(insumoRepository.obterInsumoPeloId(insumoId)).thenReturn(insumoComQuantidadeZero);
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId))
+                .thenReturn(criarDadosDaAssociacao(receitaEncontradaDto, insumoComQuantidadeZero));
 
         EmpreendedorErrorException excecaoZero = assertThrows(EmpreendedorErrorException.class,
                 () -> receitaInsumoService.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo));
@@ -259,7 +256,8 @@ class ReceitaInsumoServiceTest {
         assertEquals("A quantidade por pacote deve ser maior que 0.", excecaoZero.getMessage());
 
         // Act & Assert - Teste com valor NEGATIVO
-        when(insumoRepository.obterInsumoPeloId(insumoId)).thenReturn(insumoComQuantidadeNegativa);
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId))
+                .thenReturn(criarDadosDaAssociacao(receitaEncontradaDto, insumoComQuantidadeNegativa));
 
         EmpreendedorErrorException excecaoNegativo = assertThrows(EmpreendedorErrorException.class,
                 () -> receitaInsumoService.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo));
@@ -267,11 +265,8 @@ class ReceitaInsumoServiceTest {
         assertEquals("A quantidade por pacote deve ser maior que 0.", excecaoNegativo.getMessage());
 
         // Verificações comuns para ambos os casos
-        verify(receitaRepository, times(2)).verificarExistenciaDaReceitaPeloId(receitaId);
-        verify(insumoRepository, times(2)).verificarExistenciaDoInsumoPeloId(insumoId);
-        verify(receitaRepository, times(2)).obterReceitaPeloId(receitaId);
-        verify(insumoRepository, times(2)).obterInsumoPeloId(insumoId);
-        verify(receitaInsumoRepository, never()).criarAssociacao(any(), any(), any(), any());
+        verify(receitaInsumoRepository, times(2)).obterDadosParaCriacaoDaAssociacao(receitaId, insumoId);
+        verify(receitaInsumoRepository, never()).criarAssociacaoEAtualizarTotalDaReceita(any(), any(), any(), any());
     }
 
     @Test
@@ -290,10 +285,8 @@ class ReceitaInsumoServiceTest {
         insumoEncontradoDto.setQuantidadePorPacote(500.0);
         insumoEncontradoDto.setValorPagoPorPacote(null); // VALOR PAGO POR PACOTE NULO
 
-        when(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)).thenReturn(true);
-        when(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId)).thenReturn(true);
-        when(receitaRepository.obterReceitaPeloId(receitaId)).thenReturn(receitaEncontradaDto);
-        when(insumoRepository.obterInsumoPeloId(insumoId)).thenReturn(insumoEncontradoDto);
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId))
+                .thenReturn(criarDadosDaAssociacao(receitaEncontradaDto, insumoEncontradoDto));
 
         // Act & Assert
         EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class,
@@ -301,11 +294,8 @@ class ReceitaInsumoServiceTest {
 
         assertEquals("O valor pago por pacote não pode ser nulo.", excecao.getMessage());
 
-        verify(receitaRepository).verificarExistenciaDaReceitaPeloId(receitaId);
-        verify(insumoRepository).verificarExistenciaDoInsumoPeloId(insumoId);
-        verify(receitaRepository).obterReceitaPeloId(receitaId);
-        verify(insumoRepository).obterInsumoPeloId(insumoId);
-        verify(receitaInsumoRepository, never()).criarAssociacao(any(), any(), any(), any());
+        verify(receitaInsumoRepository).obterDadosParaCriacaoDaAssociacao(receitaId, insumoId);
+        verify(receitaInsumoRepository, never()).criarAssociacaoEAtualizarTotalDaReceita(any(), any(), any(), any());
     }
 
     @Test
@@ -330,12 +320,9 @@ class ReceitaInsumoServiceTest {
         insumoComValorNegativo.setQuantidadePorPacote(500.0);
         insumoComValorNegativo.setValorPagoPorPacote(new BigDecimal("-25.00"));
 
-        when(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)).thenReturn(true);
-        when(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId)).thenReturn(true);
-        when(receitaRepository.obterReceitaPeloId(receitaId)).thenReturn(receitaEncontradaDto);
-
         // Act & Assert - Teste com valor ZERO
-        when(insumoRepository.obterInsumoPeloId(insumoId)).thenReturn(insumoComValorZero);
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId))
+                .thenReturn(criarDadosDaAssociacao(receitaEncontradaDto, insumoComValorZero));
 
         EmpreendedorErrorException excecaoZero = assertThrows(EmpreendedorErrorException.class,
                 () -> receitaInsumoService.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo));
@@ -343,7 +330,8 @@ class ReceitaInsumoServiceTest {
         assertEquals("O valor pago por pacote deve ser maior que 0.", excecaoZero.getMessage());
 
         // Act & Assert - Teste com valor NEGATIVO
-        when(insumoRepository.obterInsumoPeloId(insumoId)).thenReturn(insumoComValorNegativo);
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId))
+                .thenReturn(criarDadosDaAssociacao(receitaEncontradaDto, insumoComValorNegativo));
 
         EmpreendedorErrorException excecaoNegativo = assertThrows(EmpreendedorErrorException.class,
                 () -> receitaInsumoService.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo));
@@ -351,11 +339,8 @@ class ReceitaInsumoServiceTest {
         assertEquals("O valor pago por pacote deve ser maior que 0.", excecaoNegativo.getMessage());
 
         // Verificações comuns para ambos os casos
-        verify(receitaRepository, times(2)).verificarExistenciaDaReceitaPeloId(receitaId);
-        verify(insumoRepository, times(2)).verificarExistenciaDoInsumoPeloId(insumoId);
-        verify(receitaRepository, times(2)).obterReceitaPeloId(receitaId);
-        verify(insumoRepository, times(2)).obterInsumoPeloId(insumoId);
-        verify(receitaInsumoRepository, never()).criarAssociacao(any(), any(), any(), any());
+        verify(receitaInsumoRepository, times(2)).obterDadosParaCriacaoDaAssociacao(receitaId, insumoId);
+        verify(receitaInsumoRepository, never()).criarAssociacaoEAtualizarTotalDaReceita(any(), any(), any(), any());
     }
 
     @Test
@@ -383,11 +368,10 @@ class ReceitaInsumoServiceTest {
         associacaoSalva.setQuantidadeUtilizadaInsumo(quantidadeUtilizadaInsumo);
         associacaoSalva.setValorGastoInsumo(new BigDecimal("5.02")); // HALF_EVEN: 5.025 → 5.02
 
-        when(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)).thenReturn(true);
-        when(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId)).thenReturn(true);
-        when(receitaRepository.obterReceitaPeloId(receitaId)).thenReturn(receitaEncontradaDto);
-        when(insumoRepository.obterInsumoPeloId(insumoId)).thenReturn(insumoEncontradoDto);
-        when(receitaInsumoRepository.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo, new BigDecimal("5.02")))
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId))
+                .thenReturn(criarDadosDaAssociacao(receitaEncontradaDto, insumoEncontradoDto));
+        when(receitaInsumoRepository.criarAssociacaoEAtualizarTotalDaReceita(receitaId, insumoId, quantidadeUtilizadaInsumo,
+                new BigDecimal("5.02")))
                 .thenReturn(associacaoSalva);
 
         // Act
@@ -398,11 +382,9 @@ class ReceitaInsumoServiceTest {
         assertEquals(0, new BigDecimal("5.02").compareTo(resultado.getValorGastoInsumo()));
 
         // Verificações adicionais
-        verify(receitaRepository).verificarExistenciaDaReceitaPeloId(receitaId);
-        verify(insumoRepository).verificarExistenciaDoInsumoPeloId(insumoId);
-        verify(receitaRepository).obterReceitaPeloId(receitaId);
-        verify(insumoRepository).obterInsumoPeloId(insumoId);
-        verify(receitaInsumoRepository).criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo, new BigDecimal("5.02"));
+        verify(receitaInsumoRepository).obterDadosParaCriacaoDaAssociacao(receitaId, insumoId);
+        verify(receitaInsumoRepository).criarAssociacaoEAtualizarTotalDaReceita(receitaId, insumoId, quantidadeUtilizadaInsumo,
+                new BigDecimal("5.02"));
     }
 
     @Test
@@ -430,11 +412,10 @@ class ReceitaInsumoServiceTest {
         associacaoSalva.setQuantidadeUtilizadaInsumo(quantidadeUtilizadaInsumo);
         associacaoSalva.setValorGastoInsumo(new BigDecimal("5.04")); // HALF_EVEN: 5.0375 → 5.04
 
-        when(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)).thenReturn(true);
-        when(insumoRepository.verificarExistenciaDoInsumoPeloId(insumoId)).thenReturn(true);
-        when(receitaRepository.obterReceitaPeloId(receitaId)).thenReturn(receitaEncontradaDto);
-        when(insumoRepository.obterInsumoPeloId(insumoId)).thenReturn(insumoEncontradoDto);
-        when(receitaInsumoRepository.criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo, new BigDecimal("5.04")))
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId))
+                .thenReturn(criarDadosDaAssociacao(receitaEncontradaDto, insumoEncontradoDto));
+        when(receitaInsumoRepository.criarAssociacaoEAtualizarTotalDaReceita(receitaId, insumoId, quantidadeUtilizadaInsumo,
+                new BigDecimal("5.04")))
                 .thenReturn(associacaoSalva);
 
         // Act
@@ -443,7 +424,8 @@ class ReceitaInsumoServiceTest {
         // Assert
         assertEquals(new BigDecimal("5.04"), resultado.getValorGastoInsumo());
 
-        verify(receitaInsumoRepository).criarAssociacao(receitaId, insumoId, quantidadeUtilizadaInsumo, new BigDecimal("5.04"));
+        verify(receitaInsumoRepository).criarAssociacaoEAtualizarTotalDaReceita(receitaId, insumoId, quantidadeUtilizadaInsumo,
+                new BigDecimal("5.04"));
     }
 
     @Test
@@ -454,7 +436,14 @@ class ReceitaInsumoServiceTest {
         Long insumoId = 2L;
         BigDecimal quantidadeUtilizadaInsumo = new BigDecimal("100.50");
 
-        when(receitaInsumoRepository.verificarExistenciaDaAssociacaoDaReceitaEInsumo(receitaId, insumoId)).thenReturn(true);
+        ReceitaInsumoDto associacaoExistente = new ReceitaInsumoDto();
+        associacaoExistente.setReceitaId(receitaId);
+        associacaoExistente.setInsumoId(insumoId);
+
+        AssociacaoDto dadosDaAssociacao = criarDadosDaAssociacao(new ReceitaDto(), new InsumoDto());
+        dadosDaAssociacao.setReceitaInsumoDto(associacaoExistente);
+
+        when(receitaInsumoRepository.obterDadosParaCriacaoDaAssociacao(receitaId, insumoId)).thenReturn(dadosDaAssociacao);
 
         // Act & Assert
         EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class,
@@ -462,11 +451,105 @@ class ReceitaInsumoServiceTest {
 
         assertEquals("O insumo informado já está associado à receita informada.", excecao.getMessage());
 
-        verify(receitaInsumoRepository).verificarExistenciaDaAssociacaoDaReceitaEInsumo(receitaId, insumoId);
-        verify(receitaRepository, never()).verificarExistenciaDaReceitaPeloId(any());
-        verify(insumoRepository, never()).verificarExistenciaDoInsumoPeloId(any());
-        verify(receitaRepository, never()).obterReceitaPeloId(any());
-        verify(insumoRepository, never()).obterInsumoPeloId(any());
-        verify(receitaInsumoRepository, never()).criarAssociacao(any(), any(), any(), any());
+        verify(receitaInsumoRepository).obterDadosParaCriacaoDaAssociacao(receitaId, insumoId);
+        verify(receitaInsumoRepository, never()).criarAssociacaoEAtualizarTotalDaReceita(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve criar em lote as associações calculando o valor gasto de cada insumo")
+    void deveCriarAssociacoesEmLoteComSucesso() {
+        // Arrange
+        Long receitaId = 1L;
+        List<ReceitaInsumoDto> listaDeAssociacoes = List.of(
+                criarItemDoLote(2L, new BigDecimal("100.50")),
+                criarItemDoLote(3L, new BigDecimal("2.00")));
+
+        when(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)).thenReturn(true);
+        when(receitaInsumoRepository.obterInsumosParaAssociacaoEmLote(receitaId, List.of(2L, 3L)))
+                .thenReturn(List.of(criarInsumoDoLote(3L, 12.0, new BigDecimal("9.00")),
+                        criarInsumoDoLote(2L, 500.0, new BigDecimal("25.00"))));
+        when(receitaInsumoRepository.criarAssociacoesEmLoteEAtualizarTotalDaReceita(eq(receitaId), anyList()))
+                .thenAnswer(invocacao -> invocacao.getArgument(1));
+
+        // Act
+        List<ReceitaInsumoDto> resultado = receitaInsumoService.criarAssociacoesEmLote(receitaId, listaDeAssociacoes);
+
+        // Assert
+        assertEquals(2, resultado.size());
+        assertEquals(2L, resultado.get(0).getInsumoId());
+        assertEquals(new BigDecimal("5.02"), resultado.get(0).getValorGastoInsumo());
+        assertEquals(3L, resultado.get(1).getInsumoId());
+        assertEquals(new BigDecimal("1.50"), resultado.get(1).getValorGastoInsumo());
+        verify(receitaInsumoRepository, times(1)).obterInsumosParaAssociacaoEmLote(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Deve recusar o lote inteiro quando algum insumo não existir ou já estiver associado")
+    void deveRecusarLoteComInsumoInexistenteOuJaAssociado() {
+        // Arrange
+        Long receitaId = 1L;
+        List<ReceitaInsumoDto> listaDeAssociacoes = List.of(
+                criarItemDoLote(2L, BigDecimal.ONE),
+                criarItemDoLote(3L, BigDecimal.ONE),
+                criarItemDoLote(4L, BigDecimal.ONE));
+
+        AssociacaoDto insumoJaAssociado = criarInsumoDoLote(3L, 12.0, new BigDecimal("9.00"));
+        ReceitaInsumoDto associacaoExistente = new ReceitaInsumoDto();
+        associacaoExistente.setReceitaId(receitaId);
+        associacaoExistente.setInsumoId(3L);
+        insumoJaAssociado.setReceitaInsumoDto(associacaoExistente);
+
+        when(receitaRepository.verificarExistenciaDaReceitaPeloId(receitaId)).thenReturn(true);
+        when(receitaInsumoRepository.obterInsumosParaAssociacaoEmLote(receitaId, List.of(2L, 3L, 4L)))
+                .thenReturn(List.of(criarInsumoDoLote(2L, 500.0, new BigDecimal("25.00")), insumoJaAssociado))
+                .thenReturn(List.of(criarInsumoDoLote(2L, 500.0, new BigDecimal("25.00")), insumoJaAssociado,
+                        criarInsumoDoLote(4L, 1.0, BigDecimal.ONE)));
+
+        // Act & Assert
+        assertEquals("Nenhum insumo encontrado pelos ids informados: [4].", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaInsumoService.criarAssociacoesEmLote(receitaId, listaDeAssociacoes)).getMessage());
+        assertEquals("Os insumos [3] já estão associados à receita informada.", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaInsumoService.criarAssociacoesEmLote(receitaId, listaDeAssociacoes)).getMessage());
+
+        verify(receitaInsumoRepository, never()).criarAssociacoesEmLoteEAtualizarTotalDaReceita(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Deve validar a lista do lote antes de consultar o banco")
+    void deveValidarListaDoLoteAntesDeConsultarOBanco() {
+        // Act & Assert
+        assertEquals("A lista de insumos a associar é obrigatória.", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaInsumoService.criarAssociacoesEmLote(1L, List.of())).getMessage());
+        assertEquals("O id do insumo é obrigatório em todos os itens da lista.", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaInsumoService.criarAssociacoesEmLote(1L, List.of(criarItemDoLote(null, BigDecimal.ONE)))).getMessage());
+        assertEquals("A quantidade utilizada de insumo deve ser maior que 0.", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaInsumoService.criarAssociacoesEmLote(1L, List.of(criarItemDoLote(2L, BigDecimal.ZERO)))).getMessage());
+        assertEquals("O insumo 2 foi informado mais de uma vez.", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaInsumoService.criarAssociacoesEmLote(1L,
+                        List.of(criarItemDoLote(2L, BigDecimal.ONE), criarItemDoLote(2L, BigDecimal.TEN)))).getMessage());
+
+        verifyNoInteractions(receitaRepository, receitaInsumoRepository);
+    }
+
+    private ReceitaInsumoDto criarItemDoLote(Long insumoId, BigDecimal quantidadeUtilizadaInsumo) {
+        ReceitaInsumoDto item = new ReceitaInsumoDto();
+        item.setInsumoId(insumoId);
+        item.setQuantidadeUtilizadaInsumo(quantidadeUtilizadaInsumo);
+        return item;
+    }
+
+    private AssociacaoDto criarInsumoDoLote(Long insumoId, Double quantidadePorPacote, BigDecimal valorPagoPorPacote) {
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setId(insumoId);
+        insumoDto.setQuantidadePorPacote(quantidadePorPacote);
+        insumoDto.setValorPagoPorPacote(valorPagoPorPacote);
+        return criarDadosDaAssociacao(null, insumoDto);
+    }
+
+    private AssociacaoDto criarDadosDaAssociacao(ReceitaDto receitaDto, InsumoDto insumoDto) {
+        AssociacaoDto dadosDaAssociacao = new AssociacaoDto();
+        dadosDaAssociacao.setReceitaDto(receitaDto);
+        dadosDaAssociacao.setInsumoDto(insumoDto);
+        return dadosDaAssociacao;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 package com.spea.api.services;
 
+import com.spea.api.dtos.CustoDoInsumoNaReceitaDto;
+import com.spea.api.dtos.EstadoCustoReceitaDto;
 import com.spea.api.dtos.ReceitaDto;
+import com.spea.api.dtos.ResumoCustoReceitaDto;
 import com.spea.api.exceptions.EmpreendedorErrorException;
 import com.spea.api.repositories.ReceitaRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +15,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -24,6 +30,9 @@ class ReceitaServiceTest {
     @Mock
     private ReceitaRepository receitaRepository;
 
+    @Mock
+    private RecalculoDeCustosService recalculoDeCustosService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -182,5 +191,80 @@ class ReceitaServiceTest {
         verify(receitaRepository, never()).atualizarNomeDaReceita(any(), any());
     }
 
+    // Método obterEstadoDoCustoDaReceita
+    @Test
+    @DisplayName("Deve obter o estado do custo da receita indicando se há recálculo pendente")
+    void deveObterEstadoDoCustoDaReceitaComRecalculoPendente() {
+        // Arrange
+        Long id = 1L;
+        EstadoCustoReceitaDto estadoCustoReceitaDto = new EstadoCustoReceitaDto();
+        estadoCustoReceitaDto.setReceitaId(id);
+        estadoCustoReceitaDto.setTotalGastoInsumos(new BigDecimal("12.50"));
+        estadoCustoReceitaDto.setCustoRecalculadoEm(Instant.parse("2025-01-01T10:00:00Z"));
+
+        when(receitaRepository.obterEstadoDoCustoDaReceita(id)).thenReturn(estadoCustoReceitaDto);
+        when(recalculoDeCustosService.possuiRecalculoPendente(id)).thenReturn(true);
+
+        // Act
+        EstadoCustoReceitaDto resultado = receitaService.obterEstadoDoCustoDaReceita(id);
+
+        // Assert
+        assertEquals(id, resultado.getReceitaId());
+        assertEquals(new BigDecimal("12.50"), resultado.getTotalGastoInsumos());
+        assertEquals(Instant.parse("2025-01-01T10:00:00Z"), resultado.getCustoRecalculadoEm());
+        assertTrue(resultado.getRecalculoPendente());
+    }
+
+    // Método obterResumoDoCustoDaReceita
+    @Test
+    @DisplayName("Deve calcular a participação de cada insumo no total do resumo do custo da receita")
+    void deveCalcularParticipacaoDosInsumosNoResumo() {
+        // Arrange
+        Long id = 1L;
+        ResumoCustoReceitaDto resumoCustoReceitaDto = new ResumoCustoReceitaDto();
+        resumoCustoReceitaDto.setReceitaId(id);
+        resumoCustoReceitaDto.setTotalGastoInsumos(new BigDecimal("30.00"));
+        resumoCustoReceitaDto.setQuantidadeDeInsumos(2);
+        resumoCustoReceitaDto.setInsumoMaisCaro(criarCustoDoInsumo(7L, "Mussarela", "20.00"));
+        resumoCustoReceitaDto.getInsumos().add(criarCustoDoInsumo(7L, "Mussarela", "20.00"));
+        resumoCustoReceitaDto.getInsumos().add(criarCustoDoInsumo(3L, "Farinha", "10.00"));
+
+        when(receitaRepository.obterResumoDoCustoDaReceita(id)).thenReturn(resumoCustoReceitaDto);
 
-}
\ No newline at end of file
+        // Act
+        ResumoCustoReceitaDto resultado = receitaService.obterResumoDoCustoDaReceita(id);
+
+        // Assert
+        assertEquals(new BigDecimal("66.67"), resultado.getInsumoMaisCaro().getParticipacaoNoTotal());
+        assertEquals(new BigDecimal("66.67"), resultado.getInsumos().get(0).getParticipacaoNoTotal());
+        assertEquals(new BigDecimal("33.33"), resultado.getInsumos().get(1).getParticipacaoNoTotal());
+    }
+
+    @Test
+    @DisplayName("Deve devolver participação zero quando o total da receita for zero")
+    void deveDevolverParticipacaoZeroQuandoTotalForZero() {
+        // Arrange
+        Long id = 1L;
+        ResumoCustoReceitaDto resumoCustoReceitaDto = new ResumoCustoReceitaDto();
+        resumoCustoReceitaDto.setReceitaId(id);
+        resumoCustoReceitaDto.setTotalGastoInsumos(new BigDecimal("0.00"));
+        resumoCustoReceitaDto.getInsumos().add(criarCustoDoInsumo(3L, "Sal", "0.00"));
+
+        when(receitaRepository.obterResumoDoCustoDaReceita(id)).thenReturn(resumoCustoReceitaDto);
+
+        // Act
+        ResumoCustoReceitaDto resultado = receitaService.obterResumoDoCustoDaReceita(id);
+
+        // Assert
+        assertNull(resultado.getInsumoMaisCaro());
+        assertEquals(new BigDecimal("0.00"), resultado.getInsumos().get(0).getParticipacaoNoTotal());
+    }
+
+    private CustoDoInsumoNaReceitaDto criarCustoDoInsumo(Long insumoId, String insumoNome, String valorGastoInsumo) {
+        CustoDoInsumoNaReceitaDto custoDoInsumo = new CustoDoInsumoNaReceitaDto();
+        custoDoInsumo.setInsumoId(insumoId);
+        custoDoInsumo.setInsumoNome(insumoNome);
+        custoDoInsumo.setValorGastoInsumo(new BigDecimal(valorGastoInsumo));
+        return custoDoInsumo;
+    }
+}
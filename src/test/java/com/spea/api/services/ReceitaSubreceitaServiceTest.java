@@ -0,0 +1,123 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.ReceitaDto;
+import com.spea.api.dtos.ReceitaSubreceitaDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import com.spea.api.repositories.ReceitaRepository;
+import com.spea.api.repositories.ReceitaSubreceitaRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReceitaSubreceitaServiceTest {
+
+    @InjectMocks
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
+    @Mock
+    private ReceitaSubreceitaRepository receitaSubreceitaRepository;
+
+    @Mock
+    private ReceitaRepository receitaRepository;
+
+    @Test
+    @DisplayName("Deve ordenar as receitas afetadas em níveis, cada uma depois das suas sub-receitas")
+    void deveOrdenarReceitasEmNiveis() {
+        // Arrange
+        // 10 e 11 usam a sub-receita 1 (fora do mapa); 20 usa 10 e 11; 30 usa 20 e 10.
+        Map<Long, Set<Long>> subreceitasAlteradasPorReceita = Map.of(
+                10L, Set.of(1L),
+                11L, Set.of(1L),
+                20L, Set.of(10L, 11L),
+                30L, Set.of(20L, 10L));
+
+        // Act
+        List<List<Long>> niveis = receitaSubreceitaService.ordenarEmNiveis(subreceitasAlteradasPorReceita);
+
+        // Assert
+        assertEquals(3, niveis.size());
+        assertEquals(Set.of(10L, 11L), new HashSet<>(niveis.get(0)));
+        assertEquals(List.of(20L), niveis.get(1));
+        assertEquals(List.of(30L), niveis.get(2));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a propagação quando as sub-receitas formam um ciclo")
+    void deveRecusarPropagacaoComCiclo() {
+        // Arrange
+        Map<Long, Set<Long>> subreceitasAlteradasPorReceita = Map.of(
+                10L, Set.of(1L, 30L),
+                20L, Set.of(10L),
+                30L, Set.of(20L));
+
+        // Act & Assert
+        assertThrows(EmpreendedorErrorException.class,
+                () -> receitaSubreceitaService.ordenarEmNiveis(subreceitasAlteradasPorReceita));
+    }
+
+    @Test
+    @DisplayName("Deve recusar uma receita como sub-receita dela mesma sem consultar o banco")
+    void deveRecusarReceitaComoSubreceitaDelaMesma() {
+        // Act & Assert
+        assertThrows(EmpreendedorErrorException.class,
+                () -> receitaSubreceitaService.criarSubreceita(5L, 5L, BigDecimal.ONE));
+        verify(receitaSubreceitaRepository, never()).travarLigacoesDeSubreceitas();
+        verify(receitaRepository, never()).verificarExistenciaDaReceitaPeloId(any());
+    }
+
+    @Test
+    @DisplayName("Deve calcular o gasto com a sub-receita como a fração utilizada do total com arredondamento HALF_EVEN")
+    void deveCalcularGastoComSubreceita() {
+        // Act & Assert
+        assertEquals(new BigDecimal("6.25"),
+                receitaSubreceitaService.calcularGastoComSubreceita(new BigDecimal("12.50"), new BigDecimal("0.50")));
+        assertEquals(new BigDecimal("0.12"),
+                receitaSubreceitaService.calcularGastoComSubreceita(new BigDecimal("0.25"), new BigDecimal("0.50")));
+    }
+
+    @Test
+    @DisplayName("Deve arredondar a quantidade utilizada para duas casas antes de calcular e gravar o gasto")
+    void deveArredondarQuantidadeUtilizadaAntesDeCalcularOGasto() {
+        // Arrange
+        ReceitaDto subreceitaDto = new ReceitaDto();
+        subreceitaDto.setNome("Massa");
+        subreceitaDto.setTotalGastoInsumos(new BigDecimal("10.00"));
+        when(receitaSubreceitaRepository.verificarExistenciaDaSubreceitaNaReceita(1L, 2L)).thenReturn(true);
+        when(receitaSubreceitaRepository.obterSubreceitaBloqueadaPeloId(2L)).thenReturn(subreceitaDto);
+        when(receitaSubreceitaRepository.atualizarSubreceitaEAplicarDiferencaNoTotal(eq(1L), eq(2L), any(), any()))
+                .thenReturn(new ReceitaSubreceitaDto());
+
+        // Act
+        receitaSubreceitaService.atualizarQuantidadeUtilizadaSubreceita(1L, 2L, new BigDecimal("0.335"));
+
+        // Assert
+        verify(receitaSubreceitaRepository).atualizarSubreceitaEAplicarDiferencaNoTotal(1L, 2L,
+                new BigDecimal("0.34"), new BigDecimal("3.40"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a quantidade utilizada que fica zerada com duas casas")
+    void deveRecusarQuantidadeUtilizadaZeradaComDuasCasas() {
+        // Act & Assert
+        assertThrows(EmpreendedorErrorException.class,
+                () -> receitaSubreceitaService.criarSubreceita(1L, 2L, new BigDecimal("0.004")));
+        verify(receitaRepository, never()).verificarExistenciaDaReceitaPeloId(any());
+    }
+}
@@ -0,0 +1,152 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.CustoDoInsumoNaReceitaDto;
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.ReceitaInsumoDto;
+import com.spea.api.dtos.ResumoCustoReceitaDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class ResumoDeCustoIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReceitaService receitaService;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    private Long receitaId;
+    private Long mussarelaId;
+    private Long farinhaId;
+    private Long tomateId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Pizza resumida', 0.00)");
+        receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+
+        mussarelaId = criarInsumo("Mussarela", 500, "25.00");
+        farinhaId = criarInsumo("Farinha", 1000, "5.00");
+        tomateId = criarInsumo("Tomate", 1000, "8.00");
+    }
+
+    @Test
+    @DisplayName("Deve manter o resumo igual ao recalculado das associações a cada alteração")
+    void deveManterResumoIgualAoRecalculadoACadaAlteracao() {
+        // Act & Assert
+        ResumoCustoReceitaDto vazio = receitaService.obterResumoDoCustoDaReceita(receitaId);
+        assertEquals(new BigDecimal("0.00"), vazio.getTotalGastoInsumos());
+        assertEquals(0, vazio.getQuantidadeDeInsumos());
+        assertNull(vazio.getInsumoMaisCaro());
+
+        receitaInsumoService.criarAssociacao(receitaId, farinhaId, new BigDecimal("300.00"));
+        assertResumoIgualAoRecalculado();
+
+        receitaInsumoService.criarAssociacoesEmLote(receitaId, List.of(
+                criarItem(mussarelaId, "200.00"), criarItem(tomateId, "150.00")));
+        assertResumoIgualAoRecalculado();
+        assertEquals(mussarelaId, receitaService.obterResumoDoCustoDaReceita(receitaId).getInsumoMaisCaro().getInsumoId());
+
+        // A mussarela deixa de ser a mais cara: o resumo procura de novo pelo índice de valor.
+        receitaInsumoService.atualizarQuantidadeUtilizadaInsumo(receitaId, mussarelaId, new BigDecimal("10.00"));
+        assertResumoIgualAoRecalculado();
+        assertEquals(farinhaId, receitaService.obterResumoDoCustoDaReceita(receitaId).getInsumoMaisCaro().getInsumoId());
+
+        // Novo nome e novo preço propagados em conjunto pelo banco.
+        InsumoDto tomateAtualizado = new InsumoDto();
+        tomateAtualizado.setNome("Tomate italiano");
+        tomateAtualizado.setQuantidadePorPacote(100.0);
+        tomateAtualizado.setValorPagoPorPacote(new BigDecimal("12.00"));
+        insumoService.atualizarInsumo(tomateId, tomateAtualizado);
+        assertResumoIgualAoRecalculado();
+
+        ResumoCustoReceitaDto comTomateCaro = receitaService.obterResumoDoCustoDaReceita(receitaId);
+        assertEquals(tomateId, comTomateCaro.getInsumoMaisCaro().getInsumoId());
+        assertEquals("Tomate italiano", comTomateCaro.getInsumoMaisCaro().getInsumoNome());
+
+        insumoService.deletarInsumo(tomateId);
+        assertResumoIgualAoRecalculado();
+
+        ResumoCustoReceitaDto semTomate = receitaService.obterResumoDoCustoDaReceita(receitaId);
+        assertEquals(2, semTomate.getQuantidadeDeInsumos());
+        assertEquals(0, new BigDecimal("100").compareTo(semTomate.getInsumos().stream()
+                .map(CustoDoInsumoNaReceitaDto::getParticipacaoNoTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)));
+    }
+
+    @Test
+    @DisplayName("Deve remover o resumo junto com a receita e recusar receitas inexistentes")
+    void deveRemoverResumoJuntoComAReceita() {
+        // Arrange
+        receitaInsumoService.criarAssociacao(receitaId, farinhaId, new BigDecimal("300.00"));
+
+        // Act
+        jdbcTemplate.update("DELETE FROM tb_receitas WHERE id = ?", receitaId);
+
+        // Assert
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_resumo_custo_receita_insumo WHERE receita_id = ?", Integer.class, receitaId));
+        assertEquals("Nenhuma receita encontrada pelo id informado.", assertThrows(EmpreendedorErrorException.class,
+                () -> receitaService.obterResumoDoCustoDaReceita(receitaId)).getMessage());
+    }
+
+    private void assertResumoIgualAoRecalculado() {
+        Map<String, Object> esperado = jdbcTemplate.queryForMap(
+                "SELECT COALESCE(SUM(valor_gasto_insumo), 0) AS total, COUNT(*) AS quantidade " +
+                "FROM tb_receita_insumo WHERE receita_id = ?", receitaId);
+        List<Map<String, Object>> insumosEsperados = jdbcTemplate.queryForList(
+                "SELECT ri.insumo_id, i.nome, ri.valor_gasto_insumo FROM tb_receita_insumo ri " +
+                "JOIN tb_insumos i ON i.id = ri.insumo_id WHERE ri.receita_id = ? " +
+                "ORDER BY ri.valor_gasto_insumo DESC, ri.insumo_id", receitaId);
+
+        ResumoCustoReceitaDto resumo = receitaService.obterResumoDoCustoDaReceita(receitaId);
+
+        assertEquals(0, ((BigDecimal) esperado.get("TOTAL")).compareTo(resumo.getTotalGastoInsumos()));
+        assertEquals(((Number) esperado.get("QUANTIDADE")).intValue(), resumo.getQuantidadeDeInsumos());
+        assertEquals(insumosEsperados.size(), resumo.getInsumos().size());
+        for (int i = 0; i < insumosEsperados.size(); i++) {
+            Map<String, Object> insumoEsperado = insumosEsperados.get(i);
+            CustoDoInsumoNaReceitaDto insumo = resumo.getInsumos().get(i);
+            assertEquals(((Number) insumoEsperado.get("INSUMO_ID")).longValue(), insumo.getInsumoId());
+            assertEquals(insumoEsperado.get("NOME"), insumo.getInsumoNome());
+            assertEquals(0, ((BigDecimal) insumoEsperado.get("VALOR_GASTO_INSUMO")).compareTo(insumo.getValorGastoInsumo()));
+        }
+        if (!insumosEsperados.isEmpty()) {
+            assertEquals(resumo.getInsumos().get(0).getInsumoId(), resumo.getInsumoMaisCaro().getInsumoId());
+            assertEquals(resumo.getInsumos().get(0).getInsumoNome(), resumo.getInsumoMaisCaro().getInsumoNome());
+        }
+    }
+
+    private Long criarInsumo(String nome, int quantidadePorPacote, String valorPagoPorPacote) {
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, ?, ?)",
+                nome, quantidadePorPacote, new BigDecimal(valorPagoPorPacote));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+    }
+
+    private ReceitaInsumoDto criarItem(Long insumoId, String quantidadeUtilizadaInsumo) {
+        ReceitaInsumoDto item = new ReceitaInsumoDto();
+        item.setInsumoId(insumoId);
+        item.setQuantidadeUtilizadaInsumo(new BigDecimal(quantidadeUtilizadaInsumo));
+        return item;
+    }
+}
@@ -0,0 +1,144 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.dtos.SimulacaoDeCustoDaReceitaDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class SimulacaoDePrecosIntegrationTest {
+
+    private static final String CONSULTA_DOS_VALORES_GRAVADOS =
+            " SELECT (SELECT SUM(total_gasto_insumos) FROM tb_receitas) AS totais, " +
+            " (SELECT SUM(valor_gasto_insumo) FROM tb_receita_insumo) AS insumos, " +
+            " (SELECT SUM(valor_gasto_subreceita) FROM tb_receita_subreceita) AS subreceitas ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SimulacaoDePrecosService simulacaoDePrecosService;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    @Autowired
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
+    @Test
+    @DisplayName("Deve simular os totais sem gravar e chegar aos mesmos valores da atualização dos insumos")
+    void deveSimularOsMesmosTotaisDaAtualizacaoSemGravar() {
+        // Arrange
+        Long farinha = inserirInsumo("Farinha simulada", "1000.00", "10.00");
+        Long queijo = inserirInsumo("Queijo simulado", "1000.00", "40.00");
+        Long massa = inserirReceita("Massa simulada");
+        Long pizza = inserirReceita("Pizza simulada");
+        Long rodizio = inserirReceita("Rodízio simulado");
+        Long salada = inserirReceita("Salada simulada");
+        receitaInsumoService.criarAssociacao(massa, farinha, new BigDecimal("333.00"));
+        receitaInsumoService.criarAssociacao(pizza, queijo, new BigDecimal("250.00"));
+        receitaInsumoService.criarAssociacao(salada, queijo, new BigDecimal("10.00"));
+        receitaSubreceitaService.criarSubreceita(pizza, massa, new BigDecimal("0.75"));
+        receitaSubreceitaService.criarSubreceita(rodizio, pizza, new BigDecimal("3.00"));
+        receitaSubreceitaService.criarSubreceita(rodizio, massa, new BigDecimal("1.00"));
+
+        List<InsumoDto> precosSimulados = List.of(
+                montarPreco(farinha, "Farinha simulada", "700.00", "13.99"),
+                montarPreco(queijo, "Queijo simulado", "1000.00", "52.00"));
+        Map<String, Object> valoresAntes = jdbcTemplate.queryForMap(CONSULTA_DOS_VALORES_GRAVADOS);
+
+        // Act
+        List<SimulacaoDeCustoDaReceitaDto> simulacoes = simulacaoDePrecosService.simularPrecos(precosSimulados);
+
+        // Assert
+        assertEquals(valoresAntes, jdbcTemplate.queryForMap(CONSULTA_DOS_VALORES_GRAVADOS));
+        assertEquals(List.of(rodizio, pizza, massa, salada),
+                simulacoes.stream().map(SimulacaoDeCustoDaReceitaDto::getReceitaId).toList());
+
+        precosSimulados.forEach(preco -> insumoService.atualizarInsumo(preco.getId(), preco));
+        for (SimulacaoDeCustoDaReceitaDto simulacao : simulacoes) {
+            assertEquals(obterTotal(simulacao.getReceitaId()), simulacao.getTotalSimulado());
+            assertEquals(simulacao.getTotalSimulado().subtract(simulacao.getTotalAtual()), simulacao.getDiferenca());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve deixar de fora as receitas que não usam os insumos simulados nem as suas sub-receitas")
+    void deveDeixarDeForaReceitasNaoAfetadas() {
+        // Arrange
+        Long acucar = inserirInsumo("Açúcar simulado", "1000.00", "6.00");
+        Long sal = inserirInsumo("Sal simulado", "1000.00", "2.00");
+        Long bolo = inserirReceita("Bolo simulado");
+        Long pao = inserirReceita("Pão simulado");
+        receitaInsumoService.criarAssociacao(bolo, acucar, new BigDecimal("200.00"));
+        receitaInsumoService.criarAssociacao(pao, sal, new BigDecimal("20.00"));
+
+        // Act
+        List<SimulacaoDeCustoDaReceitaDto> simulacoes = simulacaoDePrecosService.simularPrecos(
+                List.of(montarPreco(acucar, null, "1000.00", "9.00")));
+
+        // Assert
+        assertEquals(1, simulacoes.size());
+        assertEquals(bolo, simulacoes.get(0).getReceitaId());
+        assertEquals(new BigDecimal("1.20"), simulacoes.get(0).getTotalAtual());
+        assertEquals(new BigDecimal("1.80"), simulacoes.get(0).getTotalSimulado());
+        assertEquals(new BigDecimal("0.60"), simulacoes.get(0).getDiferenca());
+    }
+
+    @Test
+    @DisplayName("Deve recusar insumos repetidos ou não cadastrados")
+    void deveRecusarInsumosRepetidosOuNaoCadastrados() {
+        // Arrange
+        Long acucar = inserirInsumo("Açúcar recusado", "1000.00", "6.00");
+        InsumoDto preco = montarPreco(acucar, null, "1000.00", "9.00");
+
+        // Act & Assert
+        assertThrows(EmpreendedorErrorException.class, () -> simulacaoDePrecosService.simularPrecos(List.of()));
+        assertThrows(EmpreendedorErrorException.class,
+                () -> simulacaoDePrecosService.simularPrecos(List.of(preco, preco)));
+        EmpreendedorErrorException excecao = assertThrows(EmpreendedorErrorException.class,
+                () -> simulacaoDePrecosService.simularPrecos(List.of(preco,
+                        montarPreco(acucar + 1000, null, "1000.00", "9.00"))));
+        assertTrue(excecao.getMessage().contains(String.valueOf(acucar + 1000)));
+    }
+
+    private InsumoDto montarPreco(Long insumoId, String nome, String quantidadePorPacote, String valorPagoPorPacote) {
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setId(insumoId);
+        insumoDto.setNome(nome);
+        insumoDto.setQuantidadePorPacote(Double.valueOf(quantidadePorPacote));
+        insumoDto.setValorPagoPorPacote(new BigDecimal(valorPagoPorPacote));
+        return insumoDto;
+    }
+
+    private BigDecimal obterTotal(Long receitaId) {
+        return jdbcTemplate.queryForObject("SELECT total_gasto_insumos FROM tb_receitas WHERE id = ?",
+                BigDecimal.class, receitaId);
+    }
+
+    private Long inserirInsumo(String nome, String quantidadePorPacote, String valorPagoPorPacote) {
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, ?, ?)",
+                nome, new BigDecimal(quantidadePorPacote), new BigDecimal(valorPagoPorPacote));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+    }
+
+    private Long inserirReceita(String nome) {
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome) VALUES (?)", nome);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+    }
+}
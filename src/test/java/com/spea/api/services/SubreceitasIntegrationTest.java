@@ -0,0 +1,192 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.InsumoDto;
+import com.spea.api.exceptions.EmpreendedorErrorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class SubreceitasIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReceitaSubreceitaService receitaSubreceitaService;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    @Test
+    @DisplayName("Deve propagar a alteração de preço de um insumo por vários níveis de sub-receitas")
+    void devePropagarAlteracaoDePrecoPorVariosNiveis() {
+        // Arrange
+        Long insumoId = inserirInsumo("Farinha sub", new BigDecimal("1000.00"), new BigDecimal("10.00"));
+        Long massa = inserirReceita("Massa");
+        Long pizza = inserirReceita("Pizza");
+        Long combo = inserirReceita("Combo");
+
+        receitaInsumoService.criarAssociacao(massa, insumoId, new BigDecimal("500.00"));
+        receitaSubreceitaService.criarSubreceita(pizza, massa, new BigDecimal("0.50"));
+        receitaSubreceitaService.criarSubreceita(combo, pizza, new BigDecimal("2.00"));
+
+        // Act
+        atualizarPreco(insumoId, "Farinha sub", new BigDecimal("20.00"));
+
+        // Assert
+        assertEquals(new BigDecimal("10.00"), obterTotal(massa));
+        assertEquals(new BigDecimal("5.00"), obterTotal(pizza));
+        assertEquals(new BigDecimal("10.00"), obterTotal(combo));
+        assertEquals(new BigDecimal("10.00"), obterValorGasto(combo, pizza));
+    }
+
+    @Test
+    @DisplayName("Deve recalcular uma única vez a receita que recebe a mesma sub-receita por dois caminhos")
+    void deveRecalcularReceitaEmLosango() {
+        // Arrange
+        Long insumoId = inserirInsumo("Manteiga sub", new BigDecimal("100.00"), new BigDecimal("8.00"));
+        Long base = inserirReceita("Base");
+        Long esquerda = inserirReceita("Esquerda");
+        Long direita = inserirReceita("Direita");
+        Long topo = inserirReceita("Topo");
+
+        receitaInsumoService.criarAssociacao(base, insumoId, new BigDecimal("50.00"));
+        receitaSubreceitaService.criarSubreceita(esquerda, base, new BigDecimal("1.00"));
+        receitaSubreceitaService.criarSubreceita(direita, base, new BigDecimal("0.25"));
+        receitaSubreceitaService.criarSubreceita(topo, esquerda, new BigDecimal("1.00"));
+        receitaSubreceitaService.criarSubreceita(topo, direita, new BigDecimal("1.00"));
+        receitaSubreceitaService.criarSubreceita(topo, base, new BigDecimal("1.00"));
+
+        // Act
+        atualizarPreco(insumoId, "Manteiga sub", new BigDecimal("16.00"));
+
+        // Assert
+        assertEquals(new BigDecimal("8.00"), obterTotal(base));
+        assertEquals(new BigDecimal("8.00"), obterTotal(esquerda));
+        assertEquals(new BigDecimal("2.00"), obterTotal(direita));
+        assertEquals(new BigDecimal("18.00"), obterTotal(topo));
+    }
+
+    @Test
+    @DisplayName("Deve manter os totais corretos em uma cadeia longa com ramificações")
+    void deveManterTotaisEmCadeiaLongaComRamificacoes() {
+        // Arrange
+        Long insumoId = inserirInsumo("Sal sub", new BigDecimal("1000.00"), new BigDecimal("1.00"));
+        List<Long> cadeia = new ArrayList<>();
+        cadeia.add(inserirReceita("Nível 0"));
+        receitaInsumoService.criarAssociacao(cadeia.get(0), insumoId, new BigDecimal("1000.00"));
+        for (int i = 1; i <= 25; i++) {
+            Long receitaId = inserirReceita("Nível " + i);
+            receitaSubreceitaService.criarSubreceita(receitaId, cadeia.get(i - 1), new BigDecimal("1.00"));
+            if (i >= 2) {
+                receitaSubreceitaService.criarSubreceita(receitaId, cadeia.get(i - 2), new BigDecimal("1.00"));
+            }
+            cadeia.add(receitaId);
+        }
+
+        // Act
+        atualizarPreco(insumoId, "Sal sub", new BigDecimal("2.00"));
+
+        // Assert
+        BigDecimal anterior = new BigDecimal("2.00");
+        BigDecimal atual = new BigDecimal("4.00");
+        assertEquals(anterior, obterTotal(cadeia.get(0)));
+        assertEquals(anterior, obterTotal(cadeia.get(1)));
+        for (int i = 2; i <= 25; i++) {
+            assertEquals(atual, obterTotal(cadeia.get(i)));
+            BigDecimal proximo = atual.add(anterior);
+            anterior = atual;
+            atual = proximo;
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recusar ligações que formariam um ciclo")
+    void deveRecusarLigacoesQueFormariamCiclo() {
+        // Arrange
+        Long a = inserirReceita("A");
+        Long b = inserirReceita("B");
+        Long c = inserirReceita("C");
+        receitaSubreceitaService.criarSubreceita(a, b, new BigDecimal("1.00"));
+        receitaSubreceitaService.criarSubreceita(b, c, new BigDecimal("1.00"));
+
+        // Act & Assert
+        assertThrows(EmpreendedorErrorException.class,
+                () -> receitaSubreceitaService.criarSubreceita(b, a, new BigDecimal("1.00")));
+        assertThrows(EmpreendedorErrorException.class,
+                () -> receitaSubreceitaService.criarSubreceita(c, a, new BigDecimal("1.00")));
+        assertThrows(EmpreendedorErrorException.class,
+                () -> receitaSubreceitaService.criarSubreceita(a, a, new BigDecimal("1.00")));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_receita_subreceita WHERE receita_id IN (?, ?, ?)", Integer.class, a, b, c));
+    }
+
+    @Test
+    @DisplayName("Deve abater o custo da sub-receita removida e propagar às receitas acima")
+    void deveAbaterCustoDaSubreceitaRemovida() {
+        // Arrange
+        Long insumoId = inserirInsumo("Ovo sub", new BigDecimal("12.00"), new BigDecimal("12.00"));
+        Long creme = inserirReceita("Creme");
+        Long torta = inserirReceita("Torta");
+        Long festa = inserirReceita("Festa");
+        receitaInsumoService.criarAssociacao(creme, insumoId, new BigDecimal("3.00"));
+        receitaInsumoService.criarAssociacao(torta, insumoId, new BigDecimal("2.00"));
+        receitaSubreceitaService.criarSubreceita(torta, creme, new BigDecimal("1.00"));
+        receitaSubreceitaService.criarSubreceita(festa, torta, new BigDecimal("3.00"));
+
+        // Act
+        receitaSubreceitaService.removerSubreceita(torta, creme);
+
+        // Assert
+        assertEquals(new BigDecimal("2.00"), obterTotal(torta));
+        assertEquals(new BigDecimal("6.00"), obterTotal(festa));
+        assertEquals(new BigDecimal("6.00"), jdbcTemplate.queryForObject(
+                "SELECT total_gasto_insumos FROM tb_resumo_custo_receita WHERE receita_id = ?", BigDecimal.class, festa)
+                .setScale(2, RoundingMode.HALF_EVEN));
+    }
+
+    private void atualizarPreco(Long insumoId, String nome, BigDecimal valorPagoPorPacote) {
+        InsumoDto insumoDto = new InsumoDto();
+        insumoDto.setNome(nome);
+        insumoDto.setQuantidadePorPacote(jdbcTemplate.queryForObject(
+                "SELECT quantidade_por_pacote FROM tb_insumos WHERE id = ?", Double.class, insumoId));
+        insumoDto.setValorPagoPorPacote(valorPagoPorPacote);
+        insumoService.atualizarInsumo(insumoId, insumoDto);
+    }
+
+    private BigDecimal obterTotal(Long receitaId) {
+        return jdbcTemplate.queryForObject("SELECT total_gasto_insumos FROM tb_receitas WHERE id = ?",
+                BigDecimal.class, receitaId).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private BigDecimal obterValorGasto(Long receitaId, Long subreceitaId) {
+        return jdbcTemplate.queryForObject("SELECT valor_gasto_subreceita FROM tb_receita_subreceita " +
+                "WHERE receita_id = ? AND subreceita_id = ?", BigDecimal.class, receitaId, subreceitaId);
+    }
+
+    private Long inserirInsumo(String nome, BigDecimal quantidadePorPacote, BigDecimal valorPagoPorPacote) {
+        jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, ?, ?)",
+                nome, quantidadePorPacote, valorPagoPorPacote);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class);
+    }
+
+    private Long inserirReceita(String nome) {
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome) VALUES (?)", nome);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+    }
+}
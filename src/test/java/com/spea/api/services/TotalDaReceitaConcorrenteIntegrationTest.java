@@ -0,0 +1,181 @@
+package com.spea.api.services;
+
+import com.spea.api.dtos.InsumoDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sem @Transactional: cada chamada ao serviço precisa confirmar a própria transação para concorrer com as demais.
+@SpringBootTest
+class TotalDaReceitaConcorrenteIntegrationTest {
+
+    private static final int QUANTIDADE_DE_THREADS = 16;
+    private static final int INSUMOS_POR_THREAD = 6;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReceitaInsumoService receitaInsumoService;
+
+    @Autowired
+    private InsumoService insumoService;
+
+    private Long receitaId;
+    private final List<Long> insumoIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tb_receitas (nome, total_gasto_insumos) VALUES ('Receita concorrida', 0.00)");
+        receitaId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_receitas", Long.class);
+
+        for (int i = 0; i < QUANTIDADE_DE_THREADS * INSUMOS_POR_THREAD; i++) {
+            jdbcTemplate.update("INSERT INTO tb_insumos (nome, quantidade_por_pacote, valor_pago_por_pacote) VALUES (?, ?, ?)",
+                    "Insumo concorrente " + i, 100 + i % 7, new BigDecimal("3.37").add(BigDecimal.valueOf(i % 5)));
+            insumoIds.add(jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_insumos", Long.class));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tb_receitas WHERE id = ?", receitaId);
+        for (Long insumoId : insumoIds) {
+            jdbcTemplate.update("DELETE FROM tb_insumos WHERE id = ?", insumoId);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter o total da receita igual à soma das associações sob alterações simultâneas")
+    void deveManterTotalIgualASomaDasAssociacoesSobConcorrencia() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(QUANTIDADE_DE_THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int t = 0; t < QUANTIDADE_DE_THREADS; t++) {
+            List<Long> insumosDaThread = insumoIds.subList(t * INSUMOS_POR_THREAD, (t + 1) * INSUMOS_POR_THREAD);
+            int thread = t;
+
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < insumosDaThread.size(); i++) {
+                    Long insumoId = insumosDaThread.get(i);
+                    receitaInsumoService.criarAssociacao(receitaId, insumoId, new BigDecimal("10.00").add(BigDecimal.valueOf(i)));
+                    receitaInsumoService.atualizarQuantidadeUtilizadaInsumo(receitaId, insumoId,
+                            new BigDecimal("7.50").add(BigDecimal.valueOf(thread)));
+                }
+                // Cada thread também remove um dos próprios insumos, abatendo o valor do total.
+                insumoService.deletarInsumo(insumosDaThread.get(0));
+                return null;
+            }));
+        }
+
+        // Act
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        BigDecimal total = jdbcTemplate.queryForObject(
+                "SELECT total_gasto_insumos FROM tb_receitas WHERE id = ?", BigDecimal.class, receitaId);
+        BigDecimal somaDasAssociacoes = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(valor_gasto_insumo), 0) FROM tb_receita_insumo WHERE receita_id = ?",
+                BigDecimal.class, receitaId);
+        Integer quantidadeDeAssociacoes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_receita_insumo WHERE receita_id = ?", Integer.class, receitaId);
+
+        assertEquals(QUANTIDADE_DE_THREADS * (INSUMOS_POR_THREAD - 1), quantidadeDeAssociacoes);
+        assertEquals(0, somaDasAssociacoes.compareTo(total), "total " + total + " soma " + somaDasAssociacoes);
+    }
+
+    @Test
+    @DisplayName("Deve recalcular o preço do insumo enquanto a quantidade utilizada muda, sem travar e sem perder diferenças")
+    void deveRecalcularPrecoEnquantoAQuantidadeMuda() throws Exception {
+        // Arrange
+        List<Long> insumosDaReceita = insumoIds.subList(0, INSUMOS_POR_THREAD);
+        for (Long insumoId : insumosDaReceita) {
+            receitaInsumoService.criarAssociacao(receitaId, insumoId, new BigDecimal("10.00"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(QUANTIDADE_DE_THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int t = 0; t < QUANTIDADE_DE_THREADS; t++) {
+            int thread = t;
+
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < insumosDaReceita.size(); i++) {
+                    Long insumoId = insumosDaReceita.get((thread + i) % insumosDaReceita.size());
+                    // Metade das threads muda o preço do insumo e a outra metade a quantidade utilizada na receita.
+                    if (thread % 2 == 0) {
+                        InsumoDto insumoDto = new InsumoDto();
+                        insumoDto.setNome("Insumo concorrente " + insumoId);
+                        insumoDto.setQuantidadePorPacote(100.0 + thread);
+                        insumoDto.setValorPagoPorPacote(new BigDecimal("4.19").add(BigDecimal.valueOf(i)));
+                        insumoService.atualizarInsumo(insumoId, insumoDto);
+                    } else {
+                        receitaInsumoService.atualizarQuantidadeUtilizadaInsumo(receitaId, insumoId,
+                                new BigDecimal("12.50").add(BigDecimal.valueOf(thread)));
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        BigDecimal total = jdbcTemplate.queryForObject(
+                "SELECT total_gasto_insumos FROM tb_receitas WHERE id = ?", BigDecimal.class, receitaId);
+        BigDecimal somaDasAssociacoes = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(valor_gasto_insumo), 0) FROM tb_receita_insumo WHERE receita_id = ?",
+                BigDecimal.class, receitaId);
+
+        assertEquals(0, somaDasAssociacoes.compareTo(total), "total " + total + " soma " + somaDasAssociacoes);
+    }
+
+    @Test
+    @DisplayName("Deve impedir que o total fique negativo ao abater valores no banco")
+    void deveImpedirTotalNegativoAoAbaterValores() {
+        // Arrange
+        Long insumoId = insumoIds.get(0);
+        jdbcTemplate.update("INSERT INTO tb_receita_insumo (insumo_id, receita_id, quantidade_utilizada_insumo, valor_gasto_insumo) " +
+                "VALUES (?, ?, 100.00, 15.00)", insumoId, receitaId);
+        jdbcTemplate.update("UPDATE tb_receitas SET total_gasto_insumos = 10.00 WHERE id = ?", receitaId);
+
+        // Act
+        receitaInsumoService.atualizarQuantidadeUtilizadaInsumo(receitaId, insumoId, new BigDecimal("1.00"));
+        BigDecimal totalAposAtualizar = jdbcTemplate.queryForObject(
+                "SELECT total_gasto_insumos FROM tb_receitas WHERE id = ?", BigDecimal.class, receitaId);
+
+        jdbcTemplate.update("UPDATE tb_receitas SET total_gasto_insumos = 0.01 WHERE id = ?", receitaId);
+        insumoService.deletarInsumo(insumoId);
+        BigDecimal totalAposDeletar = jdbcTemplate.queryForObject(
+                "SELECT total_gasto_insumos FROM tb_receitas WHERE id = ?", BigDecimal.class, receitaId);
+
+        // Assert
+        // 10.00 - 15.00 → 0.00, somado ao novo valor gasto (1.00 * 3.37 / 100 = 0.03)
+        assertEquals(0, new BigDecimal("0.03").compareTo(totalAposAtualizar));
+        assertEquals(0, BigDecimal.ZERO.compareTo(totalAposDeletar));
+    }
+}
@@ -0,0 +1,83 @@
+package com.spea.api.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmostragemDeLogsTurboFilterTest {
+
+    private LoggerContext contexto;
+
+    @BeforeEach
+    void setUp() {
+        contexto = new LoggerContext();
+        contexto.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.DEBUG);
+    }
+
+    @Test
+    @DisplayName("Deve manter um a cada N eventos da categoria e todos das demais")
+    void deveManterUmACadaNEventosDaCategoria() {
+        // Arrange
+        AmostragemDeLogsTurboFilter filtro = criarFiltro("com.spea.api.utils.LogUtil.sucesso=3");
+        Logger sucesso = contexto.getLogger("com.spea.api.utils.LogUtil.sucesso");
+        Logger inicio = contexto.getLogger("com.spea.api.utils.LogUtil.inicio");
+
+        // Act
+        int mantidos = 0;
+        int mantidosSemAmostragem = 0;
+        for (int i = 0; i < 9; i++) {
+            if (filtro.decide(null, sucesso, Level.INFO, "evento {}", null, null) == FilterReply.NEUTRAL) {
+                mantidos++;
+            }
+            if (filtro.decide(null, inicio, Level.INFO, "evento {}", null, null) == FilterReply.NEUTRAL) {
+                mantidosSemAmostragem++;
+            }
+        }
+
+        // Assert
+        assertEquals(3, mantidos);
+        assertEquals(9, mantidosSemAmostragem);
+    }
+
+    @Test
+    @DisplayName("Não deve descartar erros nem contar consultas de nível")
+    void naoDeveDescartarErrosNemContarConsultasDeNivel() {
+        // Arrange
+        AmostragemDeLogsTurboFilter filtro = criarFiltro("com.spea.api.utils.LogUtil=100");
+        Logger erro = contexto.getLogger("com.spea.api.utils.LogUtil.erro");
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(null, erro, Level.ERROR, "erro {}", null, null));
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(null, erro, Level.INFO, null, null, null));
+        }
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(null, erro, Level.INFO, "primeiro evento", null, null));
+        assertEquals(FilterReply.DENY, filtro.decide(null, erro, Level.INFO, "segundo evento", null, null));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar itens de amostragem inválidos")
+    void deveIgnorarItensInvalidos() {
+        // Arrange
+        AmostragemDeLogsTurboFilter filtro = criarFiltro("sem-taxa, com.spea=abc");
+        Logger logger = contexto.getLogger("com.spea.api");
+
+        // Act & Assert
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(null, logger, Level.INFO, "evento", null, null));
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(null, logger, Level.INFO, "evento", null, null));
+    }
+
+    private AmostragemDeLogsTurboFilter criarFiltro(String amostragem) {
+        AmostragemDeLogsTurboFilter filtro = new AmostragemDeLogsTurboFilter();
+        filtro.setContext(contexto);
+        filtro.setAmostragem(amostragem);
+        filtro.start();
+        return filtro;
+    }
+}
@@ -0,0 +1,161 @@
+package com.spea.api.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Propriedades verificadas contra o cálculo em BigDecimal de ReceitaInsumoService, com entradas geradas a partir de
+ * sementes fixas para que uma falha se repita. Cada caso gerado que diverge aparece na mensagem com as entradas.
+ */
+class CustoEmPontoFixoUtilTest {
+
+    private static final int QUANTIDADE_DE_CASOS = 200_000;
+
+    @Test
+    @DisplayName("Deve calcular o mesmo preço por unidade e o mesmo valor gasto do cálculo em BigDecimal")
+    void deveCalcularOMesmoResultadoDoCalculoEmBigDecimal() {
+        SplittableRandom aleatorio = new SplittableRandom(20240601L);
+
+        for (int i = 0; i < QUANTIDADE_DE_CASOS; i++) {
+            // Arrange
+            Double quantidadePorPacote = gerarQuantidadePorPacote(aleatorio);
+            BigDecimal valorPagoPorPacote = gerarDecimalPositivo(aleatorio);
+            BigDecimal quantidadeUtilizadaInsumo = gerarDecimalPositivo(aleatorio);
+
+            // Act
+            BigDecimal precoEsperado = calcularPrecoEmBigDecimal(quantidadePorPacote, valorPagoPorPacote);
+            if (precoEsperado.unscaledValue().bitLength() > 63) {
+                // O preço em milionésimos não cabe em um long: o cálculo deve recusar em vez de truncar.
+                assertThrows(ArithmeticException.class, () -> CustoEmPontoFixoUtil
+                        .calcularPrecoPorUnidadeEmMilionesimos(quantidadePorPacote, valorPagoPorPacote));
+                continue;
+            }
+            long preco = CustoEmPontoFixoUtil.calcularPrecoPorUnidadeEmMilionesimos(quantidadePorPacote, valorPagoPorPacote);
+            BigDecimal valorGasto = CustoEmPontoFixoUtil.calcularValorGasto(preco, quantidadeUtilizadaInsumo);
+
+            // Assert
+            BigDecimal valorGastoEsperado = precoEsperado.multiply(quantidadeUtilizadaInsumo).setScale(2, RoundingMode.HALF_EVEN);
+            if (precoEsperado.unscaledValue().longValueExact() != preco || !valorGastoEsperado.equals(valorGasto)) {
+                fail(String.format("quantidadePorPacote=%s valorPagoPorPacote=%s quantidadeUtilizadaInsumo=%s: " +
+                                "esperado %s e %s, obtido %d e %s", quantidadePorPacote, valorPagoPorPacote.toPlainString(),
+                        quantidadeUtilizadaInsumo.toPlainString(), precoEsperado, valorGastoEsperado, preco, valorGasto));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve calcular em long todo valor gasto que cabe na coluna DECIMAL(10,2)")
+    void deveCalcularValoresDasColunasEmLong() {
+        SplittableRandom aleatorio = new SplittableRandom(11L);
+
+        for (int i = 0; i < QUANTIDADE_DE_CASOS; i++) {
+            // Arrange
+            BigDecimal quantidadePorPacote = BigDecimal.valueOf(aleatorio.nextLong(1, 10_000_000_000L) / 100.0);
+            long valorPagoPorPacote = aleatorio.nextLong(1, 10_000_000_000L);
+            long quantidadeUtilizadaInsumo = aleatorio.nextLong(1, 10_000_000_000L);
+
+            // Act
+            long preco = CustoEmPontoFixoUtil.dividirEmMilionesimos(valorPagoPorPacote, 2,
+                    quantidadePorPacote.unscaledValue().longValueExact(), quantidadePorPacote.scale());
+            // Preço (6 casas) * quantidade (2 casas) acima de 10^16 passaria de 99999999.99 na coluna valor_gasto_insumo.
+            if (preco > 0 && quantidadeUtilizadaInsumo > 10_000_000_000_000_000L / preco) {
+                continue;
+            }
+            long valorGasto = CustoEmPontoFixoUtil.calcularValorGastoEmCentavos(preco, quantidadeUtilizadaInsumo, 2);
+
+            // Assert
+            assertNotEquals(CustoEmPontoFixoUtil.NAO_REPRESENTAVEL, preco);
+            assertNotEquals(CustoEmPontoFixoUtil.NAO_REPRESENTAVEL, valorGasto);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve arredondar metades para o centavo par como o BigDecimal")
+    void deveArredondarMetadesParaOPar() {
+        // Act & Assert
+        // 0.005000 * 1 = 0.005 → 0.00; 0.015000 * 1 = 0.015 → 0.02; 0.025000 * 1 = 0.025 → 0.02
+        assertEquals(new BigDecimal("0.00"), CustoEmPontoFixoUtil.calcularValorGasto(5_000L, BigDecimal.ONE));
+        assertEquals(new BigDecimal("0.02"), CustoEmPontoFixoUtil.calcularValorGasto(15_000L, BigDecimal.ONE));
+        assertEquals(new BigDecimal("0.02"), CustoEmPontoFixoUtil.calcularValorGasto(25_000L, BigDecimal.ONE));
+
+        // 0.0000005 por unidade fica 0.000000 e 0.0000015 fica 0.000002
+        assertEquals(0L, CustoEmPontoFixoUtil.calcularPrecoPorUnidadeEmMilionesimos(2_000_000.0, BigDecimal.ONE));
+        assertEquals(2L, CustoEmPontoFixoUtil.calcularPrecoPorUnidadeEmMilionesimos(2_000_000.0, new BigDecimal("3")));
+    }
+
+    @Test
+    @DisplayName("Deve dividir inteiros com HALF_EVEN em todas as combinações de sinal")
+    void deveDividirComHalfEvenEmTodosOsSinais() {
+        SplittableRandom aleatorio = new SplittableRandom(7L);
+
+        for (int i = 0; i < QUANTIDADE_DE_CASOS; i++) {
+            // Arrange
+            long dividendo = aleatorio.nextBoolean() ? aleatorio.nextLong() : aleatorio.nextLong(-1_000, 1_000);
+            long divisor = aleatorio.nextBoolean() ? aleatorio.nextLong() : aleatorio.nextLong(-20, 20);
+            if (divisor == 0 || (dividendo == Long.MIN_VALUE && divisor == -1)) {
+                continue;
+            }
+
+            // Act
+            long resultado = CustoEmPontoFixoUtil.dividirArredondandoParaOPar(dividendo, divisor);
+
+            // Assert
+            long esperado = new BigDecimal(dividendo).divide(new BigDecimal(divisor), 0, RoundingMode.HALF_EVEN).longValueExact();
+            assertEquals(esperado, resultado, () -> dividendo + " / " + divisor);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve voltar ao BigDecimal quando os valores intermediários não cabem em um long")
+    void deveVoltarAoBigDecimalQuandoNaoCouberEmLong() {
+        // Arrange
+        Double quantidadeComMuitasCasas = 0.1 + 0.2;
+        BigDecimal valorComMuitosDigitos = new BigDecimal("12345678901234567890.123");
+        BigDecimal quantidadeGrande = new BigDecimal("99999999999999.99");
+
+        // Act
+        long preco = CustoEmPontoFixoUtil.calcularPrecoPorUnidadeEmMilionesimos(quantidadeComMuitasCasas, new BigDecimal("7.77"));
+        long precoDeValorGrande = CustoEmPontoFixoUtil.calcularPrecoPorUnidadeEmMilionesimos(1.0E9, valorComMuitosDigitos);
+        BigDecimal valorGastoGrande = CustoEmPontoFixoUtil.calcularValorGasto(Long.MAX_VALUE / 1_000, quantidadeGrande);
+
+        // Assert
+        assertEquals(calcularPrecoEmBigDecimal(quantidadeComMuitasCasas, new BigDecimal("7.77")).unscaledValue().longValueExact(), preco);
+        assertEquals(calcularPrecoEmBigDecimal(1.0E9, valorComMuitosDigitos).unscaledValue().longValueExact(), precoDeValorGrande);
+        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE / 1_000, 6).multiply(quantidadeGrande).setScale(2, RoundingMode.HALF_EVEN),
+                valorGastoGrande);
+    }
+
+    private static BigDecimal calcularPrecoEmBigDecimal(Double quantidadePorPacote, BigDecimal valorPagoPorPacote) {
+        return valorPagoPorPacote.divide(BigDecimal.valueOf(quantidadePorPacote), 6, RoundingMode.HALF_EVEN);
+    }
+
+    private static Double gerarQuantidadePorPacote(SplittableRandom aleatorio) {
+        return switch (aleatorio.nextInt(4)) {
+            // Como vem da coluna DECIMAL(10,2)
+            case 0 -> aleatorio.nextLong(1, 10_000_000_000L) / 100.0;
+            // Inteiros pequenos, o caso mais comum (gramas, unidades)
+            case 1 -> (double) aleatorio.nextInt(1, 5_000);
+            // Qualquer double positivo, com todas as casas que Double.toString produzir
+            case 2 -> aleatorio.nextDouble() * Math.pow(10, aleatorio.nextInt(-8, 12)) + Double.MIN_NORMAL;
+            default -> Math.pow(10, aleatorio.nextInt(-10, 16));
+        };
+    }
+
+    private static BigDecimal gerarDecimalPositivo(SplittableRandom aleatorio) {
+        return switch (aleatorio.nextInt(4)) {
+            // Como vem das colunas DECIMAL(10,2)
+            case 0 -> BigDecimal.valueOf(aleatorio.nextLong(1, 10_000_000_000L), 2);
+            case 1 -> BigDecimal.valueOf(aleatorio.nextLong(1, 1_000_000L), aleatorio.nextInt(0, 8));
+            // Escala negativa, como em new BigDecimal("1E+3")
+            case 2 -> new BigDecimal(BigInteger.valueOf(aleatorio.nextLong(1, 100_000L)), -aleatorio.nextInt(1, 6));
+            default -> BigDecimal.valueOf(aleatorio.nextLong(1, Long.MAX_VALUE), aleatorio.nextInt(0, 20));
+        };
+    }
+}